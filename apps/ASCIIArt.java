@@ -4,8 +4,17 @@ import java.awt.*;
 import java.awt.event.*;
 import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
 import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
 import java.awt.datatransfer.DataFlavor;
 
 // 文本管理静态内部类
@@ -19,6 +28,7 @@ static class Texts {
     static final String WIDTH_LABEL = "宽度:";
     static final String CHAR_SET_LABEL = "字符集:";
     static final String INVERT_LABEL = "反转";
+    static final String DITHER_LABEL = "抖动";
     static final String DRAG_DROP_HINT = "拖拽图片到此处或点击加载图片";
     static final String STATUS_READY = "请选择图片或输入文本";
     static final String STATUS_SAMPLE_TEXT = "显示示例文本";
@@ -32,6 +42,10 @@ static class Texts {
     static final String STATUS_TEXT_CONVERSION_FAILED = "文本转换失败";
     static final String STATUS_SAVE_FAILED = "保存失败";
     static final String STATUS_COPY_FAILED = "复制失败";
+    static final String STATUS_DECODING_ANIMATION = "正在解码动画: ";
+    static final String STATUS_ANIMATION_CONVERTING = "正在转换 %d 帧...";
+    static final String STATUS_ANIMATION_COMPLETE = "动画转换完成 - %d 帧, 宽度: %d, 字符集: %s, 用时 %d ms";
+    static final String STATUS_ANIMATION_PAUSED = "已暂停 - 第 %d/%d 帧";
 
     // 按钮文本
     static final String LOAD_IMAGE_BUTTON = "📷 加载图片";
@@ -39,6 +53,7 @@ static class Texts {
     static final String CONVERT_BUTTON = "🔄 转换";
     static final String SAVE_BUTTON = "💾 保存";
     static final String COPY_BUTTON = "📋 复制";
+    static final String PLAY_PAUSE_BUTTON = "⏯ 播放";
 
     // 文件对话框
     static final String IMAGE_FILE_FILTER = "图片文件";
@@ -71,7 +86,9 @@ static class Texts {
         • 文本转换：点击"文本转ASCII"按钮输入文本生成大字体ASCII艺术
         • 调整参数：使用宽度滑块调整输出宽度，选择不同的字符集
         • 反转效果：勾选反转选项可以反转黑白效果
-        • 保存结果：点击"保存"按钮将ASCII艺术保存为文本文件
+        • 抖动效果：勾选抖动用误差扩散表现更多灰度层次
+        • 动画GIF：加载动画GIF会逐帧转换并按原帧率播放，点击"播放"暂停/继续
+        • 保存结果：点击"保存"按钮将ASCII艺术保存为文本文件（动画保存当前帧）
         • 复制结果：点击"复制"按钮将结果复制到剪贴板
 
         字符集说明：
@@ -162,6 +179,9 @@ static class ASCIIArt extends JFrame {
     private static final int RADIUS_16 = 16;
     private static final int RADIUS_20 = 20;
 
+    // 动画帧解码时缩小到的最大宽度，宽度滑块最大 200 列，每列取 2 个像素足够
+    private static final int MAX_FRAME_WIDTH = 400;
+
     // ===== 应用状态 =====
     private BufferedImage originalImage;
     private String asciiResult = "";
@@ -171,7 +191,15 @@ static class ASCIIArt extends JFrame {
     private JSlider widthSlider;
     private JComboBox<CharacterSet> charSetCombo;
     private JCheckBox invertCheckBox;
+    private JCheckBox ditherCheckBox;
     private JLabel statusLabel;
+    private JScrollPane asciiScrollPane;
+
+    // 动画模式：解码后的帧（已缩小到够转换用的尺寸），非动画时为 null
+    private List<AnimationFrame> animationFrames;
+    private AsciiPlayer player;
+    private volatile int conversionGeneration; // 参数变化时递增，过期的后台转换直接放弃
+    private int loadGeneration; // 每次加载新内容时递增，解码完成时已过期的 GIF 结果直接丢弃
 
     public ASCIIArt() {
         this.initializeGUI();
@@ -306,6 +334,17 @@ static class ASCIIArt extends JFrame {
         });
         panel.add(invertCheckBox);
 
+        // 抖动选项
+        ditherCheckBox = new JCheckBox(Texts.DITHER_LABEL);
+        ditherCheckBox.setFont(CAPTION1);
+        ditherCheckBox.setBackground(SYSTEM_BACKGROUND);
+        ditherCheckBox.addActionListener((ev) -> {
+            if (originalImage != null) {
+                this.convertToASCII();
+            }
+        });
+        panel.add(ditherCheckBox);
+
         panel.add(Box.createHorizontalStrut(SPACING_16));
 
         // 操作按钮
@@ -322,9 +361,13 @@ static class ASCIIArt extends JFrame {
         var copyBtn = this.createSecondaryButton(Texts.COPY_BUTTON);
         copyBtn.addActionListener((ev) -> this.copyToClipboard());
 
+        var playBtn = this.createSecondaryButton(Texts.PLAY_PAUSE_BUTTON);
+        playBtn.addActionListener((ev) -> this.togglePlayback());
+
         panel.add(convertBtn);
         panel.add(saveBtn);
         panel.add(copyBtn);
+        panel.add(playBtn);
 
         return panel;
     }
@@ -428,10 +471,13 @@ static class ASCIIArt extends JFrame {
         asciiArea.setForeground(new Color(0, 255, 0)); // 亮绿色
         asciiArea.setBorder(BorderFactory.createEmptyBorder(SPACING_12, SPACING_12, SPACING_12, SPACING_12));
 
-        var scrollPane = new JScrollPane(asciiArea);
-        scrollPane.setBorder(BorderFactory.createEmptyBorder());
-        scrollPane.setPreferredSize(new Dimension(580, 400));
-        panel.add(scrollPane, BorderLayout.CENTER);
+        player = new AsciiPlayer();
+        player.setBackground(BLACK);
+
+        asciiScrollPane = new JScrollPane(asciiArea);
+        asciiScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        asciiScrollPane.setPreferredSize(new Dimension(580, 400));
+        panel.add(asciiScrollPane, BorderLayout.CENTER);
 
         return panel;
     }
@@ -464,6 +510,7 @@ static class ASCIIArt extends JFrame {
     }
     
     private void loadSampleText() {
+        this.stopAnimation();
         asciiResult = generateTextASCII("ASCII\nART");
         asciiArea.setText(asciiResult);
         statusLabel.setText(Texts.STATUS_SAMPLE_TEXT);
@@ -480,8 +527,16 @@ static class ASCIIArt extends JFrame {
     }
 
     private void loadImageFromFile(File file) {
+        loadGeneration++;
+        if (file.getName().toLowerCase().endsWith(".gif")) {
+            this.loadAnimation(file);
+            return;
+        }
+
         try {
             originalImage = ImageIO.read(file);
+            if (originalImage == null) throw new IOException(file.getName());
+            this.stopAnimation();
 
             // 缩放图片以适应显示
             var scaledImage = this.scaleImageForDisplay(originalImage, 380, 300);
@@ -517,8 +572,128 @@ static class ASCIIArt extends JFrame {
         return scaled;
     }
     
+    // GIF 在后台解码全部帧；只有一帧时按普通图片处理
+    private void loadAnimation(File file) {
+        int generation = loadGeneration;
+        statusLabel.setText(Texts.STATUS_DECODING_ANIMATION + file.getName());
+        new SwingWorker<List<AnimationFrame>, Void>() {
+            @Override
+            protected List<AnimationFrame> doInBackground() throws IOException {
+                return GifDecoder.read(file, MAX_FRAME_WIDTH);
+            }
+
+            @Override
+            protected void done() {
+                if (generation != loadGeneration) return; // 解码期间已加载了别的内容
+                try {
+                    var frames = get();
+                    if (frames.isEmpty()) throw new IOException(file.getName());
+
+                    originalImage = frames.get(0).image();
+                    imageLabel.setIcon(new ImageIcon(scaleImageForDisplay(originalImage, 380, 300)));
+                    imageLabel.setText("");
+
+                    stopAnimation();
+                    if (frames.size() > 1) {
+                        animationFrames = frames;
+                    }
+                    convertToASCII();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | IOException ex) {
+                    var cause = ex instanceof ExecutionException ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(ASCIIArt.this,
+                        Texts.ERROR_LOAD_IMAGE_FAILED + cause.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                    statusLabel.setText(Texts.STATUS_LOAD_IMAGE_FAILED);
+                }
+            }
+        }.execute();
+    }
+
+    private void stopAnimation() {
+        loadGeneration++;
+        conversionGeneration++;
+        animationFrames = null;
+        player.stop();
+        player.setFrames(List.of());
+        asciiScrollPane.setViewportView(asciiArea);
+    }
+
+    private void togglePlayback() {
+        if (animationFrames == null) return;
+        if (player.isPlaying()) {
+            player.pause();
+            asciiResult = player.currentText();
+            statusLabel.setText(String.format(Texts.STATUS_ANIMATION_PAUSED,
+                player.currentIndex() + 1, player.frameCount()));
+        } else {
+            player.play();
+        }
+    }
+
+    /**
+     * 动画转换：各帧互相独立，并行转换成文本后再并行预渲染成图片，
+     * 播放时只是按帧延迟切换缓存好的图片
+     */
+    private void convertAnimation() {
+        int generation = ++conversionGeneration;
+        var frames = animationFrames;
+        int asciiWidth = widthSlider.getValue();
+        var charSet = (CharacterSet) charSetCombo.getSelectedItem();
+        boolean invert = invertCheckBox.isSelected();
+        boolean dither = ditherCheckBox.isSelected();
+        var font = asciiArea.getFont();
+        var foreground = asciiArea.getForeground();
+        var background = asciiArea.getBackground();
+        statusLabel.setText(String.format(Texts.STATUS_ANIMATION_CONVERTING, frames.size()));
+
+        new SwingWorker<List<RenderedFrame>, Void>() {
+            private long elapsed;
+
+            @Override
+            protected List<RenderedFrame> doInBackground() {
+                long start = System.nanoTime();
+                var rendered = IntStream.range(0, frames.size()).parallel()
+                    .mapToObj(i -> {
+                        if (generation != conversionGeneration) return null;
+                        var frame = frames.get(i);
+                        var text = AsciiConverter.convert(frame.image(), asciiWidth, charSet, invert, dither);
+                        return new RenderedFrame(text, AsciiConverter.render(text, font, foreground, background),
+                            frame.delayMillis());
+                    })
+                    .toList();
+                elapsed = (System.nanoTime() - start) / 1_000_000;
+                return generation == conversionGeneration ? rendered : null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    var rendered = get();
+                    if (rendered == null || generation != conversionGeneration) return;
+                    player.setFrames(rendered);
+                    asciiResult = rendered.get(0).text();
+                    asciiScrollPane.setViewportView(player);
+                    player.play();
+                    statusLabel.setText(String.format(Texts.STATUS_ANIMATION_COMPLETE,
+                        rendered.size(), asciiWidth, charSet.name, elapsed));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(ASCIIArt.this,
+                        Texts.ERROR_CONVERSION_FAILED + ex.getCause().getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                    statusLabel.setText(Texts.STATUS_CONVERSION_FAILED);
+                }
+            }
+        }.execute();
+    }
+
     private void convertToASCII() {
         if (originalImage == null) return;
+        if (animationFrames != null) {
+            this.convertAnimation();
+            return;
+        }
 
         try {
             int asciiWidth = widthSlider.getValue();
@@ -526,6 +701,7 @@ static class ASCIIArt extends JFrame {
             boolean invert = invertCheckBox.isSelected();
 
             asciiResult = this.imageToASCII(originalImage, asciiWidth, charSet, invert);
+            asciiScrollPane.setViewportView(asciiArea);
             asciiArea.setText(asciiResult);
 
             statusLabel.setText(String.format(Texts.STATUS_CONVERSION_COMPLETE,
@@ -538,46 +714,7 @@ static class ASCIIArt extends JFrame {
     }
     
     private String imageToASCII(BufferedImage image, int width, CharacterSet charSet, boolean invert) {
-        // 计算高度，保持宽高比
-        double aspectRatio = (double) image.getHeight() / image.getWidth();
-        int height = (int) (width * aspectRatio * 0.5); // 0.5是字符宽高比调整
-        
-        // 缩放图片
-        var scaledImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        var g2d = scaledImage.createGraphics();
-        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        g2d.drawImage(image, 0, 0, width, height, null);
-        g2d.dispose();
-        
-        var result = new StringBuilder();
-        String chars = charSet.characters;
-        
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int rgb = scaledImage.getRGB(x, y);
-                int gray = getGrayValue(rgb);
-                
-                if (invert) {
-                    gray = 255 - gray;
-                }
-                
-                // 将灰度值映射到字符
-                int charIndex = (gray * (chars.length() - 1)) / 255;
-                result.append(chars.charAt(charIndex));
-            }
-            result.append('\n');
-        }
-        
-        return result.toString();
-    }
-    
-    private int getGrayValue(int rgb) {
-        int r = (rgb >> 16) & 0xFF;
-        int g = (rgb >> 8) & 0xFF;
-        int b = rgb & 0xFF;
-        
-        // 使用加权平均计算灰度
-        return (int) (0.299 * r + 0.587 * g + 0.114 * b);
+        return AsciiConverter.convert(image, width, charSet, invert, ditherCheckBox.isSelected());
     }
     
     private void showTextDialog() {
@@ -586,6 +723,7 @@ static class ASCIIArt extends JFrame {
 
         if (text != null && !text.trim().isEmpty()) {
             try {
+                this.stopAnimation();
                 asciiResult = this.generateTextASCII(text.trim());
                 asciiArea.setText(asciiResult);
                 statusLabel.setText(Texts.STATUS_TEXT_CONVERSION_COMPLETE);
@@ -666,6 +804,7 @@ static class ASCIIArt extends JFrame {
     }
     
     private void saveASCII() {
+        this.syncAnimationResult();
         if (asciiResult.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                 Texts.ERROR_NO_ASCII_TO_SAVE, "提示", JOptionPane.WARNING_MESSAGE);
@@ -696,7 +835,15 @@ static class ASCIIArt extends JFrame {
         }
     }
     
+    // 动画模式下保存/复制的是当前显示的那一帧
+    private void syncAnimationResult() {
+        if (animationFrames != null && player.frameCount() > 0) {
+            asciiResult = player.currentText();
+        }
+    }
+
     private void copyToClipboard() {
+        this.syncAnimationResult();
         if (asciiResult.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                 Texts.ERROR_NO_ASCII_TO_COPY, "提示", JOptionPane.WARNING_MESSAGE);
@@ -781,6 +928,348 @@ static class ASCIIArt extends JFrame {
         JOptionPane.showMessageDialog(this, Texts.HELP_MESSAGE, "帮助", JOptionPane.INFORMATION_MESSAGE);
     }
 
+    // 动画的一帧：合成后的完整画面和显示时长
+    record AnimationFrame(BufferedImage image, int delayMillis) {}
+
+    // 转换并预渲染好的一帧
+    record RenderedFrame(String text, BufferedImage image, int delayMillis) {}
+
+    /**
+     * 图片到ASCII的转换：直接读取 int 像素数组，灰度和字符映射都走查找表
+     */
+    static final class AsciiConverter {
+        // 亮度权重查找表：保存与原来逐像素计算完全相同的乘积，按同样顺序相加后截断，结果逐位一致
+        private static final double[] RED_WEIGHT = new double[256];
+        private static final double[] GREEN_WEIGHT = new double[256];
+        private static final double[] BLUE_WEIGHT = new double[256];
+
+        static {
+            for (int v = 0; v < 256; v++) {
+                RED_WEIGHT[v] = 0.299 * v;
+                GREEN_WEIGHT[v] = 0.587 * v;
+                BLUE_WEIGHT[v] = 0.114 * v;
+            }
+        }
+
+        private AsciiConverter() {}
+
+        static String convert(BufferedImage image, int width, CharacterSet charSet, boolean invert, boolean dither) {
+            // 计算高度，保持宽高比（字符高度约为宽度的2倍）
+            double aspectRatio = (double) image.getHeight() / image.getWidth();
+            int height = Math.max(1, (int) (width * aspectRatio * 0.5));
+
+            var scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            var g2d = scaled.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(image, 0, 0, width, height, null);
+            g2d.dispose();
+
+            int[] pixels = ((DataBufferInt) scaled.getRaster().getDataBuffer()).getData();
+            int[] gray = new int[pixels.length];
+            for (int i = 0; i < pixels.length; i++) {
+                int rgb = pixels[i];
+                int value = (int) (RED_WEIGHT[(rgb >> 16) & 0xFF] + GREEN_WEIGHT[(rgb >> 8) & 0xFF]
+                    + BLUE_WEIGHT[rgb & 0xFF]);
+                gray[i] = invert ? 255 - value : value;
+            }
+
+            var chars = charSet.characters.toCharArray();
+            // 每行末尾一个换行符，直接填充字符数组
+            var out = new char[(width + 1) * height];
+            if (dither) {
+                diffuse(gray, width, height, chars, out);
+            } else {
+                var table = new char[256];
+                for (int v = 0; v < 256; v++) {
+                    table[v] = chars[v * (chars.length - 1) / 255];
+                }
+                for (int y = 0; y < height; y++) {
+                    int row = y * width;
+                    int pos = y * (width + 1);
+                    for (int x = 0; x < width; x++) {
+                        out[pos + x] = table[gray[row + x]];
+                    }
+                    out[pos + width] = '\n';
+                }
+            }
+            return new String(out);
+        }
+
+        // Floyd-Steinberg 误差扩散：量化到字符集的级数，误差按 7/3/5/1 分给相邻像素
+        private static void diffuse(int[] gray, int width, int height, char[] chars, char[] out) {
+            int levels = chars.length - 1;
+            if (levels == 0) {
+                for (int y = 0; y < height; y++) {
+                    int pos = y * (width + 1);
+                    Arrays.fill(out, pos, pos + width, chars[0]);
+                    out[pos + width] = '\n';
+                }
+                return;
+            }
+            // 误差以 1/16 为单位累积，两行滚动使用
+            var current = new int[width + 2];
+            var next = new int[width + 2];
+            for (int y = 0; y < height; y++) {
+                int row = y * width;
+                int pos = y * (width + 1);
+                for (int x = 0; x < width; x++) {
+                    int value = gray[row + x] + current[x + 1] / 16;
+                    int level = Math.max(0, Math.min(levels, (value * levels + 127) / 255));
+                    out[pos + x] = chars[level];
+
+                    int error = value - level * 255 / levels;
+                    current[x + 2] += error * 7;
+                    next[x] += error * 3;
+                    next[x + 1] += error * 5;
+                    next[x + 2] += error;
+                }
+                out[pos + width] = '\n';
+
+                var swap = current;
+                current = next;
+                next = swap;
+                Arrays.fill(next, 0);
+            }
+        }
+
+        /**
+         * 把ASCII文本预渲染成 1 位调色板图片，播放时直接绘制，不再做文本排版
+         */
+        static BufferedImage render(String text, Font font, Color foreground, Color background) {
+            var lines = text.split("\n");
+            var scratch = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_BINARY);
+            var metrics = scratch.getGraphics().getFontMetrics(font);
+            int columns = 0;
+            for (var line : lines) {
+                columns = Math.max(columns, line.length());
+            }
+            int width = Math.max(1, columns * metrics.charWidth('M'));
+            int height = Math.max(1, lines.length * metrics.getHeight());
+
+            var palette = new IndexColorModel(1, 2,
+                new byte[] { (byte) background.getRed(), (byte) foreground.getRed() },
+                new byte[] { (byte) background.getGreen(), (byte) foreground.getGreen() },
+                new byte[] { (byte) background.getBlue(), (byte) foreground.getBlue() });
+            var image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY, palette);
+            var g2d = image.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+            g2d.setFont(font);
+            g2d.setColor(foreground);
+            int y = metrics.getAscent();
+            for (var line : lines) {
+                g2d.drawString(line, 0, y);
+                y += metrics.getHeight();
+            }
+            g2d.dispose();
+            return image;
+        }
+    }
+
+    /**
+     * GIF 逐帧解码，按图形控制扩展里的处置方式合成完整画面
+     */
+    static final class GifDecoder {
+        private static final String IMAGE_FORMAT = "javax_imageio_gif_image_1.0";
+        private static final String STREAM_FORMAT = "javax_imageio_gif_stream_1.0";
+        // 延迟过小的帧按浏览器惯例当作 100ms
+        private static final int MIN_DELAY = 20;
+        private static final int DEFAULT_DELAY = 100;
+
+        private GifDecoder() {}
+
+        static List<AnimationFrame> read(File file, int maxWidth) throws IOException {
+            var frames = new ArrayList<AnimationFrame>();
+            try (var input = ImageIO.createImageInputStream(file)) {
+                var readers = ImageIO.getImageReaders(input);
+                if (!readers.hasNext()) throw new IOException(file.getName());
+                var reader = readers.next();
+                try {
+                    reader.setInput(input, false);
+                    BufferedImage canvas = null;
+                    for (int i = 0; ; i++) {
+                        BufferedImage frame;
+                        try {
+                            frame = reader.read(i);
+                        } catch (IndexOutOfBoundsException ex) {
+                            break; // 没有更多帧
+                        } catch (IOException ex) {
+                            if (frames.isEmpty()) throw ex;
+                            break; // 文件尾部损坏，保留已解码的帧
+                        }
+
+                        var node = imageMetadata(reader, i);
+                        var descriptor = child(node, "ImageDescriptor");
+                        var control = child(node, "GraphicControlExtension");
+                        int left = intAttribute(descriptor, "imageLeftPosition", 0);
+                        int top = intAttribute(descriptor, "imageTopPosition", 0);
+                        int delay = intAttribute(control, "delayTime", 0) * 10;
+                        var disposal = control == null ? "none" : control.getAttribute("disposalMethod");
+
+                        if (canvas == null) {
+                            var screen = screenSize(reader);
+                            canvas = new BufferedImage(Math.max(screen.width, left + frame.getWidth()),
+                                Math.max(screen.height, top + frame.getHeight()), BufferedImage.TYPE_INT_ARGB);
+                        }
+                        var previous = "restoreToPrevious".equals(disposal) ? copy(canvas) : null;
+
+                        var g2d = canvas.createGraphics();
+                        g2d.drawImage(frame, left, top, null);
+                        frames.add(new AnimationFrame(shrink(canvas, maxWidth), delay < MIN_DELAY ? DEFAULT_DELAY : delay));
+
+                        // 显示之后再处置
+                        if ("restoreToBackgroundColor".equals(disposal)) {
+                            g2d.setComposite(AlphaComposite.Clear);
+                            g2d.fillRect(left, top, frame.getWidth(), frame.getHeight());
+                        } else if (previous != null) {
+                            canvas = previous;
+                        }
+                        g2d.dispose();
+                    }
+                } finally {
+                    reader.dispose();
+                }
+            }
+            return frames;
+        }
+
+        private static IIOMetadataNode imageMetadata(ImageReader reader, int index) throws IOException {
+            var metadata = reader.getImageMetadata(index);
+            if (metadata == null || !IMAGE_FORMAT.equals(metadata.getNativeMetadataFormatName())) return null;
+            return (IIOMetadataNode) metadata.getAsTree(IMAGE_FORMAT);
+        }
+
+        private static Dimension screenSize(ImageReader reader) throws IOException {
+            var metadata = reader.getStreamMetadata();
+            if (metadata != null && STREAM_FORMAT.equals(metadata.getNativeMetadataFormatName())) {
+                var screen = child((IIOMetadataNode) metadata.getAsTree(STREAM_FORMAT), "LogicalScreenDescriptor");
+                return new Dimension(intAttribute(screen, "logicalScreenWidth", 0),
+                    intAttribute(screen, "logicalScreenHeight", 0));
+            }
+            return new Dimension();
+        }
+
+        private static IIOMetadataNode child(IIOMetadataNode node, String name) {
+            if (node == null) return null;
+            var list = node.getElementsByTagName(name);
+            return list.getLength() > 0 ? (IIOMetadataNode) list.item(0) : null;
+        }
+
+        private static int intAttribute(IIOMetadataNode node, String name, int fallback) {
+            if (node == null || !node.hasAttribute(name)) return fallback;
+            try {
+                return Integer.parseInt(node.getAttribute(name));
+            } catch (NumberFormatException ex) {
+                return fallback;
+            }
+        }
+
+        private static BufferedImage copy(BufferedImage source) {
+            var copy = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            var g2d = copy.createGraphics();
+            g2d.drawImage(source, 0, 0, null);
+            g2d.dispose();
+            return copy;
+        }
+
+        // 合成画面只保留转换需要的分辨率，长动画也不会占用太多内存
+        private static BufferedImage shrink(BufferedImage canvas, int maxWidth) {
+            double scale = Math.min(1.0, (double) maxWidth / canvas.getWidth());
+            int width = Math.max(1, (int) Math.round(canvas.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(canvas.getHeight() * scale));
+            var result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            var g2d = result.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(canvas, 0, 0, width, height, null);
+            g2d.dispose();
+            return result;
+        }
+    }
+
+    /**
+     * 动画播放组件：按帧延迟切换预渲染好的图片，按绝对时间排程避免误差累积
+     */
+    static final class AsciiPlayer extends JComponent {
+        private List<RenderedFrame> frames = List.of();
+        private int index;
+        private long nextFrameAt;
+        private final Timer timer;
+
+        AsciiPlayer() {
+            timer = new Timer(0, (ev) -> this.advance());
+            timer.setRepeats(false);
+            this.setOpaque(true);
+        }
+
+        void setFrames(List<RenderedFrame> frames) {
+            this.frames = frames;
+            index = 0;
+            int width = 0;
+            int height = 0;
+            for (var frame : frames) {
+                width = Math.max(width, frame.image().getWidth());
+                height = Math.max(height, frame.image().getHeight());
+            }
+            this.setPreferredSize(new Dimension(width + 20, height + 20));
+            this.revalidate();
+            this.repaint();
+        }
+
+        void play() {
+            if (frames.size() < 2 || timer.isRunning()) return;
+            nextFrameAt = System.currentTimeMillis() + frames.get(index).delayMillis();
+            timer.setInitialDelay(frames.get(index).delayMillis());
+            timer.start();
+        }
+
+        void pause() {
+            timer.stop();
+        }
+
+        void stop() {
+            timer.stop();
+            index = 0;
+        }
+
+        boolean isPlaying() {
+            return timer.isRunning();
+        }
+
+        int currentIndex() {
+            return index;
+        }
+
+        int frameCount() {
+            return frames.size();
+        }
+
+        String currentText() {
+            return frames.isEmpty() ? "" : frames.get(index).text();
+        }
+
+        private void advance() {
+            if (frames.isEmpty()) return;
+            index = (index + 1) % frames.size();
+            this.repaint();
+
+            nextFrameAt += frames.get(index).delayMillis();
+            long now = System.currentTimeMillis();
+            if (nextFrameAt < now) {
+                nextFrameAt = now; // 落后太多时不补帧
+            }
+            timer.setInitialDelay((int) (nextFrameAt - now));
+            timer.start();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            g.setColor(this.getBackground());
+            g.fillRect(0, 0, this.getWidth(), this.getHeight());
+            if (!frames.isEmpty()) {
+                g.drawImage(frames.get(index).image(), 10, 10, null);
+            }
+        }
+    }
+
     // 字符集枚举
     enum CharacterSet {
         SIMPLE("简单", " .:-=+*#%@"),
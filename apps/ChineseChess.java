@@ -4,6 +4,9 @@ import java.awt.event.*;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 // 文本管理静态内部类
 static class Texts {
@@ -15,6 +18,13 @@ static class Texts {
     static final String PLAYER_LABEL = "当前玩家: ";
     static final String NEW_GAME_BUTTON = "新游戏";
     static final String UNDO_BUTTON = "悔棋";
+    static final String PERFT_BUTTON = "走法测试";
+    static final String OPPONENT_LABEL = "对手: ";
+    static final String DEPTH_LABEL = "深度: ";
+    static final String TIME_LABEL = "限时: ";
+    static final String[] OPPONENT_OPTIONS = {"双人对弈", "电脑执黑", "电脑执红"};
+    static final String[] DEPTH_OPTIONS = {"4 层", "6 层", "8 层", "12 层", "不限"};
+    static final String[] TIME_OPTIONS = {"1 秒", "3 秒", "5 秒", "10 秒", "30 秒"};
     static final String RED_PLAYER = "红方";
     static final String BLACK_PLAYER = "黑方";
 
@@ -37,12 +47,18 @@ static class Texts {
     static final String STATUS_BLACK_WINS = "黑方获胜！";
     static final String STATUS_CHECK = "将军！";
     static final String STATUS_DRAW = "和棋！";
+    static final String STATUS_PERFT_RUNNING = "正在运行走法生成测试...";
+    static final String STATUS_THINKING = "电脑思考中...";
+    static final String ENGINE_STATS = "深度 %d | %,d 节点 | %,.0f 千节点/秒 | %d 线程";
+
+    // 走法测试
+    static final String PERFT_TITLE = "走法生成基准测试 (perft)";
 
     // 帮助信息
     static final String HELP_MESSAGE = """
         中国象棋使用说明：
 
-        • 游戏目标：将对方的将/帅吃掉，即获胜
+        • 游戏目标：将死或困毙对方的将/帅，即获胜
         • 游戏规则：按照象棋规则移动棋子
         • 计分规则：先吃掉对方将/帅的一方获胜
 
@@ -59,6 +75,9 @@ static class Texts {
         • 鼠标点击：选择棋子
         • 再次点击：移动到目标位置
         • 悔棋按钮：撤销上一步操作
+        • 走法测试：从当前局面统计各深度的合法走法数和生成速度
+        • 对手：可选择电脑执黑或执红，深度和限时控制电脑思考
+        • 电脑对弈时悔棋会同时撤销电脑的一步
 
         游戏技巧：
         • 保护好自己的将/帅
@@ -70,6 +89,7 @@ static class Texts {
         Ctrl+N - 新游戏
         Ctrl+Z - 悔棋
         Ctrl+H - 显示帮助
+        Ctrl+P - 走法测试
         F1 - 显示帮助
         """;
 }
@@ -105,6 +125,14 @@ static class ChineseChess extends JFrame {
     private static final int BLACK_CANNON = 13;
     private static final int BLACK_SOLDIER = 14;
 
+    // 走法测试深度及初始局面的标准 perft 结果
+    private static final int PERFT_DEPTH = 4;
+    private static final long[] PERFT_START_POSITION = {1, 44, 1920, 79666, 3290240};
+
+    // 电脑搜索深度与时间限制，与 Texts 中的选项一一对应
+    private static final int[] SEARCH_DEPTHS = {4, 6, 8, 12, 64};
+    private static final long[] SEARCH_TIMES = {1000, 3000, 5000, 10000, 30000};
+
     private int[][] board;
     private int currentPlayer; // 0: 红方, 1: 黑方
     private Point selectedPiece;
@@ -117,6 +145,13 @@ static class ChineseChess extends JFrame {
     private JLabel playerLabel;
     private JButton newGameButton;
     private JButton undoButton;
+    private JButton perftButton;
+    private SwingWorker<String, Void> perftWorker;
+    private JComboBox<String> opponentCombo;
+    private JComboBox<String> depthCombo;
+    private JComboBox<String> timeCombo;
+    private JLabel engineLabel;
+    private ChessSearch currentSearch;
 
     // 棋子显示名称
     private static final String[] PIECE_NAMES = {
@@ -212,7 +247,36 @@ static class ChineseChess extends JFrame {
         undoButton.addActionListener(e -> undoMove());
         controlPanel.add(undoButton);
 
-        add(controlPanel, BorderLayout.NORTH);
+        // 走法测试按钮
+        perftButton = new JButton("⏱ " + Texts.PERFT_BUTTON);
+        perftButton.setFont(new Font("SF Pro Display", Font.BOLD, 14));
+        perftButton.setBackground(new Color(33, 150, 243));
+        perftButton.setForeground(Color.WHITE);
+        perftButton.addActionListener(e -> runPerftBenchmark());
+        controlPanel.add(perftButton);
+
+        // 电脑对手设置
+        JPanel settingsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        opponentCombo = new JComboBox<>(Texts.OPPONENT_OPTIONS);
+        depthCombo = new JComboBox<>(Texts.DEPTH_OPTIONS);
+        depthCombo.setSelectedIndex(2);
+        timeCombo = new JComboBox<>(Texts.TIME_OPTIONS);
+        timeCombo.setSelectedIndex(1);
+        opponentCombo.addActionListener(e -> {
+            cancelSearch();
+            startComputerMoveIfNeeded();
+        });
+        settingsPanel.add(new JLabel(Texts.OPPONENT_LABEL));
+        settingsPanel.add(opponentCombo);
+        settingsPanel.add(new JLabel(Texts.DEPTH_LABEL));
+        settingsPanel.add(depthCombo);
+        settingsPanel.add(new JLabel(Texts.TIME_LABEL));
+        settingsPanel.add(timeCombo);
+
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.add(controlPanel, BorderLayout.NORTH);
+        northPanel.add(settingsPanel, BorderLayout.SOUTH);
+        add(northPanel, BorderLayout.NORTH);
 
         // 游戏面板
         gamePanel = new GamePanel();
@@ -232,26 +296,35 @@ static class ChineseChess extends JFrame {
         statusLabel.setFont(new Font("SF Pro Display", Font.PLAIN, 14));
         statusLabel.setForeground(Color.GRAY);
 
+        // 电脑搜索统计
+        engineLabel = new JLabel("", SwingConstants.CENTER);
+        engineLabel.setFont(new Font("SF Pro Display", Font.PLAIN, 12));
+        engineLabel.setForeground(Color.GRAY);
+
         statusPanel.add(playerLabel, BorderLayout.WEST);
+        statusPanel.add(engineLabel, BorderLayout.CENTER);
         statusPanel.add(statusLabel, BorderLayout.EAST);
 
         add(statusPanel, BorderLayout.SOUTH);
 
         // 设置窗口
-        setSize(700, 800);
+        setSize(700, 840);
         setLocationRelativeTo(null);
         setResizable(false);
     }
 
     private void startNewGame() {
+        cancelSearch();
         initializeBoard();
         currentPlayer = 0;
         selectedPiece = null;
         gameOver = false;
         winner = -1;
         moveHistory.clear();
+        engineLabel.setText("");
         updateStatus();
         gamePanel.repaint();
+        startComputerMoveIfNeeded();
     }
 
     private void updateStatus() {
@@ -289,307 +362,167 @@ static class ChineseChess extends JFrame {
         board[toRow][toCol] = board[fromRow][fromCol];
         board[fromRow][fromCol] = EMPTY;
 
-        // 检查是否获胜
-        if (isCheckmate(currentPlayer)) {
-            gameOver = true;
-            winner = 1 - currentPlayer;
-            statusLabel.setText("🎉 " + (winner == 0 ? "红方" : "黑方") + " 获胜！");
-        } else if (isCheck(currentPlayer)) {
-            statusLabel.setText("⚠️ " + (currentPlayer == 0 ? "红方" : "黑方") + " 被将军！");
-        }
-
         // 切换玩家
         currentPlayer = 1 - currentPlayer;
         selectedPiece = null;
-
         updateStatus();
-        gamePanel.repaint();
-    }
 
-    private boolean isValidMove(int fromRow, int fromCol, int toRow, int toCol) {
-        // 基本检查
-        if (fromRow < 0 || fromRow >= BOARD_HEIGHT || fromCol < 0 || fromCol >= BOARD_WIDTH ||
-            toRow < 0 || toRow >= BOARD_HEIGHT || toCol < 0 || toCol >= BOARD_WIDTH) {
-            return false;
+        // 对方没有合法走法即告负（被将死或困毙）
+        Position position = Position.fromBoard(board, currentPlayer);
+        if (!position.hasLegalMove()) {
+            gameOver = true;
+            winner = 1 - currentPlayer;
+            updateStatus();
+        } else if (position.inCheck(currentPlayer)) {
+            statusLabel.setText("⚠️ " + (currentPlayer == 0 ? "红方" : "黑方") + " 被将军！");
         }
 
-        int piece = board[fromRow][fromCol];
-        int target = board[toRow][toCol];
-
-        // 检查是否有棋子
-        if (piece == EMPTY) return false;
-
-        // 检查是否是己方棋子
-        if (!isPlayerPiece(piece, currentPlayer)) return false;
-
-        // 检查目标位置是否为己方棋子
-        if (target != EMPTY && isPlayerPiece(target, currentPlayer)) return false;
-
-        // 检查棋子移动规则
-        return isValidPieceMove(piece, fromRow, fromCol, toRow, toCol);
+        gamePanel.repaint();
+        startComputerMoveIfNeeded();
     }
 
-    private boolean isPlayerPiece(int piece, int player) {
-        return (player == 0 && piece >= RED_GENERAL && piece <= RED_SOLDIER) ||
-               (player == 1 && piece >= BLACK_GENERAL && piece <= BLACK_SOLDIER);
+    // 电脑执子的一方，-1 表示双人对弈
+    private int computerPlayer() {
+        return switch (opponentCombo.getSelectedIndex()) {
+            case 1 -> 1;
+            case 2 -> 0;
+            default -> -1;
+        };
     }
 
-    private boolean isValidPieceMove(int piece, int fromRow, int fromCol, int toRow, int toCol) {
-        switch (piece) {
-            case RED_GENERAL:
-            case BLACK_GENERAL:
-                return isValidGeneralMove(fromRow, fromCol, toRow, toCol);
-            case RED_ADVISOR:
-            case BLACK_ADVISOR:
-                return isValidAdvisorMove(fromRow, fromCol, toRow, toCol);
-            case RED_ELEPHANT:
-            case BLACK_ELEPHANT:
-                return isValidElephantMove(fromRow, fromCol, toRow, toCol);
-            case RED_HORSE:
-            case BLACK_HORSE:
-                return isValidHorseMove(fromRow, fromCol, toRow, toCol);
-            case RED_CHARIOT:
-            case BLACK_CHARIOT:
-                return isValidChariotMove(fromRow, fromCol, toRow, toCol);
-            case RED_CANNON:
-            case BLACK_CANNON:
-                return isValidCannonMove(fromRow, fromCol, toRow, toCol);
-            case RED_SOLDIER:
-            case BLACK_SOLDIER:
-                return isValidSoldierMove(fromRow, fromCol, toRow, toCol);
-            default:
-                return false;
-        }
+    private boolean isComputerTurn() {
+        return !gameOver && currentPlayer == computerPlayer();
     }
 
-    private boolean isValidGeneralMove(int fromRow, int fromCol, int toRow, int toCol) {
-        int rowDiff = Math.abs(toRow - fromRow);
-        int colDiff = Math.abs(toCol - fromCol);
+    private void startComputerMoveIfNeeded() {
+        if (!isComputerTurn() || currentSearch != null) return;
 
-        // 只能移动一格
-        if (rowDiff + colDiff != 1) return false;
+        int[][] snapshot = new int[BOARD_HEIGHT][];
+        for (int row = 0; row < BOARD_HEIGHT; row++) snapshot[row] = board[row].clone();
+        int player = currentPlayer;
+        ChessSearch search = new ChessSearch(SEARCH_DEPTHS[depthCombo.getSelectedIndex()], SEARCH_TIMES[timeCombo.getSelectedIndex()]);
+        currentSearch = search;
+        statusLabel.setText(Texts.STATUS_THINKING);
 
-        // 红方帅只能在九宫内
-        if (board[fromRow][fromCol] == RED_GENERAL) {
-            if (toRow < 7 || toCol < 3 || toCol > 5) return false;
-        }
-        // 黑方将只能在九宫内
-        else {
-            if (toRow > 2 || toCol < 3 || toCol > 5) return false;
-        }
+        new SwingWorker<SearchResult, Void>() {
+            @Override
+            protected SearchResult doInBackground() throws Exception {
+                return search.run(snapshot, player);
+            }
 
-        return true;
+            @Override
+            protected void done() {
+                // 搜索期间开了新局、悔棋或换了对手，结果作废
+                if (currentSearch != search) return;
+                currentSearch = null;
+                try {
+                    SearchResult result = get();
+                    if (result == null) return;
+                    engineLabel.setText(String.format(Texts.ENGINE_STATS, result.depth(), result.nodes(),
+                        result.nodes() / (double) Math.max(1, result.millis()), ChessSearch.THREADS));
+                    int from = Position.moveFrom(result.move());
+                    int to = Position.moveTo(result.move());
+                    makeMove(from / BOARD_WIDTH, from % BOARD_WIDTH, to / BOARD_WIDTH, to % BOARD_WIDTH);
+                } catch (Exception ex) {
+                    statusLabel.setText(ex.getMessage());
+                }
+            }
+        }.execute();
     }
 
-    private boolean isValidAdvisorMove(int fromRow, int fromCol, int toRow, int toCol) {
-        int rowDiff = Math.abs(toRow - fromRow);
-        int colDiff = Math.abs(toCol - fromCol);
-
-        // 只能斜走一格
-        if (rowDiff != 1 || colDiff != 1) return false;
-
-        // 只能在九宫内
-        if (board[fromRow][fromCol] == RED_ADVISOR) {
-            if (toRow < 7 || toCol < 3 || toCol > 5) return false;
-        } else {
-            if (toRow > 2 || toCol < 3 || toCol > 5) return false;
+    private void cancelSearch() {
+        if (currentSearch != null) {
+            currentSearch.cancel();
+            currentSearch = null;
         }
-
-        return true;
     }
 
-    private boolean isValidElephantMove(int fromRow, int fromCol, int toRow, int toCol) {
-        int rowDiff = toRow - fromRow;
-        int colDiff = toCol - fromCol;
-
-        // 必须斜走两格
-        if (Math.abs(rowDiff) != 2 || Math.abs(colDiff) != 2) return false;
-
-        // 不能过河
-        if (board[fromRow][fromCol] == RED_ELEPHANT && toRow < 5) return false;
-        if (board[fromRow][fromCol] == BLACK_ELEPHANT && toRow > 4) return false;
-
-        // 检查象眼是否被堵
-        int midRow = fromRow + rowDiff / 2;
-        int midCol = fromCol + colDiff / 2;
-        if (board[midRow][midCol] != EMPTY) return false;
-
-        return true;
-    }
-
-    private boolean isValidHorseMove(int fromRow, int fromCol, int toRow, int toCol) {
-        int rowDiff = toRow - fromRow;
-        int colDiff = toCol - fromCol;
-
-        // 检查是否走"日"字
-        if (!((Math.abs(rowDiff) == 2 && Math.abs(colDiff) == 1) ||
-              (Math.abs(rowDiff) == 1 && Math.abs(colDiff) == 2))) {
+    private boolean isValidMove(int fromRow, int fromCol, int toRow, int toCol) {
+        // 基本检查
+        if (fromRow < 0 || fromRow >= BOARD_HEIGHT || fromCol < 0 || fromCol >= BOARD_WIDTH ||
+            toRow < 0 || toRow >= BOARD_HEIGHT || toCol < 0 || toCol >= BOARD_WIDTH) {
             return false;
         }
 
-        // 检查马腿是否被堵
-        if (Math.abs(rowDiff) == 2) {
-            int midRow = fromRow + rowDiff / 2;
-            if (board[midRow][fromCol] != EMPTY) return false;
-        } else {
-            int midCol = fromCol + colDiff / 2;
-            if (board[fromRow][midCol] != EMPTY) return false;
-        }
-
-        return true;
-    }
-
-    private boolean isValidChariotMove(int fromRow, int fromCol, int toRow, int toCol) {
-        // 必须直线移动
-        if (fromRow != toRow && fromCol != toCol) return false;
-
-        // 检查路径是否被堵
-        if (fromRow == toRow) {
-            int start = Math.min(fromCol, toCol);
-            int end = Math.max(fromCol, toCol);
-            for (int col = start + 1; col < end; col++) {
-                if (board[fromRow][col] != EMPTY) return false;
-            }
-        } else {
-            int start = Math.min(fromRow, toRow);
-            int end = Math.max(fromRow, toRow);
-            for (int row = start + 1; row < end; row++) {
-                if (board[row][fromCol] != EMPTY) return false;
-            }
-        }
-
-        return true;
-    }
-
-    private boolean isValidCannonMove(int fromRow, int fromCol, int toRow, int toCol) {
-        // 必须直线移动
-        if (fromRow != toRow && fromCol != toCol) return false;
-
-        int pieceCount = 0;
-
-        // 计算路径上的棋子数
-        if (fromRow == toRow) {
-            int start = Math.min(fromCol, toCol);
-            int end = Math.max(fromCol, toCol);
-            for (int col = start + 1; col < end; col++) {
-                if (board[fromRow][col] != EMPTY) pieceCount++;
-            }
-        } else {
-            int start = Math.min(fromRow, toRow);
-            int end = Math.max(fromRow, toRow);
-            for (int row = start + 1; row < end; row++) {
-                if (board[row][fromCol] != EMPTY) pieceCount++;
-            }
-        }
+        // 检查是否是己方棋子
+        int piece = board[fromRow][fromCol];
+        if (piece == EMPTY || !isPlayerPiece(piece, currentPlayer)) return false;
 
-        // 炮的移动规则：
-        // - 如果目标位置为空，路径上不能有棋子
-        // - 如果目标位置有敌方棋子，路径上必须恰好有一个棋子
-        if (board[toRow][toCol] == EMPTY) {
-            return pieceCount == 0;
-        } else {
-            return pieceCount == 1;
-        }
+        // 由走法生成器判断：走法存在且走后己方将帅不被攻击（含将帅对面）
+        Position position = Position.fromBoard(board, currentPlayer);
+        return position.isLegal(Position.encodeMove(Position.square(fromRow, fromCol), Position.square(toRow, toCol)));
     }
 
-    private boolean isValidSoldierMove(int fromRow, int fromCol, int toRow, int toCol) {
-        int rowDiff = toRow - fromRow;
-        int colDiff = Math.abs(toCol - fromCol);
-
-        // 兵/卒只能向前移动一格
-        if (board[fromRow][fromCol] == RED_SOLDIER) {
-            if (rowDiff != -1 || colDiff > 1) return false;
-            // 过河前不能横向移动
-            if (fromRow > 4 && colDiff != 0) return false;
-        } else {
-            if (rowDiff != 1 || colDiff > 1) return false;
-            // 过河前不能横向移动
-            if (fromRow < 5 && colDiff != 0) return false;
-        }
-
-        return true;
+    private boolean isPlayerPiece(int piece, int player) {
+        return (player == 0 && piece >= RED_GENERAL && piece <= RED_SOLDIER) ||
+               (player == 1 && piece >= BLACK_GENERAL && piece <= BLACK_SOLDIER);
     }
 
-    private boolean isCheck(int player) {
-        // 找到己方将/帅的位置
-        int generalRow = -1, generalCol = -1;
-        int generalPiece = (player == 0) ? RED_GENERAL : BLACK_GENERAL;
+    private void runPerftBenchmark() {
+        if (perftWorker != null && !perftWorker.isDone()) return;
 
-        for (int i = 0; i < BOARD_HEIGHT; i++) {
-            for (int j = 0; j < BOARD_WIDTH; j++) {
-                if (board[i][j] == generalPiece) {
-                    generalRow = i;
-                    generalCol = j;
-                    break;
-                }
-            }
-            if (generalRow != -1) break;
-        }
+        Position position = Position.fromBoard(board, currentPlayer);
+        boolean fromStart = moveHistory.isEmpty();
+        String previousStatus = statusLabel.getText();
+        perftButton.setEnabled(false);
+        statusLabel.setText(Texts.STATUS_PERFT_RUNNING);
 
-        if (generalRow == -1) return false;
-
-        // 检查对方棋子是否能攻击到将/帅
-        for (int i = 0; i < BOARD_HEIGHT; i++) {
-            for (int j = 0; j < BOARD_WIDTH; j++) {
-                int piece = board[i][j];
-                if (piece != EMPTY && !isPlayerPiece(piece, player)) {
-                    if (isValidPieceMove(piece, i, j, generalRow, generalCol)) {
-                        return true;
+        perftWorker = new SwingWorker<>() {
+            @Override
+            protected String doInBackground() {
+                StringBuilder report = new StringBuilder();
+                long totalNodes = 0;
+                long totalNanos = 0;
+                for (int depth = 1; depth <= PERFT_DEPTH; depth++) {
+                    long start = System.nanoTime();
+                    long nodes = position.perft(depth);
+                    long nanos = System.nanoTime() - start;
+                    totalNodes += nodes;
+                    totalNanos += nanos;
+
+                    String check = "";
+                    if (fromStart) {
+                        check = nodes == PERFT_START_POSITION[depth] ? "  ✓" : "  ✗ 期望 " + PERFT_START_POSITION[depth];
                     }
+                    report.append(String.format("深度 %d: %,d 节点, %.1f ms%s%n", depth, nodes, nanos / 1e6, check));
                 }
+                report.append(String.format("%n合计 %,d 节点, %.2f 百万节点/秒", totalNodes, totalNodes * 1e3 / Math.max(1, totalNanos)));
+                return report.toString();
             }
-        }
-
-        return false;
-    }
 
-    private boolean isCheckmate(int player) {
-        if (!isCheck(player)) return false;
-
-        // 尝试所有可能的移动
-        for (int fromRow = 0; fromRow < BOARD_HEIGHT; fromRow++) {
-            for (int fromCol = 0; fromCol < BOARD_WIDTH; fromCol++) {
-                int piece = board[fromRow][fromCol];
-                if (piece != EMPTY && isPlayerPiece(piece, player)) {
-                    for (int toRow = 0; toRow < BOARD_HEIGHT; toRow++) {
-                        for (int toCol = 0; toCol < BOARD_WIDTH; toCol++) {
-                            if (isValidMove(fromRow, fromCol, toRow, toCol)) {
-                                // 模拟移动
-                                int originalPiece = board[toRow][toCol];
-                                board[toRow][toCol] = piece;
-                                board[fromRow][fromCol] = EMPTY;
-
-                                boolean stillInCheck = isCheck(player);
-
-                                // 恢复棋盘
-                                board[fromRow][fromCol] = piece;
-                                board[toRow][toCol] = originalPiece;
-
-                                if (!stillInCheck) return false;
-                            }
-                        }
-                    }
+            @Override
+            protected void done() {
+                perftButton.setEnabled(true);
+                statusLabel.setText(previousStatus);
+                try {
+                    JOptionPane.showMessageDialog(ChineseChess.this, get(), Texts.PERFT_TITLE, JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(ChineseChess.this, ex.getMessage(), Texts.PERFT_TITLE, JOptionPane.ERROR_MESSAGE);
                 }
             }
-        }
-
-        return true;
+        };
+        perftWorker.execute();
     }
 
     private void undoMove() {
         if (moveHistory.isEmpty()) return;
+        cancelSearch();
 
-        Move lastMove = moveHistory.pop();
-        board[lastMove.fromRow][lastMove.fromCol] = board[lastMove.toRow][lastMove.toCol];
-        board[lastMove.toRow][lastMove.toCol] = lastMove.capturedPiece;
+        // 与电脑对弈时连同电脑的一步一起撤销，退回到玩家走棋
+        do {
+            Move lastMove = moveHistory.pop();
+            board[lastMove.fromRow][lastMove.fromCol] = board[lastMove.toRow][lastMove.toCol];
+            board[lastMove.toRow][lastMove.toCol] = lastMove.capturedPiece;
+            currentPlayer = lastMove.player;
+        } while (currentPlayer == computerPlayer() && !moveHistory.isEmpty());
 
-        currentPlayer = lastMove.player;
         gameOver = false;
         winner = -1;
         selectedPiece = null;
 
         updateStatus();
         gamePanel.repaint();
+        startComputerMoveIfNeeded();
     }
 
     // 游戏面板
@@ -602,7 +535,7 @@ static class ChineseChess extends JFrame {
             addMouseListener(new MouseAdapter() {
                 @Override
                 public void mouseClicked(MouseEvent e) {
-                    if (gameOver) return;
+                    if (gameOver || isComputerTurn()) return;
 
                     int x = e.getX();
                     int y = e.getY();
@@ -783,6 +716,808 @@ static class ChineseChess extends JFrame {
         }
     }
 
+    /**
+     * 走法生成器
+     * 90 格一维棋盘（下标 = 行 * 9 + 列），各兵种的走法、马腿、象眼和车炮射线都预先按格子算好；
+     * 生成的是伪合法走法，合法性由走子后“己方将帅是否被攻击”判断。
+     * 将帅位置随走子增量更新，被攻击判断从将帅位置反向查找攻击者（车/炮/飞将射线、马、兵），
+     * 不需要扫描对方全部棋子。
+     * Zobrist 哈希和子力位置分（红方视角）同样随走子增量更新，供电脑搜索使用
+     */
+    static final class Position {
+        static final int SQUARES = BOARD_WIDTH * BOARD_HEIGHT;
+        static final int MAX_MOVES = 160;
+        static final int MAX_PLY = 128;
+
+        // 兵种（与红方棋子编号相同）
+        static final int GENERAL = 1;
+        static final int ADVISOR = 2;
+        static final int ELEPHANT = 3;
+        static final int HORSE = 4;
+        static final int CHARIOT = 5;
+        static final int CANNON = 6;
+        static final int SOLDIER = 7;
+
+        private static final int[][][] GENERAL_MOVES = new int[2][SQUARES][];
+        private static final int[][][] ADVISOR_MOVES = new int[2][SQUARES][];
+        private static final int[][][] ELEPHANT_MOVES = new int[2][SQUARES][];
+        private static final int[][][] ELEPHANT_EYES = new int[2][SQUARES][];
+        private static final int[][][] SOLDIER_MOVES = new int[2][SQUARES][];
+        private static final int[][] HORSE_MOVES = new int[SQUARES][];
+        private static final int[][] HORSE_LEGS = new int[SQUARES][];
+        private static final int[][][] RAYS = new int[SQUARES][][]; // 上、下、左、右
+        // 反向攻击表：能攻击到该格的马及其马腿、兵
+        private static final int[][] HORSE_ATTACKERS = new int[SQUARES][];
+        private static final int[][] HORSE_ATTACKER_LEGS = new int[SQUARES][];
+        private static final int[][][] SOLDIER_ATTACKERS = new int[2][SQUARES][];
+        // Zobrist 随机数与子力位置分（黑子为负值）
+        private static final long[][] ZOBRIST = new long[BLACK_SOLDIER + 1][SQUARES];
+        private static final long ZOBRIST_SIDE;
+        private static final int[][] PIECE_SQUARE_VALUES = new int[BLACK_SOLDIER + 1][SQUARES];
+
+        static {
+            for (int sq = 0; sq < SQUARES; sq++) {
+                int row = sq / BOARD_WIDTH;
+                int col = sq % BOARD_WIDTH;
+                for (int side = 0; side < 2; side++) {
+                    List<Integer> general = new ArrayList<>();
+                    List<Integer> advisor = new ArrayList<>();
+                    List<Integer> elephant = new ArrayList<>();
+                    List<Integer> eyes = new ArrayList<>();
+                    List<Integer> soldier = new ArrayList<>();
+                    for (int[] d : new int[][] {{-1, 0}, {1, 0}, {0, -1}, {0, 1}}) {
+                        if (inPalace(side, row + d[0], col + d[1])) general.add(square(row + d[0], col + d[1]));
+                    }
+                    for (int[] d : new int[][] {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}}) {
+                        if (inPalace(side, row + d[0], col + d[1])) advisor.add(square(row + d[0], col + d[1]));
+                        int toRow = row + d[0] * 2;
+                        int toCol = col + d[1] * 2;
+                        if (onBoard(toRow, toCol) && ownHalf(side, toRow)) {
+                            elephant.add(square(toRow, toCol));
+                            eyes.add(square(row + d[0], col + d[1]));
+                        }
+                    }
+                    // 兵：向前一步，过河后可左右
+                    int forward = side == 0 ? -1 : 1;
+                    if (onBoard(row + forward, col)) soldier.add(square(row + forward, col));
+                    if (!ownHalf(side, row)) {
+                        if (col > 0) soldier.add(square(row, col - 1));
+                        if (col < BOARD_WIDTH - 1) soldier.add(square(row, col + 1));
+                    }
+                    GENERAL_MOVES[side][sq] = toArray(general);
+                    ADVISOR_MOVES[side][sq] = toArray(advisor);
+                    ELEPHANT_MOVES[side][sq] = toArray(elephant);
+                    ELEPHANT_EYES[side][sq] = toArray(eyes);
+                    SOLDIER_MOVES[side][sq] = toArray(soldier);
+                }
+
+                List<Integer> horse = new ArrayList<>();
+                List<Integer> legs = new ArrayList<>();
+                for (int[] d : new int[][] {{-2, -1}, {-2, 1}, {2, -1}, {2, 1}, {-1, -2}, {1, -2}, {-1, 2}, {1, 2}}) {
+                    if (!onBoard(row + d[0], col + d[1])) continue;
+                    horse.add(square(row + d[0], col + d[1]));
+                    legs.add(Math.abs(d[0]) == 2 ? square(row + d[0] / 2, col) : square(row, col + d[1] / 2));
+                }
+                HORSE_MOVES[sq] = toArray(horse);
+                HORSE_LEGS[sq] = toArray(legs);
+
+                RAYS[sq] = new int[4][];
+                int[][] directions = new int[][] {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+                for (int d = 0; d < 4; d++) {
+                    List<Integer> ray = new ArrayList<>();
+                    for (int r = row + directions[d][0], c = col + directions[d][1]; onBoard(r, c); r += directions[d][0], c += directions[d][1]) {
+                        ray.add(square(r, c));
+                    }
+                    RAYS[sq][d] = toArray(ray);
+                }
+            }
+
+            for (int target = 0; target < SQUARES; target++) {
+                List<Integer> attackers = new ArrayList<>();
+                List<Integer> legs = new ArrayList<>();
+                for (int from = 0; from < SQUARES; from++) {
+                    for (int i = 0; i < HORSE_MOVES[from].length; i++) {
+                        if (HORSE_MOVES[from][i] == target) {
+                            attackers.add(from);
+                            legs.add(HORSE_LEGS[from][i]);
+                        }
+                    }
+                }
+                HORSE_ATTACKERS[target] = toArray(attackers);
+                HORSE_ATTACKER_LEGS[target] = toArray(legs);
+                for (int side = 0; side < 2; side++) {
+                    List<Integer> soldiers = new ArrayList<>();
+                    for (int from = 0; from < SQUARES; from++) {
+                        for (int to : SOLDIER_MOVES[side][from]) {
+                            if (to == target) soldiers.add(from);
+                        }
+                    }
+                    SOLDIER_ATTACKERS[side][target] = toArray(soldiers);
+                }
+            }
+
+            Random random = new Random(20240601L);
+            for (int piece = RED_GENERAL; piece <= BLACK_SOLDIER; piece++) {
+                for (int sq = 0; sq < SQUARES; sq++) {
+                    ZOBRIST[piece][sq] = random.nextLong();
+                    int row = sq / BOARD_WIDTH;
+                    int col = sq % BOARD_WIDTH;
+                    int value = pieceSquareValue(typeOf(piece), sideOf(piece) == 0 ? BOARD_HEIGHT - 1 - row : row, col);
+                    PIECE_SQUARE_VALUES[piece][sq] = sideOf(piece) == 0 ? value : -value;
+                }
+            }
+            ZOBRIST_SIDE = random.nextLong();
+        }
+
+        /**
+         * 子力价值加位置分，rank 为离己方底线的行数（0 为底线，5 以上为已过河）
+         */
+        private static int pieceSquareValue(int type, int rank, int col) {
+            int centre = 4 - Math.abs(col - 4);
+            return switch (type) {
+                case GENERAL -> 0;
+                case ADVISOR, ELEPHANT -> 200;
+                case HORSE -> 400 + centre * 6 + (rank >= 2 && rank <= 7 ? rank * 4 : 0) - (col == 0 || col == 8 ? 20 : 0);
+                case CHARIOT -> 900 + centre * 2 + (rank >= 3 ? 10 : 0);
+                case CANNON -> 450 + (col == 4 ? 15 : 0) + (rank <= 2 ? 5 : 0);
+                default -> {
+                    if (rank < 5) yield 100;
+                    if (rank == BOARD_HEIGHT - 1) yield 150; // 老兵只能横走
+                    yield 200 + centre * 10 + (rank - 4) * 10;
+                }
+            };
+        }
+
+        private static boolean onBoard(int row, int col) {
+            return row >= 0 && row < BOARD_HEIGHT && col >= 0 && col < BOARD_WIDTH;
+        }
+
+        private static boolean inPalace(int side, int row, int col) {
+            return col >= 3 && col <= 5 && (side == 0 ? row >= 7 && row <= 9 : row >= 0 && row <= 2);
+        }
+
+        private static boolean ownHalf(int side, int row) {
+            return side == 0 ? row >= 5 : row <= 4;
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        static int square(int row, int col) {
+            return row * BOARD_WIDTH + col;
+        }
+
+        static int encodeMove(int from, int to) {
+            return from << 7 | to;
+        }
+
+        static int moveFrom(int move) {
+            return move >>> 7;
+        }
+
+        static int moveTo(int move) {
+            return move & 0x7F;
+        }
+
+        static int sideOf(int piece) {
+            return piece >= BLACK_GENERAL ? 1 : 0;
+        }
+
+        static int typeOf(int piece) {
+            return piece >= BLACK_GENERAL ? piece - 7 : piece;
+        }
+
+        static int pieceOf(int side, int type) {
+            return side == 0 ? type : type + 7;
+        }
+
+        final int[] squares = new int[SQUARES];
+        final int[] generals = {-1, -1};
+        int side;
+        long hash;
+        int evaluation; // 红方视角
+        private final int[] captured = new int[MAX_PLY];
+        private final long[] hashHistory = new long[MAX_PLY];
+        private final int[] evaluationHistory = new int[MAX_PLY];
+        private final int[][] moveBuffers = new int[MAX_PLY][MAX_MOVES];
+        private int ply;
+
+        static Position fromBoard(int[][] board, int side) {
+            Position position = new Position();
+            for (int row = 0; row < BOARD_HEIGHT; row++) {
+                for (int col = 0; col < BOARD_WIDTH; col++) {
+                    int piece = board[row][col];
+                    position.squares[square(row, col)] = piece;
+                    if (piece == EMPTY) continue;
+                    if (typeOf(piece) == GENERAL) {
+                        position.generals[sideOf(piece)] = square(row, col);
+                    }
+                    position.hash ^= ZOBRIST[piece][square(row, col)];
+                    position.evaluation += PIECE_SQUARE_VALUES[piece][square(row, col)];
+                }
+            }
+            position.side = side;
+            if (side == 1) position.hash ^= ZOBRIST_SIDE;
+            return position;
+        }
+
+        /**
+         * 生成当前走子方的伪合法走法，返回走法数量
+         */
+        int generateMoves(int[] moves) {
+            int count = 0;
+            int own = side;
+            for (int from = 0; from < SQUARES; from++) {
+                int piece = squares[from];
+                if (piece == EMPTY || sideOf(piece) != own) continue;
+                switch (typeOf(piece)) {
+                    case GENERAL -> count = this.addSteps(moves, count, from, GENERAL_MOVES[own][from]);
+                    case ADVISOR -> count = this.addSteps(moves, count, from, ADVISOR_MOVES[own][from]);
+                    case ELEPHANT -> {
+                        int[] targets = ELEPHANT_MOVES[own][from];
+                        int[] eyes = ELEPHANT_EYES[own][from];
+                        for (int i = 0; i < targets.length; i++) {
+                            if (squares[eyes[i]] == EMPTY && this.canLand(targets[i], own)) {
+                                moves[count++] = encodeMove(from, targets[i]);
+                            }
+                        }
+                    }
+                    case HORSE -> {
+                        int[] targets = HORSE_MOVES[from];
+                        int[] legs = HORSE_LEGS[from];
+                        for (int i = 0; i < targets.length; i++) {
+                            if (squares[legs[i]] == EMPTY && this.canLand(targets[i], own)) {
+                                moves[count++] = encodeMove(from, targets[i]);
+                            }
+                        }
+                    }
+                    case CHARIOT -> {
+                        for (int[] ray : RAYS[from]) {
+                            for (int to : ray) {
+                                int target = squares[to];
+                                if (target == EMPTY) {
+                                    moves[count++] = encodeMove(from, to);
+                                } else {
+                                    if (sideOf(target) != own) moves[count++] = encodeMove(from, to);
+                                    break;
+                                }
+                            }
+                        }
+                    }
+                    case CANNON -> {
+                        for (int[] ray : RAYS[from]) {
+                            boolean screened = false;
+                            for (int to : ray) {
+                                int target = squares[to];
+                                if (!screened) {
+                                    if (target == EMPTY) moves[count++] = encodeMove(from, to);
+                                    else screened = true;
+                                } else if (target != EMPTY) {
+                                    if (sideOf(target) != own) moves[count++] = encodeMove(from, to);
+                                    break;
+                                }
+                            }
+                        }
+                    }
+                    default -> count = this.addSteps(moves, count, from, SOLDIER_MOVES[own][from]);
+                }
+            }
+            return count;
+        }
+
+        private int addSteps(int[] moves, int count, int from, int[] targets) {
+            for (int to : targets) {
+                if (this.canLand(to, side)) moves[count++] = encodeMove(from, to);
+            }
+            return count;
+        }
+
+        private boolean canLand(int to, int own) {
+            int target = squares[to];
+            return target == EMPTY || sideOf(target) != own;
+        }
+
+        void makeMove(int move) {
+            int from = moveFrom(move);
+            int to = moveTo(move);
+            int piece = squares[from];
+            int target = squares[to];
+            hashHistory[ply] = hash;
+            evaluationHistory[ply] = evaluation;
+            captured[ply++] = target;
+            squares[to] = piece;
+            squares[from] = EMPTY;
+            hash ^= ZOBRIST[piece][from] ^ ZOBRIST[piece][to] ^ ZOBRIST_SIDE;
+            evaluation += PIECE_SQUARE_VALUES[piece][to] - PIECE_SQUARE_VALUES[piece][from];
+            if (target != EMPTY) {
+                hash ^= ZOBRIST[target][to];
+                evaluation -= PIECE_SQUARE_VALUES[target][to];
+                if (typeOf(target) == GENERAL) generals[1 - side] = -1;
+            }
+            if (typeOf(piece) == GENERAL) generals[side] = to;
+            side = 1 - side;
+        }
+
+        void undoMove(int move) {
+            side = 1 - side;
+            int from = moveFrom(move);
+            int to = moveTo(move);
+            int piece = squares[to];
+            int target = captured[--ply];
+            hash = hashHistory[ply];
+            evaluation = evaluationHistory[ply];
+            squares[from] = piece;
+            squares[to] = target;
+            if (typeOf(piece) == GENERAL) generals[side] = from;
+            if (target != EMPTY && typeOf(target) == GENERAL) generals[1 - side] = to;
+        }
+
+        // 搜索路径上同一方走子时出现过相同局面
+        boolean isRepetition() {
+            for (int i = ply - 2; i >= 0; i -= 2) {
+                if (hashHistory[i] == hash) return true;
+            }
+            return false;
+        }
+
+        // 走子方视角的局面分
+        int evaluate() {
+            return side == 0 ? evaluation : -evaluation;
+        }
+
+        boolean inCheck(int checkedSide) {
+            int general = generals[checkedSide];
+            return general >= 0 && this.isAttacked(general, 1 - checkedSide);
+        }
+
+        /**
+         * 该格是否被 attacker 方攻击：沿四条射线找第一个棋子（车、飞将）和隔一子的棋子（炮），
+         * 再查能跳到此格的马和能走到此格的兵
+         */
+        boolean isAttacked(int sq, int attacker) {
+            int chariot = pieceOf(attacker, CHARIOT);
+            int cannon = pieceOf(attacker, CANNON);
+            int general = pieceOf(attacker, GENERAL);
+            int[][] rays = RAYS[sq];
+            for (int d = 0; d < 4; d++) {
+                int[] ray = rays[d];
+                int i = 0;
+                while (i < ray.length && squares[ray[i]] == EMPTY) i++;
+                if (i == ray.length) continue;
+                int first = squares[ray[i]];
+                if (first == chariot || (first == general && d < 2)) return true;
+                for (i++; i < ray.length; i++) {
+                    int second = squares[ray[i]];
+                    if (second != EMPTY) {
+                        if (second == cannon) return true;
+                        break;
+                    }
+                }
+            }
+
+            int horse = pieceOf(attacker, HORSE);
+            int[] horses = HORSE_ATTACKERS[sq];
+            int[] legs = HORSE_ATTACKER_LEGS[sq];
+            for (int i = 0; i < horses.length; i++) {
+                if (squares[horses[i]] == horse && squares[legs[i]] == EMPTY) return true;
+            }
+
+            int soldier = pieceOf(attacker, SOLDIER);
+            for (int from : SOLDIER_ATTACKERS[attacker][sq]) {
+                if (squares[from] == soldier) return true;
+            }
+            return false;
+        }
+
+        // 走子后己方将帅不被攻击即为合法
+        boolean isLegal(int move) {
+            int[] moves = moveBuffers[ply];
+            int count = this.generateMoves(moves);
+            for (int i = 0; i < count; i++) {
+                if (moves[i] == move) {
+                    int mover = side;
+                    this.makeMove(move);
+                    boolean legal = !this.inCheck(mover);
+                    this.undoMove(move);
+                    return legal;
+                }
+            }
+            return false;
+        }
+
+        boolean hasLegalMove() {
+            int[] moves = moveBuffers[ply];
+            int count = this.generateMoves(moves);
+            int mover = side;
+            for (int i = 0; i < count; i++) {
+                this.makeMove(moves[i]);
+                boolean legal = !this.inCheck(mover);
+                this.undoMove(moves[i]);
+                if (legal) return true;
+            }
+            return false;
+        }
+
+        /**
+         * perft：统计指定深度内的合法走法叶子数，用于验证和测量走法生成
+         */
+        long perft(int depth) {
+            if (depth == 0) return 1;
+            int[] moves = moveBuffers[ply];
+            int count = this.generateMoves(moves);
+            int mover = side;
+            long nodes = 0;
+            for (int i = 0; i < count; i++) {
+                this.makeMove(moves[i]);
+                if (!this.inCheck(mover)) {
+                    nodes += depth == 1 ? 1 : this.perft(depth - 1);
+                }
+                this.undoMove(moves[i]);
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * 搜索结果，move 为 Position 编码的走法
+     */
+    record SearchResult(int move, int score, int depth, long nodes, long millis) {}
+
+    /**
+     * 一次电脑搜索（Lazy SMP）
+     * 每个核心一个线程，各自在自己的局面副本上做迭代加深，只通过共享置换表交换结果；
+     * 奇数号线程从第 2 层开始，使各线程错开深度。0 号主线程达到深度上限或用掉一半时间后停止全部线程，
+     * 结果取完成层数最深的线程（相同时取主线程）
+     */
+    static class ChessSearch {
+        private static final int THREADS = Runtime.getRuntime().availableProcessors();
+        private static final ExecutorService POOL = Executors.newFixedThreadPool(THREADS, (runnable) -> {
+            Thread thread = new Thread(runnable, "chess-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private static final TranspositionTable TABLE = new TranspositionTable(1 << 21);
+
+        private final int maxDepth;
+        private final long budgetNanos;
+        private final long startTime;
+        private final AtomicLong nodes = new AtomicLong();
+        private volatile boolean stopped;
+
+        ChessSearch(int maxDepth, long budgetMillis) {
+            this.maxDepth = maxDepth;
+            this.budgetNanos = budgetMillis * 1_000_000;
+            this.startTime = System.nanoTime();
+        }
+
+        void cancel() {
+            stopped = true;
+        }
+
+        boolean shouldStop() {
+            return stopped || System.nanoTime() - startTime > budgetNanos;
+        }
+
+        // 主线程完成一层后，剩余时间不够再搜一层就不再开始
+        boolean shouldStartNextDepth() {
+            return !stopped && (System.nanoTime() - startTime) * 2 < budgetNanos;
+        }
+
+        SearchResult run(int[][] board, int player) throws InterruptedException {
+            List<Callable<SearchResult>> tasks = new ArrayList<>();
+            for (int id = 0; id < THREADS; id++) {
+                int threadId = id;
+                tasks.add(() -> new ChessEngine(this, Position.fromBoard(board, player), threadId).iterate());
+            }
+
+            SearchResult best = null;
+            for (Future<SearchResult> future : POOL.invokeAll(tasks)) {
+                try {
+                    SearchResult result = future.get();
+                    if (result != null && (best == null || result.depth() > best.depth())) best = result;
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException(ex.getCause());
+                }
+            }
+            if (best == null) return null;
+
+            long millis = (System.nanoTime() - startTime) / 1_000_000;
+            return new SearchResult(best.move(), best.score(), best.depth(), nodes.get(), millis);
+        }
+    }
+
+    static class SearchAborted extends RuntimeException {
+        SearchAborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * 置换表：无锁，key 与数据异或保存，多线程写入撕裂时校验失败即视为未命中
+     */
+    static class TranspositionTable {
+        static final int EXACT = 0;
+        static final int LOWER = 1;
+        static final int UPPER = 2;
+
+        private final long[] keys;
+        private final long[] data;
+        private final int mask;
+
+        TranspositionTable(int size) {
+            keys = new long[size];
+            data = new long[size];
+            mask = size - 1;
+        }
+
+        // 返回打包的数据，未命中返回 0
+        long probe(long hash) {
+            int index = (int) hash & mask;
+            long entry = data[index];
+            return (keys[index] ^ entry) == hash ? entry : 0;
+        }
+
+        void store(long hash, int depth, int score, int flag, int move) {
+            int index = (int) hash & mask;
+            long entry = ((long) score << 32) | ((long) move << 16) | ((long) depth << 8) | (flag << 1) | 1;
+            data[index] = entry;
+            keys[index] = hash ^ entry;
+        }
+
+        static int score(long entry) {
+            return (int) (entry >> 32);
+        }
+
+        static int move(long entry) {
+            return (int) (entry >>> 16) & 0xFFFF;
+        }
+
+        static int depth(long entry) {
+            return (int) (entry >>> 8) & 0xFF;
+        }
+
+        static int flag(long entry) {
+            return (int) (entry >>> 1) & 0x3;
+        }
+    }
+
+    /**
+     * 单线程搜索引擎
+     * negamax + alpha-beta，被将军时延伸一层；走法排序依次为置换表走法、吃子（MVV-LVA）、
+     * 杀手走法、历史表；叶子节点进入只搜吃子的静态搜索
+     */
+    static class ChessEngine {
+        static final int INFINITY = 1_000_000;
+        static final int MATE = 100_000;
+        private static final int MAX_SEARCH_PLY = 96;
+        // MVV-LVA 用的兵种价值排序
+        private static final int[] CAPTURE_ORDER = {0, 7, 2, 2, 4, 6, 4, 1};
+
+        private final ChessSearch owner;
+        private final Position position;
+        private final int id;
+        private final int[][] moves = new int[Position.MAX_PLY][Position.MAX_MOVES];
+        private final int[][] moveScores = new int[Position.MAX_PLY][Position.MAX_MOVES];
+        private final int[][] killers = new int[Position.MAX_PLY][2];
+        private final int[] history = new int[1 << 14];
+        private int rootBestMove;
+        private long nodes;
+
+        ChessEngine(ChessSearch search, Position position, int id) {
+            this.owner = search;
+            this.position = position;
+            this.id = id;
+        }
+
+        SearchResult iterate() {
+            int bestMove = this.firstLegalMove();
+            int bestScore = 0;
+            int completedDepth = 0;
+            try {
+                for (int depth = 1 + (id & 1); depth <= owner.maxDepth && bestMove != 0; depth++) {
+                    int score = this.search(depth, -INFINITY, INFINITY, 0);
+                    bestMove = rootBestMove;
+                    bestScore = score;
+                    completedDepth = depth;
+                    if (Math.abs(score) >= MATE - MAX_SEARCH_PLY) break; // 已找到杀棋
+                    if (id == 0 && !owner.shouldStartNextDepth()) break;
+                }
+            } catch (SearchAborted ex) {
+                // 丢弃未完成的一层
+            } finally {
+                owner.nodes.addAndGet(nodes);
+                if (id == 0) owner.cancel();
+            }
+            return bestMove == 0 ? null : new SearchResult(bestMove, bestScore, completedDepth, nodes, 0);
+        }
+
+        private int firstLegalMove() {
+            int[] list = moves[0];
+            int count = position.generateMoves(list);
+            int mover = position.side;
+            for (int i = 0; i < count; i++) {
+                position.makeMove(list[i]);
+                boolean legal = !position.inCheck(mover);
+                position.undoMove(list[i]);
+                if (legal) return list[i];
+            }
+            return 0;
+        }
+
+        private int search(int depth, int alpha, int beta, int ply) {
+            if ((++nodes & 1023) == 0 && owner.shouldStop()) throw new SearchAborted();
+            if (ply >= MAX_SEARCH_PLY) return position.evaluate();
+
+            int mover = position.side;
+            boolean inCheck = position.inCheck(mover);
+            if (inCheck) depth++;
+            if (depth <= 0) return this.quiesce(alpha, beta, ply);
+            if (ply > 0 && position.isRepetition()) return 0;
+
+            // 杀棋距离剪枝
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) return alpha;
+
+            long entry = ChessSearch.TABLE.probe(position.hash);
+            int ttMove = 0;
+            if (entry != 0) {
+                ttMove = TranspositionTable.move(entry);
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.score(entry), ply);
+                    int flag = TranspositionTable.flag(entry);
+                    if (flag == TranspositionTable.EXACT
+                        || (flag == TranspositionTable.LOWER && score >= beta)
+                        || (flag == TranspositionTable.UPPER && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+
+            int[] list = moves[ply];
+            int count = position.generateMoves(list);
+            this.scoreMoves(list, count, ttMove, ply);
+
+            int originalAlpha = alpha;
+            int bestScore = -INFINITY;
+            int bestMove = 0;
+            int legalMoves = 0;
+            for (int i = 0; i < count; i++) {
+                int move = this.pickMove(ply, count, i);
+                boolean capture = position.squares[Position.moveTo(move)] != EMPTY;
+                position.makeMove(move);
+                if (position.inCheck(mover)) {
+                    position.undoMove(move);
+                    continue;
+                }
+                legalMoves++;
+                int score = -this.search(depth - 1, -beta, -alpha, ply + 1);
+                position.undoMove(move);
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                    if (ply == 0) rootBestMove = move;
+                }
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) {
+                    if (!capture) {
+                        if (killers[ply][0] != move) {
+                            killers[ply][1] = killers[ply][0];
+                            killers[ply][0] = move;
+                        }
+                        history[move] = Math.min(history[move] + depth * depth, 1 << 22);
+                    }
+                    break;
+                }
+            }
+
+            // 无合法走法：将死或困毙，都判负
+            if (legalMoves == 0) return -MATE + ply;
+
+            int flag = bestScore >= beta ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+            ChessSearch.TABLE.store(position.hash, depth, toTable(bestScore, ply), flag, bestMove);
+            return bestScore;
+        }
+
+        // 静态搜索：只搜吃子直到局面平稳；被将军时搜全部应将走法
+        private int quiesce(int alpha, int beta, int ply) {
+            if ((++nodes & 1023) == 0 && owner.shouldStop()) throw new SearchAborted();
+            if (ply >= MAX_SEARCH_PLY) return position.evaluate();
+
+            int mover = position.side;
+            boolean inCheck = position.inCheck(mover);
+            int bestScore = -MATE + ply;
+            if (!inCheck) {
+                bestScore = position.evaluate();
+                if (bestScore >= beta) return bestScore;
+                if (bestScore > alpha) alpha = bestScore;
+            }
+
+            int[] list = moves[ply];
+            int count = position.generateMoves(list);
+            if (!inCheck) {
+                // 只保留吃子
+                int captures = 0;
+                for (int i = 0; i < count; i++) {
+                    if (position.squares[Position.moveTo(list[i])] != EMPTY) list[captures++] = list[i];
+                }
+                count = captures;
+            }
+            this.scoreMoves(list, count, 0, ply);
+
+            for (int i = 0; i < count; i++) {
+                int move = this.pickMove(ply, count, i);
+                position.makeMove(move);
+                if (position.inCheck(mover)) {
+                    position.undoMove(move);
+                    continue;
+                }
+                int score = -this.quiesce(-beta, -alpha, ply + 1);
+                position.undoMove(move);
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (score > alpha) alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+            return bestScore;
+        }
+
+        private void scoreMoves(int[] list, int count, int ttMove, int ply) {
+            int[] scores = moveScores[ply];
+            for (int i = 0; i < count; i++) {
+                int move = list[i];
+                int victim = position.squares[Position.moveTo(move)];
+                if (move == ttMove) {
+                    scores[i] = 1 << 30;
+                } else if (victim != EMPTY) {
+                    int attacker = position.squares[Position.moveFrom(move)];
+                    scores[i] = (1 << 24) + CAPTURE_ORDER[Position.typeOf(victim)] * 16 - CAPTURE_ORDER[Position.typeOf(attacker)];
+                } else if (move == killers[ply][0]) {
+                    scores[i] = 1 << 23;
+                } else if (move == killers[ply][1]) {
+                    scores[i] = (1 << 23) - 1;
+                } else {
+                    scores[i] = history[move];
+                }
+            }
+        }
+
+        // 选择排序：把剩余走法中得分最高的换到第 index 位
+        private int pickMove(int ply, int count, int index) {
+            int[] list = moves[ply];
+            int[] scores = moveScores[ply];
+            int best = index;
+            for (int i = index + 1; i < count; i++) {
+                if (scores[i] > scores[best]) best = i;
+            }
+            int move = list[best];
+            list[best] = list[index];
+            list[index] = move;
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+            return move;
+        }
+
+        // 置换表中的杀棋分按“距当前节点”保存
+        private static int toTable(int score, int ply) {
+            if (score >= MATE - MAX_SEARCH_PLY) return score + ply;
+            if (score <= -MATE + MAX_SEARCH_PLY) return score - ply;
+            return score;
+        }
+
+        private static int fromTable(int score, int ply) {
+            if (score >= MATE - MAX_SEARCH_PLY) return score - ply;
+            if (score <= -MATE + MAX_SEARCH_PLY) return score + ply;
+            return score;
+        }
+    }
+
     private void setupKeyboardShortcuts() {
         // 添加键盘快捷键支持
         this.addKeyListener(new KeyAdapter() {
@@ -809,6 +1544,12 @@ static class ChineseChess extends JFrame {
                             showHelp();
                         }
                         break;
+                    case KeyEvent.VK_P:
+                        // Ctrl+P 走法测试
+                        if (ev.isControlDown()) {
+                            runPerftBenchmark();
+                        }
+                        break;
                     case KeyEvent.VK_F1:
                         // F1键显示帮助
                         showHelp();
@@ -3,6 +3,13 @@ import java.awt.*;
 import java.awt.event.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * 斗地主游戏
@@ -19,6 +26,7 @@ class FightLandlord extends JFrame {
     private static final int WINDOW_HEIGHT = 700;
     private static final int CARD_WIDTH = 60;
     private static final int CARD_HEIGHT = 80;
+    private static final long THINK_TIME_MILLIS = 800; // 电脑每步的模拟时间
     
     // 游戏状态
     private GameState gameState = GameState.WAITING;
@@ -31,6 +39,8 @@ class FightLandlord extends JFrame {
     private List<Card> lastPlayedCards = new ArrayList<>();
     private int lastPlayer = -1;
     private int passCount = 0;
+    private int[] playedCounts = new int[HandAnalyzer.RANKS]; // 已经出过的牌
+    private int gameId = 0; // 新游戏后丢弃旧的电脑思考结果
     
     // UI组件
     private JPanel gamePanel;
@@ -150,6 +160,8 @@ class FightLandlord extends JFrame {
         lastPlayedCards.clear();
         lastPlayer = -1;
         passCount = 0;
+        playedCounts = new int[HandAnalyzer.RANKS];
+        gameId++;
         
         // 清空所有牌
         playerCards.clear();
@@ -271,6 +283,10 @@ class FightLandlord extends JFrame {
             
             updateUI();
         } else if (gameState == GameState.PLAYING) {
+            if (lastPlayedCards.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "轮到你先出牌，不能不要！");
+                return;
+            }
             passCount++;
             nextPlayer();
             
@@ -309,6 +325,7 @@ class FightLandlord extends JFrame {
         
         // 出牌
         playerCards.removeAll(cardsToPlay);
+        recordPlayed(cardsToPlay);
         lastPlayedCards = new ArrayList<>(cardsToPlay);
         lastPlayer = 0;
         passCount = 0;
@@ -321,7 +338,9 @@ class FightLandlord extends JFrame {
         }
         
         nextPlayer();
-        statusLabel.setText("玩家出牌：" + formatCards(cardsToPlay));
+        statusLabel.setText("玩家出牌" + describe(cardsToPlay) + "：" + formatCards(cardsToPlay));
+        passBtn.setEnabled(false);
+        playBtn.setEnabled(false);
         
         updateUI();
         
@@ -331,9 +350,47 @@ class FightLandlord extends JFrame {
         timer.start();
     }
     
+    // 电脑在后台线程里搜索，完成后回到事件线程出牌
     private void computerPlay() {
+        if (gameState != GameState.PLAYING) return;
+        int seat = currentPlayer;
+        int id = gameId;
+        var situation = buildSituation(seat);
+        statusLabel.setText(getPlayerName(seat) + "思考中...");
+        
+        new SwingWorker<LandlordAI.Decision, Void>() {
+            @Override
+            protected LandlordAI.Decision doInBackground() throws Exception {
+                return LandlordAI.choose(situation, THINK_TIME_MILLIS);
+            }
+            
+            @Override
+            protected void done() {
+                if (id != gameId) return;
+                try {
+                    applyComputerPlay(get().play());
+                } catch (InterruptedException | ExecutionException e) {
+                    statusLabel.setText("电脑出牌出错：" + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+    
+    private LandlordAI.Situation buildSituation(int seat) {
+        int[] hand = HandAnalyzer.countsOf(getPlayerCards(seat));
+        int[] unseen = new int[HandAnalyzer.RANKS];
+        for (Card card : createDeck()) unseen[card.getRank() - 3]++;
+        for (int rank = 0; rank < HandAnalyzer.RANKS; rank++) {
+            unseen[rank] -= hand[rank] + playedCounts[rank];
+        }
+        int[] handSizes = {playerCards.size(), computer1Cards.size(), computer2Cards.size()};
+        Play lastPlay = lastPlayedCards.isEmpty() ? null : HandAnalyzer.recognize(HandAnalyzer.countsOf(lastPlayedCards));
+        return new LandlordAI.Situation(seat, landlord, hand, unseen, handSizes, lastPlay, lastPlayer);
+    }
+    
+    private void applyComputerPlay(Play play) {
         List<Card> computerCards = getCurrentPlayerCards();
-        List<Card> cardsToPlay = findComputerPlay(computerCards);
+        List<Card> cardsToPlay = play == null ? new ArrayList<>() : takeCards(computerCards, play.counts());
         
         if (cardsToPlay.isEmpty()) {
             // 电脑选择不要
@@ -342,10 +399,11 @@ class FightLandlord extends JFrame {
         } else {
             // 电脑出牌
             computerCards.removeAll(cardsToPlay);
+            recordPlayed(cardsToPlay);
             lastPlayedCards = new ArrayList<>(cardsToPlay);
             lastPlayer = currentPlayer;
             passCount = 0;
-            statusLabel.setText(getPlayerName(currentPlayer) + "出牌：" + formatCards(cardsToPlay));
+            statusLabel.setText(getPlayerName(currentPlayer) + "出牌" + describe(cardsToPlay) + "：" + formatCards(cardsToPlay));
             
             // 检查游戏结束
             if (computerCards.isEmpty()) {
@@ -374,96 +432,50 @@ class FightLandlord extends JFrame {
         }
     }
     
-    private List<Card> getCurrentPlayerCards() {
-        return switch (currentPlayer) {
+    // 按点数计数从手牌里取出具体的牌
+    private List<Card> takeCards(List<Card> hand, int[] counts) {
+        int[] remaining = counts.clone();
+        List<Card> cards = new ArrayList<>();
+        for (Card card : hand) {
+            int index = card.getRank() - 3;
+            if (remaining[index] > 0) {
+                remaining[index]--;
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+    
+    private void recordPlayed(List<Card> cards) {
+        for (Card card : cards) playedCounts[card.getRank() - 3]++;
+    }
+    
+    private String describe(List<Card> cards) {
+        Play play = HandAnalyzer.recognize(HandAnalyzer.countsOf(cards));
+        return play == null ? "" : "（" + play.type().getDisplayName() + "）";
+    }
+    
+    private List<Card> getPlayerCards(int player) {
+        return switch (player) {
             case 1 -> computer1Cards;
             case 2 -> computer2Cards;
             default -> playerCards;
         };
     }
     
-    private List<Card> findComputerPlay(List<Card> cards) {
-        // 简化的电脑出牌逻辑
-        if (lastPlayedCards.isEmpty()) {
-            // 首次出牌，出最小的单牌
-            return List.of(cards.get(0));
-        }
-        
-        // 尝试找到能压过上家的牌
-        CardType lastType = getCardType(lastPlayedCards);
-        
-        for (int i = 0; i < cards.size(); i++) {
-            List<Card> candidate = List.of(cards.get(i));
-            if (getCardType(candidate) == lastType && 
-                canBeat(candidate, lastPlayedCards)) {
-                return candidate;
-            }
-        }
-        
-        return new ArrayList<>(); // 没有合适的牌，选择不要
+    private List<Card> getCurrentPlayerCards() {
+        return getPlayerCards(currentPlayer);
     }
     
     private boolean isValidPlay(List<Card> cards) {
         if (cards.isEmpty()) return false;
         
-        CardType type = getCardType(cards);
-        if (type == CardType.INVALID) return false;
+        Play play = HandAnalyzer.recognize(HandAnalyzer.countsOf(cards));
+        if (play == null) return false;
         
         if (lastPlayedCards.isEmpty()) return true;
         
-        return canBeat(cards, lastPlayedCards);
-    }
-    
-    private boolean canBeat(List<Card> cards, List<Card> lastCards) {
-        CardType type1 = getCardType(cards);
-        CardType type2 = getCardType(lastCards);
-        
-        // 王炸可以压任何牌
-        if (type1 == CardType.ROCKET) return true;
-        if (type2 == CardType.ROCKET) return false;
-        
-        // 炸弹可以压非炸弹
-        if (type1 == CardType.BOMB && type2 != CardType.BOMB) return true;
-        if (type2 == CardType.BOMB && type1 != CardType.BOMB) return false;
-        
-        // 同类型比较大小
-        if (type1 == type2 && cards.size() == lastCards.size()) {
-            return getCardValue(cards.get(0)) > getCardValue(lastCards.get(0));
-        }
-        
-        return false;
-    }
-    
-    private CardType getCardType(List<Card> cards) {
-        if (cards.isEmpty()) return CardType.INVALID;
-        
-        int size = cards.size();
-        
-        if (size == 1) return CardType.SINGLE;
-        if (size == 2) {
-            if (cards.get(0).getRank() == 16 && cards.get(1).getRank() == 17) {
-                return CardType.ROCKET; // 王炸
-            }
-            if (cards.get(0).getRank() == cards.get(1).getRank()) {
-                return CardType.PAIR;
-            }
-        }
-        if (size == 4) {
-            if (cards.stream().allMatch(c -> c.getRank() == cards.get(0).getRank())) {
-                return CardType.BOMB;
-            }
-        }
-        
-        return CardType.INVALID;
-    }
-    
-    private int getCardValue(Card card) {
-        int rank = card.getRank();
-        if (rank == 16) return 20; // 小王
-        if (rank == 17) return 21; // 大王
-        if (rank == 15) return 17; // 2
-        if (rank == 14) return 16; // A
-        return rank;
+        return play.beats(HandAnalyzer.recognize(HandAnalyzer.countsOf(lastPlayedCards)));
     }
     
     private void nextPlayer() {
@@ -588,8 +600,24 @@ class FightLandlord extends JFrame {
         WAITING, DEALING, CALLING_LANDLORD, PLAYING, GAME_OVER
     }
     
+    // 识别时按声明顺序取第一个用完全部牌的牌型
     enum CardType {
-        INVALID, SINGLE, PAIR, BOMB, ROCKET
+        INVALID("无效"), SINGLE("单张"), PAIR("对子"), TRIPLE("三张"),
+        TRIPLE_WITH_SINGLE("三带一"), TRIPLE_WITH_PAIR("三带二"),
+        STRAIGHT("顺子"), CONSECUTIVE_PAIRS("连对"),
+        AIRPLANE("飞机"), AIRPLANE_WITH_SINGLES("飞机带单"), AIRPLANE_WITH_PAIRS("飞机带对"),
+        FOUR_WITH_TWO_SINGLES("四带二"), FOUR_WITH_TWO_PAIRS("四带两对"),
+        BOMB("炸弹"), ROCKET("王炸");
+        
+        private final String displayName;
+        
+        CardType(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
     }
     
     // 扑克牌类
@@ -655,4 +683,438 @@ class FightLandlord extends JFrame {
             return Objects.hash(suit, rank);
         }
     }
+
+    /**
+     * 一手牌：牌型、主牌最小点数、连续长度（顺子/连对/飞机的节数，其它为 1）和各点数用牌数
+     */
+    record Play(CardType type, int rank, int length, int[] counts) {
+        int size() {
+            int size = 0;
+            for (int count : counts) size += count;
+            return size;
+        }
+
+        boolean isBomb() {
+            return type == CardType.BOMB || type == CardType.ROCKET;
+        }
+
+        boolean beats(Play other) {
+            if (type == CardType.ROCKET) return true;
+            if (other.type == CardType.ROCKET) return false;
+            if (type == CardType.BOMB && other.type != CardType.BOMB) return true;
+            if (type != other.type || length != other.length || size() != other.size()) return false;
+            return rank > other.rank;
+        }
+    }
+
+    /**
+     * 牌型分析：手牌用点数计数数组表示，下标 0..14 对应 3..K、A、2、小王、大王。
+     * 所有牌型都由同一套生成器枚举，识别出牌时也用它，保证判定和枚举一致
+     */
+    static final class HandAnalyzer {
+        static final int RANKS = 15;
+        static final int ACE = 11; // 顺子、连对、飞机最大到 A
+        static final int TWO = 12;
+        static final int SMALL_JOKER = 13;
+        static final int BIG_JOKER = 14;
+
+        static int[] countsOf(List<Card> cards) {
+            int[] counts = new int[RANKS];
+            for (Card card : cards) counts[card.getRank() - 3]++;
+            return counts;
+        }
+
+        /**
+         * 识别一组牌的牌型，不合法返回 null
+         */
+        static Play recognize(int[] counts) {
+            int size = 0;
+            for (int count : counts) size += count;
+            if (size == 0) return null;
+            for (Play play : leads(counts)) {
+                if (play.size() == size) return play;
+            }
+            return null;
+        }
+
+        /**
+         * 主动出牌时的全部合法出法
+         */
+        static List<Play> leads(int[] hand) {
+            List<Play> plays = new ArrayList<>();
+            for (CardType type : CardType.values()) {
+                if (type != CardType.INVALID) generate(hand, type, 0, -1, plays);
+            }
+            return plays;
+        }
+
+        /**
+         * 能压过 last 的全部出法（不含"不要"）
+         */
+        static List<Play> responses(int[] hand, Play last) {
+            List<Play> plays = new ArrayList<>();
+            if (last.type() == CardType.ROCKET) return plays;
+            if (last.type() != CardType.BOMB) generate(hand, last.type(), last.length(), last.rank(), plays);
+            int minBomb = last.type() == CardType.BOMB ? last.rank() : -1;
+            generate(hand, CardType.BOMB, 0, minBomb, plays);
+            generate(hand, CardType.ROCKET, 0, -1, plays);
+            return plays;
+        }
+
+        // length 为 0 表示任意长度，只生成主牌点数大于 above 的出法
+        private static void generate(int[] hand, CardType type, int length, int above, List<Play> out) {
+            switch (type) {
+                case SINGLE -> sets(hand, type, 1, 0, 0, above, out);
+                case PAIR -> sets(hand, type, 2, 0, 0, above, out);
+                case TRIPLE -> sets(hand, type, 3, 0, 0, above, out);
+                case TRIPLE_WITH_SINGLE -> sets(hand, type, 3, 1, 1, above, out);
+                case TRIPLE_WITH_PAIR -> sets(hand, type, 3, 1, 2, above, out);
+                case FOUR_WITH_TWO_SINGLES -> sets(hand, type, 4, 2, 1, above, out);
+                case FOUR_WITH_TWO_PAIRS -> sets(hand, type, 4, 2, 2, above, out);
+                case BOMB -> sets(hand, type, 4, 0, 0, above, out);
+                case STRAIGHT -> chains(hand, type, 1, 5, 0, length, above, out);
+                case CONSECUTIVE_PAIRS -> chains(hand, type, 2, 3, 0, length, above, out);
+                case AIRPLANE -> chains(hand, type, 3, 2, 0, length, above, out);
+                case AIRPLANE_WITH_SINGLES -> chains(hand, type, 3, 2, 1, length, above, out);
+                case AIRPLANE_WITH_PAIRS -> chains(hand, type, 3, 2, 2, length, above, out);
+                case ROCKET -> {
+                    if (hand[SMALL_JOKER] > 0 && hand[BIG_JOKER] > 0) {
+                        int[] counts = new int[RANKS];
+                        counts[SMALL_JOKER] = 1;
+                        counts[BIG_JOKER] = 1;
+                        out.add(new Play(type, SMALL_JOKER, 1, counts));
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        // 单张、对子、三张、四张及其带牌
+        private static void sets(int[] hand, CardType type, int width, int kickers, int kickerWidth, int above, List<Play> out) {
+            int maxRank = width == 1 ? BIG_JOKER : TWO;
+            for (int rank = above + 1; rank <= maxRank; rank++) {
+                if (width == 4 ? hand[rank] != 4 : hand[rank] < width) continue;
+                int[] main = new int[RANKS];
+                main[rank] = width;
+                if (kickers == 0) {
+                    out.add(new Play(type, rank, 1, main));
+                } else {
+                    addKickers(hand, main, kickers, kickerWidth, 0, type, rank, 1, out);
+                }
+                if (type == CardType.FOUR_WITH_TWO_SINGLES) {
+                    // 四带二的两张单牌也可以是一对
+                    for (int kicker = 0; kicker <= TWO; kicker++) {
+                        if (kicker == rank || hand[kicker] < 2) continue;
+                        int[] counts = main.clone();
+                        counts[kicker] = 2;
+                        out.add(new Play(type, rank, 1, counts));
+                    }
+                }
+            }
+        }
+
+        // 顺子、连对、飞机（可带牌）
+        private static void chains(int[] hand, CardType type, int width, int minLength, int kickerWidth, int length, int above, List<Play> out) {
+            int maxCards = 20;
+            for (int start = above + 1; start <= ACE; start++) {
+                for (int end = start; end <= ACE && hand[end] >= width; end++) {
+                    int chainLength = end - start + 1;
+                    if (chainLength < minLength || (length > 0 && chainLength != length)) continue;
+                    if (chainLength * (width + kickerWidth) > maxCards) break;
+                    int[] main = new int[RANKS];
+                    for (int rank = start; rank <= end; rank++) main[rank] = width;
+                    if (kickerWidth == 0) {
+                        out.add(new Play(type, start, chainLength, main));
+                    } else {
+                        addKickers(hand, main, chainLength, kickerWidth, 0, type, start, chainLength, out);
+                    }
+                }
+            }
+        }
+
+        // 从主牌以外的点数里选 remaining 个不同点数作带牌，单张不能同时带大小王
+        private static void addKickers(int[] hand, int[] counts, int remaining, int kickerWidth, int from,
+                                       CardType type, int rank, int length, List<Play> out) {
+            if (remaining == 0) {
+                out.add(new Play(type, rank, length, counts.clone()));
+                return;
+            }
+            int maxRank = kickerWidth == 1 ? BIG_JOKER : TWO;
+            for (int kicker = from; kicker <= maxRank; kicker++) {
+                if (counts[kicker] != 0 || hand[kicker] < kickerWidth) continue;
+                if (kicker == BIG_JOKER && counts[SMALL_JOKER] != 0) continue;
+                counts[kicker] = kickerWidth;
+                addKickers(hand, counts, remaining - 1, kickerWidth, kicker + 1, type, rank, length, out);
+                counts[kicker] = 0;
+            }
+        }
+
+        static int[] subtract(int[] hand, int[] counts) {
+            int[] result = hand.clone();
+            for (int rank = 0; rank < RANKS; rank++) result[rank] -= counts[rank];
+            return result;
+        }
+
+        /**
+         * 估算出完手牌还需要几手：拆成单、对、三、顺子、连对、飞机、炸弹的最少手数，
+         * 三张和飞机可以带走单牌或对子。枚举时最小点数的牌必须在本手里，节点数有上限
+         */
+        static int estimateTurns(int[] hand) {
+            var decomposer = new Decomposer();
+            decomposer.search(hand.clone(), 0, 0, 0, 0);
+            return decomposer.best;
+        }
+
+        private static final class Decomposer {
+            private static final int MAX_NODES = 20_000;
+            int best = Integer.MAX_VALUE;
+            int nodes;
+
+            void search(int[] hand, int from, int plays, int capacity, int smalls) {
+                if (++nodes > MAX_NODES && best != Integer.MAX_VALUE) return;
+                int rank = from;
+                while (rank < RANKS && hand[rank] == 0) rank++;
+                if (rank == RANKS) {
+                    best = Math.min(best, plays - Math.min(capacity, smalls));
+                    return;
+                }
+                if (plays - capacity >= best) return;
+
+                if (rank == SMALL_JOKER && hand[BIG_JOKER] > 0) {
+                    take(hand, rank, rank, 1);
+                    hand[BIG_JOKER]--;
+                    search(hand, rank, plays + 1, capacity, smalls);
+                    hand[BIG_JOKER]++;
+                    give(hand, rank, rank, 1);
+                }
+                // 先试长的连牌，较早得到好的上界
+                for (int width = 3; width >= 1; width--) {
+                    int minLength = width == 1 ? 5 : width == 2 ? 3 : 2;
+                    int end = rank;
+                    while (end <= ACE && hand[end] >= width) end++;
+                    for (int last = end - 1; last - rank + 1 >= minLength; last--) {
+                        int length = last - rank + 1;
+                        take(hand, rank, last, width);
+                        search(hand, rank, plays + 1, capacity + (width == 3 ? length : 0), smalls);
+                        give(hand, rank, last, width);
+                    }
+                }
+                if (hand[rank] == 4) {
+                    take(hand, rank, rank, 4);
+                    search(hand, rank, plays + 1, capacity, smalls);
+                    give(hand, rank, rank, 4);
+                }
+                for (int width = Math.min(3, hand[rank]); width >= 1; width--) {
+                    take(hand, rank, rank, width);
+                    search(hand, rank, plays + 1, capacity + (width == 3 ? 1 : 0), smalls + (width < 3 && rank < TWO ? 1 : 0));
+                    give(hand, rank, rank, width);
+                }
+            }
+
+            private static void take(int[] hand, int from, int to, int width) {
+                for (int rank = from; rank <= to; rank++) hand[rank] -= width;
+            }
+
+            private static void give(int[] hand, int from, int to, int width) {
+                for (int rank = from; rank <= to; rank++) hand[rank] += width;
+            }
+        }
+    }
+
+    /**
+     * 电脑出牌：先按拆牌手数给候选出法排序，保留前几名，
+     * 再在限定时间内用线程池并行做蒙特卡洛模拟——随机分配对手的未知牌，双方按简单策略打完，
+     * 选胜率最高的出法
+     */
+    static final class LandlordAI {
+        private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+        private static final ExecutorService POOL = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "landlord-ai");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private static final int MAX_CANDIDATES = 12;
+        private static final int MAX_ROLLOUT_PLAYS = 200;
+
+        /**
+         * 当前座位看到的局面：自己的手牌、所有未出现的牌、各家剩余张数、上一手牌（null 表示自己先出）
+         */
+        record Situation(int me, int landlord, int[] hand, int[] unseen, int[] handSizes, Play lastPlay, int lastPlayer) {}
+
+        record Decision(Play play, double winRate, int rollouts) {}
+
+        /**
+         * 返回要出的牌，play 为 null 表示不要
+         */
+        static Decision choose(Situation situation, long timeLimitMillis) throws InterruptedException {
+            boolean leading = situation.lastPlay() == null || situation.lastPlayer() == situation.me();
+            List<Play> plays = leading ? HandAnalyzer.leads(situation.hand()) : HandAnalyzer.responses(situation.hand(), situation.lastPlay());
+            int handSize = situation.handSizes()[situation.me()];
+            for (Play play : plays) {
+                if (play.size() == handSize) return new Decision(play, 1, 0);
+            }
+            if (plays.isEmpty()) return new Decision(null, 0, 0);
+
+            // 按出牌后剩余手数排序，炸弹不是最后一手时额外扣分
+            Map<Play, Integer> priors = new HashMap<>();
+            for (Play play : plays) {
+                int turns = HandAnalyzer.estimateTurns(HandAnalyzer.subtract(situation.hand(), play.counts()));
+                priors.put(play, turns * 4 + (play.isBomb() ? 3 : 0) + (play.rank() > HandAnalyzer.ACE ? 1 : 0));
+            }
+            plays.sort(Comparator.comparingInt((Play play) -> priors.get(play)).thenComparingInt(Play::rank));
+            List<Play> candidates = new ArrayList<>(plays.subList(0, Math.min(MAX_CANDIDATES, plays.size())));
+            if (!leading) candidates.add(null);
+            if (candidates.size() == 1) return new Decision(candidates.get(0), 0, 0);
+
+            int n = candidates.size();
+            var wins = new AtomicIntegerArray(n);
+            var visits = new AtomicIntegerArray(n);
+            var next = new AtomicInteger();
+            long deadline = System.nanoTime() + timeLimitMillis * 1_000_000;
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(POOL.submit(() -> {
+                    var random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        int index = next.getAndIncrement() % n;
+                        if (rollout(situation, candidates.get(index), random)) wins.incrementAndGet(index);
+                        visits.incrementAndGet(index);
+                    }
+                }));
+            }
+            try {
+                for (Future<?> future : futures) future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw e;
+            }
+
+            int best = 0;
+            double bestRate = -1;
+            int total = 0;
+            for (int i = 0; i < n; i++) {
+                total += visits.get(i);
+                double rate = visits.get(i) == 0 ? 0 : wins.get(i) / (double) visits.get(i);
+                if (rate > bestRate + 1e-9) {
+                    best = i;
+                    bestRate = rate;
+                }
+            }
+            return new Decision(candidates.get(best), bestRate, total);
+        }
+
+        // 随机分配未知牌后打完一局，返回自己一方是否获胜
+        static boolean rollout(Situation situation, Play candidate, Random random) {
+            int me = situation.me();
+            int landlord = situation.landlord();
+            int[][] hands = deal(situation, random);
+            int[] sizes = situation.handSizes().clone();
+
+            Play last = situation.lastPlay();
+            int lastPlayer = situation.lastPlayer();
+            int current = me;
+            Play play = candidate;
+            for (int step = 0; step < MAX_ROLLOUT_PLAYS; step++) {
+                if (step > 0) {
+                    if (last != null && lastPlayer == current) last = null;
+                    play = last == null ? leadPolicy(hands[current], sizes[current]) : followPolicy(hands, sizes, current, landlord, last, lastPlayer);
+                }
+                if (play != null) {
+                    int[] hand = hands[current];
+                    for (int rank = 0; rank < HandAnalyzer.RANKS; rank++) hand[rank] -= play.counts()[rank];
+                    sizes[current] -= play.size();
+                    if (sizes[current] == 0) return (current == landlord) == (me == landlord);
+                    last = play;
+                    lastPlayer = current;
+                }
+                current = (current + 1) % 3;
+            }
+            return false;
+        }
+
+        private static int[][] deal(Situation situation, Random random) {
+            int me = situation.me();
+            int[][] hands = new int[3][];
+            hands[me] = situation.hand().clone();
+            int unseenTotal = 0;
+            for (int count : situation.unseen()) unseenTotal += count;
+            int[] pool = new int[unseenTotal];
+            int k = 0;
+            for (int rank = 0; rank < HandAnalyzer.RANKS; rank++) {
+                for (int i = 0; i < situation.unseen()[rank]; i++) pool[k++] = rank;
+            }
+            for (int i = pool.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = pool[i];
+                pool[i] = pool[j];
+                pool[j] = tmp;
+            }
+            int offset = 0;
+            for (int seat = 0; seat < 3; seat++) {
+                if (seat == me) continue;
+                hands[seat] = new int[HandAnalyzer.RANKS];
+                for (int i = 0; i < situation.handSizes()[seat]; i++) hands[seat][pool[offset++]]++;
+            }
+            return hands;
+        }
+
+        // 模拟用的先手策略：从最小的牌出，优先能带走它的最长组合
+        static Play leadPolicy(int[] hand, int size) {
+            if (size <= 6) {
+                Play whole = HandAnalyzer.recognize(hand);
+                if (whole != null) return whole;
+            }
+            int rank = 0;
+            while (hand[rank] == 0) rank++;
+            int[] counts = new int[HandAnalyzer.RANKS];
+            if (rank == HandAnalyzer.SMALL_JOKER && hand[HandAnalyzer.BIG_JOKER] > 0) {
+                counts[rank] = 1;
+                counts[HandAnalyzer.BIG_JOKER] = 1;
+                return new Play(CardType.ROCKET, rank, 1, counts);
+            }
+            int count = hand[rank];
+            if (count == 4) {
+                counts[rank] = 4;
+                return new Play(CardType.BOMB, rank, 1, counts);
+            }
+            int end = rank;
+            while (end <= HandAnalyzer.ACE && hand[end] >= count) end++;
+            int length = end - rank;
+            if ((count == 1 && length >= 5) || (count == 2 && length >= 3) || (count == 3 && length >= 2)) {
+                for (int r = rank; r < end; r++) counts[r] = count;
+                CardType type = count == 1 ? CardType.STRAIGHT : count == 2 ? CardType.CONSECUTIVE_PAIRS : CardType.AIRPLANE;
+                return new Play(type, rank, length, counts);
+            }
+            counts[rank] = count;
+            if (count == 3) {
+                // 三带一个最小的单张或对子
+                for (int width = 1; width <= 2; width++) {
+                    for (int kicker = 0; kicker < HandAnalyzer.TWO; kicker++) {
+                        if (kicker != rank && hand[kicker] == width) {
+                            counts[kicker] = width;
+                            return new Play(width == 1 ? CardType.TRIPLE_WITH_SINGLE : CardType.TRIPLE_WITH_PAIR, rank, 1, counts);
+                        }
+                    }
+                }
+                return new Play(CardType.TRIPLE, rank, 1, counts);
+            }
+            return new Play(count == 1 ? CardType.SINGLE : CardType.PAIR, rank, 1, counts);
+        }
+
+        // 模拟用的跟牌策略：能出完就出完；不压队友；否则用最小的同型牌，对手快出完时才用炸弹
+        static Play followPolicy(int[][] hands, int[] sizes, int current, int landlord, Play last, int lastPlayer) {
+            List<Play> responses = HandAnalyzer.responses(hands[current], last);
+            if (responses.isEmpty()) return null;
+            for (Play play : responses) {
+                if (play.size() == sizes[current]) return play;
+            }
+            if (current != landlord && lastPlayer != landlord) return null;
+            for (Play play : responses) {
+                if (!play.isBomb()) return play;
+            }
+            return sizes[lastPlayer] <= 6 ? responses.get(0) : null;
+        }
+    }
 }
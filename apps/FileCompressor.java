@@ -1,8 +1,37 @@
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.*;
 
 void main(String[] args) {
@@ -12,10 +41,23 @@ void main(String[] args) {
 }
 
 static class FileCompressor extends JFrame {
+    // 并行压缩：每块原始数据大小与 deflate 预设字典大小
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final String[] LEVEL_NAMES = {"0 - 仅存储", "1 - 最快", "3 - 较快", "6 - 标准", "9 - 最小"};
+    private static final int[] LEVELS = {0, 1, 3, 6, 9};
+    private static final int MAX_LOG_LINES_PER_FLUSH = 20;
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+        "jpg", "jpeg", "png", "gif", "webp", "heic", "mp3", "aac", "ogg", "flac", "m4a",
+        "mp4", "mkv", "mov", "avi", "webm", "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "zst",
+        "jar", "apk", "docx", "xlsx", "pptx");
+
     private JTextArea logArea;
     private JProgressBar progressBar;
     private JLabel statusLabel;
     private JButton compressButton, decompressButton;
+    private JComboBox<String> levelBox;
+    private JCheckBox storeCompressedBox;
     
     public FileCompressor() {
         setTitle("文件压缩工具");
@@ -41,8 +83,18 @@ static class FileCompressor extends JFrame {
         decompressButton.setFont(new Font("微软雅黑", Font.PLAIN, 14));
         decompressButton.addActionListener(this::decompressFile);
         
+        levelBox = new JComboBox<>(LEVEL_NAMES);
+        levelBox.setSelectedIndex(3);
+        levelBox.setToolTipText("压缩级别");
+
+        storeCompressedBox = new JCheckBox("已压缩格式仅存储", true);
+        storeCompressedBox.setToolTipText("jpg、mp4、zip 等已压缩的文件直接存储，不再压缩");
+
         controlPanel.add(compressButton);
         controlPanel.add(decompressButton);
+        controlPanel.add(new JLabel("级别:"));
+        controlPanel.add(levelBox);
+        controlPanel.add(storeCompressedBox);
         
         // 进度面板
         var progressPanel = new JPanel(new BorderLayout());
@@ -105,7 +157,7 @@ static class FileCompressor extends JFrame {
                     zipFile = new File(zipFile.getAbsolutePath() + ".zip");
                 }
                 
-                compressFilesAsync(selectedFiles, zipFile);
+                compressFilesAsync(selectedFiles, zipFile, LEVELS[levelBox.getSelectedIndex()], storeCompressedBox.isSelected());
             }
         }
     }
@@ -116,21 +168,102 @@ static class FileCompressor extends JFrame {
         fileChooser.setDialogTitle("选择要解压的ZIP文件");
         
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-            var zipFile = fileChooser.getSelectedFile();
-            
-            // 选择解压目录
-            var dirChooser = new JFileChooser();
-            dirChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
-            dirChooser.setDialogTitle("选择解压目录");
-            
-            if (dirChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-                var extractDir = dirChooser.getSelectedFile();
-                decompressFileAsync(zipFile, extractDir);
+            openArchiveAsync(fileChooser.getSelectedFile());
+        }
+    }
+
+    // 只读取中央目录即可列出全部条目，无需解压任何数据
+    private void openArchiveAsync(File zipFile) {
+        statusLabel.setText("正在读取目录: " + zipFile.getName());
+        new Thread(() -> {
+            try (var zip = new ZipFile(zipFile)) {
+                var entries = Collections.list(zip.entries());
+                SwingUtilities.invokeLater(() -> {
+                    statusLabel.setText("选择要压缩或解压的文件");
+                    showArchiveDialog(zipFile, entries);
+                });
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() -> {
+                    statusLabel.setText("读取失败: " + ex.getMessage());
+                    addLog("读取失败: " + ex.getMessage());
+                });
+            }
+        }).start();
+    }
+
+    private void showArchiveDialog(File zipFile, List<? extends ZipEntry> entries) {
+        var dialog = new JDialog(this, zipFile.getName(), true);
+        dialog.setLayout(new BorderLayout());
+
+        var totalSize = 0L;
+        for (var entry : entries) {
+            totalSize += Math.max(0, entry.getSize());
+        }
+
+        var model = new ZipEntryTableModel(entries);
+        var table = new JTable(model);
+        table.setAutoCreateRowSorter(true);
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        table.getColumnModel().getColumn(0).setPreferredWidth(360);
+
+        var summary = new JLabel(String.format("%d 个条目，解压后共 %s", entries.size(), formatFileSize(totalSize)));
+        summary.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+
+        var extractSelected = new JButton("解压选中");
+        extractSelected.addActionListener(ev -> {
+            var rows = table.getSelectedRows();
+            if (rows.length == 0) {
+                JOptionPane.showMessageDialog(dialog, "请先选择要解压的条目");
+                return;
+            }
+            // 选中目录时包含其下的全部条目
+            var selected = new LinkedHashSet<ZipEntry>();
+            for (var row : rows) {
+                var entry = entries.get(table.convertRowIndexToModel(row));
+                selected.add(entry);
+                if (entry.isDirectory()) {
+                    for (var child : entries) {
+                        if (child.getName().startsWith(entry.getName())) selected.add(child);
+                    }
+                }
             }
+            dialog.dispose();
+            chooseExtractDirectory(zipFile, new ArrayList<>(selected));
+        });
+
+        var extractAll = new JButton("全部解压");
+        extractAll.addActionListener(ev -> {
+            dialog.dispose();
+            chooseExtractDirectory(zipFile, new ArrayList<>(entries));
+        });
+
+        var cancel = new JButton("取消");
+        cancel.addActionListener(ev -> dialog.dispose());
+
+        var buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(extractSelected);
+        buttonPanel.add(extractAll);
+        buttonPanel.add(cancel);
+
+        dialog.add(summary, BorderLayout.NORTH);
+        dialog.add(new JScrollPane(table), BorderLayout.CENTER);
+        dialog.add(buttonPanel, BorderLayout.SOUTH);
+        dialog.setSize(640, 420);
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+
+    private void chooseExtractDirectory(File zipFile, List<ZipEntry> entries) {
+        var dirChooser = new JFileChooser();
+        dirChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        dirChooser.setDialogTitle("选择解压目录");
+
+        if (dirChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            extractEntriesAsync(zipFile, entries, dirChooser.getSelectedFile());
         }
     }
     
-    private void compressFilesAsync(File[] files, File zipFile) {
+    private void compressFilesAsync(File[] files, File zipFile, int level, boolean storeCompressed) {
         compressButton.setEnabled(false);
         decompressButton.setEnabled(false);
         
@@ -142,7 +275,7 @@ static class FileCompressor extends JFrame {
         
         new Thread(() -> {
             try {
-                compressFilesInternal(files, zipFile);
+                compressFilesInternal(files, zipFile, level, storeCompressed);
                 
                 SwingUtilities.invokeLater(() -> {
                     progressBar.setValue(100);
@@ -167,7 +300,7 @@ static class FileCompressor extends JFrame {
         }).start();
     }
     
-    private void decompressFileAsync(File zipFile, File extractDir) {
+    private void extractEntriesAsync(File zipFile, List<ZipEntry> entries, File extractDir) {
         compressButton.setEnabled(false);
         decompressButton.setEnabled(false);
         
@@ -179,7 +312,7 @@ static class FileCompressor extends JFrame {
         
         new Thread(() -> {
             try {
-                decompressFileInternal(zipFile, extractDir);
+                extractEntriesInternal(zipFile, entries, extractDir);
                 
                 SwingUtilities.invokeLater(() -> {
                     progressBar.setValue(100);
@@ -203,138 +336,241 @@ static class FileCompressor extends JFrame {
         }).start();
     }
     
-    private void compressFilesInternal(File[] files, File zipFile) throws IOException {
+    /**
+     * 并行压缩流水线
+     * 每个文件按 CHUNK_SIZE 切块，块在线程池上独立压缩（后续块以前 32KB 作为预设字典，压缩率接近整体压缩），
+     * 写出线程按顺序取回结果写入归档；同时在途的块数量有上限，内存占用与文件大小无关
+     */
+    private void compressFilesInternal(File[] files, File zipFile, int level, boolean storeCompressed) throws Exception {
         addLog("开始压缩 " + files.length + " 个文件/文件夹");
-        
-        try (var fos = new FileOutputStream(zipFile);
-             var zos = new ZipOutputStream(fos)) {
-            
-            int totalFiles = countFiles(files);
-            int processedFiles = 0;
-            
-            for (var file : files) {
-                if (file.isDirectory()) {
-                    processedFiles = compressDirectory(zos, file, file.getName(), processedFiles, totalFiles);
-                } else {
-                    compressFile(zos, file, file.getName());
+        var startTime = System.nanoTime();
+
+        var sources = new ArrayList<ZipSource>();
+        for (var file : files) {
+            collectSources(file, file.getName(), level == 0 || storeCompressed, level == 0, sources);
+        }
+        var totalBytes = 0L;
+        for (var source : sources) {
+            totalBytes += source.size();
+        }
+
+        var threads = Runtime.getRuntime().availableProcessors();
+        var pool = Executors.newFixedThreadPool(threads);
+        // 记录每个线程创建的 Deflater，结束时统一释放本地内存
+        var created = new ConcurrentLinkedQueue<Deflater>();
+        var deflaters = ThreadLocal.withInitial(() -> {
+            var deflater = new Deflater(level, true);
+            created.add(deflater);
+            return deflater;
+        });
+        var buffers = ThreadLocal.withInitial(() -> new byte[DICTIONARY_SIZE + CHUNK_SIZE]);
+        try (var writer = new ParallelZipWriter(zipFile.toPath())) {
+            var pending = new ArrayDeque<Future<ZipBlock>>();
+            var jobs = new BlockJobs(sources);
+            var window = threads * 4;
+            var processedFiles = 0;
+
+            while (jobs.hasNext() || !pending.isEmpty()) {
+                while (pending.size() < window && jobs.hasNext()) {
+                    var job = jobs.next();
+                    pending.add(pool.submit(() -> compressBlock(job, deflaters.get(), buffers.get())));
+                }
+                ZipBlock block;
+                try {
+                    block = pending.poll().get();
+                } catch (ExecutionException ex) {
+                    throw ex.getCause() instanceof Exception cause ? cause : ex;
+                }
+                if (writer.write(block)) {
                     processedFiles++;
-                    updateProgress(processedFiles, totalFiles);
+                    updateProgress(processedFiles, sources.size());
+                    addLog((block.source().stored() ? "存储: " : "压缩: ") + block.source().name());
                 }
             }
+            writer.finish();
+        } finally {
+            pool.shutdownNow();
+            // 等待正在压缩的块结束后再释放，避免使用已 end() 的 Deflater；
+            // 等待被打断时交给 Deflater 自身的清理机制
+            var terminated = false;
+            try {
+                terminated = pool.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (terminated) created.forEach(Deflater::end);
         }
+
+        var seconds = Math.max(1, System.nanoTime() - startTime) / 1e9;
+        addLog(String.format("共 %d 个文件，原始大小 %s，用时 %.2f 秒 (%.1f MB/s，%d 线程)",
+            sources.size(), formatFileSize(totalBytes), seconds, totalBytes / 1048576.0 / seconds, threads));
     }
-    
-    private int compressDirectory(ZipOutputStream zos, File dir, String baseName, int processedFiles, int totalFiles) throws IOException {
-        var files = dir.listFiles();
-        if (files == null) return processedFiles;
-        
-        for (var file : files) {
-            var entryName = baseName + "/" + file.getName();
-            
-            if (file.isDirectory()) {
-                processedFiles = compressDirectory(zos, file, entryName, processedFiles, totalFiles);
-            } else {
-                compressFile(zos, file, entryName);
-                processedFiles++;
-                updateProgress(processedFiles, totalFiles);
-                addLog("压缩: " + entryName);
+
+    private void collectSources(File file, String entryName, boolean storeCompressed, boolean storeAll, List<ZipSource> sources) {
+        if (file.isDirectory()) {
+            var files = file.listFiles();
+            if (files == null) return;
+            for (var child : files) {
+                collectSources(child, entryName + "/" + child.getName(), storeCompressed, storeAll, sources);
             }
+        } else {
+            var stored = storeAll || (storeCompressed && isCompressedFormat(file.getName()));
+            sources.add(new ZipSource(file.toPath(), entryName, file.length(), file.lastModified(), stored));
         }
-        
-        return processedFiles;
     }
-    
-    private void compressFile(ZipOutputStream zos, File file, String entryName) throws IOException {
-        var entry = new ZipEntry(entryName);
-        entry.setTime(file.lastModified());
-        zos.putNextEntry(entry);
-        
-        try (var fis = new FileInputStream(file)) {
-            var buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = fis.read(buffer)) != -1) {
-                zos.write(buffer, 0, bytesRead);
+
+    // 常见的已压缩格式，再次 deflate 几乎没有收益
+    private static boolean isCompressedFormat(String fileName) {
+        var dot = fileName.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase());
+    }
+
+    /**
+     * 压缩单个数据块：存储方式只计算 CRC，数据由写出线程直接从源文件复制
+     */
+    private static ZipBlock compressBlock(BlockJob job, Deflater deflater, byte[] buffer) throws IOException {
+        var source = job.source();
+        var start = (long) job.chunk() * CHUNK_SIZE;
+        var length = (int) Math.min(CHUNK_SIZE, source.size() - start);
+        var dictionary = source.stored() ? 0 : (int) Math.min(DICTIONARY_SIZE, start);
+
+        try (var channel = FileChannel.open(source.path(), StandardOpenOption.READ)) {
+            var byteBuffer = ByteBuffer.wrap(buffer, 0, dictionary + length);
+            while (byteBuffer.hasRemaining()) {
+                if (channel.read(byteBuffer, start - dictionary + byteBuffer.position()) < 0) {
+                    throw new IOException("文件在压缩过程中被修改: " + source.path());
+                }
             }
         }
-        
-        zos.closeEntry();
+
+        var crc = new CRC32();
+        crc.update(buffer, dictionary, length);
+        if (source.stored()) {
+            return new ZipBlock(source, job.chunk(), job.last(), length, crc.getValue(), null);
+        }
+
+        deflater.reset();
+        if (dictionary > 0) {
+            deflater.setDictionary(buffer, 0, dictionary);
+        }
+        deflater.setInput(buffer, dictionary, length);
+        var out = new ByteArrayOutputStream(length / 2 + 64);
+        var output = new byte[64 * 1024];
+        if (job.last()) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                out.write(output, 0, deflater.deflate(output));
+            }
+        } else {
+            // 非最后一块以 SYNC_FLUSH 结束，保证字节对齐且不带结束标记，可直接与下一块拼接
+            int count;
+            do {
+                count = deflater.deflate(output, 0, output.length, Deflater.SYNC_FLUSH);
+                out.write(output, 0, count);
+            } while (count == output.length);
+        }
+        return new ZipBlock(source, job.chunk(), job.last(), length, crc.getValue(), out.toByteArray());
     }
-    
-    private void decompressFileInternal(File zipFile, File extractDir) throws IOException {
-        addLog("开始解压: " + zipFile.getName());
-        
-        try (var fis = new FileInputStream(zipFile);
-             var zis = new ZipInputStream(fis)) {
-            
-            ZipEntry entry;
-            final int[] extractedFiles = {0};
-            
-            while ((entry = zis.getNextEntry()) != null) {
-                var entryFile = new File(extractDir, entry.getName());
-                
+
+    /**
+     * 并行解压
+     * 通过 ZipFile 的中央目录直接定位每个条目，多个线程同时读取不同条目；
+     * 工作线程只更新计数器和待输出的日志队列，由定时器批量刷新到界面
+     */
+    private void extractEntriesInternal(File zipFile, List<ZipEntry> entries, File extractDir) throws Exception {
+        addLog("开始解压: " + zipFile.getName() + " (" + entries.size() + " 个条目)");
+        var startTime = System.nanoTime();
+        var root = extractDir.toPath().toAbsolutePath().normalize();
+
+        var totalBytes = 0L;
+        for (var entry : entries) {
+            totalBytes += Math.max(0, entry.getSize());
+        }
+        var extractedBytes = new AtomicLong();
+        var extractedFiles = new AtomicInteger();
+        var pendingLogs = new ConcurrentLinkedQueue<String>();
+        var total = totalBytes;
+
+        var refreshTimer = new javax.swing.Timer(200, ev -> {
+            flushExtractLogs(pendingLogs);
+            int progress = total > 0 ? (int) (extractedBytes.get() * 100 / total) : 0;
+            progressBar.setValue(progress);
+            progressBar.setString(String.format("进度: %d/%d (%d%%)", extractedFiles.get(), entries.size(), progress));
+        });
+        SwingUtilities.invokeLater(refreshTimer::start);
+
+        var threads = Runtime.getRuntime().availableProcessors();
+        var pool = Executors.newFixedThreadPool(threads);
+        try (var zip = new ZipFile(zipFile)) {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (var entry : entries) {
+                var target = root.resolve(entry.getName()).normalize();
                 // 安全检查，防止目录遍历攻击
-                if (!entryFile.getCanonicalPath().startsWith(extractDir.getCanonicalPath())) {
+                if (!target.startsWith(root)) {
                     throw new IOException("不安全的ZIP条目: " + entry.getName());
                 }
-                
                 if (entry.isDirectory()) {
-                    entryFile.mkdirs();
-                } else {
-                    // 确保父目录存在
-                    entryFile.getParentFile().mkdirs();
-                    
-                    try (var fos = new FileOutputStream(entryFile)) {
-                        var buffer = new byte[8192];
+                    Files.createDirectories(target);
+                    continue;
+                }
+                tasks.add(() -> {
+                    Files.createDirectories(target.getParent());
+                    try (var in = zip.getInputStream(entry);
+                         var out = Files.newOutputStream(target)) {
+                        var buffer = new byte[64 * 1024];
                         int bytesRead;
-                        while ((bytesRead = zis.read(buffer)) != -1) {
-                            fos.write(buffer, 0, bytesRead);
+                        while ((bytesRead = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, bytesRead);
+                            extractedBytes.addAndGet(bytesRead);
                         }
                     }
-                    
-                    // 恢复文件时间
-                    entryFile.setLastModified(entry.getTime());
-                }
-                
-                extractedFiles[0]++;
-                addLog("解压: " + entry.getName());
-                
-                // 更新进度（简单估算）
-                SwingUtilities.invokeLater(() -> {
-                    progressBar.setValue(Math.min(90, extractedFiles[0] * 5));
+                    // 恢复文件时间（-1 表示条目未记录时间）
+                    if (entry.getTime() != -1) {
+                        Files.setLastModifiedTime(target, FileTime.fromMillis(entry.getTime()));
+                    }
+                    extractedFiles.incrementAndGet();
+                    pendingLogs.add(entry.getName());
+                    return null;
                 });
-                
-                zis.closeEntry();
             }
-            
-            addLog("共解压 " + extractedFiles[0] + " 个文件");
+
+            for (var future : pool.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    throw ex.getCause() instanceof Exception cause ? cause : ex;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            SwingUtilities.invokeLater(() -> {
+                refreshTimer.stop();
+                flushExtractLogs(pendingLogs);
+            });
         }
+
+        var seconds = Math.max(1, System.nanoTime() - startTime) / 1e9;
+        addLog(String.format("共解压 %d 个文件，%s，用时 %.2f 秒 (%.1f MB/s，%d 线程)",
+            extractedFiles.get(), formatFileSize(extractedBytes.get()), seconds,
+            extractedBytes.get() / 1048576.0 / seconds, threads));
     }
-    
-    private int countFiles(File[] files) {
-        int count = 0;
-        for (var file : files) {
-            if (file.isDirectory()) {
-                count += countFilesInDirectory(file);
+
+    // 每次刷新最多输出 MAX_LOG_LINES_PER_FLUSH 行，其余合并为一行
+    private void flushExtractLogs(Queue<String> pendingLogs) {
+        var lines = 0;
+        var skipped = 0;
+        String name;
+        while ((name = pendingLogs.poll()) != null) {
+            if (lines < MAX_LOG_LINES_PER_FLUSH) {
+                addLog("解压: " + name);
+                lines++;
             } else {
-                count++;
+                skipped++;
             }
         }
-        return count;
-    }
-    
-    private int countFilesInDirectory(File dir) {
-        int count = 0;
-        var files = dir.listFiles();
-        if (files != null) {
-            for (var file : files) {
-                if (file.isDirectory()) {
-                    count += countFilesInDirectory(file);
-                } else {
-                    count++;
-                }
-            }
+        if (skipped > 0) {
+            addLog("... 以及另外 " + skipped + " 个文件");
         }
-        return count;
     }
     
     private void updateProgress(int processed, int total) {
@@ -360,4 +596,331 @@ static class FileCompressor extends JFrame {
         if (bytes < 1024 * 1024 * 1024) return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
         return String.format("%.1f GB", bytes / (1024.0 * 1024.0 * 1024.0));
     }
+
+    // 归档条目列表（只读）
+    static class ZipEntryTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"名称", "大小", "压缩后", "修改时间"};
+        private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+        private final List<? extends ZipEntry> entries;
+
+        ZipEntryTableModel(List<? extends ZipEntry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public int getRowCount() {
+            return entries.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 1 || column == 2 ? Long.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            var entry = entries.get(row);
+            return switch (column) {
+                case 0 -> entry.getName();
+                case 1 -> entry.getSize();
+                case 2 -> entry.getCompressedSize();
+                default -> entry.getTime() < 0 ? "" : LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.getTime()), ZoneId.systemDefault()).format(TIME_FORMAT);
+            };
+        }
+    }
+
+    record ZipSource(Path path, String name, long size, long modified, boolean stored) {}
+
+    record BlockJob(ZipSource source, int chunk, boolean last) {}
+
+    // data 为 null 表示存储方式，只携带 CRC
+    record ZipBlock(ZipSource source, int chunk, boolean last, long length, long crc, byte[] data) {}
+
+    // 按顺序产生所有文件的所有块
+    static class BlockJobs implements Iterator<BlockJob> {
+        private final List<ZipSource> sources;
+        private int sourceIndex;
+        private int chunk;
+
+        BlockJobs(List<ZipSource> sources) {
+            this.sources = sources;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return sourceIndex < sources.size();
+        }
+
+        @Override
+        public BlockJob next() {
+            var source = sources.get(sourceIndex);
+            var chunks = Math.max(1, (source.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+            var job = new BlockJob(source, chunk, chunk == chunks - 1);
+            if (job.last()) {
+                sourceIndex++;
+                chunk = 0;
+            } else {
+                chunk++;
+            }
+            return job;
+        }
+    }
+
+    /**
+     * 直接写 ZIP 格式，以便写入已经压缩好的块（ZipOutputStream 只接受原始数据）
+     * deflate 条目使用数据描述符（与 ZipOutputStream 相同），存储条目在所有块 CRC 就绪后写头并直接复制源文件；
+     * 条目或偏移超过 4GB/65535 时写 ZIP64 扩展
+     */
+    static class ParallelZipWriter implements Closeable {
+        private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+        private final FileChannel channel;
+        private final ByteBuffer header = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        private final List<CentralEntry> entries = new ArrayList<>();
+        private long position;
+
+        // 当前条目
+        private long entryOffset;
+        private long entryCrc;
+        private long entrySize;
+        private long entryCompressedSize;
+
+        ParallelZipWriter(Path target) throws IOException {
+            channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /**
+         * 按顺序写入一个块，条目结束时返回 true
+         */
+        boolean write(ZipBlock block) throws IOException {
+            var source = block.source();
+            if (block.chunk() == 0) {
+                entryOffset = position;
+                entryCrc = 0;
+                entrySize = 0;
+                entryCompressedSize = 0;
+                if (!source.stored()) {
+                    this.writeLocalHeader(source, ZipEntry.DEFLATED, 0, 0, 0);
+                }
+            }
+
+            entryCrc = crc32Combine(entryCrc, block.crc(), block.length());
+            entrySize += block.length();
+            if (block.data() != null) {
+                this.writeFully(ByteBuffer.wrap(block.data()));
+                entryCompressedSize += block.data().length;
+            }
+            if (!block.last()) return false;
+
+            if (source.stored()) {
+                entryCompressedSize = entrySize;
+                this.writeLocalHeader(source, ZipEntry.STORED, entryCrc, entrySize, entrySize);
+                this.copyStoredData(source);
+            } else {
+                this.writeDataDescriptor();
+            }
+            entries.add(new CentralEntry(source, entryOffset, entryCrc, entrySize, entryCompressedSize));
+            return true;
+        }
+
+        private void writeLocalHeader(ZipSource source, int method, long crc, long size, long compressedSize) throws IOException {
+            var name = source.name().getBytes(StandardCharsets.UTF_8);
+            var zip64 = size >= ZIP64_MAGIC;
+            header.clear();
+            header.putInt(0x04034b50);
+            header.putShort((short) (zip64 ? 45 : method == ZipEntry.STORED ? 10 : 20));
+            header.putShort((short) (method == ZipEntry.STORED ? 0x0800 : 0x0808)); // UTF-8 文件名，deflate 带数据描述符
+            header.putShort((short) method);
+            header.putInt(dosTime(source.modified()));
+            header.putInt((int) crc);
+            header.putInt((int) (zip64 ? ZIP64_MAGIC : compressedSize));
+            header.putInt((int) (zip64 ? ZIP64_MAGIC : size));
+            header.putShort((short) name.length);
+            header.putShort((short) (zip64 ? 20 : 0));
+            this.writeHeader(name);
+            if (zip64) {
+                header.clear();
+                header.putShort((short) 0x0001).putShort((short) 16).putLong(size).putLong(compressedSize);
+                this.writeHeader(null);
+            }
+        }
+
+        private void writeDataDescriptor() throws IOException {
+            header.clear();
+            header.putInt(0x08074b50);
+            header.putInt((int) entryCrc);
+            if (entrySize >= ZIP64_MAGIC || entryCompressedSize >= ZIP64_MAGIC) {
+                header.putLong(entryCompressedSize).putLong(entrySize);
+            } else {
+                header.putInt((int) entryCompressedSize).putInt((int) entrySize);
+            }
+            this.writeHeader(null);
+        }
+
+        private void copyStoredData(ZipSource source) throws IOException {
+            try (var in = FileChannel.open(source.path(), StandardOpenOption.READ)) {
+                var copied = 0L;
+                while (copied < entrySize) {
+                    var count = in.transferTo(copied, entrySize - copied, channel);
+                    if (count <= 0) throw new IOException("文件在压缩过程中被修改: " + source.path());
+                    copied += count;
+                }
+                position += copied;
+                channel.position(position);
+            }
+        }
+
+        void finish() throws IOException {
+            var centralOffset = position;
+            for (var entry : entries) {
+                this.writeCentralEntry(entry);
+            }
+            var centralSize = position - centralOffset;
+
+            if (entries.size() >= 0xFFFF || centralOffset >= ZIP64_MAGIC || centralSize >= ZIP64_MAGIC) {
+                var zip64EndOffset = position;
+                header.clear();
+                header.putInt(0x06064b50).putLong(44);
+                header.putShort((short) 45).putShort((short) 45);
+                header.putInt(0).putInt(0);
+                header.putLong(entries.size()).putLong(entries.size());
+                header.putLong(centralSize).putLong(centralOffset);
+                header.putInt(0x07064b50).putInt(0).putLong(zip64EndOffset).putInt(1);
+                this.writeHeader(null);
+            }
+
+            header.clear();
+            header.putInt(0x06054b50);
+            header.putShort((short) 0).putShort((short) 0);
+            header.putShort((short) Math.min(entries.size(), 0xFFFF));
+            header.putShort((short) Math.min(entries.size(), 0xFFFF));
+            header.putInt((int) Math.min(centralSize, ZIP64_MAGIC));
+            header.putInt((int) Math.min(centralOffset, ZIP64_MAGIC));
+            header.putShort((short) 0);
+            this.writeHeader(null);
+        }
+
+        private void writeCentralEntry(CentralEntry entry) throws IOException {
+            var source = entry.source();
+            var name = source.name().getBytes(StandardCharsets.UTF_8);
+            var method = source.stored() ? ZipEntry.STORED : ZipEntry.DEFLATED;
+            var sizeZip64 = entry.size() >= ZIP64_MAGIC;
+            var compressedZip64 = entry.compressedSize() >= ZIP64_MAGIC;
+            var offsetZip64 = entry.offset() >= ZIP64_MAGIC;
+            var extraLength = (sizeZip64 ? 8 : 0) + (compressedZip64 ? 8 : 0) + (offsetZip64 ? 8 : 0);
+            var zip64 = extraLength > 0;
+
+            header.clear();
+            header.putInt(0x02014b50);
+            header.putShort((short) (zip64 ? 45 : 20));
+            header.putShort((short) (zip64 ? 45 : method == ZipEntry.STORED ? 10 : 20));
+            header.putShort((short) (method == ZipEntry.STORED ? 0x0800 : 0x0808));
+            header.putShort((short) method);
+            header.putInt(dosTime(source.modified()));
+            header.putInt((int) entry.crc());
+            header.putInt((int) (compressedZip64 ? ZIP64_MAGIC : entry.compressedSize()));
+            header.putInt((int) (sizeZip64 ? ZIP64_MAGIC : entry.size()));
+            header.putShort((short) name.length);
+            header.putShort((short) (zip64 ? extraLength + 4 : 0));
+            header.putShort((short) 0); // 注释长度
+            header.putShort((short) 0); // 磁盘号
+            header.putShort((short) 0); // 内部属性
+            header.putInt(0);           // 外部属性
+            header.putInt((int) (offsetZip64 ? ZIP64_MAGIC : entry.offset()));
+            this.writeHeader(name);
+            if (zip64) {
+                header.clear();
+                header.putShort((short) 0x0001).putShort((short) extraLength);
+                if (sizeZip64) header.putLong(entry.size());
+                if (compressedZip64) header.putLong(entry.compressedSize());
+                if (offsetZip64) header.putLong(entry.offset());
+                this.writeHeader(null);
+            }
+        }
+
+        // 写出 header 缓冲区中的内容，name 不为 null 时紧随其后写入
+        private void writeHeader(byte[] name) throws IOException {
+            header.flip();
+            this.writeFully(header);
+            if (name != null) {
+                this.writeFully(ByteBuffer.wrap(name));
+            }
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private static int dosTime(long millis) {
+            var time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+            if (time.getYear() < 1980) {
+                return (1 << 21) | (1 << 16);
+            }
+            return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+        }
+    }
+
+    record CentralEntry(ZipSource source, long offset, long crc, long size, long compressedSize) {}
+
+    /**
+     * 合并两段数据的 CRC32（zlib crc32_combine 的 GF(2) 矩阵算法），
+     * 各块的 CRC 可在工作线程中独立计算
+     */
+    static long crc32Combine(long crc1, long crc2, long length2) {
+        if (length2 <= 0) return crc1;
+        var even = new long[32];
+        var odd = new long[32];
+        odd[0] = 0xEDB88320L; // CRC-32 多项式
+        var row = 1L;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd); // 2 个零位
+        gf2MatrixSquare(odd, even); // 4 个零位
+
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((length2 & 1) != 0) crc1 = gf2MatrixTimes(even, crc1);
+            length2 >>= 1;
+            if (length2 == 0) break;
+            gf2MatrixSquare(odd, even);
+            if ((length2 & 1) != 0) crc1 = gf2MatrixTimes(odd, crc1);
+            length2 >>= 1;
+        } while (length2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] matrix, long vector) {
+        var sum = 0L;
+        for (int i = 0; vector != 0; i++, vector >>>= 1) {
+            if ((vector & 1) != 0) sum ^= matrix[i];
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] matrix) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(matrix, matrix[n]);
+        }
+    }
 }
@@ -3,7 +3,15 @@ import java.awt.*;
 import java.awt.event.*;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 void main(String[] args) {
     SwingUtilities.invokeLater(() -> {
@@ -16,6 +24,9 @@ static class Gomoku extends JFrame {
     private static final int CELL_SIZE = 30;
     private static final int BOARD_PIXEL_SIZE = BOARD_SIZE * CELL_SIZE;
     private static final int MARGIN = 50;
+    private static final String[] TIME_BUDGET_NAMES = {"0.5秒", "1秒", "2秒", "5秒"};
+    private static final long[] TIME_BUDGETS = {500, 1000, 2000, 5000};
+    private static final long HINT_BUDGET = 500;
 
     private int[][] board; // 0: 空, 1: 黑子, 2: 白子
     private int currentPlayer; // 1: 黑子, 2: 白子
@@ -31,9 +42,13 @@ static class Gomoku extends JFrame {
     private JButton aiButton;
     private JComboBox<String> modeCombo;
     private JCheckBox aiAssistCheck;
+    private JComboBox<String> timeCombo;
 
     private boolean aiMode = false;
     private boolean aiThinking = false;
+    private GomokuSearch currentSearch;
+    private GomokuSearch hintSearch;
+    private Point hintMove;
 
     public Gomoku() {
         board = new int[BOARD_SIZE][BOARD_SIZE];
@@ -85,9 +100,16 @@ static class Gomoku extends JFrame {
         undoButton.addActionListener(e -> undoMove());
         controlPanel.add(undoButton);
 
+        // AI思考时间
+        controlPanel.add(new JLabel("AI时间:"));
+        timeCombo = new JComboBox<>(TIME_BUDGET_NAMES);
+        timeCombo.setSelectedIndex(1);
+        controlPanel.add(timeCombo);
+
         // AI提示
         aiAssistCheck = new JCheckBox("AI提示");
         aiAssistCheck.setSelected(false);
+        aiAssistCheck.addActionListener(e -> updateHint());
         controlPanel.add(aiAssistCheck);
 
         add(controlPanel, BorderLayout.NORTH);
@@ -133,7 +155,7 @@ static class Gomoku extends JFrame {
         gameOver = false;
         winner = 0;
         moveHistory.clear();
-        aiThinking = false;
+        cancelSearches();
 
         updateStatus();
         gamePanel.repaint();
@@ -161,18 +183,12 @@ static class Gomoku extends JFrame {
 
             if (aiMode && currentPlayer == 2) {
                 statusLabel.setText("AI 思考中...");
-                SwingUtilities.invokeLater(() -> {
-                    javax.swing.Timer timer = new javax.swing.Timer(1000, e -> {
-                        makeAIMove();
-                        ((javax.swing.Timer) e.getSource()).stop();
-                    });
-                    timer.setRepeats(false);
-                    timer.start();
-                });
+                makeAIMove();
             } else {
                 statusLabel.setText("游戏进行中...");
             }
         }
+        updateHint();
     }
 
     private void makeMove(int row, int col) {
@@ -203,116 +219,99 @@ static class Gomoku extends JFrame {
         gamePanel.repaint();
     }
 
+    // AI 在后台线程池上搜索，结果回到 EDT 后再落子
     private void makeAIMove() {
-        if (gameOver || currentPlayer != 2) {
+        if (gameOver || currentPlayer != 2 || aiThinking) {
             return;
         }
 
         aiThinking = true;
-
-        // 使用简单的AI策略
-        Point bestMove = findBestMove();
-        if (bestMove != null) {
-            makeMove(bestMove.x, bestMove.y);
-        }
-
-        aiThinking = false;
-    }
-
-    private Point findBestMove() {
-        // AI策略：优先防守，其次进攻
-        Point move = findWinningMove(2); // 检查AI是否能赢
-        if (move != null) return move;
-
-        move = findWinningMove(1); // 检查是否需要阻止玩家赢
-        if (move != null) return move;
-
-        // 使用评分系统选择最佳位置
-        int bestScore = Integer.MIN_VALUE;
-        Point bestMove = null;
-
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (board[i][j] == 0) {
-                    int score = evaluatePosition(i, j, 2);
-                    if (score > bestScore) {
-                        bestScore = score;
-                        bestMove = new Point(i, j);
-                    }
-                }
+        var search = new GomokuSearch(TIME_BUDGETS[timeCombo.getSelectedIndex()]);
+        currentSearch = search;
+        var snapshot = copyBoard();
+
+        new SwingWorker<SearchResult, Void>() {
+            @Override
+            protected SearchResult doInBackground() throws Exception {
+                return search.run(snapshot, 2);
             }
-        }
-
-        return bestMove;
-    }
 
-    private Point findWinningMove(int player) {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (board[i][j] == 0) {
-                    board[i][j] = player;
-                    if (checkWin(i, j, player)) {
-                        board[i][j] = 0; // 恢复
-                        return new Point(i, j);
+            @Override
+            protected void done() {
+                if (currentSearch != search) return; // 已开始新游戏或悔棋
+                currentSearch = null;
+                aiThinking = false;
+                try {
+                    var result = get();
+                    if (result != null) {
+                        makeMove(result.move().x, result.move().y);
+                        if (!gameOver) {
+                            statusLabel.setText(String.format("AI: 深度 %d，%,d 节点，%d ms",
+                                result.depth(), result.nodes(), result.millis()));
+                        }
                     }
-                    board[i][j] = 0; // 恢复
+                } catch (Exception ex) {
+                    statusLabel.setText("AI 出错: " + ex.getMessage());
                 }
             }
-        }
-        return null;
+        }.execute();
     }
 
-    private int evaluatePosition(int row, int col, int player) {
-        int score = 0;
-
-        // 评估四个方向
-        int[] directions = {-1, 0, 1, 0, -1};
-        for (int d = 0; d < 4; d++) {
-            int count = 1; // 当前位置
-            int empty = 0;
-
-            // 正向检查
-            for (int i = 1; i < 5; i++) {
-                int newRow = row + directions[d] * i;
-                int newCol = col + directions[d + 1] * i;
-                if (!isValidPosition(newRow, newCol)) break;
+    // AI 提示同样在后台计算，绘制时只读取缓存的结果
+    private void updateHint() {
+        if (hintSearch != null) {
+            hintSearch.cancel();
+            hintSearch = null;
+        }
+        hintMove = null;
+        if (!aiAssistCheck.isSelected() || gameOver || currentPlayer != 1) {
+            gamePanel.repaint();
+            return;
+        }
 
-                if (board[newRow][newCol] == player) {
-                    count++;
-                } else if (board[newRow][newCol] == 0) {
-                    empty++;
-                } else {
-                    break;
-                }
+        var search = new GomokuSearch(HINT_BUDGET);
+        hintSearch = search;
+        var snapshot = copyBoard();
+        new SwingWorker<SearchResult, Void>() {
+            @Override
+            protected SearchResult doInBackground() throws Exception {
+                return search.run(snapshot, 1);
             }
 
-            // 反向检查
-            for (int i = 1; i < 5; i++) {
-                int newRow = row - directions[d] * i;
-                int newCol = col - directions[d + 1] * i;
-                if (!isValidPosition(newRow, newCol)) break;
-
-                if (board[newRow][newCol] == player) {
-                    count++;
-                } else if (board[newRow][newCol] == 0) {
-                    empty++;
-                } else {
-                    break;
+            @Override
+            protected void done() {
+                if (hintSearch != search) return;
+                hintSearch = null;
+                try {
+                    var result = get();
+                    hintMove = result == null ? null : result.move();
+                } catch (Exception ex) {
+                    hintMove = null;
                 }
+                gamePanel.repaint();
             }
+        }.execute();
+    }
 
-            // 评分
-            if (count >= 4) score += 10000;
-            else if (count == 3 && empty >= 1) score += 1000;
-            else if (count == 2 && empty >= 2) score += 100;
-            else if (count == 1 && empty >= 3) score += 10;
+    private void cancelSearches() {
+        if (currentSearch != null) {
+            currentSearch.cancel();
+            currentSearch = null;
         }
+        if (hintSearch != null) {
+            hintSearch.cancel();
+            hintSearch = null;
+        }
+        hintMove = null;
+        aiThinking = false;
+    }
 
-        // 中心位置加分
-        int centerDistance = Math.abs(row - BOARD_SIZE / 2) + Math.abs(col - BOARD_SIZE / 2);
-        score += (BOARD_SIZE - centerDistance) * 5;
-
-        return score;
+    private int[][] copyBoard() {
+        var snapshot = new int[BOARD_SIZE][];
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            snapshot[i] = board[i].clone();
+        }
+        return snapshot;
     }
 
     private boolean checkWin(int row, int col, int player) {
@@ -363,6 +362,7 @@ static class Gomoku extends JFrame {
             return;
         }
 
+        cancelSearches();
         GameMove lastMove = moveHistory.pop();
         board[lastMove.row][lastMove.col] = 0;
 
@@ -440,11 +440,8 @@ static class Gomoku extends JFrame {
             }
 
             // 如果启用了AI提示，显示建议位置
-            if (aiAssistCheck.isSelected() && !gameOver && currentPlayer == 1) {
-                Point aiSuggestion = findBestMove();
-                if (aiSuggestion != null) {
-                    drawAISuggestion(g2d, aiSuggestion.x, aiSuggestion.y);
-                }
+            if (aiAssistCheck.isSelected() && !gameOver && currentPlayer == 1 && hintMove != null) {
+                drawAISuggestion(g2d, hintMove.x, hintMove.y);
             }
         }
 
@@ -492,4 +489,494 @@ static class Gomoku extends JFrame {
             this.y = y;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 搜索结果
+     */
+    record SearchResult(Point move, int score, int depth, long nodes, long millis) {}
+
+    /**
+     * 一次 AI 搜索
+     * 迭代加深：每一层先顺序搜索上一层的最佳着法得到下界，其余根着法分发到线程池并行搜索；
+     * 超过时间预算或被取消时丢弃未完成的一层，返回最后一个完整层的结果
+     */
+    static class GomokuSearch {
+        private static final int MAX_DEPTH = 20;
+        private static final ExecutorService POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), (runnable) -> {
+                var thread = new Thread(runnable, "gomoku-search");
+                thread.setDaemon(true);
+                return thread;
+            });
+        private static final ThreadLocal<GomokuEngine> ENGINES = ThreadLocal.withInitial(GomokuEngine::new);
+        private static final TranspositionTable TABLE = new TranspositionTable(1 << 20);
+
+        private final long deadline;
+        private final AtomicLong nodes = new AtomicLong();
+        private volatile boolean stopped;
+
+        GomokuSearch(long budgetMillis) {
+            this.deadline = System.nanoTime() + budgetMillis * 1_000_000;
+        }
+
+        void cancel() {
+            stopped = true;
+        }
+
+        boolean shouldStop() {
+            return stopped || System.nanoTime() > deadline;
+        }
+
+        SearchResult run(int[][] board, int player) throws InterruptedException {
+            var startTime = System.nanoTime();
+            var root = new GomokuEngine();
+            root.load(board);
+            var moves = root.rootMoves(player);
+            if (moves.length == 0) return null;
+
+            var bestMove = moves[0];
+            if (root.canWin(player)) {
+                // 本方已有冲四，直接成五，无需搜索
+                var millis = (System.nanoTime() - startTime) / 1_000_000;
+                return new SearchResult(new Point(bestMove / BOARD_SIZE, bestMove % BOARD_SIZE),
+                    GomokuEngine.WIN_SCORE - 1, 1, 0, millis);
+            }
+            var bestScore = 0;
+            var completedDepth = 0;
+            for (int depth = 1; depth <= MAX_DEPTH && moves.length > 1; depth++) {
+                try {
+                    var scores = this.searchRoot(board, player, moves, depth);
+                    // 按本层得分重新排序，下一层先搜最好的着法
+                    var order = new Integer[moves.length];
+                    for (int i = 0; i < order.length; i++) order[i] = i;
+                    Arrays.sort(order, (a, b) -> Integer.compare(scores[b], scores[a]));
+                    var sorted = new int[moves.length];
+                    for (int i = 0; i < order.length; i++) sorted[i] = moves[order[i]];
+                    moves = sorted;
+                    bestMove = moves[0];
+                    bestScore = scores[order[0]];
+                    completedDepth = depth;
+                } catch (SearchAborted ex) {
+                    break;
+                }
+                if (Math.abs(bestScore) >= GomokuEngine.WIN_SCORE - MAX_DEPTH * 2) break; // 已找到必胜或必败
+            }
+
+            var millis = (System.nanoTime() - startTime) / 1_000_000;
+            return new SearchResult(new Point(bestMove / BOARD_SIZE, bestMove % BOARD_SIZE), bestScore, completedDepth, nodes.get(), millis);
+        }
+
+        private int[] searchRoot(int[][] board, int player, int[] moves, int depth) throws InterruptedException {
+            var scores = new int[moves.length];
+            var alpha = new AtomicInteger(-GomokuEngine.INFINITY);
+
+            // 第一个着法顺序搜索，确定并行搜索的下界
+            scores[0] = this.searchMove(board, player, moves[0], depth, alpha.get());
+            alpha.set(scores[0]);
+
+            var tasks = new ArrayList<Callable<Void>>();
+            for (int i = 1; i < moves.length; i++) {
+                var index = i;
+                tasks.add(() -> {
+                    var score = this.searchMove(board, player, moves[index], depth, alpha.get());
+                    scores[index] = score;
+                    alpha.accumulateAndGet(score, Math::max);
+                    return null;
+                });
+            }
+            for (var future : POOL.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof SearchAborted aborted) throw aborted;
+                    throw new IllegalStateException(ex.getCause());
+                }
+            }
+            return scores;
+        }
+
+        // 在当前线程的引擎上搜索一个根着法；未超过 alpha 的着法得分只是上界，排序时自然靠后
+        private int searchMove(int[][] board, int player, int move, int depth, int alpha) {
+            var engine = ENGINES.get();
+            engine.load(board);
+            engine.attach(this);
+            try {
+                engine.place(move, player);
+                return -engine.search(depth - 1, -GomokuEngine.INFINITY, -alpha, 1, 3 - player);
+            } finally {
+                nodes.addAndGet(engine.takeNodes());
+            }
+        }
+    }
+
+    static class SearchAborted extends RuntimeException {
+        SearchAborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * 置换表：无锁，key 与数据异或保存，多线程写入撕裂时校验失败即视为未命中
+     */
+    static class TranspositionTable {
+        static final int EXACT = 0;
+        static final int LOWER = 1;
+        static final int UPPER = 2;
+
+        private final long[] keys;
+        private final long[] data;
+        private final int mask;
+
+        TranspositionTable(int size) {
+            keys = new long[size];
+            data = new long[size];
+            mask = size - 1;
+        }
+
+        // 返回打包的数据，未命中返回 0
+        long probe(long hash) {
+            var index = (int) hash & mask;
+            var entry = data[index];
+            return (keys[index] ^ entry) == hash ? entry : 0;
+        }
+
+        void store(long hash, int depth, int score, int flag, int move) {
+            var index = (int) hash & mask;
+            var entry = ((long) score << 32) | ((long) (move + 1) << 12) | ((long) depth << 4) | (flag << 1) | 1;
+            data[index] = entry;
+            keys[index] = hash ^ entry;
+        }
+
+        static int score(long entry) {
+            return (int) (entry >> 32);
+        }
+
+        static int move(long entry) {
+            return (int) ((entry >>> 12) & 0xFFFFF) - 1;
+        }
+
+        static int depth(long entry) {
+            return (int) ((entry >>> 4) & 0xFF);
+        }
+
+        static int flag(long entry) {
+            return (int) ((entry >>> 1) & 0x7);
+        }
+    }
+
+    /**
+     * 搜索引擎
+     * 棋盘上所有“五连窗口”（连续 5 格）的双方棋子数增量维护：落子只更新经过该点的最多 20 个窗口，
+     * 评估分、成四/成五判断都由窗口计数直接得出；候选着法只取已有棋子两格以内的空位
+     */
+    static class GomokuEngine {
+        static final int INFINITY = 100_000_000;
+        static final int WIN_SCORE = 10_000_000;
+        private static final int CELLS = BOARD_SIZE * BOARD_SIZE;
+        private static final int MAX_PLY = 64;
+        private static final int MAX_BRANCH = 14;
+        // 窗口内只有一方棋子时，按棋子数计分
+        private static final int[] WINDOW_SCORES = {0, 1, 12, 160, 2_400, WIN_SCORE};
+
+        private static final int[][] WINDOWS;       // 窗口 -> 5 个格子
+        private static final int[][] CELL_WINDOWS;  // 格子 -> 经过它的窗口
+        private static final int[][] NEIGHBORS;     // 格子 -> 两格以内的格子
+        private static final long[][] ZOBRIST = new long[3][CELLS];
+        private static final long SIDE_KEY;
+
+        static {
+            var windows = new ArrayList<int[]>();
+            int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+            for (int row = 0; row < BOARD_SIZE; row++) {
+                for (int col = 0; col < BOARD_SIZE; col++) {
+                    for (var d : directions) {
+                        var endRow = row + d[0] * 4;
+                        var endCol = col + d[1] * 4;
+                        if (endRow < 0 || endRow >= BOARD_SIZE || endCol < 0 || endCol >= BOARD_SIZE) continue;
+                        var window = new int[5];
+                        for (int i = 0; i < 5; i++) {
+                            window[i] = (row + d[0] * i) * BOARD_SIZE + col + d[1] * i;
+                        }
+                        windows.add(window);
+                    }
+                }
+            }
+            WINDOWS = windows.toArray(new int[0][]);
+
+            var cellWindows = new ArrayList<List<Integer>>();
+            for (int i = 0; i < CELLS; i++) cellWindows.add(new ArrayList<>());
+            for (int w = 0; w < WINDOWS.length; w++) {
+                for (var cell : WINDOWS[w]) cellWindows.get(cell).add(w);
+            }
+            CELL_WINDOWS = new int[CELLS][];
+            NEIGHBORS = new int[CELLS][];
+            for (int cell = 0; cell < CELLS; cell++) {
+                CELL_WINDOWS[cell] = cellWindows.get(cell).stream().mapToInt(Integer::intValue).toArray();
+                var neighbors = new ArrayList<Integer>();
+                var row = cell / BOARD_SIZE;
+                var col = cell % BOARD_SIZE;
+                for (int dr = -2; dr <= 2; dr++) {
+                    for (int dc = -2; dc <= 2; dc++) {
+                        var r = row + dr;
+                        var c = col + dc;
+                        if ((dr != 0 || dc != 0) && r >= 0 && r < BOARD_SIZE && c >= 0 && c < BOARD_SIZE) {
+                            neighbors.add(r * BOARD_SIZE + c);
+                        }
+                    }
+                }
+                NEIGHBORS[cell] = neighbors.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            var random = new Random(20240501L);
+            for (int player = 1; player <= 2; player++) {
+                for (int cell = 0; cell < CELLS; cell++) {
+                    ZOBRIST[player][cell] = random.nextLong();
+                }
+            }
+            SIDE_KEY = random.nextLong();
+        }
+
+        private final int[] cells = new int[CELLS];
+        private final int[][] counts = new int[3][WINDOWS.length];
+        private final int[] near = new int[CELLS];
+        private final int[] score = new int[3];     // 双方窗口总分
+        private final int[] fours = new int[3];     // 只差一子成五的窗口数
+        private final int[] fives = new int[3];
+        private final int[][] moveBuffer = new int[MAX_PLY][CELLS];
+        private final int[][] orderBuffer = new int[MAX_PLY][CELLS];
+        private final int[] marks = new int[CELLS];
+        private int markStamp;
+        private int stones;
+        private long hash;
+        private long nodes;
+        private GomokuSearch search;
+
+        void load(int[][] board) {
+            Arrays.fill(cells, 0);
+            for (var row : counts) Arrays.fill(row, 0);
+            Arrays.fill(near, 0);
+            Arrays.fill(score, 0);
+            Arrays.fill(fours, 0);
+            Arrays.fill(fives, 0);
+            stones = 0;
+            hash = 0;
+            for (int row = 0; row < BOARD_SIZE; row++) {
+                for (int col = 0; col < BOARD_SIZE; col++) {
+                    if (board[row][col] != 0) this.place(row * BOARD_SIZE + col, board[row][col]);
+                }
+            }
+        }
+
+        void attach(GomokuSearch search) {
+            this.search = search;
+        }
+
+        long takeNodes() {
+            var result = nodes;
+            nodes = 0;
+            return result;
+        }
+
+        void place(int cell, int player) {
+            this.updateWindows(cell, player, 1);
+            cells[cell] = player;
+            hash ^= ZOBRIST[player][cell];
+            stones++;
+            for (var neighbor : NEIGHBORS[cell]) near[neighbor]++;
+        }
+
+        void remove(int cell) {
+            var player = cells[cell];
+            cells[cell] = 0;
+            this.updateWindows(cell, player, -1);
+            hash ^= ZOBRIST[player][cell];
+            stones--;
+            for (var neighbor : NEIGHBORS[cell]) near[neighbor]--;
+        }
+
+        // 撤销受影响窗口的旧贡献，更新计数后加上新贡献
+        private void updateWindows(int cell, int player, int delta) {
+            for (var w : CELL_WINDOWS[cell]) {
+                this.contribute(w, -1);
+                counts[player][w] += delta;
+                this.contribute(w, 1);
+            }
+        }
+
+        private void contribute(int w, int sign) {
+            var black = counts[1][w];
+            var white = counts[2][w];
+            if (white == 0) {
+                score[1] += sign * WINDOW_SCORES[black];
+                if (black == 4) fours[1] += sign;
+                else if (black == 5) fives[1] += sign;
+            }
+            if (black == 0) {
+                score[2] += sign * WINDOW_SCORES[white];
+                if (white == 4) fours[2] += sign;
+                else if (white == 5) fives[2] += sign;
+            }
+        }
+
+        int search(int depth, int alpha, int beta, int ply, int player) {
+            if ((++nodes & 1023) == 0 && search.shouldStop()) {
+                throw new SearchAborted();
+            }
+            var opponent = 3 - player;
+            if (fives[opponent] > 0) return -WIN_SCORE + ply;       // 对方上一步已成五
+            if (fours[player] > 0) return WIN_SCORE - ply - 1;      // 本方下一步即可成五
+            if (stones == CELLS) return 0;
+            if (depth <= 0 || ply >= MAX_PLY - 1) return score[player] - score[opponent];
+
+            var key = player == 1 ? hash : hash ^ SIDE_KEY;
+            var entry = GomokuSearch.TABLE.probe(key);
+            var ttMove = -1;
+            if (entry != 0) {
+                ttMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    var ttScore = fromTable(TranspositionTable.score(entry), ply);
+                    var flag = TranspositionTable.flag(entry);
+                    if (flag == TranspositionTable.EXACT
+                        || (flag == TranspositionTable.LOWER && ttScore >= beta)
+                        || (flag == TranspositionTable.UPPER && ttScore <= alpha)) {
+                        return ttScore;
+                    }
+                }
+            }
+
+            var count = this.generateMoves(player, ply, ttMove);
+            var moves = moveBuffer[ply];
+            var originalAlpha = alpha;
+            var best = -INFINITY;
+            var bestMove = -1;
+            for (int i = 0; i < count; i++) {
+                var move = moves[i];
+                this.place(move, player);
+                int value;
+                try {
+                    value = -this.search(depth - 1, -beta, -alpha, ply + 1, opponent);
+                } finally {
+                    this.remove(move);
+                }
+                if (value > best) {
+                    best = value;
+                    bestMove = move;
+                }
+                if (value > alpha) alpha = value;
+                if (alpha >= beta) break;
+            }
+
+            var flag = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            GomokuSearch.TABLE.store(key, depth, toTable(best, ply), flag, bestMove);
+            return best;
+        }
+
+        // 胜负分数按距根节点的步数存取，保证置换表中的分数与路径无关
+        private static int toTable(int value, int ply) {
+            if (value >= WIN_SCORE - MAX_PLY) return value + ply;
+            if (value <= -WIN_SCORE + MAX_PLY) return value - ply;
+            return value;
+        }
+
+        private static int fromTable(int value, int ply) {
+            if (value >= WIN_SCORE - MAX_PLY) return value - ply;
+            if (value <= -WIN_SCORE + MAX_PLY) return value + ply;
+            return value;
+        }
+
+        boolean canWin(int player) {
+            return fours[player] > 0;
+        }
+
+        int[] rootMoves(int player) {
+            var count = this.generateMoves(player, 0, -1);
+            return Arrays.copyOf(moveBuffer[0], count);
+        }
+
+        /**
+         * 生成并排序着法：本方已有“冲四”时只生成成五的空位（根节点也不会错过胜着）；
+         * 对方已有“冲四”时只能在其成五窗口的空位上防守；
+         * 否则按落子后本方进攻收益 + 阻挡对方收益排序，只保留前 MAX_BRANCH 个
+         */
+        private int generateMoves(int player, int ply, int ttMove) {
+            var moves = moveBuffer[ply];
+            var order = orderBuffer[ply];
+            var opponent = 3 - player;
+            var count = 0;
+
+            if (fours[player] > 0) {
+                count = this.fiveCompletions(player, player, moves, order);
+            } else if (fours[opponent] > 0) {
+                count = this.fiveCompletions(opponent, player, moves, order);
+            } else {
+                for (int cell = 0; cell < CELLS; cell++) {
+                    if (cells[cell] == 0 && near[cell] > 0) {
+                        moves[count] = cell;
+                        order[count++] = this.moveValue(cell, player);
+                    }
+                }
+                if (count == 0 && stones == 0) {
+                    moves[0] = CELLS / 2;
+                    return 1;
+                }
+            }
+
+            // 置换表中的最佳着法优先
+            for (int i = 0; i < count; i++) {
+                if (moves[i] == ttMove) order[i] = Integer.MAX_VALUE;
+            }
+
+            // 选择排序出前 MAX_BRANCH 个
+            var limit = Math.min(count, MAX_BRANCH);
+            for (int i = 0; i < limit; i++) {
+                var bestIndex = i;
+                for (int j = i + 1; j < count; j++) {
+                    if (order[j] > order[bestIndex]) bestIndex = j;
+                }
+                var move = moves[i];
+                moves[i] = moves[bestIndex];
+                moves[bestIndex] = move;
+                var value = order[i];
+                order[i] = order[bestIndex];
+                order[bestIndex] = value;
+            }
+            return limit;
+        }
+
+        // 收集 owner 已有四子且未被阻挡的窗口中的空位
+        private int fiveCompletions(int owner, int player, int[] moves, int[] order) {
+            var other = 3 - owner;
+            var count = 0;
+            markStamp++;
+            for (int w = 0; w < WINDOWS.length; w++) {
+                if (counts[owner][w] != 4 || counts[other][w] != 0) continue;
+                for (var cell : WINDOWS[w]) {
+                    if (cells[cell] == 0 && marks[cell] != markStamp) {
+                        marks[cell] = markStamp;
+                        moves[count] = cell;
+                        order[count++] = this.moveValue(cell, player);
+                    }
+                }
+            }
+            return count;
+        }
+
+        private int moveValue(int cell, int player) {
+            var opponent = 3 - player;
+            var attack = 0;
+            var defense = 0;
+            for (var w : CELL_WINDOWS[cell]) {
+                var mine = counts[player][w];
+                var theirs = counts[opponent][w];
+                if (theirs == 0) attack += WINDOW_SCORES[mine + 1] - WINDOW_SCORES[mine];
+                if (mine == 0) defense += WINDOW_SCORES[theirs + 1] - WINDOW_SCORES[theirs];
+            }
+            // 同等情况下靠近中心的位置优先
+            var row = cell / BOARD_SIZE;
+            var col = cell % BOARD_SIZE;
+            var center = BOARD_SIZE - Math.abs(row - BOARD_SIZE / 2) - Math.abs(col - BOARD_SIZE / 2);
+            return attack + defense * 9 / 10 + center;
+        }
+    }
+}
@@ -1,17 +1,42 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.imageio.ImageIO;
 
 // 只在真正合适的地方使用record - 简单的数据载体
-record ImageFile(String name, String path, long size) {
+record ImageFile(String name, String path, long size, long lastModified) {
     static ImageFile from(File file) {
-        return new ImageFile(file.getName(), file.getAbsolutePath(), file.length());
+        return new ImageFile(file.getName(), file.getAbsolutePath(), file.length(), file.lastModified());
     }
     
     String sizeText() {
@@ -28,22 +53,33 @@ void main(String[] args) {
 }
 
 static class ImageViewer extends JFrame {
-    private final JLabel imageLabel;
+    private static final long TILED_THRESHOLD = 40_000_000L; // 超过这么多像素的图用分块金字塔显示
+    
+    private final ImageCanvas imageCanvas;
+    private final TiledCanvas tiledCanvas = new TiledCanvas();
     private final JLabel infoLabel;
     private final JScrollPane scrollPane;
     private final DefaultListModel<ImageFile> imageListModel;
     private final JList<ImageFile> imageList;
+    private final ImageLoader imageLoader = new ImageLoader();
+    private final ThumbnailCache thumbnailCache = new ThumbnailCache();
+    private final ThreadPoolExecutor tileExecutor = newLifoExecutor(2, "tile");
+    private final JCheckBoxMenuItem alwaysTiledItem = new JCheckBoxMenuItem("总是分块显示");
+    private TilePyramid pyramid;        // 当前图片的分块金字塔，不用分块显示时为 null
     
     private List<ImageFile> currentImages = List.of();
     private int currentIndex = -1;
-    private double zoomFactor = 1.0;
+    private int direction = 1;          // 最近一次翻页的方向，预取优先往这边
+    private Decoded currentImage;       // 当前显示的解码结果，可能是降采样的
+    private double zoomFactor = 1.0;    // 相对原图尺寸的缩放
+    private boolean fitMode = true;     // 窗口大小变化时保持适应窗口
     
     public ImageViewer() {
-        imageLabel = new JLabel();
+        imageCanvas = new ImageCanvas();
         infoLabel = new JLabel("请选择图片文件夹或打开图片文件");
         imageListModel = new DefaultListModel<>();
         imageList = new JList<>(imageListModel);
-        scrollPane = new JScrollPane(imageLabel);
+        scrollPane = new JScrollPane(imageCanvas);
         
         initializeGUI();
         setupKeyBindings();
@@ -74,7 +110,7 @@ static class ImageViewer extends JFrame {
         openFileItem.addActionListener(e -> openImageFile());
         
         var openFolderItem = new JMenuItem("打开文件夹");
-        openFolderItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_O, 
+        openFolderItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_O,
             KeyEvent.CTRL_DOWN_MASK | KeyEvent.SHIFT_DOWN_MASK));
         openFolderItem.addActionListener(e -> openImageFolder());
         
@@ -105,6 +141,13 @@ static class ImageViewer extends JFrame {
         viewMenu.addSeparator();
         viewMenu.add(fitToWindowItem);
         viewMenu.add(actualSizeItem);
+        viewMenu.addSeparator();
+        viewMenu.add(alwaysTiledItem);
+        
+        alwaysTiledItem.setToolTipText("超过 " + TILED_THRESHOLD / 1_000_000 + " 百万像素的图片总是分块显示");
+        alwaysTiledItem.addActionListener(e -> {
+            if (currentImage != null) displayDecoded(currentImages.get(currentIndex), currentImage);
+        });
         
         menuBar.add(fileMenu);
         menuBar.add(viewMenu);
@@ -154,31 +197,43 @@ static class ImageViewer extends JFrame {
     private void createMainPanel() {
         var splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT);
         
-        // 左侧图片列表
+        // 左侧缩略图网格：固定单元格大小，JList 只渲染可见的单元格，缩略图按需加载
         imageList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        imageList.setCellRenderer(new ImageFileRenderer());
+        imageList.setLayoutOrientation(JList.HORIZONTAL_WRAP);
+        imageList.setVisibleRowCount(-1);
+        imageList.setFixedCellWidth(ThumbnailCache.SIZE + 16);
+        imageList.setFixedCellHeight(ThumbnailCache.SIZE + 28);
+        imageList.setCellRenderer(new ThumbnailRenderer(thumbnailCache));
         imageList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
                 var selectedIndex = imageList.getSelectedIndex();
-                if (selectedIndex >= 0) {
+                if (selectedIndex >= 0 && selectedIndex != currentIndex) {
                     showImage(selectedIndex);
                 }
             }
         });
         
         var listScrollPane = new JScrollPane(imageList);
-        listScrollPane.setPreferredSize(new Dimension(200, 0));
+        listScrollPane.setPreferredSize(new Dimension(ThumbnailCache.SIZE * 2 + 56, 0));
         listScrollPane.setBorder(BorderFactory.createTitledBorder("图片列表"));
+        listScrollPane.getViewport().addChangeListener(e ->
+            thumbnailCache.setVisibleRange(imageList.getFirstVisibleIndex(), imageList.getLastVisibleIndex()));
         
         // 右侧图片显示
-        imageLabel.setHorizontalAlignment(JLabel.CENTER);
-        imageLabel.setVerticalAlignment(JLabel.CENTER);
         scrollPane.setPreferredSize(new Dimension(600, 500));
         scrollPane.getViewport().setBackground(Color.DARK_GRAY);
+        scrollPane.getViewport().addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                if (fitMode && currentImage != null) {
+                    applyZoom(fitZoom(false));
+                }
+            }
+        });
         
         splitPane.setLeftComponent(listScrollPane);
         splitPane.setRightComponent(scrollPane);
-        splitPane.setDividerLocation(200);
+        splitPane.setDividerLocation(ThumbnailCache.SIZE * 2 + 56);
         
         add(splitPane, BorderLayout.CENTER);
     }
@@ -224,6 +279,7 @@ static class ImageViewer extends JFrame {
                 if (currentImages.get(i).path().equals(file.getAbsolutePath())) {
                     showImage(i);
                     imageList.setSelectedIndex(i);
+                    imageList.ensureIndexIsVisible(i);
                     break;
                 }
             }
@@ -253,62 +309,132 @@ static class ImageViewer extends JFrame {
             .toList();
         
         // 更新UI
+        currentIndex = -1;
+        currentImage = null;
         imageListModel.clear();
-        currentImages.forEach(imageListModel::addElement);
+        imageListModel.addAll(currentImages);
         
         if (!currentImages.isEmpty()) {
             showImage(0);
             imageList.setSelectedIndex(0);
         } else {
-            imageLabel.setIcon(null);
+            closePyramid();
+            imageCanvas.setImage(null);
+            showView(imageCanvas);
             infoLabel.setText("文件夹中没有找到图片文件");
         }
     }
     
     private boolean isImageFile(File file) {
         var name = file.getName().toLowerCase();
-        return name.endsWith(".jpg") || name.endsWith(".jpeg") || 
-               name.endsWith(".png") || name.endsWith(".gif") || 
+        return name.endsWith(".jpg") || name.endsWith(".jpeg") ||
+               name.endsWith(".png") || name.endsWith(".gif") ||
                name.endsWith(".bmp") || name.endsWith(".webp");
     }
     
+    /**
+     * 切换到第 index 张：先预取相邻的图片，再请求当前这张。
+     * 解码线程后进先出，所以当前这张总是最先开始解码
+     */
     private void showImage(int index) {
         if (index < 0 || index >= currentImages.size()) return;
         
+        if (currentIndex >= 0 && index != currentIndex) {
+            direction = index > currentIndex ? 1 : -1;
+        }
         currentIndex = index;
+        fitMode = true;
         var imageFile = currentImages.get(index);
         
-        try {
-            var image = ImageIO.read(new File(imageFile.path()));
-            if (image != null) {
-                zoomFactor = 1.0;
-                displayImage(image);
-                updateInfo(imageFile, image);
+        var viewport = viewportSize();
+        var window = new LinkedHashSet<String>();
+        window.add(imageFile.path());
+        for (int offset : new int[] {2 * direction, -direction, direction}) {
+            int neighbour = index + offset;
+            if (neighbour >= 0 && neighbour < currentImages.size()) {
+                var file = currentImages.get(neighbour);
+                window.add(file.path());
+                imageLoader.load(file, viewport.width, viewport.height);
             }
-        } catch (IOException e) {
-            imageLabel.setIcon(null);
-            infoLabel.setText("无法加载图片: " + e.getMessage());
         }
+        imageLoader.cancelExcept(window);
+        
+        var cached = imageLoader.cached(imageFile, viewport.width, viewport.height);
+        if (cached != null) {
+            displayDecoded(imageFile, cached);
+            return;
+        }
+        
+        infoLabel.setText("正在加载: " + imageFile.name() + " | " + (index + 1) + "/" + currentImages.size());
+        requestCurrent(imageFile, viewport.width, viewport.height);
     }
     
-    private void displayImage(BufferedImage image) {
-        var scaledWidth = (int) (image.getWidth() * zoomFactor);
-        var scaledHeight = (int) (image.getHeight() * zoomFactor);
-        
-        var scaledImage = image.getScaledInstance(scaledWidth, scaledHeight, Image.SCALE_SMOOTH);
-        imageLabel.setIcon(new ImageIcon(scaledImage));
-        imageLabel.revalidate();
+    // 请求当前图片在指定尺寸下的解码结果，完成时如果还在看这张就显示出来
+    private void requestCurrent(ImageFile imageFile, int boxWidth, int boxHeight) {
+        imageLoader.load(imageFile, boxWidth, boxHeight).whenComplete((decoded, error) ->
+            SwingUtilities.invokeLater(() -> {
+                if (currentIndex < 0 || currentIndex >= currentImages.size()
+                        || currentImages.get(currentIndex) != imageFile) {
+                    return;
+                }
+                if (decoded != null) {
+                    displayDecoded(imageFile, decoded);
+                } else if (!(error instanceof CancellationException)) {
+                    var cause = error instanceof CompletionException ? error.getCause() : error;
+                    closePyramid();
+                    imageCanvas.setImage(null);
+                    showView(imageCanvas);
+                    currentImage = null;
+                    infoLabel.setText("无法加载图片: " + cause.getMessage());
+                }
+            }));
+    }
+    
+    // 大图切到分块显示，屏幕尺寸的解码结果作为还没加载出来的块的底图
+    private void displayDecoded(ImageFile imageFile, Decoded decoded) {
+        currentImage = decoded;
+        if (alwaysTiledItem.isSelected() || (long) decoded.sourceWidth() * decoded.sourceHeight() > TILED_THRESHOLD) {
+            if (pyramid == null || !pyramid.path().equals(decoded.path())) {
+                closePyramid();
+                pyramid = new TilePyramid(imageFile, decoded.sourceWidth(), decoded.sourceHeight(), tileExecutor,
+                    () -> SwingUtilities.invokeLater(tiledCanvas::repaint));
+            }
+            tiledCanvas.setSource(pyramid, decoded);
+            imageCanvas.setImage(null);
+            showView(tiledCanvas);
+        } else {
+            closePyramid();
+            imageCanvas.setImage(decoded);
+            showView(imageCanvas);
+        }
+        applyZoom(fitMode ? fitZoom(false) : zoomFactor);
+    }
+    
+    private void showView(JComponent view) {
+        if (scrollPane.getViewport().getView() != view) {
+            scrollPane.setViewportView(view);
+        }
+    }
+    
+    private void closePyramid() {
+        if (pyramid != null) {
+            pyramid.close();
+            pyramid = null;
+            tiledCanvas.setSource(null, null);
+        }
     }
     
-    private void updateInfo(ImageFile imageFile, BufferedImage image) {
-        var info = String.format("%s | %dx%d | %s | 缩放: %.0f%% | %d/%d", 
-            imageFile.name(), 
-            image.getWidth(), 
-            image.getHeight(),
+    private void updateInfo(ImageFile imageFile, Decoded decoded) {
+        var info = String.format("%s | %dx%d | %s | 缩放: %.0f%% | %d/%d%s",
+            imageFile.name(),
+            decoded.sourceWidth(),
+            decoded.sourceHeight(),
             imageFile.sizeText(),
             zoomFactor * 100,
             currentIndex + 1,
-            currentImages.size());
+            currentImages.size(),
+            pyramid != null ? " | 分块显示 第 " + pyramid.levelFor(zoomFactor) + " 层"
+                : decoded.subsampling() > 1 ? " | 解码 1/" + decoded.subsampling() : "");
         infoLabel.setText(info);
     }
     
@@ -316,6 +442,7 @@ static class ImageViewer extends JFrame {
         if (currentIndex < currentImages.size() - 1) {
             showImage(currentIndex + 1);
             imageList.setSelectedIndex(currentIndex);
+            imageList.ensureIndexIsVisible(currentIndex);
         }
     }
     
@@ -323,58 +450,688 @@ static class ImageViewer extends JFrame {
         if (currentIndex > 0) {
             showImage(currentIndex - 1);
             imageList.setSelectedIndex(currentIndex);
+            imageList.ensureIndexIsVisible(currentIndex);
         }
     }
     
     private void zoomIn() {
-        zoomFactor *= 1.2;
-        refreshCurrentImage();
+        if (currentImage == null) return;
+        fitMode = false;
+        applyZoom(zoomFactor * 1.2);
     }
     
     private void zoomOut() {
-        zoomFactor /= 1.2;
-        refreshCurrentImage();
+        if (currentImage == null) return;
+        fitMode = false;
+        applyZoom(zoomFactor / 1.2);
     }
     
     private void fitToWindow() {
-        if (currentIndex >= 0 && imageLabel.getIcon() != null) {
+        if (currentImage == null) return;
+        fitMode = false;
+        applyZoom(fitZoom(true));
+    }
+    
+    private void actualSize() {
+        if (currentImage == null) return;
+        fitMode = false;
+        applyZoom(1.0);
+    }
+    
+    private double fitZoom(boolean allowEnlarge) {
+        var viewport = viewportSize();
+        var scaleX = (double) viewport.width / currentImage.sourceWidth();
+        var scaleY = (double) viewport.height / currentImage.sourceHeight();
+        var fit = Math.min(scaleX, scaleY);
+        return allowEnlarge ? fit : Math.min(1.0, fit);
+    }
+    
+    // 缩放只重绘已解码的图，并保持视口中心对准原图上的同一点；
+    // 当前解码分辨率不够时，在后台按需要的分辨率重新解码（分块显示时由金字塔按需加载）
+    private void applyZoom(double zoom) {
+        var viewport = scrollPane.getViewport();
+        var view = viewport.getView();
+        var extent = viewport.getExtentSize();
+        var position = viewport.getViewPosition();
+        double centerX = view == null || view.getWidth() == 0 ? 0.5
+            : (position.x + Math.min(extent.width, view.getWidth()) / 2.0) / view.getWidth();
+        double centerY = view == null || view.getHeight() == 0 ? 0.5
+            : (position.y + Math.min(extent.height, view.getHeight()) / 2.0) / view.getHeight();
+        
+        zoomFactor = zoom;
+        imageCanvas.setZoom(zoom);
+        tiledCanvas.setZoom(zoom);
+        scrollPane.validate();
+        
+        if (viewport.getView() != null) {
+            var size = viewport.getView().getPreferredSize();
+            int x = (int) Math.round(centerX * size.width - extent.width / 2.0);
+            int y = (int) Math.round(centerY * size.height - extent.height / 2.0);
+            viewport.setViewPosition(new Point(Math.max(0, Math.min(x, size.width - extent.width)),
+                Math.max(0, Math.min(y, size.height - extent.height))));
+        }
+        
+        var imageFile = currentImages.get(currentIndex);
+        if (pyramid != null) {
+            updateInfo(imageFile, currentImage);
+            return;
+        }
+        int boxWidth = (int) Math.ceil(currentImage.sourceWidth() * zoom);
+        int boxHeight = (int) Math.ceil(currentImage.sourceHeight() * zoom);
+        if (currentImage.subsampling() > ImageLoader.subsamplingFor(
+                currentImage.sourceWidth(), currentImage.sourceHeight(), boxWidth, boxHeight)) {
+            requestCurrent(imageFile, boxWidth, boxHeight);
+        }
+        updateInfo(imageFile, currentImage);
+    }
+    
+    private Dimension viewportSize() {
+        var size = scrollPane.getViewport().getExtentSize();
+        return new Dimension(Math.max(1, size.width > 0 ? size.width : 600), Math.max(1, size.height > 0 ? size.height : 500));
+    }
+    
+    /**
+     * 解码结果。image 可能是按 subsampling 降采样后的，sourceWidth/sourceHeight 是原图尺寸
+     */
+    record Decoded(String path, BufferedImage image, int sourceWidth, int sourceHeight, int subsampling) {
+        long bytes() {
+            return (long) image.getWidth() * image.getHeight() * 4;
+        }
+    }
+    
+    // 固定线程数、后进先出：快速翻页或滚动时，最新的请求最先处理
+    private static ThreadPoolExecutor newLifoExecutor(int threads, String name) {
+        var queue = new LinkedBlockingDeque<Runnable>() {
+            @Override
+            public boolean offer(Runnable task) {
+                return offerFirst(task);
+            }
+        };
+        var counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, queue, task -> {
+            var thread = new Thread(task, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+    
+    /**
+     * 后台解码和内存缓存。按显示尺寸计算降采样倍数，用 ImageReadParam.setSourceSubsampling
+     * 直接解码出接近屏幕大小的图，不在内存里放整张原图；缓存按占用字节数做 LRU 淘汰。
+     * load/cancelExcept 只在事件线程调用
+     */
+    static class ImageLoader {
+        private final ThreadPoolExecutor executor =
+            newLifoExecutor(Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1)), "decoder");
+        private final long maxBytes = Math.min(512L << 20, Runtime.getRuntime().maxMemory() / 4);
+        private final LinkedHashMap<String, Decoded> cache = new LinkedHashMap<>(32, 0.75f, true);
+        private final Map<String, CompletableFuture<Decoded>> inFlight = new HashMap<>();
+        private long cachedBytes;
+        
+        // 缓存里的分辨率够用就直接返回，否则返回 null
+        Decoded cached(ImageFile file, int boxWidth, int boxHeight) {
+            synchronized (cache) {
+                var decoded = cache.get(file.path());
+                if (decoded != null && decoded.subsampling() <= subsamplingFor(
+                        decoded.sourceWidth(), decoded.sourceHeight(), boxWidth, boxHeight)) {
+                    return decoded;
+                }
+                return null;
+            }
+        }
+        
+        CompletableFuture<Decoded> load(ImageFile file, int boxWidth, int boxHeight) {
+            var cached = cached(file, boxWidth, boxHeight);
+            if (cached != null) return CompletableFuture.completedFuture(cached);
+            
+            // 同一个文件已经在解码了就复用；分辨率不够的话显示后会再请求一次
+            var pending = inFlight.get(file.path());
+            if (pending != null && !pending.isCancelled()) return pending;
+            
+            var future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    var decoded = decode(file, boxWidth, boxHeight);
+                    store(decoded);
+                    return decoded;
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+            inFlight.put(file.path(), future);
+            future.whenComplete((decoded, error) -> SwingUtilities.invokeLater(() -> inFlight.remove(file.path(), future)));
+            return future;
+        }
+        
+        // 取消不在窗口内、还没开始的预取；已经开始的让它解码完进缓存
+        void cancelExcept(Set<String> paths) {
+            inFlight.entrySet().removeIf(entry -> {
+                if (paths.contains(entry.getKey())) return false;
+                entry.getValue().cancel(false);
+                return true;
+            });
+        }
+        
+        private void store(Decoded decoded) {
+            synchronized (cache) {
+                var previous = cache.get(decoded.path());
+                if (previous != null && previous.subsampling() <= decoded.subsampling()) return;
+                if (previous != null) {
+                    cache.remove(decoded.path());
+                    cachedBytes -= previous.bytes();
+                }
+                cache.put(decoded.path(), decoded);
+                cachedBytes += decoded.bytes();
+                var iterator = cache.values().iterator();
+                while (cachedBytes > maxBytes && cache.size() > 1 && iterator.hasNext()) {
+                    var eldest = iterator.next();
+                    if (eldest == decoded) continue;
+                    cachedBytes -= eldest.bytes();
+                    iterator.remove();
+                }
+            }
+        }
+        
+        // 按"缩放到框内"计算整数降采样倍数，保证解码结果不小于适应框的尺寸
+        static int subsamplingFor(int width, int height, int boxWidth, int boxHeight) {
+            return Math.max(1, Math.max(width / Math.max(1, boxWidth), height / Math.max(1, boxHeight)));
+        }
+        
+        static Decoded decode(ImageFile file, int boxWidth, int boxHeight) throws IOException {
+            try (var input = ImageIO.createImageInputStream(new File(file.path()))) {
+                if (input == null) throw new IOException("无法读取文件");
+                var readers = ImageIO.getImageReaders(input);
+                if (!readers.hasNext()) throw new IOException("不支持的图片格式");
+                var reader = readers.next();
+                try {
+                    reader.setInput(input, true, true);
+                    int width = reader.getWidth(0);
+                    int height = reader.getHeight(0);
+                    int subsampling = subsamplingFor(width, height, boxWidth, boxHeight);
+                    var param = reader.getDefaultReadParam();
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                    return new Decoded(file.path(), reader.read(0, param), width, height, subsampling);
+                } finally {
+                    reader.dispose();
+                }
+            }
+        }
+    }
+    
+    /**
+     * 缩略图缓存：内存里按数量 LRU，磁盘上按 路径+修改时间 的 SHA-1 存 PNG，
+     * 下次打开同一个文件夹时不用再解码原图。只加载当前可见范围附近的缩略图
+     */
+    static class ThumbnailCache {
+        static final int SIZE = 96;
+        static final ImageIcon BROKEN = new ImageIcon(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+        private static final int MEMORY_ENTRIES = 600;
+        private static final int VISIBLE_MARGIN = 12;
+        
+        private final File directory = new File(System.getProperty("user.home"), ".imageviewer/thumbnails");
+        private final Map<String, ImageIcon> memory = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImageIcon> eldest) {
+                return size() > MEMORY_ENTRIES;
+            }
+        };
+        private final Set<String> pending = ConcurrentHashMap.newKeySet();
+        private final ThreadPoolExecutor executor = newLifoExecutor(2, "thumbnail");
+        private volatile int firstVisible = 0;
+        private volatile int lastVisible = Integer.MAX_VALUE;
+        
+        ImageIcon get(ImageFile file) {
+            synchronized (memory) {
+                return memory.get(key(file));
+            }
+        }
+        
+        void setVisibleRange(int first, int last) {
+            firstVisible = first;
+            lastVisible = last < 0 ? Integer.MAX_VALUE : last;
+        }
+        
+        // 排队加载，完成后回调 onLoaded（在后台线程上）。滚出可见范围的请求直接丢弃，下次画到时再排队
+        void request(int index, ImageFile file, Runnable onLoaded) {
+            var key = key(file);
+            if (!pending.add(key)) return;
+            executor.execute(() -> {
+                try {
+                    if (index + VISIBLE_MARGIN < firstVisible || index - VISIBLE_MARGIN > lastVisible) return;
+                    ImageIcon icon;
+                    try {
+                        icon = new ImageIcon(loadOrCreate(file, key));
+                    } catch (IOException | RuntimeException e) {
+                        icon = BROKEN;
+                    }
+                    synchronized (memory) {
+                        memory.put(key, icon);
+                    }
+                    onLoaded.run();
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        }
+        
+        private BufferedImage loadOrCreate(ImageFile file, String key) throws IOException {
+            var cacheFile = new File(directory, key + ".png");
+            if (cacheFile.isFile()) {
+                var image = ImageIO.read(cacheFile);
+                if (image != null) return image;
+            }
+            
+            var decoded = ImageLoader.decode(file, SIZE * 2, SIZE * 2).image();
+            double scale = Math.min(1.0, (double) SIZE / Math.max(decoded.getWidth(), decoded.getHeight()));
+            int width = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+            var thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            var g2d = thumbnail.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(decoded, 0, 0, width, height, null);
+            g2d.dispose();
+            
+            // 先写临时文件再改名，避免留下写了一半的缓存；磁盘不可写就只用内存缓存
             try {
-                var imageFile = currentImages.get(currentIndex);
-                var image = ImageIO.read(new File(imageFile.path()));
-                
-                var viewportSize = scrollPane.getViewport().getSize();
-                var scaleX = (double) viewportSize.width / image.getWidth();
-                var scaleY = (double) viewportSize.height / image.getHeight();
-                zoomFactor = Math.min(scaleX, scaleY);
-                
-                displayImage(image);
-                updateInfo(imageFile, image);
+                Files.createDirectories(directory.toPath());
+                var temp = Files.createTempFile(directory.toPath(), key, ".tmp");
+                ImageIO.write(thumbnail, "png", temp.toFile());
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             } catch (IOException e) {
                 // 忽略错误
             }
+            return thumbnail;
+        }
+        
+        // 文件改动后修改时间变化，自然对应到新的缓存文件
+        private static String key(ImageFile file) {
+            try {
+                var digest = MessageDigest.getInstance("SHA-1");
+                var bytes = digest.digest((file.path() + "|" + file.lastModified()).getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(bytes);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
         }
     }
     
-    private void actualSize() {
-        zoomFactor = 1.0;
-        refreshCurrentImage();
+    /**
+     * 按缩放比例绘制解码结果；解码图是降采样的时候按原图尺寸换算
+     */
+    static class ImageCanvas extends JComponent {
+        private Decoded decoded;
+        private double zoom = 1.0;
+        
+        void setImage(Decoded decoded) {
+            this.decoded = decoded;
+            updateSize();
+        }
+        
+        void setZoom(double zoom) {
+            this.zoom = zoom;
+            updateSize();
+        }
+        
+        private void updateSize() {
+            var size = decoded == null ? new Dimension(0, 0) : new Dimension(
+                (int) Math.round(decoded.sourceWidth() * zoom), (int) Math.round(decoded.sourceHeight() * zoom));
+            setPreferredSize(size);
+            revalidate();
+            repaint();
+        }
+        
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (decoded == null) return;
+            int width = (int) Math.round(decoded.sourceWidth() * zoom);
+            int height = (int) Math.round(decoded.sourceHeight() * zoom);
+            int x = Math.max(0, (getWidth() - width) / 2);
+            int y = Math.max(0, (getHeight() - height) / 2);
+            var g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(decoded.image(), x, y, width, height, null);
+        }
     }
     
-    private void refreshCurrentImage() {
-        if (currentIndex >= 0) {
-            try {
-                var imageFile = currentImages.get(currentIndex);
-                var image = ImageIO.read(new File(imageFile.path()));
-                displayImage(image);
-                updateInfo(imageFile, image);
-            } catch (IOException e) {
-                // 忽略错误
+    /**
+     * 多分辨率分块金字塔：第 L 层是原图按 2^L 降采样，切成 TILE x TILE 的块，用 ImageReadParam 的
+     * sourceRegion + sourceSubsampling 按需解码，整张原图从不放进内存。块按数量做 LRU 缓存。
+     * JPEG、PNG 这类顺序格式读一个区域也得先解码它上面的所有行，所以同一行里缺的块合成一条带一起读
+     */
+    static class TilePyramid {
+        static final int TILE = 256;
+        private static final int CACHE_TILES = 320;
+        private static final BufferedImage FAILED = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        
+        private final ImageFile file;
+        private final int width, height, maxLevel;
+        private final ThreadPoolExecutor executor;
+        private final Runnable onTileLoaded;
+        private final LinkedHashMap<Long, BufferedImage> tiles = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+                return size() > CACHE_TILES;
+            }
+        };
+        private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+        private volatile Set<Long> wanted = Set.of();
+        private volatile boolean closed;
+        
+        TilePyramid(ImageFile file, int width, int height, ThreadPoolExecutor executor, Runnable onTileLoaded) {
+            this.file = file;
+            this.width = width;
+            this.height = height;
+            this.executor = executor;
+            this.onTileLoaded = onTileLoaded;
+            int level = 0;
+            while ((width - 1 >> level) >= TILE || (height - 1 >> level) >= TILE) level++;
+            this.maxLevel = level;
+        }
+        
+        String path() {
+            return file.path();
+        }
+        
+        int maxLevel() {
+            return maxLevel;
+        }
+        
+        // 分辨率不低于屏幕的最粗一层
+        int levelFor(double zoom) {
+            int level = 0;
+            while (level < maxLevel && (1 << level + 1) * zoom <= 1.0) level++;
+            return level;
+        }
+        
+        // 第 level 层一个块覆盖的原图边长
+        static int span(int level) {
+            return TILE << level;
+        }
+        
+        int columns(int level) {
+            return (width + span(level) - 1) / span(level);
+        }
+        
+        int rows(int level) {
+            return (height + span(level) - 1) / span(level);
+        }
+        
+        static long key(int level, int column, int row) {
+            return ((long) level << 48) | ((long) row << 24) | column;
+        }
+        
+        // 已缓存的块；没有或解码失败时返回 null
+        BufferedImage tile(int level, int column, int row) {
+            synchronized (tiles) {
+                var tile = tiles.get(key(level, column, row));
+                return tile == FAILED ? null : tile;
+            }
+        }
+        
+        boolean isLoaded(int level, int column, int row) {
+            synchronized (tiles) {
+                return tiles.containsKey(key(level, column, row));
+            }
+        }
+        
+        // 记录当前画面需要的块，排队中但已经滚出画面的块开始解码前会被跳过
+        void setWanted(Set<Long> keys) {
+            wanted = keys;
+        }
+        
+        void requestBand(int level, int row, List<Integer> columns) {
+            var missing = new ArrayList<Integer>();
+            for (int column : columns) {
+                if (!isLoaded(level, column, row) && pending.add(key(level, column, row))) {
+                    missing.add(column);
+                }
+            }
+            if (missing.isEmpty() || closed) return;
+            executor.execute(() -> {
+                try {
+                    var needed = missing.stream()
+                        .filter(column -> level == maxLevel || wanted.contains(key(level, column, row)))
+                        .toList();
+                    if (!needed.isEmpty() && !closed) decodeBand(level, row, needed);
+                } finally {
+                    missing.forEach(column -> pending.remove(key(level, column, row)));
+                }
+            });
+        }
+        
+        void close() {
+            closed = true;
+            synchronized (tiles) {
+                tiles.clear();
+            }
+        }
+        
+        private void decodeBand(int level, int row, List<Integer> columns) {
+            int span = span(level);
+            int firstColumn = columns.get(0);
+            int lastColumn = columns.get(columns.size() - 1);
+            int x = firstColumn * span;
+            int y = row * span;
+            var region = new Rectangle(x, y, Math.min(width, (lastColumn + 1) * span) - x, Math.min(height, y + span) - y);
+            
+            BufferedImage band = null;
+            try (var input = ImageIO.createImageInputStream(new File(file.path()))) {
+                var readers = input == null ? null : ImageIO.getImageReaders(input);
+                if (readers != null && readers.hasNext()) {
+                    var reader = readers.next();
+                    try {
+                        reader.setInput(input, true, true);
+                        var param = reader.getDefaultReadParam();
+                        param.setSourceRegion(region);
+                        param.setSourceSubsampling(1 << level, 1 << level, 0, 0);
+                        band = reader.read(0, param);
+                    } finally {
+                        reader.dispose();
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                band = null;
+            }
+            
+            // 切成块并转成 INT_ARGB，绘制缩放时比解码出来的 3 字节格式快
+            for (int column : columns) {
+                BufferedImage tile = FAILED;
+                if (band != null) {
+                    int offset = (column - firstColumn) * TILE;
+                    int tileWidth = Math.min(TILE, band.getWidth() - offset);
+                    if (tileWidth > 0) {
+                        tile = new BufferedImage(tileWidth, band.getHeight(), BufferedImage.TYPE_INT_ARGB);
+                        var g2d = tile.createGraphics();
+                        g2d.drawImage(band, -offset, 0, null);
+                        g2d.dispose();
+                    }
+                }
+                synchronized (tiles) {
+                    if (closed) return;
+                    tiles.put(key(level, column, row), tile);
+                }
+            }
+            onTileLoaded.run();
+        }
+    }
+    
+    /**
+     * 分块显示：只画视口里可见的块。先用屏幕尺寸的解码图垫底，缺的块再用更粗一层已缓存的块补上，
+     * 所以平移和缩放时画面一直完整，清晰的块加载完再替换
+     */
+    static class TiledCanvas extends JComponent {
+        private TilePyramid pyramid;
+        private Decoded preview;
+        private double zoom = 1.0;
+        private Point dragStart;
+        
+        TiledCanvas() {
+            // 拖动平移
+            var dragHandler = new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    dragStart = e.getLocationOnScreen();
+                    setCursor(Cursor.getPredefinedCursor(Cursor.MOVE_CURSOR));
+                }
+                
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    if (dragStart == null || !(getParent() instanceof JViewport viewport)) return;
+                    var point = e.getLocationOnScreen();
+                    var position = viewport.getViewPosition();
+                    var extent = viewport.getExtentSize();
+                    int x = position.x - (point.x - dragStart.x);
+                    int y = position.y - (point.y - dragStart.y);
+                    viewport.setViewPosition(new Point(Math.max(0, Math.min(x, getWidth() - extent.width)),
+                        Math.max(0, Math.min(y, getHeight() - extent.height))));
+                    dragStart = point;
+                }
+                
+                @Override
+                public void mouseReleased(MouseEvent e) {
+                    dragStart = null;
+                    setCursor(Cursor.getDefaultCursor());
+                }
+            };
+            addMouseListener(dragHandler);
+            addMouseMotionListener(dragHandler);
+        }
+        
+        void setSource(TilePyramid pyramid, Decoded preview) {
+            this.pyramid = pyramid;
+            this.preview = preview;
+            updateSize();
+        }
+        
+        void setZoom(double zoom) {
+            this.zoom = zoom;
+            updateSize();
+        }
+        
+        private void updateSize() {
+            setPreferredSize(pyramid == null ? new Dimension(0, 0) : new Dimension(
+                (int) Math.round(pyramid.width * zoom), (int) Math.round(pyramid.height * zoom)));
+            revalidate();
+            repaint();
+        }
+        
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (pyramid == null || preview == null) return;
+            var g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            
+            int imageWidth = (int) Math.round(pyramid.width * zoom);
+            int imageHeight = (int) Math.round(pyramid.height * zoom);
+            int originX = Math.max(0, (getWidth() - imageWidth) / 2);
+            int originY = Math.max(0, (getHeight() - imageHeight) / 2);
+            g2d.drawImage(preview.image(), originX, originY, imageWidth, imageHeight, null);
+            
+            // 先按整个可见区域登记需要的块，再发出请求，解码线程开始时看到的总是本次的集合；
+            // 用可见区域而不是裁剪区域，局部重绘不会把画面其它部分排队中的块丢掉
+            int level = pyramid.levelFor(zoom);
+            double span = TilePyramid.span(level) * zoom;
+            var visible = tileRange(getVisibleRect(), level, span, originX, originY);
+            var wanted = new HashSet<Long>();
+            for (int row = visible[2]; row <= visible[3]; row++) {
+                for (int column = visible[0]; column <= visible[1]; column++) {
+                    wanted.add(TilePyramid.key(level, column, row));
+                }
+            }
+            pyramid.setWanted(Set.copyOf(wanted));
+            
+            var clip = g.getClipBounds();
+            if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+            var range = tileRange(clip, level, span, originX, originY);
+            for (int row = range[2]; row <= range[3]; row++) {
+                var missing = new ArrayList<Integer>();
+                for (int column = range[0]; column <= range[1]; column++) {
+                    if (!drawTile(g2d, level, column, row, originX, originY)) {
+                        drawFallback(g2d, level, column, row, originX, originY);
+                        missing.add(column);
+                    }
+                }
+                if (!missing.isEmpty()) pyramid.requestBand(level, row, missing);
+            }
+        }
+        
+        // 区域换算到当前层的块坐标：{首列, 末列, 首行, 末行}
+        private int[] tileRange(Rectangle area, int level, double span, int originX, int originY) {
+            return new int[] {
+                Math.max(0, (int) ((area.x - originX) / span)),
+                Math.min(pyramid.columns(level) - 1, (int) ((area.x + area.width - originX) / span)),
+                Math.max(0, (int) ((area.y - originY) / span)),
+                Math.min(pyramid.rows(level) - 1, (int) ((area.y + area.height - originY) / span))
+            };
+        }
+        
+        // 块在屏幕上的位置按原图坐标统一取整，相邻块之间不会出现缝隙
+        private boolean drawTile(Graphics2D g2d, int level, int column, int row, int originX, int originY) {
+            var tile = pyramid.tile(level, column, row);
+            if (tile == null) return false;
+            int span = TilePyramid.span(level);
+            int x0 = originX + (int) Math.floor(column * span * zoom);
+            int y0 = originY + (int) Math.floor(row * span * zoom);
+            int x1 = originX + (int) Math.floor(Math.min(pyramid.width, (column + 1L) * span) * zoom);
+            int y1 = originY + (int) Math.floor(Math.min(pyramid.height, (row + 1L) * span) * zoom);
+            g2d.drawImage(tile, x0, y0, x1 - x0, y1 - y0, null);
+            return true;
+        }
+        
+        // 在更粗的层里找覆盖这个块的已缓存块，画出对应的那一部分
+        private void drawFallback(Graphics2D g2d, int level, int column, int row, int originX, int originY) {
+            for (int coarser = level + 1; coarser <= pyramid.maxLevel(); coarser++) {
+                int shift = coarser - level;
+                var parent = pyramid.tile(coarser, column >> shift, row >> shift);
+                if (parent == null) continue;
+                
+                int part = TilePyramid.TILE >> shift;
+                int sx = (column & ((1 << shift) - 1)) * part;
+                int sy = (row & ((1 << shift) - 1)) * part;
+                int sw = Math.min(part, parent.getWidth() - sx);
+                int sh = Math.min(part, parent.getHeight() - sy);
+                if (sw <= 0 || sh <= 0) return;
+                
+                int span = TilePyramid.span(level);
+                int x0 = originX + (int) Math.floor(column * span * zoom);
+                int y0 = originY + (int) Math.floor(row * span * zoom);
+                int x1 = originX + (int) Math.floor(Math.min(pyramid.width, (column + 1L) * span) * zoom);
+                int y1 = originY + (int) Math.floor(Math.min(pyramid.height, (row + 1L) * span) * zoom);
+                g2d.drawImage(parent, x0, y0, x1, y1, sx, sy, sx + sw, sy + sh, null);
+                return;
             }
         }
     }
     
-    // 简单的列表渲染器
-    static class ImageFileRenderer extends DefaultListCellRenderer {
+    // 缩略图单元格：图标在上、文件名在下，缩略图还没加载时先显示占位框
+    static class ThumbnailRenderer extends DefaultListCellRenderer {
+        private static final Icon PLACEHOLDER = new Icon() {
+            @Override
+            public void paintIcon(Component c, Graphics g, int x, int y) {
+                g.setColor(Color.LIGHT_GRAY);
+                g.drawRect(x + 8, y + 8, getIconWidth() - 17, getIconHeight() - 17);
+            }
+            
+            @Override
+            public int getIconWidth() {
+                return ThumbnailCache.SIZE;
+            }
+            
+            @Override
+            public int getIconHeight() {
+                return ThumbnailCache.SIZE;
+            }
+        };
+        
+        private final ThumbnailCache thumbnails;
+        
+        ThumbnailRenderer(ThumbnailCache thumbnails) {
+            this.thumbnails = thumbnails;
+            setHorizontalAlignment(CENTER);
+            setHorizontalTextPosition(CENTER);
+            setVerticalTextPosition(BOTTOM);
+        }
+        
         @Override
         public Component getListCellRendererComponent(JList<?> list, Object value, int index,
                 boolean isSelected, boolean cellHasFocus) {
@@ -382,7 +1139,23 @@ static class ImageViewer extends JFrame {
             
             if (value instanceof ImageFile imageFile) {
                 setText(imageFile.name());
-                setToolTipText(imageFile.sizeText());
+                setToolTipText(imageFile.name() + " | " + imageFile.sizeText());
+                
+                var icon = thumbnails.get(imageFile);
+                if (icon == null) {
+                    setIcon(PLACEHOLDER);
+                    thumbnails.request(index, imageFile, () -> SwingUtilities.invokeLater(() -> {
+                        if (index < list.getModel().getSize() && list.getModel().getElementAt(index) == imageFile) {
+                            var bounds = list.getCellBounds(index, index);
+                            if (bounds != null) list.repaint(bounds);
+                        }
+                    }));
+                } else if (icon == ThumbnailCache.BROKEN) {
+                    setIcon(PLACEHOLDER);
+                    setToolTipText("无法读取: " + imageFile.name());
+                } else {
+                    setIcon(icon);
+                }
             }
             
             return this;
@@ -1,10 +1,37 @@
 import javax.swing.*;
 import javax.swing.border.AbstractBorder;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeSelectionEvent;
+import javax.swing.event.TreeWillExpandListener;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.awt.datatransfer.StringSelection;
 import java.awt.datatransfer.Clipboard;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 // 文本管理静态内部类
 static class Texts {
@@ -21,6 +48,10 @@ static class Texts {
     static final String VALIDATE_BUTTON = "验证";
     static final String COPY_BUTTON = "复制结果";
     static final String CLEAR_BUTTON = "清空";
+    static final String FILE_BUTTON = "处理文件";
+    static final String CANCEL_FILE_BUTTON = "取消处理";
+    static final String TREE_BUTTON = "树形视图";
+    static final String LOOKUP_BUTTON = "定位";
 
     // 按钮提示
     static final String FORMAT_TOOLTIP = "格式化JSON，增加缩进和换行";
@@ -28,6 +59,22 @@ static class Texts {
     static final String VALIDATE_TOOLTIP = "验证JSON格式是否正确";
     static final String COPY_TOOLTIP = "复制格式化结果到剪贴板";
     static final String CLEAR_TOOLTIP = "清空输入和输出";
+    static final String FILE_TOOLTIP = "直接流式处理磁盘上的JSON文件，适合大文件";
+    static final String TREE_TOOLTIP = "以树形结构浏览JSON，节点展开时才加载";
+    static final String LOOKUP_TOOLTIP = "按路径定位节点，例如 $.address.street 或 $.hobbies[0]";
+
+    // 树形视图
+    static final String TAB_TEXT = "文本";
+    static final String TAB_TREE = "树形";
+    static final String TREE_EMPTY_ROOT = "点击「树形视图」或通过「处理文件」打开";
+    static final String TREE_CHILD_COUNT = "%d 项";
+    static final String STATUS_INDEXING = "正在建立结构索引...";
+    static final String STATUS_INDEX_COMPLETE = "索引完成: %.1f MB，%d 个容器，用时 %d ms";
+    static final String STATUS_NODE_SELECTED = "%s  (字节 %d - %d)";
+    static final String ERROR_INVALID_PATH = "无效的路径: %s";
+    static final String ERROR_PATH_NOT_FOUND = "未找到: %s";
+    static final String ERROR_TREE_STRUCTURE = "JSON结构错误，无法展开该节点";
+    static final String ERROR_FILE_TOO_LARGE = "文件超过2GB，无法建立树形索引";
 
     // 状态消息
     static final String STATUS_READY = "就绪";
@@ -41,16 +88,33 @@ static class Texts {
     static final String STATUS_NO_CONTENT_TO_COPY = "没有可复制的内容";
     static final String STATUS_COPIED_TO_CLIPBOARD = "已复制到剪贴板";
     static final String STATUS_CLEARED = "已清空";
+    static final String STATUS_FILE_PROGRESS = "正在处理文件 %d%% (%.1f MB/s)";
+    static final String STATUS_FILE_CANCELLED = "文件处理已取消";
+    static final String STATUS_FILE_COMPLETE = "文件处理完成，用时 %d ms (%.1f MB/s)";
+
+    // 文件处理
+    static final String CHOOSE_INPUT_FILE = "选择JSON文件";
+    static final String CHOOSE_OUTPUT_FILE = "保存结果到";
+    static final String CHOOSE_FILE_ACTION = "请选择要对文件执行的操作";
+    static final String FILE_SOURCE = "源文件: ";
+    static final String FILE_TARGET = "输出文件: ";
+    static final String ERROR_SAME_FILE = "输出文件不能与源文件相同";
 
     // 错误消息
     static final String ERROR_FORMAT_FAILED = "格式化失败: ";
     static final String ERROR_MINIFY_FAILED = "压缩失败: ";
     static final String ERROR_JSON_INCOMPLETE = "JSON不完整，缺少结束符";
     static final String ERROR_STRING_NOT_CLOSED = "字符串未正确结束";
-    static final String ERROR_UNEXPECTED_CHAR = "位置 ";
-    static final String ERROR_EXPECTED_BUT_FOUND = ": 期望 '";
-    static final String ERROR_BUT_FOUND = "' 但找到 '";
-    static final String ERROR_QUOTE = "'";
+    static final String ERROR_POSITION = "第 %d 行第 %d 列 (位置 %d): ";
+    static final String ERROR_UNEXPECTED_CHAR = "意外的字符 '%s'";
+    static final String ERROR_EXPECTED_BUT_FOUND = "期望 %s 但找到 '%s'";
+    static final String ERROR_TRAILING_CONTENT = "JSON结束后存在多余内容 '%s'";
+    static final String ERROR_EMPTY_DOCUMENT = "没有JSON内容";
+    static final String ERROR_CONTROL_CHAR = "字符串中包含未转义的控制字符";
+    static final String ERROR_INVALID_ESCAPE = "无效的转义字符 '%s'";
+    static final String ERROR_INVALID_NUMBER = "无效的数字";
+    static final String ERROR_INVALID_LITERAL = "无效的字面量，期望 %s";
+    static final String END_OF_INPUT = "结尾";
 
     // 验证结果
     static final String VALIDATE_SUCCESS_PREFIX = "✅ JSON格式正确！\n\n";
@@ -62,6 +126,9 @@ static class Texts {
     static final String JSON_INFO_OBJECTS = "- 对象数量: ";
     static final String JSON_INFO_ARRAYS = "- 数组数量: ";
     static final String JSON_INFO_STRINGS = "- 字符串数量: ";
+    static final String JSON_INFO_NUMBERS = "- 数字数量: ";
+    static final String JSON_INFO_LITERALS = "- 布尔/null数量: ";
+    static final String JSON_INFO_MAX_DEPTH = "- 最大嵌套深度: ";
 
     // 示例JSON
     static final String SAMPLE_JSON = """
@@ -195,6 +262,12 @@ static class JsonFormatter extends JFrame {
     private final JButton copyButton;
     private final JButton clearButton;
     private final JLabel statusLabel;
+    private JButton fileButton;
+    private JsonFileWorker fileWorker; // 处理中时文件按钮用于取消
+    private final JTabbedPane outputTabs;
+    private final DefaultTreeModel treeModel;
+    private final JTree jsonTree;
+    private final JTextField pathField;
     
     public JsonFormatter() {
         inputArea = new JTextArea();
@@ -205,6 +278,10 @@ static class JsonFormatter extends JFrame {
         copyButton = new JButton(Texts.COPY_BUTTON);
         clearButton = new JButton(Texts.CLEAR_BUTTON);
         statusLabel = new JLabel(Texts.STATUS_READY);
+        outputTabs = new JTabbedPane();
+        treeModel = new DefaultTreeModel(new DefaultMutableTreeNode(Texts.TREE_EMPTY_ROOT), true);
+        jsonTree = new JTree(treeModel);
+        pathField = new JTextField("$");
         
         initializeGUI();
         setupEventHandlers();
@@ -271,7 +348,45 @@ static class JsonFormatter extends JFrame {
         outputScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         outputScrollPane.setBorder(BorderFactory.createEmptyBorder());
         outputScrollPane.getViewport().setBackground(GRAY6);
-        outputPanel.add(outputScrollPane, BorderLayout.CENTER);
+
+        // 树形视图：路径定位栏 + 惰性加载的树
+        jsonTree.setFont(DesignSystem.MONO);
+        jsonTree.setLargeModel(true);
+        jsonTree.setRowHeight(20);
+        jsonTree.addTreeWillExpandListener(new TreeWillExpandListener() {
+            @Override
+            public void treeWillExpand(TreeExpansionEvent ev) {
+                expandTreeNode(ev);
+            }
+
+            @Override
+            public void treeWillCollapse(TreeExpansionEvent ev) {
+            }
+        });
+        jsonTree.addTreeSelectionListener(this::treeSelectionChanged);
+
+        pathField.setFont(DesignSystem.MONO);
+        pathField.setToolTipText(Texts.LOOKUP_TOOLTIP);
+        pathField.addActionListener(this::lookupPath);
+        var lookupButton = this.createSecondaryButton(Texts.LOOKUP_BUTTON, this::lookupPath);
+        lookupButton.setPreferredSize(new Dimension(80, 32));
+        var lookupBar = new JPanel(new BorderLayout(SPACING_8, 0));
+        lookupBar.setBackground(SECONDARY_SYSTEM_BACKGROUND);
+        lookupBar.setBorder(BorderFactory.createEmptyBorder(0, 0, SPACING_8, 0));
+        lookupBar.add(pathField, BorderLayout.CENTER);
+        lookupBar.add(lookupButton, BorderLayout.EAST);
+
+        var treeScrollPane = new JScrollPane(jsonTree);
+        treeScrollPane.setBorder(new RoundedBorder(RADIUS_8));
+        var treePanel = new JPanel(new BorderLayout());
+        treePanel.setBackground(SECONDARY_SYSTEM_BACKGROUND);
+        treePanel.add(lookupBar, BorderLayout.NORTH);
+        treePanel.add(treeScrollPane, BorderLayout.CENTER);
+
+        outputTabs.setFont(FOOTNOTE);
+        outputTabs.addTab(Texts.TAB_TEXT, outputScrollPane);
+        outputTabs.addTab(Texts.TAB_TREE, treePanel);
+        outputPanel.add(outputTabs, BorderLayout.CENTER);
 
         mainPanel.add(inputPanel);
         mainPanel.add(outputPanel);
@@ -296,9 +411,16 @@ static class JsonFormatter extends JFrame {
         controlPanel.add(this.createPrimaryButton(Texts.FORMAT_BUTTON, this::formatJson));
         controlPanel.add(this.createSecondaryButton(Texts.MINIFY_BUTTON, this::minifyJson));
         controlPanel.add(this.createSecondaryButton(Texts.VALIDATE_BUTTON, this::validateJson));
+        var treeButton = this.createSecondaryButton(Texts.TREE_BUTTON, this::showTree);
+        treeButton.setToolTipText(Texts.TREE_TOOLTIP);
+        controlPanel.add(treeButton);
         controlPanel.add(new JSeparator(SwingConstants.VERTICAL));
         controlPanel.add(this.createSecondaryButton(Texts.COPY_BUTTON, this::copyResult));
         controlPanel.add(this.createSecondaryButton(Texts.CLEAR_BUTTON, this::clearAll));
+        controlPanel.add(new JSeparator(SwingConstants.VERTICAL));
+        fileButton = this.createSecondaryButton(Texts.FILE_BUTTON, this::processFile);
+        fileButton.setToolTipText(Texts.FILE_TOOLTIP);
+        controlPanel.add(fileButton);
 
         add(controlPanel, BorderLayout.NORTH);
     }
@@ -419,8 +541,9 @@ static class JsonFormatter extends JFrame {
         }
 
         try {
-            var formatted = formatJsonString(input);
-            outputArea.setText(formatted);
+            var formatted = new StringWriter(input.length() * 2);
+            this.processJson(input, formatted, JsonStreamProcessor.MODE_FORMAT);
+            outputArea.setText(formatted.toString());
             statusLabel.setText(Texts.STATUS_FORMAT_COMPLETE);
         } catch (Exception ex) {
             outputArea.setText(Texts.ERROR_FORMAT_FAILED + ex.getMessage());
@@ -436,8 +559,9 @@ static class JsonFormatter extends JFrame {
         }
 
         try {
-            var minified = minifyJsonString(input);
-            outputArea.setText(minified);
+            var minified = new StringWriter(input.length());
+            this.processJson(input, minified, JsonStreamProcessor.MODE_MINIFY);
+            outputArea.setText(minified.toString());
             statusLabel.setText(Texts.STATUS_MINIFY_COMPLETE);
         } catch (Exception ex) {
             outputArea.setText(Texts.ERROR_MINIFY_FAILED + ex.getMessage());
@@ -453,246 +577,270 @@ static class JsonFormatter extends JFrame {
         }
 
         try {
-            validateJsonString(input);
-            outputArea.setText(Texts.VALIDATE_SUCCESS_PREFIX + getJsonInfo(input));
+            var stats = this.processJson(input, null, JsonStreamProcessor.MODE_VALIDATE);
+            outputArea.setText(Texts.VALIDATE_SUCCESS_PREFIX + getJsonInfo(stats));
             statusLabel.setText(Texts.STATUS_VALIDATE_PASSED);
         } catch (Exception ex) {
             outputArea.setText(Texts.VALIDATE_ERROR_PREFIX + ex.getMessage());
             statusLabel.setText(Texts.STATUS_VALIDATE_FAILED);
         }
     }
-    
-    private void copyResult(ActionEvent e) {
-        var result = outputArea.getText();
-        if (result.isEmpty()) {
-            statusLabel.setText(Texts.STATUS_NO_CONTENT_TO_COPY);
+
+    private JsonStats processJson(String json, Writer out, int mode) throws IOException, JsonSyntaxException {
+        return new JsonStreamProcessor(new StringReader(json), out, mode).process();
+    }
+
+    // ===== 文件处理 =====
+    // 大文件不经过文本框：从磁盘流式读取，边校验边写出到目标文件
+    private void processFile(ActionEvent e) {
+        if (fileWorker != null) {
+            fileWorker.cancel(false);
             return;
         }
 
-        var clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-        var selection = new StringSelection(result);
-        clipboard.setContents(selection, null);
-        statusLabel.setText(Texts.STATUS_COPIED_TO_CLIPBOARD);
+        var chooser = new JFileChooser();
+        chooser.setDialogTitle(Texts.CHOOSE_INPUT_FILE);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        var source = chooser.getSelectedFile().toPath();
+
+        var options = new String[] {Texts.FORMAT_BUTTON, Texts.MINIFY_BUTTON, Texts.VALIDATE_BUTTON, Texts.TREE_BUTTON};
+        var choice = JOptionPane.showOptionDialog(this, Texts.CHOOSE_FILE_ACTION, Texts.FILE_BUTTON,
+            JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        if (choice < 0) return;
+        if (choice == 3) {
+            this.openTreeFile(source);
+            return;
+        }
+        var mode = switch (choice) {
+            case 0 -> JsonStreamProcessor.MODE_FORMAT;
+            case 1 -> JsonStreamProcessor.MODE_MINIFY;
+            default -> JsonStreamProcessor.MODE_VALIDATE;
+        };
+
+        Path target = null;
+        if (mode != JsonStreamProcessor.MODE_VALIDATE) {
+            var name = source.getFileName().toString().replaceFirst("\\.json$", "");
+            var suffix = mode == JsonStreamProcessor.MODE_FORMAT ? ".formatted.json" : ".min.json";
+            var saver = new JFileChooser(source.toFile().getParentFile());
+            saver.setDialogTitle(Texts.CHOOSE_OUTPUT_FILE);
+            saver.setSelectedFile(source.resolveSibling(name + suffix).toFile());
+            if (saver.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            target = saver.getSelectedFile().toPath();
+            if (target.toAbsolutePath().equals(source.toAbsolutePath())) {
+                statusLabel.setText(Texts.ERROR_SAME_FILE);
+                return;
+            }
+        }
+
+        fileButton.setText(Texts.CANCEL_FILE_BUTTON);
+        fileWorker = new JsonFileWorker(source, target, mode);
+        fileWorker.execute();
     }
-    
-    private void clearAll(ActionEvent e) {
-        inputArea.setText("");
-        outputArea.setText("");
-        statusLabel.setText(Texts.STATUS_CLEARED);
+
+    class JsonFileWorker extends SwingWorker<JsonStats, Long> {
+        private final Path source;
+        private final Path target;
+        private final int mode;
+        private final long startNanos = System.nanoTime();
+        private long totalBytes;
+
+        JsonFileWorker(Path source, Path target, int mode) {
+            this.source = source;
+            this.target = target;
+            this.mode = mode;
+        }
+
+        @Override
+        protected JsonStats doInBackground() throws Exception {
+            totalBytes = Files.size(source);
+            try (var counter = new CountingInputStream(Files.newInputStream(source));
+                 var reader = new InputStreamReader(counter, StandardCharsets.UTF_8);
+                 var writer = target == null ? null : new OutputStreamWriter(Files.newOutputStream(target), StandardCharsets.UTF_8)) {
+                var processor = new JsonStreamProcessor(reader, writer, mode);
+                processor.setProgressListener(() -> {
+                    if (isCancelled()) throw new CancellationException();
+                    publish(counter.count());
+                });
+                return processor.process();
+            } catch (Exception ex) {
+                if (target != null) Files.deleteIfExists(target);
+                throw ex;
+            }
+        }
+
+        @Override
+        protected void process(List<Long> chunks) {
+            var bytes = chunks.get(chunks.size() - 1);
+            var seconds = Math.max(1, System.nanoTime() - startNanos) / 1e9;
+            var percent = totalBytes == 0 ? 100 : (int) (bytes * 100 / totalBytes);
+            statusLabel.setText(String.format(Texts.STATUS_FILE_PROGRESS, percent, bytes / 1048576.0 / seconds));
+        }
+
+        @Override
+        protected void done() {
+            fileWorker = null;
+            fileButton.setText(Texts.FILE_BUTTON);
+            if (isCancelled()) {
+                statusLabel.setText(Texts.STATUS_FILE_CANCELLED);
+                return;
+            }
+            var millis = (System.nanoTime() - startNanos) / 1_000_000;
+            try {
+                var stats = get();
+                var summary = new StringBuilder(Texts.VALIDATE_SUCCESS_PREFIX);
+                summary.append(Texts.FILE_SOURCE).append(source).append("\n");
+                if (target != null) {
+                    summary.append(Texts.FILE_TARGET).append(target).append("\n");
+                }
+                summary.append("\n").append(getJsonInfo(stats));
+                outputArea.setText(summary.toString());
+                statusLabel.setText(String.format(Texts.STATUS_FILE_COMPLETE, millis, totalBytes / 1048576.0 * 1000 / Math.max(1, millis)));
+            } catch (Exception ex) {
+                var cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+                outputArea.setText(Texts.VALIDATE_ERROR_PREFIX + cause.getMessage());
+                statusLabel.setText(Texts.STATUS_VALIDATE_FAILED);
+            }
+        }
     }
     
-    // 简单的JSON格式化实现
-    private String formatJsonString(String json) throws Exception {
-        validateJsonString(json); // 先验证
-        
-        var result = new StringBuilder();
-        var indent = 0;
-        var inString = false;
-        var escape = false;
-        
-        for (int i = 0; i < json.length(); i++) {
-            var ch = json.charAt(i);
-            
-            if (escape) {
-                result.append(ch);
-                escape = false;
-                continue;
-            }
-            
-            if (ch == '\\' && inString) {
-                result.append(ch);
-                escape = true;
-                continue;
-            }
-            
-            if (ch == '"') {
-                inString = !inString;
-                result.append(ch);
-                continue;
-            }
-            
-            if (inString) {
-                result.append(ch);
-                continue;
-            }
-            
-            switch (ch) {
-                case '{', '[' -> {
-                    result.append(ch);
-                    result.append('\n');
-                    indent++;
-                    appendIndent(result, indent);
-                }
-                case '}', ']' -> {
-                    result.append('\n');
-                    indent--;
-                    appendIndent(result, indent);
-                    result.append(ch);
-                }
-                case ',' -> {
-                    result.append(ch);
-                    result.append('\n');
-                    appendIndent(result, indent);
-                }
-                case ':' -> {
-                    result.append(ch);
-                    result.append(' ');
+    // ===== 树形视图 =====
+    private void showTree(ActionEvent e) {
+        var input = inputArea.getText().trim();
+        if (input.isEmpty()) {
+            statusLabel.setText(Texts.STATUS_PLEASE_ENTER_JSON);
+            return;
+        }
+        this.buildTree(() -> ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // 文件通过内存映射读取，索引只保存偏移，节点内容在展开时按需解码
+    private void openTreeFile(Path source) {
+        this.buildTree(() -> {
+            try (var channel = FileChannel.open(source, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException(Texts.ERROR_FILE_TOO_LARGE);
                 }
-                case ' ', '\t', '\n', '\r' -> {
-                    // 忽略原有的空白字符
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        });
+    }
+
+    private void buildTree(Callable<ByteBuffer> source) {
+        statusLabel.setText(Texts.STATUS_INDEXING);
+        new SwingWorker<StructuralIndex, Void>() {
+            private final long startNanos = System.nanoTime();
+
+            @Override
+            protected StructuralIndex doInBackground() throws Exception {
+                return StructuralIndex.build(source.call());
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    var index = get();
+                    treeModel.setRoot(JsonTreeNode.root(index));
+                    outputTabs.setSelectedIndex(1);
+                    var millis = (System.nanoTime() - startNanos) / 1_000_000;
+                    statusLabel.setText(String.format(Texts.STATUS_INDEX_COMPLETE,
+                        index.byteLength() / 1048576.0, index.containerCount(), millis));
+                } catch (Exception ex) {
+                    var cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+                    outputArea.setText(Texts.VALIDATE_ERROR_PREFIX + cause.getMessage());
+                    outputTabs.setSelectedIndex(0);
+                    statusLabel.setText(Texts.STATUS_VALIDATE_FAILED);
                 }
-                default -> result.append(ch);
             }
-        }
-        
-        return result.toString();
+        }.execute();
     }
-    
-    private String minifyJsonString(String json) throws Exception {
-        validateJsonString(json); // 先验证
-        
-        var result = new StringBuilder();
-        var inString = false;
-        var escape = false;
-        
-        for (int i = 0; i < json.length(); i++) {
-            var ch = json.charAt(i);
-            
-            if (escape) {
-                result.append(ch);
-                escape = false;
-                continue;
-            }
-            
-            if (ch == '\\' && inString) {
-                result.append(ch);
-                escape = true;
-                continue;
-            }
-            
-            if (ch == '"') {
-                inString = !inString;
-                result.append(ch);
-                continue;
-            }
-            
-            if (inString) {
-                result.append(ch);
-                continue;
-            }
-            
-            // 在非字符串内容中，跳过空白字符
-            if (ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r') {
-                continue;
-            }
-            
-            result.append(ch);
+
+    private void expandTreeNode(TreeExpansionEvent ev) {
+        var node = (JsonTreeNode) ev.getPath().getLastPathComponent();
+        try {
+            if (node.ensureLoaded()) {
+                treeModel.nodeStructureChanged(node);
+            }
+        } catch (RuntimeException ex) {
+            statusLabel.setText(Texts.ERROR_TREE_STRUCTURE);
         }
-        
-        return result.toString();
     }
-    
-    private void validateJsonString(String json) throws Exception {
-        var stack = new java.util.Stack<Character>();
-        var inString = false;
-        var escape = false;
-        
-        for (int i = 0; i < json.length(); i++) {
-            var ch = json.charAt(i);
-            
-            if (escape) {
-                escape = false;
-                continue;
-            }
-            
-            if (ch == '\\' && inString) {
-                escape = true;
-                continue;
-            }
-            
-            if (ch == '"') {
-                inString = !inString;
-                continue;
-            }
-            
-            if (inString) {
-                continue;
-            }
-            
-            switch (ch) {
-                case '{' -> stack.push('}');
-                case '[' -> stack.push(']');
-                case '}', ']' -> {
-                    if (stack.isEmpty()) {
-                        throw new Exception(Texts.ERROR_UNEXPECTED_CHAR + i + ": " + Texts.ERROR_EXPECTED_BUT_FOUND + ch + Texts.ERROR_QUOTE);
-                    }
-                    var expected = stack.pop();
-                    if (ch != expected) {
-                        throw new Exception(Texts.ERROR_UNEXPECTED_CHAR + i + ": " + Texts.ERROR_EXPECTED_BUT_FOUND + expected + Texts.ERROR_BUT_FOUND + ch + Texts.ERROR_QUOTE);
-                    }
+
+    private void lookupPath(ActionEvent e) {
+        if (!(treeModel.getRoot() instanceof JsonTreeNode root)) {
+            statusLabel.setText(Texts.STATUS_PLEASE_ENTER_JSON);
+            return;
+        }
+
+        var path = pathField.getText().trim();
+        try {
+            var newlyLoaded = new ArrayList<JsonTreeNode>();
+            var node = root;
+            for (var step : parseJsonPath(path)) {
+                var position = step instanceof Integer i
+                    ? (node.isArray() ? i : -1)
+                    : node.positionOfKey((String) step);
+                node = node.childAt(position, newlyLoaded);
+                if (node == null) {
+                    statusLabel.setText(String.format(Texts.ERROR_PATH_NOT_FOUND, path));
+                    return;
                 }
             }
+            for (var loaded : newlyLoaded) {
+                treeModel.nodeStructureChanged(loaded);
+            }
+            var treePath = new TreePath(node.getPath());
+            jsonTree.setSelectionPath(treePath);
+            jsonTree.scrollPathToVisible(treePath);
+        } catch (JsonSyntaxException ex) {
+            statusLabel.setText(ex.getMessage());
+        } catch (RuntimeException ex) {
+            statusLabel.setText(Texts.ERROR_TREE_STRUCTURE);
         }
-        
-        if (!stack.isEmpty()) {
-            throw new Exception(Texts.ERROR_JSON_INCOMPLETE);
+    }
+
+    private void treeSelectionChanged(TreeSelectionEvent ev) {
+        if (!(jsonTree.getLastSelectedPathComponent() instanceof JsonTreeNode node)) return;
+        var path = node.jsonPath();
+        pathField.setText(path);
+        if (node.isRange()) {
+            statusLabel.setText(path);
+        } else {
+            statusLabel.setText(String.format(Texts.STATUS_NODE_SELECTED, path, node.valueStart(), node.valueEnd()));
         }
+    }
 
-        if (inString) {
-            throw new Exception(Texts.ERROR_STRING_NOT_CLOSED);
+    private void copyResult(ActionEvent e) {
+        var result = outputArea.getText();
+        if (result.isEmpty()) {
+            statusLabel.setText(Texts.STATUS_NO_CONTENT_TO_COPY);
+            return;
         }
+
+        var clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+        var selection = new StringSelection(result);
+        clipboard.setContents(selection, null);
+        statusLabel.setText(Texts.STATUS_COPIED_TO_CLIPBOARD);
     }
     
-    private String getJsonInfo(String json) {
+    private void clearAll(ActionEvent e) {
+        inputArea.setText("");
+        outputArea.setText("");
+        treeModel.setRoot(new DefaultMutableTreeNode(Texts.TREE_EMPTY_ROOT));
+        statusLabel.setText(Texts.STATUS_CLEARED);
+    }
+
+    private String getJsonInfo(JsonStats stats) {
         var info = new StringBuilder();
         info.append(Texts.JSON_INFO_HEADER);
-        info.append(Texts.JSON_INFO_TOTAL_CHARS).append(json.length()).append("\n");
-        
-        var objectCount = 0;
-        var arrayCount = 0;
-        var stringCount = 0;
-        var inString = false;
-        var escape = false;
-        
-        for (int i = 0; i < json.length(); i++) {
-            var ch = json.charAt(i);
-            
-            if (escape) {
-                escape = false;
-                continue;
-            }
-            
-            if (ch == '\\' && inString) {
-                escape = true;
-                continue;
-            }
-            
-            if (ch == '"') {
-                if (!inString) {
-                    stringCount++;
-                }
-                inString = !inString;
-                continue;
-            }
-            
-            if (!inString) {
-                if (ch == '{') objectCount++;
-                else if (ch == '[') arrayCount++;
-            }
-        }
-        
-        info.append(Texts.JSON_INFO_OBJECTS).append(objectCount).append("\n");
-        info.append(Texts.JSON_INFO_ARRAYS).append(arrayCount).append("\n");
-        info.append(Texts.JSON_INFO_STRINGS).append(stringCount / 2).append("\n"); // 除以2因为每个字符串有开始和结束引号
-        
+        info.append(Texts.JSON_INFO_TOTAL_CHARS).append(stats.chars()).append("\n");
+        info.append(Texts.JSON_INFO_OBJECTS).append(stats.objects()).append("\n");
+        info.append(Texts.JSON_INFO_ARRAYS).append(stats.arrays()).append("\n");
+        info.append(Texts.JSON_INFO_STRINGS).append(stats.strings()).append("\n");
+        info.append(Texts.JSON_INFO_NUMBERS).append(stats.numbers()).append("\n");
+        info.append(Texts.JSON_INFO_LITERALS).append(stats.literals()).append("\n");
+        info.append(Texts.JSON_INFO_MAX_DEPTH).append(stats.maxDepth()).append("\n");
         return info.toString();
     }
-    
-    private void appendIndent(StringBuilder sb, int level) {
-        for (int i = 0; i < level; i++) {
-            sb.append("  "); // 2个空格作为缩进
-        }
-    }
 
     private void setupKeyboardShortcuts() {
         // 添加键盘快捷键支持
@@ -747,6 +895,974 @@ static class JsonFormatter extends JFrame {
         this.requestFocusInWindow();
     }
 
+    /**
+     * 单遍流式 JSON 处理器
+     * 从 Reader 逐块读取，一次扫描同时完成校验、格式化/压缩输出和统计，
+     * 输出直接写入 Writer；容器栈用 boolean 数组保存，不装箱也不缓存整份文档
+     */
+    static final class JsonStreamProcessor {
+        static final int MODE_VALIDATE = 0;
+        static final int MODE_FORMAT = 1;
+        static final int MODE_MINIFY = 2;
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        // 解析状态
+        private static final int EXPECT_VALUE = 0;
+        private static final int EXPECT_FIRST_VALUE = 1; // '[' 之后：值或 ']'
+        private static final int EXPECT_FIRST_KEY = 2;   // '{' 之后：键或 '}'
+        private static final int EXPECT_KEY = 3;
+        private static final int EXPECT_COLON = 4;
+        private static final int EXPECT_COMMA_OR_END = 5;
+        private static final int EXPECT_END = 6;
+
+        private final Reader in;
+        private final Writer out;
+        private final int mode;
+        private final char[] input = new char[BUFFER_SIZE];
+        private final char[] output;
+        private int inputPos;
+        private int inputLimit;
+        private int outputPos;
+        private long consumedBefore;
+        private long line = 1;
+        private long lineStart;
+        private Runnable progressListener;
+
+        // 容器栈：true 为对象，false 为数组
+        private boolean[] containers = new boolean[64];
+        private int depth;
+
+        // 统计
+        private long objects;
+        private long arrays;
+        private long strings;
+        private long numbers;
+        private long literals;
+        private int maxDepth;
+
+        JsonStreamProcessor(Reader in, Writer out, int mode) {
+            this.in = in;
+            this.out = mode == MODE_VALIDATE ? null : out;
+            this.mode = mode;
+            this.output = this.out == null ? null : new char[BUFFER_SIZE];
+        }
+
+        // 每读入一块输入后回调，用于汇报进度和响应取消
+        void setProgressListener(Runnable progressListener) {
+            this.progressListener = progressListener;
+        }
+
+        JsonStats process() throws IOException, JsonSyntaxException {
+            var state = EXPECT_VALUE;
+            int ch;
+            while ((ch = this.nextNonWhitespace()) >= 0) {
+                switch (state) {
+                    case EXPECT_VALUE, EXPECT_FIRST_VALUE -> {
+                        if (ch == ']' && state == EXPECT_FIRST_VALUE) {
+                            state = this.closeContainer(ch, false);
+                        } else {
+                            if (state == EXPECT_FIRST_VALUE) this.newLine();
+                            state = this.readValue(ch);
+                        }
+                    }
+                    case EXPECT_FIRST_KEY, EXPECT_KEY -> {
+                        if (ch == '}' && state == EXPECT_FIRST_KEY) {
+                            state = this.closeContainer(ch, false);
+                        } else if (ch == '"') {
+                            if (state == EXPECT_FIRST_KEY) this.newLine();
+                            this.readString();
+                            state = EXPECT_COLON;
+                        } else {
+                            throw this.expected(state == EXPECT_FIRST_KEY ? "'\"' 或 '}'" : "'\"'", ch);
+                        }
+                    }
+                    case EXPECT_COLON -> {
+                        if (ch != ':') throw this.expected("':'", ch);
+                        this.write(':');
+                        if (mode == MODE_FORMAT) this.write(' ');
+                        state = EXPECT_VALUE;
+                    }
+                    case EXPECT_COMMA_OR_END -> {
+                        var inObject = containers[depth - 1];
+                        if (ch == ',') {
+                            this.write(',');
+                            this.newLine();
+                            state = inObject ? EXPECT_KEY : EXPECT_VALUE;
+                        } else if (ch == '}' || ch == ']') {
+                            state = this.closeContainer(ch, true);
+                        } else {
+                            throw this.expected(inObject ? "',' 或 '}'" : "',' 或 ']'", ch);
+                        }
+                    }
+                    default -> throw this.error(String.format(Texts.ERROR_TRAILING_CONTENT, describe(ch)));
+                }
+            }
+
+            if (state != EXPECT_END) {
+                throw this.error(depth == 0 && state == EXPECT_VALUE ? Texts.ERROR_EMPTY_DOCUMENT : Texts.ERROR_JSON_INCOMPLETE);
+            }
+            this.flush();
+            return new JsonStats(this.position(), objects, arrays, strings, numbers, literals, maxDepth);
+        }
+
+        // 已读取的字符数
+        long position() {
+            return consumedBefore + inputPos;
+        }
+
+        private int readValue(int ch) throws IOException, JsonSyntaxException {
+            switch (ch) {
+                case '{', '[' -> {
+                    var isObject = ch == '{';
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                    }
+                    containers[depth++] = isObject;
+                    maxDepth = Math.max(maxDepth, depth);
+                    if (isObject) objects++;
+                    else arrays++;
+                    this.write((char) ch);
+                    return isObject ? EXPECT_FIRST_KEY : EXPECT_FIRST_VALUE;
+                }
+                case '"' -> this.readString();
+                case 't' -> this.readLiteral("true");
+                case 'f' -> this.readLiteral("false");
+                case 'n' -> this.readLiteral("null");
+                default -> {
+                    if (ch != '-' && (ch < '0' || ch > '9')) {
+                        throw this.error(String.format(Texts.ERROR_UNEXPECTED_CHAR, describe(ch)));
+                    }
+                    this.readNumber(ch);
+                }
+            }
+            return depth == 0 ? EXPECT_END : EXPECT_COMMA_OR_END;
+        }
+
+        private int closeContainer(int ch, boolean hasChildren) throws IOException, JsonSyntaxException {
+            var expected = containers[depth - 1] ? '}' : ']';
+            if (ch != expected) {
+                throw this.expected("'" + expected + "'", ch);
+            }
+            depth--;
+            if (hasChildren) this.newLine();
+            this.write(expected);
+            return depth == 0 ? EXPECT_END : EXPECT_COMMA_OR_END;
+        }
+
+        // 字符串：普通字符按段整体复制，只在引号、转义和控制字符处逐个处理
+        private void readString() throws IOException, JsonSyntaxException {
+            strings++;
+            this.write('"');
+            while (true) {
+                if (inputPos == inputLimit && !this.fill()) {
+                    throw this.error(Texts.ERROR_STRING_NOT_CLOSED);
+                }
+                var start = inputPos;
+                while (inputPos < inputLimit) {
+                    var c = input[inputPos];
+                    if (c == '"' || c == '\\' || c < 0x20) break;
+                    inputPos++;
+                }
+                this.write(input, start, inputPos - start);
+                if (inputPos == inputLimit) continue;
+
+                var c = input[inputPos++];
+                if (c == '"') {
+                    this.write('"');
+                    return;
+                }
+                if (c < 0x20) {
+                    inputPos--;
+                    throw this.error(Texts.ERROR_CONTROL_CHAR);
+                }
+                this.write('\\');
+                var escaped = this.next();
+                switch (escaped) {
+                    case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> this.write((char) escaped);
+                    case 'u' -> {
+                        this.write('u');
+                        for (int i = 0; i < 4; i++) {
+                            var hex = this.next();
+                            if (Character.digit(hex, 16) < 0) {
+                                throw this.error(String.format(Texts.ERROR_INVALID_ESCAPE, describe(hex)));
+                            }
+                            this.write((char) hex);
+                        }
+                    }
+                    case -1 -> throw this.error(Texts.ERROR_STRING_NOT_CLOSED);
+                    default -> throw this.error(String.format(Texts.ERROR_INVALID_ESCAPE, describe(escaped)));
+                }
+            }
+        }
+
+        // 数字：-?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+        private void readNumber(int first) throws IOException, JsonSyntaxException {
+            numbers++;
+            var ch = first;
+            if (ch == '-') {
+                this.write('-');
+                ch = this.next();
+            }
+            if (ch == '0') {
+                this.write('0');
+            } else if (ch >= '1' && ch <= '9') {
+                this.write((char) ch);
+                this.copyDigits();
+            } else {
+                throw this.error(Texts.ERROR_INVALID_NUMBER);
+            }
+            if (this.peek() == '.') {
+                this.write((char) this.next());
+                if (this.copyDigits() == 0) throw this.error(Texts.ERROR_INVALID_NUMBER);
+            }
+            var exponent = this.peek();
+            if (exponent == 'e' || exponent == 'E') {
+                this.write((char) this.next());
+                var sign = this.peek();
+                if (sign == '+' || sign == '-') this.write((char) this.next());
+                if (this.copyDigits() == 0) throw this.error(Texts.ERROR_INVALID_NUMBER);
+            }
+        }
+
+        private int copyDigits() throws IOException {
+            var count = 0;
+            int ch;
+            while ((ch = this.peek()) >= '0' && ch <= '9') {
+                this.write((char) this.next());
+                count++;
+            }
+            return count;
+        }
+
+        private void readLiteral(String literal) throws IOException, JsonSyntaxException {
+            literals++;
+            for (int i = 1; i < literal.length(); i++) {
+                if (this.next() != literal.charAt(i)) {
+                    throw this.error(String.format(Texts.ERROR_INVALID_LITERAL, literal));
+                }
+            }
+            this.write(literal, 0, literal.length());
+        }
+
+        // ===== 输入 =====
+        private boolean fill() throws IOException {
+            consumedBefore += inputLimit;
+            inputPos = 0;
+            inputLimit = 0;
+            var read = in.read(input, 0, input.length);
+            if (progressListener != null) progressListener.run();
+            if (read <= 0) return false;
+            inputLimit = read;
+            return true;
+        }
+
+        private int next() throws IOException {
+            if (inputPos == inputLimit && !this.fill()) return -1;
+            return input[inputPos++];
+        }
+
+        private int peek() throws IOException {
+            if (inputPos == inputLimit && !this.fill()) return -1;
+            return input[inputPos];
+        }
+
+        private int nextNonWhitespace() throws IOException {
+            while (true) {
+                if (inputPos == inputLimit && !this.fill()) return -1;
+                var c = input[inputPos++];
+                if (c == '\n') {
+                    line++;
+                    lineStart = this.position();
+                } else if (c != ' ' && c != '\t' && c != '\r') {
+                    return c;
+                }
+            }
+        }
+
+        // ===== 输出 =====
+        private void newLine() throws IOException {
+            if (mode != MODE_FORMAT) return;
+            this.write('\n');
+            for (int i = 0; i < depth; i++) {
+                this.write(Texts.INDENT, 0, Texts.INDENT.length());
+            }
+        }
+
+        private void write(char c) throws IOException {
+            if (out == null) return;
+            if (outputPos == output.length) this.flushBuffer();
+            output[outputPos++] = c;
+        }
+
+        private void write(char[] chars, int offset, int length) throws IOException {
+            if (out == null || length == 0) return;
+            if (length > output.length - outputPos) {
+                this.flushBuffer();
+                if (length > output.length) {
+                    out.write(chars, offset, length);
+                    return;
+                }
+            }
+            System.arraycopy(chars, offset, output, outputPos, length);
+            outputPos += length;
+        }
+
+        private void write(String text, int offset, int length) throws IOException {
+            if (out == null) return;
+            if (length > output.length - outputPos) this.flushBuffer();
+            text.getChars(offset, offset + length, output, outputPos);
+            outputPos += length;
+        }
+
+        private void flushBuffer() throws IOException {
+            out.write(output, 0, outputPos);
+            outputPos = 0;
+        }
+
+        private void flush() throws IOException {
+            if (out == null) return;
+            this.flushBuffer();
+            out.flush();
+        }
+
+        // ===== 错误 =====
+        private JsonSyntaxException expected(String expected, int found) {
+            return this.error(String.format(Texts.ERROR_EXPECTED_BUT_FOUND, expected, describe(found)));
+        }
+
+        private JsonSyntaxException error(String detail) {
+            var offset = Math.max(0, this.position() - 1);
+            var column = offset - lineStart + 1;
+            return new JsonSyntaxException(String.format(Texts.ERROR_POSITION, line, column, offset) + detail);
+        }
+
+        private static String describe(int ch) {
+            if (ch < 0) return Texts.END_OF_INPUT;
+            if (ch < 0x20) return String.format("\\u%04x", ch);
+            return String.valueOf((char) ch);
+        }
+    }
+
+    static class JsonSyntaxException extends Exception {
+        JsonSyntaxException(String message) {
+            super(message);
+        }
+    }
+
+    record JsonStats(long chars, long objects, long arrays, long strings, long numbers, long literals, int maxDepth) {}
+
+    /**
+     * JSON 结构索引
+     * 一遍扫描记录每个对象/数组起止字节偏移和直接子元素数量（按起始偏移升序，即先序），
+     * 之后展开节点时只扫描该容器的直接子元素，嵌套容器通过索引直接跳过
+     */
+    static final class StructuralIndex {
+        private static final int CHUNK_SIZE = 64 * 1024;
+        private static final int PREVIEW_LIMIT = 120;
+
+        // 扫描时每层期望的下一个记号
+        private static final byte EXPECT_VALUE = 0;
+        private static final byte EXPECT_FIRST_VALUE = 1; // '[' 之后：值或 ']'
+        private static final byte EXPECT_FIRST_KEY = 2;   // '{' 之后：键或 '}'
+        private static final byte EXPECT_KEY = 3;
+        private static final byte EXPECT_COLON = 4;
+        private static final byte EXPECT_COMMA_OR_END = 5;
+        private static final byte EXPECT_END = 6;
+
+        private final ByteBuffer data;
+        private final int rootStart;
+        private int[] starts = new int[1024];
+        private int[] ends = new int[1024];
+        private int[] counts = new int[1024];
+        private int size;
+
+        private StructuralIndex(ByteBuffer data, int rootStart) {
+            this.data = data;
+            this.rootStart = rootStart;
+        }
+
+        static StructuralIndex build(ByteBuffer data) throws JsonSyntaxException {
+            var limit = data.limit();
+            var chunk = new byte[CHUNK_SIZE];
+            var stack = new int[64];
+            var hasContent = new boolean[64];
+            var expect = new byte[65]; // expect[d]：第 d 层（0 为根）下一个允许的记号
+            var depth = 0;
+            var rootStart = -1;
+            var inString = false;
+            var escape = false;
+            var hexDigits = 0;    // Unicode 转义还需要的十六进制位数
+            var scalarStart = -1; // 正在扫描的数字或字面量的起始偏移
+            var line = 1L;
+            var lineStart = 0L;
+            StructuralIndex index = null;
+            expect[0] = EXPECT_VALUE;
+
+            for (int base = 0; base < limit; base += CHUNK_SIZE) {
+                var length = Math.min(CHUNK_SIZE, limit - base);
+                data.get(base, chunk, 0, length);
+                for (int i = 0; i < length; i++) {
+                    var b = chunk[i];
+                    var pos = base + i;
+                    if (inString) {
+                        if (hexDigits > 0) {
+                            if (Character.digit(b, 16) < 0) {
+                                throw syntaxError(line, pos - lineStart, pos, String.format(Texts.ERROR_INVALID_ESCAPE, describe(b)));
+                            }
+                            hexDigits--;
+                        } else if (escape) {
+                            escape = false;
+                            switch (b) {
+                                case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> { }
+                                case 'u' -> hexDigits = 4;
+                                default -> throw syntaxError(line, pos - lineStart, pos, String.format(Texts.ERROR_INVALID_ESCAPE, describe(b)));
+                            }
+                        } else if (b == '\\') {
+                            escape = true;
+                        } else if (b == '"') {
+                            inString = false;
+                        } else if (b >= 0 && b < 0x20) {
+                            throw syntaxError(line, pos - lineStart, pos, Texts.ERROR_CONTROL_CHAR);
+                        }
+                        continue;
+                    }
+                    if (scalarStart >= 0 && !isScalarByte(b)) {
+                        checkScalar(data, scalarStart, pos, line, lineStart);
+                        scalarStart = -1;
+                    }
+                    switch (b) {
+                        case ' ', '\t', '\r' -> { }
+                        case '\n' -> {
+                            line++;
+                            lineStart = pos + 1;
+                        }
+                        case ',' -> {
+                            if (depth == 0 || expect[depth] != EXPECT_COMMA_OR_END) {
+                                throw unexpected(expect[depth], depth == 0 || index.isObject(stack[depth - 1]), b, line, lineStart, pos);
+                            }
+                            var id = stack[depth - 1];
+                            index.counts[id]++;
+                            expect[depth] = index.isObject(id) ? EXPECT_KEY : EXPECT_VALUE;
+                        }
+                        case ':' -> {
+                            if (depth == 0 || expect[depth] != EXPECT_COLON) {
+                                throw unexpected(expect[depth], true, b, line, lineStart, pos);
+                            }
+                            expect[depth] = EXPECT_VALUE;
+                        }
+                        case '{', '[' -> {
+                            if (expect[depth] != EXPECT_VALUE && expect[depth] != EXPECT_FIRST_VALUE) {
+                                throw unexpected(expect[depth], depth > 0 && index.isObject(stack[depth - 1]), b, line, lineStart, pos);
+                            }
+                            expect[depth] = depth == 0 ? EXPECT_END : EXPECT_COMMA_OR_END;
+                            if (rootStart < 0) {
+                                rootStart = pos;
+                                index = new StructuralIndex(data, pos);
+                            } else {
+                                hasContent[depth - 1] = true;
+                            }
+                            if (depth == stack.length) {
+                                stack = Arrays.copyOf(stack, depth * 2);
+                                hasContent = Arrays.copyOf(hasContent, depth * 2);
+                                expect = Arrays.copyOf(expect, depth * 2 + 1);
+                            }
+                            stack[depth] = index.add(pos);
+                            hasContent[depth++] = false;
+                            expect[depth] = b == '{' ? EXPECT_FIRST_KEY : EXPECT_FIRST_VALUE;
+                        }
+                        case '}', ']' -> {
+                            if (depth == 0) throw unexpected(expect[0], false, b, line, lineStart, pos);
+                            var id = stack[depth - 1];
+                            var expected = data.get(index.starts[id]) == '{' ? '}' : ']';
+                            if (b != expected) {
+                                throw syntaxError(line, pos - lineStart, pos,
+                                    String.format(Texts.ERROR_EXPECTED_BUT_FOUND, "'" + expected + "'", (char) b));
+                            }
+                            var state = expect[depth];
+                            if (state != EXPECT_COMMA_OR_END && state != (b == '}' ? EXPECT_FIRST_KEY : EXPECT_FIRST_VALUE)) {
+                                throw unexpected(state, b == '}', b, line, lineStart, pos);
+                            }
+                            depth--;
+                            index.ends[id] = pos;
+                            index.counts[id] = hasContent[depth] ? index.counts[id] + 1 : 0;
+                        }
+                        default -> {
+                            if (scalarStart >= 0) continue; // 数字或字面量的后续字符
+                            var state = expect[depth];
+                            if (b == '"' && (state == EXPECT_KEY || state == EXPECT_FIRST_KEY)) {
+                                inString = true;
+                                hasContent[depth - 1] = true;
+                                expect[depth] = EXPECT_COLON;
+                            } else if ((state == EXPECT_VALUE || state == EXPECT_FIRST_VALUE) && (b == '"' || isScalarStart(b))) {
+                                if (b == '"') inString = true;
+                                else scalarStart = pos;
+                                expect[depth] = depth == 0 ? EXPECT_END : EXPECT_COMMA_OR_END;
+                                if (depth > 0) {
+                                    hasContent[depth - 1] = true;
+                                } else {
+                                    // 根节点是基本类型值
+                                    rootStart = pos;
+                                    index = new StructuralIndex(data, pos);
+                                }
+                            } else {
+                                throw unexpected(state, depth > 0 && index.isObject(stack[depth - 1]), b, line, lineStart, pos);
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (inString) throw syntaxError(line, limit - lineStart, limit, Texts.ERROR_STRING_NOT_CLOSED);
+            if (scalarStart >= 0) checkScalar(data, scalarStart, limit, line, lineStart);
+            if (index == null) throw syntaxError(line, limit - lineStart, limit, Texts.ERROR_EMPTY_DOCUMENT);
+            if (depth > 0 || expect[0] != EXPECT_END) throw syntaxError(line, limit - lineStart, limit, Texts.ERROR_JSON_INCOMPLETE);
+            return index;
+        }
+
+        // 与 JsonStreamProcessor 相同的语法检查，按当前期望的记号给出错误信息
+        private static JsonSyntaxException unexpected(byte state, boolean inObject, byte b, long line, long lineStart, int pos) {
+            var detail = switch (state) {
+                case EXPECT_END -> String.format(Texts.ERROR_TRAILING_CONTENT, describe(b));
+                case EXPECT_FIRST_VALUE -> String.format(Texts.ERROR_EXPECTED_BUT_FOUND, "值或 ']'", describe(b));
+                case EXPECT_FIRST_KEY -> String.format(Texts.ERROR_EXPECTED_BUT_FOUND, "'\"' 或 '}'", describe(b));
+                case EXPECT_KEY -> String.format(Texts.ERROR_EXPECTED_BUT_FOUND, "'\"'", describe(b));
+                case EXPECT_COLON -> String.format(Texts.ERROR_EXPECTED_BUT_FOUND, "':'", describe(b));
+                case EXPECT_COMMA_OR_END -> String.format(Texts.ERROR_EXPECTED_BUT_FOUND, inObject ? "',' 或 '}'" : "',' 或 ']'", describe(b));
+                default -> String.format(Texts.ERROR_UNEXPECTED_CHAR, describe(b));
+            };
+            return syntaxError(line, pos - lineStart, pos, detail);
+        }
+
+        private static boolean isScalarStart(byte b) {
+            return b == '-' || (b >= '0' && b <= '9') || b == 't' || b == 'f' || b == 'n';
+        }
+
+        private static boolean isScalarByte(byte b) {
+            return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b == '-' || b == '+' || b == '.';
+        }
+
+        // 校验数字 -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)? 或 true/false/null
+        private static void checkScalar(ByteBuffer data, int start, int end, long line, long lineStart) throws JsonSyntaxException {
+            var first = data.get(start);
+            if (first == 't' || first == 'f' || first == 'n') {
+                var literal = first == 't' ? "true" : first == 'f' ? "false" : "null";
+                var valid = end - start == literal.length();
+                for (int i = 0; valid && i < literal.length(); i++) {
+                    valid = data.get(start + i) == literal.charAt(i);
+                }
+                if (!valid) throw syntaxError(line, start - lineStart, start, String.format(Texts.ERROR_INVALID_LITERAL, literal));
+                return;
+            }
+
+            var pos = start;
+            if (data.get(pos) == '-') pos++;
+            var intStart = pos;
+            pos = skipDigits(data, pos, end);
+            var valid = pos > intStart && (data.get(intStart) != '0' || pos == intStart + 1);
+            if (valid && pos < end && data.get(pos) == '.') {
+                var fraction = ++pos;
+                pos = skipDigits(data, pos, end);
+                valid = pos > fraction;
+            }
+            if (valid && pos < end && (data.get(pos) == 'e' || data.get(pos) == 'E')) {
+                pos++;
+                if (pos < end && (data.get(pos) == '+' || data.get(pos) == '-')) pos++;
+                var exponent = pos;
+                pos = skipDigits(data, pos, end);
+                valid = pos > exponent;
+            }
+            if (!valid || pos != end) throw syntaxError(line, start - lineStart, start, Texts.ERROR_INVALID_NUMBER);
+        }
+
+        private static int skipDigits(ByteBuffer data, int pos, int end) {
+            while (pos < end && data.get(pos) >= '0' && data.get(pos) <= '9') pos++;
+            return pos;
+        }
+
+        private static String describe(byte b) {
+            return JsonStreamProcessor.describe(b & 0xFF);
+        }
+
+        private static JsonSyntaxException syntaxError(long line, long column, long offset, String detail) {
+            return new JsonSyntaxException(String.format(Texts.ERROR_POSITION, line, column + 1, offset) + detail);
+        }
+
+        private int add(int start) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            starts[size] = start;
+            return size++;
+        }
+
+        int containerCount() {
+            return size;
+        }
+
+        int rootStart() {
+            return rootStart;
+        }
+
+        long byteLength() {
+            return data.limit();
+        }
+
+        // 起始偏移处的容器编号，不是容器时返回 -1
+        int containerAt(int offset) {
+            var id = Arrays.binarySearch(starts, 0, size, offset);
+            return id >= 0 ? id : -1;
+        }
+
+        boolean isObject(int id) {
+            return data.get(starts[id]) == '{';
+        }
+
+        int childCount(int id) {
+            return counts[id];
+        }
+
+        int end(int id) {
+            return ends[id];
+        }
+
+        /**
+         * 容器直接子元素的起始偏移（对象为键的引号位置，数组为值的起始位置）
+         */
+        int[] childOffsets(int id) {
+            var offsets = new int[counts[id]];
+            var isObject = this.isObject(id);
+            var pos = this.skipWhitespace(starts[id] + 1);
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = pos;
+                if (isObject) pos = this.valueAfterKey(pos);
+                pos = this.skipWhitespace(this.valueEnd(pos));
+                if (data.get(pos) == ',') pos = this.skipWhitespace(pos + 1);
+            }
+            return offsets;
+        }
+
+        // 键字符串之后的值起始偏移
+        int valueAfterKey(int keyStart) {
+            var pos = this.skipWhitespace(this.stringEnd(keyStart));
+            return this.skipWhitespace(pos + 1); // 跳过 ':'
+        }
+
+        // 值结束后的下一个偏移
+        int valueEnd(int start) {
+            var b = data.get(start);
+            if (b == '{' || b == '[') return ends[this.containerAt(start)] + 1;
+            if (b == '"') return this.stringEnd(start);
+            var pos = start;
+            var limit = data.limit();
+            while (pos < limit) {
+                b = data.get(pos);
+                if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\r' || b == '\n') break;
+                pos++;
+            }
+            return pos;
+        }
+
+        // 从开头引号开始，返回结束引号之后的偏移
+        int stringEnd(int start) {
+            var pos = start + 1;
+            while (true) {
+                var b = data.get(pos++);
+                if (b == '\\') pos++;
+                else if (b == '"') return pos;
+            }
+        }
+
+        int skipWhitespace(int pos) {
+            var limit = data.limit();
+            while (pos < limit) {
+                var b = data.get(pos);
+                if (b != ' ' && b != '\t' && b != '\r' && b != '\n') break;
+                pos++;
+            }
+            return pos;
+        }
+
+        // 解码字符串值（处理转义）
+        String stringAt(int start) {
+            var raw = this.text(start + 1, this.stringEnd(start) - 1);
+            return raw.indexOf('\\') < 0 ? raw : unescape(raw);
+        }
+
+        // 基本类型值的原始文本，过长时截断
+        String preview(int start) {
+            var end = this.valueEnd(start);
+            if (end - start <= PREVIEW_LIMIT) return this.text(start, end);
+            return this.text(start, start + PREVIEW_LIMIT) + "…";
+        }
+
+        String text(int start, int end) {
+            var bytes = new byte[end - start];
+            data.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static String unescape(String raw) {
+            var result = new StringBuilder(raw.length());
+            for (int i = 0; i < raw.length(); i++) {
+                var c = raw.charAt(i);
+                if (c != '\\' || i + 1 >= raw.length()) {
+                    result.append(c);
+                    continue;
+                }
+                var escaped = raw.charAt(++i);
+                switch (escaped) {
+                    case 'b' -> result.append('\b');
+                    case 'f' -> result.append('\f');
+                    case 'n' -> result.append('\n');
+                    case 'r' -> result.append('\r');
+                    case 't' -> result.append('\t');
+                    case 'u' -> {
+                        if (i + 4 < raw.length()) {
+                            result.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                            i += 4;
+                        }
+                    }
+                    default -> result.append(escaped);
+                }
+            }
+            return result.toString();
+        }
+    }
+
+    /**
+     * 惰性 JSON 树节点
+     * 容器节点在展开时才通过结构索引生成子节点；子元素过多时按下标分组，
+     * 分组节点同样在展开时才生成
+     */
+    static class JsonTreeNode extends DefaultMutableTreeNode {
+        private static final int PAGE_SIZE = 500;
+
+        private final StructuralIndex index;
+        private final String key;        // 对象成员的键
+        private final int arrayIndex;    // 数组元素下标，-1 表示不是数组元素
+        private final int valueStart;
+        private final int containerId;   // -1 表示基本类型值或分组节点
+        private final JsonTreeNode owner; // 分组节点所属的容器节点
+        private final int rangeFrom;
+        private final int rangeTo;
+        private int[] childOffsets;
+        private boolean loaded;
+        private String label;
+
+        private JsonTreeNode(StructuralIndex index, String key, int arrayIndex, int valueStart,
+                             JsonTreeNode owner, int rangeFrom, int rangeTo) {
+            this.index = index;
+            this.key = key;
+            this.arrayIndex = arrayIndex;
+            this.valueStart = valueStart;
+            this.containerId = owner == null ? index.containerAt(valueStart) : -1;
+            this.owner = owner;
+            this.rangeFrom = rangeFrom;
+            this.rangeTo = rangeTo;
+        }
+
+        static JsonTreeNode root(StructuralIndex index) {
+            return new JsonTreeNode(index, null, -1, index.rootStart(), null, 0, 0);
+        }
+
+        private boolean isRange() {
+            return owner != null;
+        }
+
+        @Override
+        public boolean getAllowsChildren() {
+            return this.isRange() || (containerId >= 0 && index.childCount(containerId) > 0);
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return !this.getAllowsChildren();
+        }
+
+        // 首次展开时生成子节点，返回是否新加载
+        boolean ensureLoaded() {
+            if (loaded || !this.getAllowsChildren()) return false;
+            loaded = true;
+            if (this.isRange()) {
+                this.addChildren(owner, rangeFrom, rangeTo);
+            } else {
+                childOffsets = index.childOffsets(containerId);
+                this.addChildren(this, 0, childOffsets.length);
+            }
+            return true;
+        }
+
+        private void addChildren(JsonTreeNode container, int from, int to) {
+            var count = to - from;
+            if (count <= PAGE_SIZE) {
+                var isObject = index.isObject(container.containerId);
+                for (int i = from; i < to; i++) {
+                    var offset = container.childOffsets[i];
+                    if (isObject) {
+                        this.add(new JsonTreeNode(index, index.stringAt(offset), -1, index.valueAfterKey(offset), null, 0, 0));
+                    } else {
+                        this.add(new JsonTreeNode(index, null, i, offset, null, 0, 0));
+                    }
+                }
+                return;
+            }
+
+            var groupSize = PAGE_SIZE;
+            while ((count + groupSize - 1) / groupSize > PAGE_SIZE) {
+                groupSize *= PAGE_SIZE;
+            }
+            for (int start = from; start < to; start += groupSize) {
+                this.add(new JsonTreeNode(index, null, -1, -1, container, start, Math.min(to, start + groupSize)));
+            }
+        }
+
+        /**
+         * 按下标定位子元素，沿途展开分组节点；newlyLoaded 收集本次新加载的节点
+         */
+        JsonTreeNode childAt(int position, List<JsonTreeNode> newlyLoaded) {
+            if (containerId < 0 || position < 0 || position >= index.childCount(containerId)) return null;
+            var node = this;
+            while (true) {
+                if (node.ensureLoaded()) newlyLoaded.add(node);
+                var first = (JsonTreeNode) node.getChildAt(0);
+                if (!first.isRange()) {
+                    return (JsonTreeNode) node.getChildAt(position - (node.isRange() ? node.rangeFrom : 0));
+                }
+                var groupSize = first.rangeTo - first.rangeFrom;
+                node = (JsonTreeNode) node.getChildAt((position - first.rangeFrom) / groupSize);
+            }
+        }
+
+        // 对象成员按键查找位置：直接扫描键的偏移，不生成中间节点
+        int positionOfKey(String name) {
+            if (containerId < 0 || !index.isObject(containerId)) return -1;
+            if (childOffsets == null) childOffsets = index.childOffsets(containerId);
+            for (int i = 0; i < childOffsets.length; i++) {
+                if (index.stringAt(childOffsets[i]).equals(name)) return i;
+            }
+            return -1;
+        }
+
+        boolean isArray() {
+            return containerId >= 0 && !index.isObject(containerId);
+        }
+
+        String jsonPath() {
+            var segments = new ArrayList<String>();
+            for (var node = this; node != null; node = (JsonTreeNode) node.getParent()) {
+                if (node.key != null) {
+                    segments.add(node.key.matches("[A-Za-z_$][A-Za-z0-9_$]*")
+                        ? "." + node.key
+                        : "['" + node.key.replace("\\", "\\\\").replace("'", "\\'") + "']");
+                } else if (node.arrayIndex >= 0) {
+                    segments.add("[" + node.arrayIndex + "]");
+                }
+            }
+            var path = new StringBuilder("$");
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                path.append(segments.get(i));
+            }
+            return path.toString();
+        }
+
+        int valueStart() {
+            return valueStart;
+        }
+
+        int valueEnd() {
+            return containerId >= 0 ? index.end(containerId) + 1 : index.valueEnd(valueStart);
+        }
+
+        @Override
+        public String toString() {
+            if (label == null) {
+                if (this.isRange()) {
+                    label = "[" + rangeFrom + " … " + (rangeTo - 1) + "]";
+                } else {
+                    var prefix = key != null ? key + ": " : arrayIndex >= 0 ? "[" + arrayIndex + "]: " : "$: ";
+                    if (containerId < 0) {
+                        label = prefix + index.preview(valueStart);
+                    } else {
+                        var brackets = index.isObject(containerId) ? "{…}" : "[…]";
+                        label = prefix + brackets + " " + String.format(Texts.TREE_CHILD_COUNT, index.childCount(containerId));
+                    }
+                }
+            }
+            return label;
+        }
+    }
+
+    // 解析 JSONPath 风格的路径：$.a.b[3]['c d']
+    static List<Object> parseJsonPath(String path) throws JsonSyntaxException {
+        var steps = new ArrayList<Object>();
+        var i = path.startsWith("$") ? 1 : 0;
+        while (i < path.length()) {
+            var c = path.charAt(i);
+            if (c == '.') {
+                var end = i + 1;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') end++;
+                if (end == i + 1) throw new JsonSyntaxException(String.format(Texts.ERROR_INVALID_PATH, path));
+                steps.add(path.substring(i + 1, end));
+                i = end;
+            } else if (c == '[' && i + 1 < path.length() && (path.charAt(i + 1) == '\'' || path.charAt(i + 1) == '"')) {
+                var quote = path.charAt(i + 1);
+                var name = new StringBuilder();
+                var j = i + 2;
+                while (j < path.length() && path.charAt(j) != quote) {
+                    if (path.charAt(j) == '\\' && j + 1 < path.length()) j++;
+                    name.append(path.charAt(j++));
+                }
+                if (j + 1 >= path.length() || path.charAt(j + 1) != ']') {
+                    throw new JsonSyntaxException(String.format(Texts.ERROR_INVALID_PATH, path));
+                }
+                steps.add(name.toString());
+                i = j + 2;
+            } else if (c == '[') {
+                var end = path.indexOf(']', i);
+                if (end < 0) throw new JsonSyntaxException(String.format(Texts.ERROR_INVALID_PATH, path));
+                try {
+                    steps.add(Integer.parseInt(path.substring(i + 1, end).trim()));
+                } catch (NumberFormatException ex) {
+                    throw new JsonSyntaxException(String.format(Texts.ERROR_INVALID_PATH, path));
+                }
+                i = end + 1;
+            } else {
+                throw new JsonSyntaxException(String.format(Texts.ERROR_INVALID_PATH, path));
+            }
+        }
+        return steps;
+    }
+
+    // 统计读取字节数，用于文件处理进度
+    static class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            var read = super.read(buffer, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+    }
+
     /**
      * 圆角边框类
      */
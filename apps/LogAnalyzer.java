@@ -3,11 +3,16 @@ import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.*;
 
 // 文本管理静态内部类
 static class Texts {
@@ -17,6 +22,8 @@ static class Texts {
     // 菜单项
     static final String MENU_FILE = "文件";
     static final String MENU_OPEN_LOG_FILE = "打开日志文件";
+    static final String MENU_TAIL_LOG_FILE = "实时跟踪日志文件";
+    static final String MENU_STOP_TAIL = "停止跟踪";
     static final String MENU_EXPORT_RESULTS = "导出结果";
     static final String MENU_EXIT = "退出";
     static final String MENU_VIEW = "视图";
@@ -25,6 +32,7 @@ static class Texts {
     static final String MENU_TOOLS = "工具";
     static final String MENU_STATISTICS = "统计信息";
     static final String MENU_ERROR_SUMMARY = "错误汇总";
+    static final String MENU_HISTOGRAM = "时间分布";
 
     // 工具栏
     static final String TOOLBAR_OPEN_FILE = "打开文件";
@@ -42,9 +50,18 @@ static class Texts {
     // 状态消息
     static final String STATUS_READY = "就绪";
     static final String STATUS_LOADED_LOGS = "已加载 %d 条日志记录";
+    static final String STATUS_LOADING_LOGS = "正在加载: %,d 条日志记录 (%,.0f 行/秒)";
+    static final String STATUS_LOADED_LOGS_THROUGHPUT = "已加载 %,d 条日志记录，用时 %.2f 秒 (%,.0f 行/秒)";
     static final String STATUS_SHOWING_RECORDS = "显示 %d / %d 条记录";
     static final String STATUS_SHOWING_ALL_RECORDS = "显示 %d 条记录";
     static final String STATUS_EXPORTED_TO = "已导出到: %s";
+    static final String STATUS_TAILING = "跟踪中: %s — 保留 %,d 条 / 已读取 %,d 行 (%,.0f 行/秒)";
+    static final String STATUS_TAIL_STOPPED = "已停止跟踪";
+
+    // 实时跟踪
+    static final String TAIL_CAPACITY_PROMPT = "保留最近的日志条数:";
+    static final String ERROR_TAIL_FAILED = "跟踪日志文件失败: %s";
+    static final String ERROR_INVALID_CAPACITY = "请输入正整数";
 
     // 文件过滤器
     static final String FILE_FILTER_LOG = "日志文件";
@@ -64,6 +81,13 @@ static class Texts {
     static final String ERROR_SUMMARY_NO_ERRORS = "没有发现错误记录";
     static final String ERROR_SUMMARY_HEADER = "错误汇总 (%d 条)\n\n";
 
+    // 时间分布
+    static final String DIALOG_HISTOGRAM_TITLE = "时间分布直方图";
+    static final String HISTOGRAM_RESET_ZOOM = "重置缩放";
+    static final String HISTOGRAM_HINT = "拖动选择区间放大，滚轮缩放，双击还原";
+    static final String HISTOGRAM_RANGE = "%s ~ %s (每柱 %d 分钟)";
+    static final String HISTOGRAM_TOP_SOURCES = "主要来源: ";
+
     // 导出功能
     static final String CSV_HEADER = "时间,级别,消息,来源";
     static final String EXPORT_COMPLETE = "导出完成";
@@ -161,19 +185,29 @@ class LogAnalyzer extends JFrame {
     private static final int SPACING_20 = 20;
     private static final int SPACING_24 = 24;
     private static final int SPACING_32 = 32;
+    private static final int SPACING_48 = 48;
 
     // 按钮尺寸
     private static final Dimension BUTTON_REGULAR = new Dimension(120, 44);
     private static final Dimension BUTTON_LARGE = new Dimension(160, 50);
 
+    // 时间格式
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // 实时跟踪默认保留条数
+    private static final int DEFAULT_TAIL_CAPACITY = 100_000;
+
     // ===== 应用组件 =====
     private JTable logTable;
-    private DefaultTableModel tableModel;
+    private LogTableModel tableModel;
     private JTextField searchField;
     private JComboBox<LogLevel> levelFilter;
     private JLabel statusLabel;
-    private List<LogEntry> allLogs = new ArrayList<>();
-    private List<LogEntry> filteredLogs = new ArrayList<>();
+    private LogStore store = new LogStore();
+    private String appliedSearch = "";
+    private LogLevel appliedLevel;
+    private StreamingLogLoader loader;
+    private LogTailer tailer;
     
     public LogAnalyzer() {
         this.initializeUI();
@@ -215,6 +249,8 @@ class LogAnalyzer extends JFrame {
         var fileMenu = new JMenu(Texts.MENU_FILE);
         fileMenu.setFont(BODY);
         this.addMenuItem(fileMenu, Texts.MENU_OPEN_LOG_FILE, this::openLogFile);
+        this.addMenuItem(fileMenu, Texts.MENU_TAIL_LOG_FILE, this::tailLogFile);
+        this.addMenuItem(fileMenu, Texts.MENU_STOP_TAIL, this::stopTail);
         this.addMenuItem(fileMenu, Texts.MENU_EXPORT_RESULTS, this::exportResults);
         fileMenu.addSeparator();
         this.addMenuItem(fileMenu, Texts.MENU_EXIT, e -> System.exit(0));
@@ -228,6 +264,7 @@ class LogAnalyzer extends JFrame {
         toolsMenu.setFont(BODY);
         this.addMenuItem(toolsMenu, Texts.MENU_STATISTICS, this::showStatistics);
         this.addMenuItem(toolsMenu, Texts.MENU_ERROR_SUMMARY, this::showErrorSummary);
+        this.addMenuItem(toolsMenu, Texts.MENU_HISTOGRAM, this::showHistogram);
 
         menuBar.add(fileMenu);
         menuBar.add(viewMenu);
@@ -373,13 +410,7 @@ class LogAnalyzer extends JFrame {
         panel.setBackground(SYSTEM_BACKGROUND);
 
         // 创建表格 - 使用中文列名
-        String[] columns = {Texts.TABLE_COLUMN_TIME, Texts.TABLE_COLUMN_LEVEL, Texts.TABLE_COLUMN_MESSAGE, Texts.TABLE_COLUMN_SOURCE};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new LogTableModel();
 
         logTable = new JTable(tableModel);
         logTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -415,16 +446,16 @@ class LogAnalyzer extends JFrame {
         // 生成示例日志 - 使用中文文本
         var now = LocalDateTime.now();
 
-        allLogs.add(new LogEntry(now.minusMinutes(10), LogLevel.INFO, Texts.SAMPLE_LOG_APP_START, Texts.SOURCE_MAIN));
-        allLogs.add(new LogEntry(now.minusMinutes(9), LogLevel.DEBUG, Texts.SAMPLE_LOG_DB_INIT, Texts.SOURCE_DATABASE));
-        allLogs.add(new LogEntry(now.minusMinutes(8), LogLevel.INFO, Texts.SAMPLE_LOG_USER_LOGIN, Texts.SOURCE_AUTH));
-        allLogs.add(new LogEntry(now.minusMinutes(7), LogLevel.WARN, Texts.SAMPLE_LOG_MEMORY_WARN, Texts.SOURCE_SYSTEM));
-        allLogs.add(new LogEntry(now.minusMinutes(6), LogLevel.ERROR, Texts.SAMPLE_LOG_DB_ERROR, Texts.SOURCE_DATABASE));
-        allLogs.add(new LogEntry(now.minusMinutes(5), LogLevel.INFO, Texts.SAMPLE_LOG_DB_RECONNECT, Texts.SOURCE_DATABASE));
-        allLogs.add(new LogEntry(now.minusMinutes(4), LogLevel.DEBUG, Texts.SAMPLE_LOG_HANDLE_REQUEST, Texts.SOURCE_HANDLER));
-        allLogs.add(new LogEntry(now.minusMinutes(3), LogLevel.WARN, Texts.SAMPLE_LOG_RESPONSE_WARN, Texts.SOURCE_PERFORMANCE));
-        allLogs.add(new LogEntry(now.minusMinutes(2), LogLevel.ERROR, Texts.SAMPLE_LOG_FILE_ERROR, Texts.SOURCE_FILESYSTEM));
-        allLogs.add(new LogEntry(now.minusMinutes(1), LogLevel.INFO, Texts.SAMPLE_LOG_SCHEDULER_COMPLETE, Texts.SOURCE_SCHEDULER));
+        store.append(new LogEntry(now.minusMinutes(10), LogLevel.INFO, Texts.SAMPLE_LOG_APP_START, Texts.SOURCE_MAIN));
+        store.append(new LogEntry(now.minusMinutes(9), LogLevel.DEBUG, Texts.SAMPLE_LOG_DB_INIT, Texts.SOURCE_DATABASE));
+        store.append(new LogEntry(now.minusMinutes(8), LogLevel.INFO, Texts.SAMPLE_LOG_USER_LOGIN, Texts.SOURCE_AUTH));
+        store.append(new LogEntry(now.minusMinutes(7), LogLevel.WARN, Texts.SAMPLE_LOG_MEMORY_WARN, Texts.SOURCE_SYSTEM));
+        store.append(new LogEntry(now.minusMinutes(6), LogLevel.ERROR, Texts.SAMPLE_LOG_DB_ERROR, Texts.SOURCE_DATABASE));
+        store.append(new LogEntry(now.minusMinutes(5), LogLevel.INFO, Texts.SAMPLE_LOG_DB_RECONNECT, Texts.SOURCE_DATABASE));
+        store.append(new LogEntry(now.minusMinutes(4), LogLevel.DEBUG, Texts.SAMPLE_LOG_HANDLE_REQUEST, Texts.SOURCE_HANDLER));
+        store.append(new LogEntry(now.minusMinutes(3), LogLevel.WARN, Texts.SAMPLE_LOG_RESPONSE_WARN, Texts.SOURCE_PERFORMANCE));
+        store.append(new LogEntry(now.minusMinutes(2), LogLevel.ERROR, Texts.SAMPLE_LOG_FILE_ERROR, Texts.SOURCE_FILESYSTEM));
+        store.append(new LogEntry(now.minusMinutes(1), LogLevel.INFO, Texts.SAMPLE_LOG_SCHEDULER_COMPLETE, Texts.SOURCE_SCHEDULER));
 
         this.refreshView();
     }
@@ -437,8 +468,8 @@ class LogAnalyzer extends JFrame {
             public void mouseClicked(java.awt.event.MouseEvent e) {
                 if (e.getClickCount() == 2) {
                     var selectedRow = logTable.getSelectedRow();
-                    if (selectedRow != -1 && selectedRow < filteredLogs.size()) {
-                        var log = filteredLogs.get(selectedRow);
+                    if (selectedRow != -1 && selectedRow < tableModel.getRowCount()) {
+                        var log = store.get(tableModel.storeRow(selectedRow));
                         showLogDetails(log);
                     }
                 }
@@ -448,7 +479,7 @@ class LogAnalyzer extends JFrame {
 
     private void showLogDetails(LogEntry log) {
         var details = String.format("时间: %s\n级别: %s\n来源: %s\n\n消息:\n%s",
-            log.timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
+            log.timestamp.format(TIME_FORMATTER),
             log.level.name(),
             log.source,
             log.message);
@@ -467,114 +498,510 @@ class LogAnalyzer extends JFrame {
         }
     }
     
+    private void tailLogFile(ActionEvent e) {
+        var fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+            Texts.FILE_FILTER_LOG, Texts.FILE_EXTENSIONS_LOG.split(",")));
+
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        var input = JOptionPane.showInputDialog(this, Texts.TAIL_CAPACITY_PROMPT, DEFAULT_TAIL_CAPACITY);
+        if (input == null) return;
+
+        int capacity;
+        try {
+            capacity = Integer.parseInt(input.trim());
+        } catch (NumberFormatException ex) {
+            capacity = 0;
+        }
+        if (capacity <= 0) {
+            JOptionPane.showMessageDialog(this, Texts.ERROR_INVALID_CAPACITY);
+            return;
+        }
+
+        this.stopBackgroundTasks();
+        store = new LogStore(capacity);
+        this.refreshView();
+
+        tailer = new LogTailer(fileChooser.getSelectedFile(), store);
+        tailer.execute();
+    }
+
+    private void stopTail(ActionEvent e) {
+        if (tailer != null) {
+            tailer.cancel(true);
+            tailer = null;
+            statusLabel.setText(Texts.STATUS_TAIL_STOPPED);
+        }
+    }
+
+    private void stopBackgroundTasks() {
+        if (loader != null) {
+            loader.cancel(true);
+            loader = null;
+        }
+        if (tailer != null) {
+            tailer.cancel(true);
+            tailer = null;
+        }
+    }
+
     private void loadLogFile(File file) {
-        SwingWorker<List<LogEntry>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<LogEntry> doInBackground() throws Exception {
-                var logs = new ArrayList<LogEntry>();
-                
-                try (var reader = new BufferedReader(new FileReader(file))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        var entry = parseLogLine(line);
-                        if (entry != null) {
-                            logs.add(entry);
+        this.stopBackgroundTasks();
+        store = new LogStore();
+        this.refreshView();
+
+        loader = new StreamingLogLoader(file, store);
+        loader.execute();
+    }
+
+    /**
+     * 流式日志加载器
+     * 按块内存映射文件，多线程并行解析，按原始顺序分批发布到表格
+     */
+    class StreamingLogLoader extends SwingWorker<Long, Integer> {
+        private static final long CHUNK_SIZE = 32L * 1024 * 1024;
+
+        private final File file;
+        private final LogStore target;
+        private final long startNanos = System.nanoTime();
+        private long linesRead;
+
+        StreamingLogLoader(File file, LogStore target) {
+            this.file = file;
+            this.target = target;
+        }
+
+        @Override
+        protected Long doInBackground() throws Exception {
+            var threads = Runtime.getRuntime().availableProcessors();
+            var pool = Executors.newFixedThreadPool(threads);
+            var now = LocalDateTime.now();
+
+            try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                var size = channel.size();
+                var position = 0L;
+
+                while (position < size && !isCancelled()) {
+                    var length = (int) Math.min(CHUNK_SIZE, size - position);
+                    var buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                    // 块末尾截断到最后一个换行符，剩余部分留给下一块
+                    var limit = length;
+                    if (position + length < size) {
+                        var lastNewline = lastIndexOf(buffer, (byte) '\n', length);
+                        if (lastNewline >= 0) {
+                            limit = lastNewline + 1;
                         }
                     }
+
+                    var slices = this.splitSlices(buffer, limit, threads);
+                    var tasks = new ArrayList<Callable<List<LogEntry>>>();
+                    for (int i = 0; i < slices.length - 1; i++) {
+                        int from = slices[i];
+                        int to = slices[i + 1];
+                        tasks.add(() -> LogLineParser.parseLines(buffer, from, to, now));
+                    }
+
+                    var batch = new ArrayList<LogEntry>();
+                    for (var future : pool.invokeAll(tasks)) {
+                        batch.addAll(future.get());
+                    }
+
+                    linesRead += batch.size();
+                    target.appendAll(batch);
+                    publish(target.size());
+                    position += limit;
                 }
-                
-                return logs;
+            } finally {
+                pool.shutdownNow();
             }
-            
-            @Override
-            protected void done() {
-                try {
-                    allLogs = get();
-                    refreshView();
-                    statusLabel.setText(String.format(Texts.STATUS_LOADED_LOGS, allLogs.size()));
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(LogAnalyzer.this,
-                        String.format(Texts.ERROR_LOAD_LOG_FAILED, e.getMessage()));
+
+            return linesRead;
+        }
+
+        @Override
+        protected void process(List<Integer> sizes) {
+            if (loader != this) return;
+
+            var size = sizes.get(sizes.size() - 1);
+            appendRows();
+            statusLabel.setText(String.format(Texts.STATUS_LOADING_LOGS, size, this.linesPerSecond(size)));
+        }
+
+        @Override
+        protected void done() {
+            if (loader != this || isCancelled()) return;
+
+            try {
+                var total = get();
+                var seconds = (System.nanoTime() - startNanos) / 1e9;
+                statusLabel.setText(String.format(Texts.STATUS_LOADED_LOGS_THROUGHPUT, total, seconds, this.linesPerSecond(total)));
+            } catch (Exception e) {
+                JOptionPane.showMessageDialog(LogAnalyzer.this,
+                    String.format(Texts.ERROR_LOAD_LOG_FAILED, e.getMessage()));
+            } finally {
+                loader = null;
+            }
+        }
+
+        private double linesPerSecond(long lines) {
+            var seconds = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+            return lines / seconds;
+        }
+
+        // 将 [0, limit) 按换行符边界切分为若干片段，返回片段边界数组
+        private int[] splitSlices(ByteBuffer buffer, int limit, int parts) {
+            var bounds = new ArrayList<Integer>();
+            bounds.add(0);
+            var step = Math.max(1, limit / parts);
+            var cursor = 0;
+            for (int i = 1; i < parts; i++) {
+                var target = Math.max(cursor, i * step);
+                var newline = indexOf(buffer, (byte) '\n', target, limit);
+                if (newline < 0) break;
+                cursor = newline + 1;
+                if (cursor >= limit) break;
+                bounds.add(cursor);
+            }
+            bounds.add(limit);
+            return bounds.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == value) return i;
+            }
+            return -1;
+        }
+
+        private static int lastIndexOf(ByteBuffer buffer, byte value, int to) {
+            for (int i = to - 1; i >= 0; i--) {
+                if (buffer.get(i) == value) return i;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 实时跟踪器
+     * 通过 WatchService 唤醒并按文件位置轮询，只解析新追加的字节；
+     * 目标存储是定长环形缓冲区，内存占用保持不变
+     */
+    class LogTailer extends SwingWorker<Void, Integer> {
+        private static final long POLL_MILLIS = 200;
+        private static final int READ_BUFFER_SIZE = 1 << 20;
+        private static final long INITIAL_BACKLOG = 1 << 20; // 启动时回读的字节数
+
+        private final File file;
+        private final LogStore target;
+        private long linesRead;
+        private long lastLines;
+        private long lastNanos = System.nanoTime();
+
+        LogTailer(File file, LogStore target) {
+            this.file = file;
+            this.target = target;
+        }
+
+        @Override
+        protected Void doInBackground() throws Exception {
+            var path = file.toPath().toAbsolutePath();
+            var data = new byte[READ_BUFFER_SIZE];
+            var carry = 0;
+            var position = Math.max(0, Files.size(path) - INITIAL_BACKLOG);
+            var skipPartialLine = position > 0;
+
+            try (var watcher = FileSystems.getDefault().newWatchService()) {
+                path.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+                while (!isCancelled()) {
+                    var size = Files.exists(path) ? Files.size(path) : position;
+                    if (size < position) {
+                        // 文件被截断或轮转，从头开始读取
+                        position = 0;
+                        carry = 0;
+                        skipPartialLine = false;
+                    }
+
+                    if (size > position) {
+                        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                            channel.position(position);
+                            int read;
+                            while (!isCancelled()) {
+                                if (carry == data.length) {
+                                    data = Arrays.copyOf(data, data.length * 2);
+                                }
+                                read = channel.read(ByteBuffer.wrap(data, carry, data.length - carry));
+                                if (read <= 0) break;
+                                position += read;
+
+                                var end = carry + read;
+                                var lastNewline = lastIndexOf(data, (byte) '\n', end);
+                                if (lastNewline < 0) {
+                                    carry = end;
+                                    continue;
+                                }
+
+                                var start = 0;
+                                if (skipPartialLine) {
+                                    start = indexOf(data, (byte) '\n', end) + 1;
+                                    skipPartialLine = false;
+                                }
+
+                                var entries = LogLineParser.parseLines(ByteBuffer.wrap(data), start, lastNewline + 1, LocalDateTime.now());
+                                target.appendAll(entries);
+                                linesRead += entries.size();
+                                publish(target.size());
+
+                                carry = end - lastNewline - 1;
+                                System.arraycopy(data, lastNewline + 1, data, 0, carry);
+                            }
+                        }
+                    }
+
+                    var key = watcher.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
                 }
             }
-        };
-        
-        worker.execute();
+            return null;
+        }
+
+        @Override
+        protected void process(List<Integer> sizes) {
+            if (tailer != this) return;
+
+            appendRows();
+
+            var now = System.nanoTime();
+            var seconds = (now - lastNanos) / 1e9;
+            if (seconds >= 0.5) {
+                var rate = (linesRead - lastLines) / seconds;
+                statusLabel.setText(String.format(Texts.STATUS_TAILING, file.getName(), tableModel.getRowCount(), linesRead, rate));
+                lastLines = linesRead;
+                lastNanos = now;
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (tailer != this || isCancelled()) return;
+
+            try {
+                get();
+            } catch (Exception e) {
+                JOptionPane.showMessageDialog(LogAnalyzer.this,
+                    String.format(Texts.ERROR_TAIL_FAILED, e.getMessage()));
+            } finally {
+                tailer = null;
+            }
+        }
+
+        private static int indexOf(byte[] data, byte value, int to) {
+            for (int i = 0; i < to; i++) {
+                if (data[i] == value) return i;
+            }
+            return -1;
+        }
+
+        private static int lastIndexOf(byte[] data, byte value, int to) {
+            for (int i = to - 1; i >= 0; i--) {
+                if (data[i] == value) return i;
+            }
+            return -1;
+        }
     }
-    
-    private LogEntry parseLogLine(String line) {
-        // 简单的日志解析，支持常见格式
-        // 格式: [时间] [级别] 消息 - 来源
-        
-        try {
-            if (line.trim().isEmpty()) return null;
-            
-            // 尝试解析时间戳
-            var timePattern = Pattern.compile("\\[(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2})\\]");
-            var timeMatcher = timePattern.matcher(line);
-            
-            LocalDateTime timestamp = LocalDateTime.now();
-            if (timeMatcher.find()) {
-                var timeStr = timeMatcher.group(1);
-                timestamp = LocalDateTime.parse(timeStr, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+
+    /**
+     * 手写日志行解析器
+     * 格式: [yyyy-MM-dd HH:mm:ss] [级别] 消息 - 来源，避免正则与逐级别大写转换
+     */
+    static final class LogLineParser {
+        private static final LogLevel[] LEVELS = LogLevel.values();
+        private static final int TIMESTAMP_LENGTH = 21; // [yyyy-MM-dd HH:mm:ss]
+
+        // 解析 [from, to) 范围内以换行分隔的 UTF-8 文本
+        static List<LogEntry> parseLines(ByteBuffer buffer, int from, int to, LocalDateTime now) {
+            var entries = new ArrayList<LogEntry>();
+            var bytes = new byte[4096];
+            var start = from;
+
+            while (start < to) {
+                var end = start;
+                while (end < to && buffer.get(end) != '\n') end++;
+
+                var length = end - start;
+                if (length > 0 && buffer.get(start + length - 1) == '\r') length--;
+                if (length > bytes.length) bytes = new byte[Math.max(length, bytes.length * 2)];
+                buffer.get(start, bytes, 0, length);
+
+                var entry = parse(new String(bytes, 0, length, StandardCharsets.UTF_8), now);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+                start = end + 1;
             }
-            
-            // 尝试解析级别
-            LogLevel level = LogLevel.INFO;
-            for (var l : LogLevel.values()) {
-                if (line.toUpperCase().contains(l.name())) {
-                    level = l;
-                    break;
+
+            return entries;
+        }
+
+        static LogEntry parse(String line, LocalDateTime fallbackTime) {
+            try {
+                if (line.isBlank()) return null;
+
+                // 解析时间戳
+                var timestamp = fallbackTime;
+                var tsIndex = findTimestamp(line, 0);
+                if (tsIndex >= 0) {
+                    timestamp = LocalDateTime.of(
+                        digits(line, tsIndex + 1, 4), digits(line, tsIndex + 6, 2), digits(line, tsIndex + 9, 2),
+                        digits(line, tsIndex + 12, 2), digits(line, tsIndex + 15, 2), digits(line, tsIndex + 18, 2));
                 }
+
+                // 解析级别（按枚举顺序取第一个出现的级别名）
+                var level = LogLevel.INFO;
+                for (var l : LEVELS) {
+                    if (containsIgnoreCase(line, l.name())) {
+                        level = l;
+                        break;
+                    }
+                }
+
+                // 提取消息和来源
+                var message = line;
+                var source = Texts.SOURCE_UNKNOWN;
+                var dashIndex = line.lastIndexOf(" - ");
+                if (dashIndex > 0) {
+                    message = line.substring(0, dashIndex);
+                    source = line.substring(dashIndex + 3);
+                }
+
+                return new LogEntry(timestamp, level, stripTags(message), source);
+            } catch (Exception e) {
+                // 如果解析失败，创建一个简单的条目
+                return new LogEntry(fallbackTime, LogLevel.INFO, line, Texts.SOURCE_UNKNOWN);
             }
-            
-            // 提取消息和来源
-            String message = line;
-            String source = "Unknown";
-            
-            int dashIndex = line.lastIndexOf(" - ");
-            if (dashIndex > 0) {
-                message = line.substring(0, dashIndex);
-                source = line.substring(dashIndex + 3);
+        }
+
+        // 去除消息中的时间戳和 [LEVEL] 标记
+        private static String stripTags(String message) {
+            var bracket = message.indexOf('[');
+            if (bracket < 0) return message.trim();
+
+            var sb = new StringBuilder(message.length());
+            sb.append(message, 0, bracket);
+            var i = bracket;
+            while (i < message.length()) {
+                var c = message.charAt(i);
+                if (c == '[') {
+                    if (isTimestampAt(message, i)) {
+                        i += TIMESTAMP_LENGTH;
+                        continue;
+                    }
+                    var tagLength = levelTagLength(message, i);
+                    if (tagLength > 0) {
+                        i += tagLength;
+                        continue;
+                    }
+                }
+                sb.append(c);
+                i++;
             }
-            
-            // 清理消息中的时间戳和级别标记
-            message = message.replaceAll("\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\]", "");
-            message = message.replaceAll("\\[(INFO|DEBUG|WARN|ERROR|FATAL)\\]", "");
-            message = message.trim();
-            
-            return new LogEntry(timestamp, level, message, source);
-            
-        } catch (Exception e) {
-            // 如果解析失败，创建一个简单的条目
-            return new LogEntry(LocalDateTime.now(), LogLevel.INFO, line, "Unknown");
+            return sb.toString().trim();
+        }
+
+        private static int findTimestamp(String line, int from) {
+            var i = line.indexOf('[', from);
+            while (i >= 0) {
+                if (isTimestampAt(line, i)) return i;
+                i = line.indexOf('[', i + 1);
+            }
+            return -1;
+        }
+
+        private static boolean isTimestampAt(String s, int i) {
+            if (i + TIMESTAMP_LENGTH > s.length()) return false;
+            for (int k = 1; k < TIMESTAMP_LENGTH - 1; k++) {
+                var c = s.charAt(i + k);
+                var ok = switch (k) {
+                    case 5, 8 -> c == '-';
+                    case 11 -> c == ' ';
+                    case 14, 17 -> c == ':';
+                    default -> c >= '0' && c <= '9';
+                };
+                if (!ok) return false;
+            }
+            return s.charAt(i + TIMESTAMP_LENGTH - 1) == ']';
+        }
+
+        private static int levelTagLength(String s, int i) {
+            for (var l : LEVELS) {
+                var name = l.name();
+                var end = i + 1 + name.length();
+                if (end < s.length() && s.charAt(end) == ']' && s.startsWith(name, i + 1)) {
+                    return name.length() + 2;
+                }
+            }
+            return 0;
+        }
+
+        static boolean containsIgnoreCase(String s, String word) {
+            var max = s.length() - word.length();
+            var first = Character.toUpperCase(word.charAt(0));
+            for (int i = 0; i <= max; i++) {
+                var c = s.charAt(i);
+                if ((c == first || Character.toUpperCase(c) == first) && s.regionMatches(true, i, word, 0, word.length())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int digits(String s, int from, int count) {
+            var value = 0;
+            for (int i = from; i < from + count; i++) {
+                value = value * 10 + (s.charAt(i) - '0');
+            }
+            return value;
         }
     }
-    
+
     private void filterLogs(ActionEvent e) {
         this.filterLogs();
     }
 
     private void filterLogs() {
-        String searchText = searchField.getText().toLowerCase();
+        String searchText = searchField.getText();
         var selectedLevel = (LogLevel) levelFilter.getSelectedItem();
-        
-        filteredLogs.clear();
-        
-        for (var log : allLogs) {
-            boolean matchesSearch = searchText.isEmpty() || 
-                log.message.toLowerCase().contains(searchText) ||
-                log.source.toLowerCase().contains(searchText);
-            
-            boolean matchesLevel = selectedLevel == null || log.level == selectedLevel;
-            
-            if (matchesSearch && matchesLevel) {
-                filteredLogs.add(log);
-            }
+        var bounds = store.bounds();
+        var first = bounds[0];
+        var size = bounds[1];
+        appliedSearch = searchText;
+        appliedLevel = selectedLevel;
+
+        if (searchText.isEmpty() && selectedLevel == null) {
+            tableModel.showAll(first, size);
+        } else {
+            tableModel.showRows(store.query(searchText, selectedLevel, first, size), size);
         }
-        
-        updateTable();
-        statusLabel.setText(String.format(Texts.STATUS_SHOWING_RECORDS, filteredLogs.size(), allLogs.size()));
+
+        statusLabel.setText(String.format(Texts.STATUS_SHOWING_RECORDS, tableModel.getRowCount(), size - first));
+    }
+
+    // 流式加载和实时跟踪时只对新增的行做过滤并追加到视图
+    // 发布的行数可能已过时（环形缓冲区期间又淘汰了旧行），因此一次性读取存储当前的范围
+    private void appendRows() {
+        var bounds = store.bounds();
+        var first = bounds[0];
+        var size = bounds[1];
+        var from = tableModel.scannedRows();
+        if (size <= from) return;
+
+        var matches = tableModel.isShowingAll() ? null : store.query(appliedSearch, appliedLevel, Math.max(from, first), size);
+        tableModel.advance(first, size, matches);
     }
     
     private void clearFilters(ActionEvent e) {
@@ -592,24 +1019,8 @@ class LogAnalyzer extends JFrame {
     }
 
     private void refreshView() {
-        filteredLogs.clear();
-        filteredLogs.addAll(allLogs);
-        updateTable();
-        statusLabel.setText(String.format(Texts.STATUS_SHOWING_ALL_RECORDS, filteredLogs.size()));
-    }
-    
-    private void updateTable() {
-        tableModel.setRowCount(0);
-        
-        for (var log : filteredLogs) {
-            Object[] row = {
-                log.timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                log.level.name(),
-                log.message,
-                log.source
-            };
-            tableModel.addRow(row);
-        }
+        tableModel.showAll(store.firstRow(), store.size());
+        statusLabel.setText(String.format(Texts.STATUS_SHOWING_ALL_RECORDS, tableModel.getRowCount()));
     }
     
     private void clearLogs(ActionEvent e) {
@@ -617,31 +1028,27 @@ class LogAnalyzer extends JFrame {
     }
 
     private void clearLogs() {
-        allLogs.clear();
+        this.stopBackgroundTasks();
+        store = new LogStore();
         refreshView();
     }
     
     private void showStatistics(ActionEvent e) {
         var stats = new StringBuilder();
         stats.append(Texts.STATISTICS_HEADER);
-        stats.append(String.format(Texts.STATISTICS_TOTAL_RECORDS, allLogs.size()));
-
-        // 按级别统计
-        var levelCounts = new EnumMap<LogLevel, Integer>(LogLevel.class);
-        for (var log : allLogs) {
-            levelCounts.merge(log.level, 1, Integer::sum);
-        }
+        stats.append(String.format(Texts.STATISTICS_TOTAL_RECORDS, store.size() - store.firstRow()));
 
+        // 按级别统计（读取存储中增量维护的计数）
         stats.append(Texts.STATISTICS_BY_LEVEL);
-        for (var entry : levelCounts.entrySet()) {
-            stats.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+        for (var level : LogLevel.values()) {
+            var count = store.levelCount(level);
+            if (count > 0) {
+                stats.append("  ").append(level).append(": ").append(count).append("\n");
+            }
         }
 
         // 按来源统计
-        var sourceCounts = new HashMap<String, Integer>();
-        for (var log : allLogs) {
-            sourceCounts.merge(log.source, 1, Integer::sum);
-        }
+        var sourceCounts = store.sourceCounts();
 
         stats.append("\n").append(Texts.STATISTICS_BY_SOURCE);
         sourceCounts.entrySet().stream()
@@ -653,9 +1060,7 @@ class LogAnalyzer extends JFrame {
     }
     
     private void showErrorSummary(ActionEvent e) {
-        var errors = allLogs.stream()
-            .filter(log -> log.level == LogLevel.ERROR || log.level == LogLevel.FATAL)
-            .toList();
+        var errors = store.entries(store.errorRows());
 
         if (errors.isEmpty()) {
             JOptionPane.showMessageDialog(this, Texts.ERROR_SUMMARY_NO_ERRORS, Texts.DIALOG_ERROR_SUMMARY_TITLE, JOptionPane.INFORMATION_MESSAGE);
@@ -684,6 +1089,92 @@ class LogAnalyzer extends JFrame {
         JOptionPane.showMessageDialog(this, scrollPane, Texts.DIALOG_ERROR_SUMMARY_TITLE, JOptionPane.ERROR_MESSAGE);
     }
     
+    // 图表和统计标签使用打开时的同一个存储，重新加载日志后两者不会不一致
+    private void showHistogram(ActionEvent e) {
+        var source = store;
+        var series = source.timeSeries();
+        var rangeLabel = new JLabel();
+        rangeLabel.setFont(FOOTNOTE);
+        rangeLabel.setForeground(LABEL);
+        var detailLabel = new JLabel();
+        detailLabel.setFont(CAPTION1);
+        detailLabel.setForeground(SECONDARY_LABEL);
+
+        var holder = new HistogramPanel[1];
+        holder[0] = new HistogramPanel(series, () -> {
+            if (holder[0] != null) {
+                this.updateHistogramLabels(source, holder[0], rangeLabel, detailLabel);
+            }
+        });
+        var histogram = holder[0];
+        this.updateHistogramLabels(source, histogram, rangeLabel, detailLabel);
+
+        var resetBtn = this.createSecondaryButton(Texts.HISTOGRAM_RESET_ZOOM, (ev) -> histogram.resetZoom());
+        var hint = new JLabel(Texts.HISTOGRAM_HINT);
+        hint.setFont(CAPTION1);
+        hint.setForeground(SECONDARY_LABEL);
+
+        var top = new JPanel(new BorderLayout());
+        top.setBackground(SYSTEM_BACKGROUND);
+        top.setBorder(BorderFactory.createEmptyBorder(SPACING_8, SPACING_16, SPACING_8, SPACING_16));
+        top.add(rangeLabel, BorderLayout.WEST);
+        top.add(hint, BorderLayout.EAST);
+
+        var bottom = new JPanel(new BorderLayout(SPACING_12, 0));
+        bottom.setBackground(SYSTEM_BACKGROUND);
+        bottom.setBorder(BorderFactory.createEmptyBorder(SPACING_8, SPACING_16, SPACING_8, SPACING_16));
+        bottom.add(detailLabel, BorderLayout.CENTER);
+        bottom.add(resetBtn, BorderLayout.EAST);
+
+        var dialog = new JDialog(this, Texts.DIALOG_HISTOGRAM_TITLE, false);
+        dialog.getContentPane().setBackground(SYSTEM_BACKGROUND);
+        dialog.add(top, BorderLayout.NORTH);
+        dialog.add(histogram, BorderLayout.CENTER);
+        dialog.add(bottom, BorderLayout.SOUTH);
+        dialog.pack();
+        dialog.setLocationRelativeTo(this);
+
+        // 实时跟踪或加载过程中定时从聚合桶刷新，开销与日志条数无关
+        var refreshTimer = new javax.swing.Timer(1000, (ev) -> histogram.refresh());
+        refreshTimer.start();
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent ev) {
+                refreshTimer.stop();
+            }
+        });
+        dialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        dialog.setVisible(true);
+    }
+
+    private void updateHistogramLabels(LogStore source, HistogramPanel histogram, JLabel rangeLabel, JLabel detailLabel) {
+        var from = histogram.fromMinute();
+        var to = histogram.toMinute();
+        rangeLabel.setText(String.format(Texts.HISTOGRAM_RANGE,
+            LocalDateTime.ofEpochSecond(from * 60, 0, ZoneOffset.UTC).format(TIME_FORMATTER),
+            LocalDateTime.ofEpochSecond(to * 60, 0, ZoneOffset.UTC).format(TIME_FORMATTER),
+            histogram.bucketMinutes()));
+
+        var series = source.timeSeries();
+        var detail = new StringBuilder();
+        var levelCounts = series.levelCounts(from, to);
+        for (var level : LogLevel.values()) {
+            detail.append(level).append(": ").append(levelCounts[level.ordinal()]).append("  ");
+        }
+
+        var sourceCounts = series.sourceCounts(from, to);
+        var topSources = new ArrayList<Integer>();
+        for (int i = 0; i < sourceCounts.length; i++) {
+            if (sourceCounts[i] > 0) topSources.add(i);
+        }
+        topSources.sort((a, b) -> Integer.compare(sourceCounts[b], sourceCounts[a]));
+        detail.append("| ").append(Texts.HISTOGRAM_TOP_SOURCES);
+        for (var sourceId : topSources.subList(0, Math.min(5, topSources.size()))) {
+            detail.append(source.sourceName(sourceId)).append("(").append(sourceCounts[sourceId]).append(") ");
+        }
+        detailLabel.setText(detail.toString());
+    }
+
     private void exportResults(ActionEvent e) {
         var fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
@@ -698,9 +1189,10 @@ class LogAnalyzer extends JFrame {
             try (var writer = new PrintWriter(file)) {
                 writer.println(Texts.CSV_HEADER);
                 
-                for (var log : filteredLogs) {
+                for (int row = 0; row < tableModel.getRowCount(); row++) {
+                    var log = store.get(tableModel.storeRow(row));
                     writer.printf("\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                        log.timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
+                        log.timestamp.format(TIME_FORMATTER),
                         log.level.name(),
                         log.message.replace("\"", "\"\""),
                         log.source
@@ -721,7 +1213,766 @@ class LogAnalyzer extends JFrame {
     }
     
     record LogEntry(LocalDateTime timestamp, LogLevel level, String message, String source) {}
+
+    /**
+     * 列式日志存储
+     * 时间戳、级别、来源分别存放在基本类型数组中，来源字符串驻留去重；
+     * 按级别维护位图，按词维护倒排索引，过滤时只校验候选行。
+     * 指定容量时作为环形缓冲区使用：行号持续递增，超出容量的最早行被淘汰，
+     * 此时不建索引，过滤直接扫描缓冲区
+     */
+    static final class LogStore {
+        private static final LogLevel[] LEVELS = LogLevel.values();
+        private static final int INITIAL_CAPACITY = 1024;
+        private static final int APPEND_SLICE = 4096; // 批量追加时每次持锁追加的行数
+        private static final int GRAM = 3;
+
+        private final int maxRows; // 0 表示不限制
+        private long[] timestamps;
+        private byte[] levels;
+        private int[] sourceIds;
+        private String[] messages;
+        private int size;  // 已追加的总行数，即下一行的行号
+        private int first; // 最早仍保留的行号
+
+        private final List<String> sources = new ArrayList<>();
+        private final Map<String, Integer> sourceIndex = new HashMap<>();
+        private final BitSet[] levelBitmaps = new BitSet[LEVELS.length];
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private final List<String> terms = new ArrayList<>();
+        private final List<IntList> postings = new ArrayList<>();
+        private final Map<String, IntList> gramTerms = new HashMap<>(); // 三元组 -> 包含它的索引词编号
+        private final Map<String, BitSet> termRowsCache = new HashMap<>();
+
+        // 增量统计，追加和淘汰时同步更新
+        private final LogTimeSeries timeSeries = new LogTimeSeries();
+        private final int[] levelCounts = new int[LEVELS.length];
+        private final IntList sourceCounts = new IntList();
+        private final IntList errorRows = new IntList();
+        private int errorHead; // errorRows 中已淘汰的前缀长度，延迟压缩
+
+        LogStore() {
+            this(0);
+        }
+
+        LogStore(int maxRows) {
+            this.maxRows = maxRows;
+            var capacity = maxRows > 0 ? maxRows : INITIAL_CAPACITY;
+            timestamps = new long[capacity];
+            levels = new byte[capacity];
+            sourceIds = new int[capacity];
+            messages = new String[capacity];
+            for (int i = 0; i < levelBitmaps.length; i++) {
+                levelBitmaps[i] = new BitSet();
+            }
+        }
+
+        synchronized void append(LogEntry entry) {
+            this.appendEntry(entry);
+            termRowsCache.clear();
+        }
+
+        private void appendEntry(LogEntry entry) {
+            if (maxRows > 0 && size - first == maxRows) {
+                this.evictOldest();
+            } else if (maxRows == 0 && size == timestamps.length) {
+                var capacity = size * 2;
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                levels = Arrays.copyOf(levels, capacity);
+                sourceIds = Arrays.copyOf(sourceIds, capacity);
+                messages = Arrays.copyOf(messages, capacity);
+            }
+
+            var row = size++;
+            var slot = this.slot(row);
+            var level = entry.level().ordinal();
+            var sourceId = sourceIndex.computeIfAbsent(entry.source(), (source) -> {
+                sources.add(source);
+                sourceCounts.add(0);
+                return sources.size() - 1;
+            });
+
+            timestamps[slot] = entry.timestamp().toEpochSecond(ZoneOffset.UTC);
+            levels[slot] = (byte) level;
+            sourceIds[slot] = sourceId;
+            messages[slot] = entry.message();
+
+            levelCounts[level]++;
+            sourceCounts.increment(sourceId, 1);
+            timeSeries.add(timestamps[slot], level, sourceId, 1);
+            if (entry.level() == LogLevel.ERROR || entry.level() == LogLevel.FATAL) {
+                errorRows.add(row);
+            }
+
+            if (maxRows == 0) {
+                levelBitmaps[level].set(row);
+                this.indexTokens(entry.message(), row);
+                this.indexTokens(entry.source(), row);
+            }
+        }
+
+        private void evictOldest() {
+            var slot = this.slot(first);
+            levelCounts[levels[slot]]--;
+            sourceCounts.increment(sourceIds[slot], -1);
+            timeSeries.add(timestamps[slot], levels[slot], sourceIds[slot], -1);
+            messages[slot] = null;
+            first++;
+
+            while (errorHead < errorRows.size() && errorRows.get(errorHead) < first) {
+                errorHead++;
+            }
+            if (errorHead > 1024 && errorHead * 2 > errorRows.size()) {
+                errorRows.removeFirst(errorHead);
+                errorHead = 0;
+            }
+        }
+
+        private int slot(int row) {
+            return maxRows > 0 ? row % maxRows : row;
+        }
+
+        // 分段追加，段与段之间释放锁，界面线程读取表格时不会被整批数据阻塞
+        void appendAll(List<LogEntry> entries) {
+            for (int start = 0; start < entries.size(); start += APPEND_SLICE) {
+                var end = Math.min(entries.size(), start + APPEND_SLICE);
+                synchronized (this) {
+                    for (int i = start; i < end; i++) {
+                        this.appendEntry(entries.get(i));
+                    }
+                    termRowsCache.clear();
+                }
+                Thread.yield();
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized int firstRow() {
+            return first;
+        }
+
+        // {first, size}，同一时刻的一致快照
+        synchronized int[] bounds() {
+            return new int[] {first, size};
+        }
+
+        synchronized LogEntry get(int row) {
+            var slot = this.slot(row);
+            return new LogEntry(this.timestamp(row), LEVELS[levels[slot]], messages[slot], sources.get(sourceIds[slot]));
+        }
+
+        synchronized List<LogEntry> entries(int[] rows) {
+            var result = new ArrayList<LogEntry>(rows.length);
+            for (var row : rows) {
+                result.add(this.get(row));
+            }
+            return result;
+        }
+
+        synchronized LocalDateTime timestamp(int row) {
+            return LocalDateTime.ofEpochSecond(timestamps[this.slot(row)], 0, ZoneOffset.UTC);
+        }
+
+        synchronized LogLevel level(int row) {
+            return LEVELS[levels[this.slot(row)]];
+        }
+
+        synchronized String message(int row) {
+            return messages[this.slot(row)];
+        }
+
+        synchronized String source(int row) {
+            return sources.get(sourceIds[this.slot(row)]);
+        }
+
+        LogTimeSeries timeSeries() {
+            return timeSeries;
+        }
+
+        synchronized String sourceName(int sourceId) {
+            return sources.get(sourceId);
+        }
+
+        synchronized int levelCount(LogLevel level) {
+            return levelCounts[level.ordinal()];
+        }
+
+        synchronized int[] errorRows() {
+            return Arrays.copyOfRange(errorRows.data, errorHead, errorRows.size());
+        }
+
+        synchronized Map<String, Integer> sourceCounts() {
+            var result = new HashMap<String, Integer>();
+            for (int i = 0; i < sources.size(); i++) {
+                if (sourceCounts.get(i) > 0) {
+                    result.put(sources.get(i), sourceCounts.get(i));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * 查询 [from, to) 范围内匹配的行号
+         * 先用级别位图和倒排索引求出候选集，再对候选行做子串校验
+         */
+        synchronized int[] query(String text, LogLevel level, int from, int to) {
+            from = Math.max(from, first);
+            if (maxRows > 0) {
+                return this.scan(text, level, from, to);
+            }
+
+            var candidates = new BitSet();
+            candidates.set(from, to);
+            if (level != null) {
+                candidates.and(levelBitmaps[level.ordinal()]);
+            }
+            if (text.isEmpty()) {
+                return candidates.stream().toArray();
+            }
+
+            var needle = text.toLowerCase(Locale.ROOT);
+            var tokens = tokenize(needle);
+            for (var token : tokens) {
+                candidates.and(this.termRows(token));
+                if (candidates.isEmpty()) break;
+            }
+
+            // 单个完整词的查询，候选集即为精确结果
+            if (tokens.size() == 1 && tokens.get(0).length() == needle.length()) {
+                return candidates.stream().toArray();
+            }
+
+            var result = new IntList();
+            for (int row = candidates.nextSetBit(from); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                if (this.matchesText(row, needle)) {
+                    result.add(row);
+                }
+            }
+            return result.toArray();
+        }
+
+        // 环形缓冲区没有索引，直接扫描
+        private int[] scan(String text, LogLevel level, int from, int to) {
+            var needle = text.toLowerCase(Locale.ROOT);
+            var result = new IntList();
+            for (int row = from; row < to; row++) {
+                if (level != null && levels[this.slot(row)] != level.ordinal()) continue;
+                if (needle.isEmpty() || this.matchesText(row, needle)) {
+                    result.add(row);
+                }
+            }
+            return result.toArray();
+        }
+
+        private boolean matchesText(int row, String needle) {
+            var slot = this.slot(row);
+            return LogLineParser.containsIgnoreCase(messages[slot], needle)
+                || LogLineParser.containsIgnoreCase(sources.get(sourceIds[slot]), needle);
+        }
+
+        // 查询词可能只是索引词的一部分，因此合并所有包含该查询词的索引词的倒排表
+        // 候选索引词取查询词各三元组中最短的那条列表再校验，结果按查询词缓存，追加新行时失效
+        private BitSet termRows(String token) {
+            var cached = termRowsCache.get(token);
+            if (cached != null) return cached;
+
+            var rows = new BitSet();
+            if (token.length() < GRAM) {
+                // 过短的查询词没有三元组，只能扫描词表
+                for (int i = 0; i < terms.size(); i++) {
+                    if (terms.get(i).contains(token)) {
+                        postings.get(i).addTo(rows);
+                    }
+                }
+            } else {
+                IntList candidates = null;
+                for (int i = 0; i + GRAM <= token.length(); i++) {
+                    var list = gramTerms.get(token.substring(i, i + GRAM));
+                    if (list == null) {
+                        candidates = null;
+                        break;
+                    }
+                    if (candidates == null || list.size() < candidates.size()) {
+                        candidates = list;
+                    }
+                }
+                for (int i = 0; candidates != null && i < candidates.size(); i++) {
+                    var id = candidates.get(i);
+                    if (terms.get(id).contains(token)) {
+                        postings.get(id).addTo(rows);
+                    }
+                }
+            }
+            termRowsCache.put(token, rows);
+            return rows;
+        }
+
+        private void indexTokens(String text, int row) {
+            for (var token : tokenize(text.toLowerCase(Locale.ROOT))) {
+                var id = termIds.get(token);
+                if (id == null) {
+                    id = this.addTerm(token);
+                }
+                var list = postings.get(id);
+                if (list.size() == 0 || list.last() != row) {
+                    list.add(row);
+                }
+            }
+        }
+
+        private int addTerm(String term) {
+            var id = terms.size();
+            terms.add(term);
+            postings.add(new IntList());
+            termIds.put(term, id);
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                var list = gramTerms.computeIfAbsent(term.substring(i, i + GRAM), (key) -> new IntList());
+                if (list.size() == 0 || list.last() != id) {
+                    list.add(id);
+                }
+            }
+            return id;
+        }
+
+        // 以连续的字母或数字作为一个词
+        private static List<String> tokenize(String text) {
+            var tokens = new ArrayList<String>();
+            var start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                var isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (isWordChar && start < 0) {
+                    start = i;
+                } else if (!isWordChar && start >= 0) {
+                    tokens.add(text.substring(start, i));
+                    start = -1;
+                }
+            }
+            return tokens;
+        }
+    }
+
+    // 可增长的 int 数组，用作倒排表和视图行号
+    static final class IntList {
+        private int[] data = new int[2];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void addAll(int[] values) {
+            for (var value : values) {
+                this.add(value);
+            }
+        }
+
+        int get(int index) {
+            return data[index];
+        }
+
+        void increment(int index, int delta) {
+            data[index] += delta;
+        }
+
+        void removeFirst(int count) {
+            if (count <= 0) return;
+            System.arraycopy(data, count, data, 0, size - count);
+            size -= count;
+        }
+
+        int last() {
+            return data[size - 1];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(data[i]);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * 虚拟表格模型
+     * 只保存视图行到存储行的映射，单元格内容在 JTable 绘制可见行时才生成
+     */
+    class LogTableModel extends AbstractTableModel {
+        private final String[] columns = {Texts.TABLE_COLUMN_TIME, Texts.TABLE_COLUMN_LEVEL, Texts.TABLE_COLUMN_MESSAGE, Texts.TABLE_COLUMN_SOURCE};
+        private IntList rows; // null 表示显示全部
+        private int offset;   // 显示全部时第一行对应的存储行号
+        private int rowCount;
+        private int scannedRows;
+
+        void showAll(int first, int size) {
+            rows = null;
+            offset = first;
+            rowCount = size - first;
+            scannedRows = size;
+            fireTableDataChanged();
+        }
+
+        void showRows(int[] matches, int scanned) {
+            rows = new IntList();
+            rows.addAll(matches);
+            rowCount = rows.size();
+            scannedRows = scanned;
+            fireTableDataChanged();
+        }
+
+        /**
+         * 存储追加了新行（环形缓冲区可能同时淘汰了旧行）后更新视图
+         * matches 为新增范围内的匹配行，显示全部时为 null
+         */
+        void advance(int first, int size, int[] matches) {
+            first = Math.min(first, size); // 行数不会为负
+            var previous = rowCount;
+            int removed;
+            if (rows == null) {
+                removed = Math.min(rowCount, Math.max(0, first - offset));
+                offset = first;
+                rowCount = size - first;
+            } else {
+                removed = 0;
+                while (removed < rows.size() && rows.get(removed) < first) {
+                    removed++;
+                }
+                rows.removeFirst(removed);
+                rows.addAll(matches);
+                rowCount = rows.size();
+            }
+
+            var kept = previous - removed;
+            scannedRows = size;
+            if (removed > 0) {
+                fireTableRowsDeleted(0, removed - 1);
+            }
+            if (rowCount > kept) {
+                fireTableRowsInserted(kept, rowCount - 1);
+            }
+        }
+
+        boolean isShowingAll() {
+            return rows == null;
+        }
+
+        int scannedRows() {
+            return scannedRows;
+        }
+
+        int storeRow(int viewRow) {
+            return rows == null ? offset + viewRow : rows.get(viewRow);
+        }
+
+        @Override
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            var row = this.storeRow(rowIndex);
+            return switch (columnIndex) {
+                case 0 -> store.timestamp(row).format(TIME_FORMATTER);
+                case 1 -> store.level(row).name();
+                case 2 -> store.message(row);
+                default -> store.source(row);
+            };
+        }
+    }
     
+    /**
+     * 时间序列聚合
+     * 摄入时按分钟累计各级别条数、按小时累计各来源条数，查询区间时只合并桶而不扫描日志
+     */
+    static final class LogTimeSeries {
+        private final TreeMap<Long, int[]> minuteLevels = new TreeMap<>();
+        private final TreeMap<Long, IntList> hourSources = new TreeMap<>();
+
+        synchronized void add(long epochSecond, int level, int sourceId, int delta) {
+            var minute = Math.floorDiv(epochSecond, 60);
+            var counts = minuteLevels.computeIfAbsent(minute, (key) -> new int[LogLevel.values().length]);
+            counts[level] += delta;
+            if (delta < 0 && Arrays.stream(counts).allMatch((count) -> count == 0)) {
+                minuteLevels.remove(minute);
+            }
+
+            var hour = Math.floorDiv(minute, 60);
+            var sources = hourSources.computeIfAbsent(hour, (key) -> new IntList());
+            while (sources.size() <= sourceId) {
+                sources.add(0);
+            }
+            sources.increment(sourceId, delta);
+        }
+
+        // 有数据的分钟范围 [first, last]，没有数据时返回 null
+        synchronized long[] minuteRange() {
+            if (minuteLevels.isEmpty()) return null;
+            return new long[] {minuteLevels.firstKey(), minuteLevels.lastKey()};
+        }
+
+        /**
+         * 把 [fromMinute, toMinute) 按 bucketMinutes 分桶，返回每桶各级别条数
+         */
+        synchronized int[][] histogram(long fromMinute, long toMinute, int bucketMinutes) {
+            var bins = (int) Math.max(1, (toMinute - fromMinute + bucketMinutes - 1) / bucketMinutes);
+            var result = new int[bins][LogLevel.values().length];
+            for (var entry : minuteLevels.subMap(fromMinute, toMinute).entrySet()) {
+                var bin = (int) ((entry.getKey() - fromMinute) / bucketMinutes);
+                var counts = entry.getValue();
+                for (int level = 0; level < counts.length; level++) {
+                    result[bin][level] += counts[level];
+                }
+            }
+            return result;
+        }
+
+        synchronized int[] levelCounts(long fromMinute, long toMinute) {
+            var result = new int[LogLevel.values().length];
+            for (var counts : minuteLevels.subMap(fromMinute, toMinute).values()) {
+                for (int level = 0; level < counts.length; level++) {
+                    result[level] += counts[level];
+                }
+            }
+            return result;
+        }
+
+        // 来源按小时聚合，区间两端按所在小时整体计入
+        synchronized int[] sourceCounts(long fromMinute, long toMinute) {
+            var result = new IntList();
+            var fromHour = Math.floorDiv(fromMinute, 60);
+            var toHour = Math.floorDiv(toMinute - 1, 60);
+            for (var sources : hourSources.subMap(fromHour, true, toHour, true).values()) {
+                for (int i = 0; i < sources.size(); i++) {
+                    while (result.size() <= i) {
+                        result.add(0);
+                    }
+                    result.increment(i, sources.get(i));
+                }
+            }
+            return result.toArray();
+        }
+    }
+
+    /**
+     * 时间分布直方图
+     * 按级别堆叠显示每个时间桶的条数，拖动选择区间放大，滚轮缩放，双击还原
+     */
+    class HistogramPanel extends JPanel {
+        private static final int[] BUCKET_MINUTES = {1, 5, 15, 30, 60, 180, 360, 720, 1440};
+        private static final int MAX_BINS = 240;
+        private static final DateTimeFormatter AXIS_FORMATTER = DateTimeFormatter.ofPattern("MM-dd HH:mm");
+
+        private final LogTimeSeries series;
+        private final Runnable onRangeChanged;
+        private long fromMinute;
+        private long toMinute;
+        private int bucketMinutes = 1;
+        private int[][] bins = new int[0][];
+        private int dragStart = -1;
+        private int dragEnd = -1;
+
+        HistogramPanel(LogTimeSeries series, Runnable onRangeChanged) {
+            this.series = series;
+            this.onRangeChanged = onRangeChanged;
+            setBackground(WHITE);
+            setPreferredSize(new Dimension(760, 320));
+            ToolTipManager.sharedInstance().registerComponent(this);
+
+            var mouse = new java.awt.event.MouseAdapter() {
+                @Override
+                public void mousePressed(java.awt.event.MouseEvent ev) {
+                    dragStart = dragEnd = ev.getX();
+                }
+
+                @Override
+                public void mouseDragged(java.awt.event.MouseEvent ev) {
+                    dragEnd = ev.getX();
+                    repaint();
+                }
+
+                @Override
+                public void mouseReleased(java.awt.event.MouseEvent ev) {
+                    if (Math.abs(dragEnd - dragStart) > 3) {
+                        var a = minuteAt(Math.min(dragStart, dragEnd));
+                        var b = minuteAt(Math.max(dragStart, dragEnd));
+                        zoomTo(a, Math.max(a + 1, b));
+                    }
+                    dragStart = dragEnd = -1;
+                    repaint();
+                }
+
+                @Override
+                public void mouseClicked(java.awt.event.MouseEvent ev) {
+                    if (ev.getClickCount() == 2) {
+                        resetZoom();
+                    }
+                }
+
+                @Override
+                public void mouseWheelMoved(java.awt.event.MouseWheelEvent ev) {
+                    var center = minuteAt(ev.getX());
+                    var factor = ev.getWheelRotation() < 0 ? 0.5 : 2.0;
+                    var span = Math.max(1, (long) ((toMinute - fromMinute) * factor));
+                    var ratio = (double) (center - fromMinute) / Math.max(1, toMinute - fromMinute);
+                    var start = center - (long) (span * ratio);
+                    zoomTo(start, start + span);
+                }
+            };
+            addMouseListener(mouse);
+            addMouseMotionListener(mouse);
+            addMouseWheelListener(mouse);
+
+            this.resetZoom();
+        }
+
+        void resetZoom() {
+            var range = series.minuteRange();
+            if (range == null) {
+                this.zoomTo(0, 1);
+            } else {
+                this.zoomTo(range[0], range[1] + 1);
+            }
+        }
+
+        void zoomTo(long from, long to) {
+            fromMinute = from;
+            toMinute = Math.max(from + 1, to);
+            this.refresh();
+        }
+
+        // 重新从聚合桶读取当前区间，用于缩放以及实时跟踪时刷新
+        void refresh() {
+            var span = toMinute - fromMinute;
+            bucketMinutes = BUCKET_MINUTES[BUCKET_MINUTES.length - 1];
+            for (var minutes : BUCKET_MINUTES) {
+                if (span / minutes <= MAX_BINS) {
+                    bucketMinutes = minutes;
+                    break;
+                }
+            }
+            bins = series.histogram(fromMinute, toMinute, bucketMinutes);
+            onRangeChanged.run();
+            repaint();
+        }
+
+        long fromMinute() {
+            return fromMinute;
+        }
+
+        long toMinute() {
+            return toMinute;
+        }
+
+        int bucketMinutes() {
+            return bucketMinutes;
+        }
+
+        private Rectangle plotArea() {
+            return new Rectangle(SPACING_48, SPACING_16, getWidth() - SPACING_48 - SPACING_16, getHeight() - SPACING_16 - SPACING_32);
+        }
+
+        private long minuteAt(int x) {
+            var plot = this.plotArea();
+            var ratio = Math.max(0, Math.min(1, (double) (x - plot.x) / plot.width));
+            return fromMinute + (long) (ratio * (toMinute - fromMinute));
+        }
+
+        @Override
+        public String getToolTipText(java.awt.event.MouseEvent ev) {
+            var plot = this.plotArea();
+            if (bins.length == 0 || !plot.contains(ev.getPoint())) return null;
+
+            var bin = Math.min(bins.length - 1, (ev.getX() - plot.x) * bins.length / plot.width);
+            var start = LocalDateTime.ofEpochSecond((fromMinute + (long) bin * bucketMinutes) * 60, 0, ZoneOffset.UTC);
+            var tip = new StringBuilder("<html>").append(start.format(AXIS_FORMATTER));
+            for (var level : LogLevel.values()) {
+                tip.append("<br>").append(level).append(": ").append(bins[bin][level.ordinal()]);
+            }
+            return tip.append("</html>").toString();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            var g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            var plot = this.plotArea();
+            var max = 1;
+            for (var counts : bins) {
+                max = Math.max(max, Arrays.stream(counts).sum());
+            }
+
+            // 坐标轴
+            g2.setColor(GRAY4);
+            g2.drawLine(plot.x, plot.y + plot.height, plot.x + plot.width, plot.y + plot.height);
+            g2.setFont(CAPTION2);
+            g2.setColor(SECONDARY_LABEL);
+            g2.drawString(String.valueOf(max), SPACING_4, plot.y + SPACING_8);
+            g2.drawString("0", SPACING_4, plot.y + plot.height);
+            var startLabel = LocalDateTime.ofEpochSecond(fromMinute * 60, 0, ZoneOffset.UTC).format(AXIS_FORMATTER);
+            var endLabel = LocalDateTime.ofEpochSecond(toMinute * 60, 0, ZoneOffset.UTC).format(AXIS_FORMATTER);
+            g2.drawString(startLabel, plot.x, plot.y + plot.height + SPACING_16);
+            g2.drawString(endLabel, plot.x + plot.width - g2.getFontMetrics().stringWidth(endLabel), plot.y + plot.height + SPACING_16);
+
+            // 按级别从严重到轻微自下而上堆叠
+            var levels = LogLevel.values();
+            for (int bin = 0; bin < bins.length; bin++) {
+                var x0 = plot.x + bin * plot.width / bins.length;
+                var x1 = plot.x + (bin + 1) * plot.width / bins.length;
+                var barWidth = Math.max(1, x1 - x0 - 1);
+                var y = plot.y + plot.height;
+                for (int level = levels.length - 1; level >= 0; level--) {
+                    var count = bins[bin][level];
+                    if (count == 0) continue;
+                    var h = Math.max(1, (int) ((long) count * plot.height / max));
+                    g2.setColor(levelColor(levels[level]));
+                    g2.fillRect(x0, y - h, barWidth, h);
+                    y -= h;
+                }
+            }
+
+            // 拖动选区
+            if (dragStart >= 0 && dragEnd != dragStart) {
+                g2.setColor(new Color(0, 122, 255, 40));
+                g2.fillRect(Math.min(dragStart, dragEnd), plot.y, Math.abs(dragEnd - dragStart), plot.height);
+            }
+        }
+
+        private Color levelColor(LogLevel level) {
+            return switch (level) {
+                case FATAL -> PURPLE;
+                case ERROR -> RED;
+                case WARN -> ORANGE;
+                case INFO -> BLUE;
+                case DEBUG -> GRAY3;
+            };
+        }
+    }
+
     class LogTableCellRenderer extends DefaultTableCellRenderer {
         @Override
         public Component getTableCellRendererComponent(JTable table, Object value,
@@ -729,10 +1980,10 @@ class LogAnalyzer extends JFrame {
             
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             
-            if (!isSelected && row < filteredLogs.size()) {
-                var log = filteredLogs.get(row);
+            if (!isSelected && row < tableModel.getRowCount()) {
+                var level = store.level(tableModel.storeRow(row));
                 
-                switch (log.level) {
+                switch (level) {
                     case ERROR, FATAL -> setBackground(new Color(255, 230, 230));
                     case WARN -> setBackground(new Color(255, 255, 230));
                     case DEBUG -> setBackground(new Color(240, 240, 240));
@@ -1,10 +1,8 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Random;
-import java.util.Stack;
 
 // 文本管理静态内部类
 static class Texts {
@@ -18,11 +16,22 @@ static class Texts {
     static final String GENERATE_BUTTON = "生成迷宫";
     static final String SOLVE_BUTTON = "显示解答";
     static final String DIFFICULTY_LABEL = "难度: ";
+    static final String ALGORITHM_LABEL = "生成: ";
+    static final String SOLVER_LABEL = "寻路: ";
 
     // 难度选项
     static final String DIFFICULTY_EASY = "简单";
     static final String DIFFICULTY_MEDIUM = "中等";
     static final String DIFFICULTY_HARD = "困难";
+    static final String DIFFICULTY_HUGE = "超大";
+    static final String DIFFICULTY_GIANT = "巨型";
+
+    // 生成与寻路算法
+    static final String ALGORITHM_BACKTRACKER = "回溯";
+    static final String ALGORITHM_KRUSKAL = "Kruskal";
+    static final String ALGORITHM_WILSON = "Wilson";
+    static final String SOLVER_ASTAR = "A*";
+    static final String SOLVER_BFS = "BFS";
 
     // 状态消息
     static final String STATUS_GAME_START = "使用方向键移动，找到出口";
@@ -33,6 +42,10 @@ static class Texts {
     static final String STATUS_SOLUTION_SHOWN = "解答已显示";
     static final String STATUS_NO_SOLUTION = "无法找到解答";
     static final String STATUS_MAZE_GENERATED = "迷宫已生成，开始挑战吧！";
+    static final String STATUS_GENERATING = "正在生成迷宫...";
+    static final String STATUS_SOLVING = "正在寻路...";
+    static final String MAZE_STATS = "%d×%d，%s 生成用时 %d ms";
+    static final String SOLVE_STATS = "%s：路径 %,d 步，探索 %,d 格，用时 %d ms";
 
     // 帮助信息
     static final String HELP_MESSAGE = """
@@ -59,6 +72,11 @@ static class Texts {
         • 简单：较小的迷宫，更容易找到路径
         • 中等：中等大小的迷宫，需要一定思考
         • 困难：较大的迷宫，需要良好的空间记忆
+        • 超大 / 巨型：1001×1001 和 4001×4001 的迷宫，可滚动查看
+
+        算法说明：
+        • 生成：回溯（长走廊）、Kruskal（短岔路多）、Wilson（均匀随机）
+        • 寻路：A* 与 BFS 均给出最短路径，A* 探索的格子更少
 
         快捷键：
         方向键/WASD - 移动控制
@@ -75,29 +93,35 @@ void main(String[] args) {
 }
 
 static class MazeGame extends JFrame implements KeyListener {
-    private static final int CELL_SIZE = 20;
-    private static final int MAZE_WIDTH = 31; // 奇数
-    private static final int MAZE_HEIGHT = 21; // 奇数
+    // 各难度的迷宫尺寸（奇数）与格子像素大小
+    private static final int[][] MAZE_SIZES = {{31, 21}, {61, 41}, {121, 81}, {1001, 1001}, {4001, 4001}};
+    private static final int[] CELL_SIZES = {20, 14, 10, 8, 6};
 
     private JPanel mazePanel;
+    private JScrollPane mazeScrollPane;
     private JLabel statusLabel;
     private JLabel timeLabel;
     private JLabel movesLabel;
     private JButton generateButton;
     private JButton solveButton;
     private JComboBox<String> difficultyCombo;
+    private JComboBox<String> algorithmCombo;
+    private JComboBox<String> solverCombo;
 
-    private int[][] maze;
+    private MazeGrid maze;
+    private int cellSize = CELL_SIZES[0];
     private int playerX = 1;
     private int playerY = 1;
-    private int endX = MAZE_WIDTH - 2;
-    private int endY = MAZE_HEIGHT - 2;
+    private int endX;
+    private int endY;
     private boolean gameWon = false;
     private int moves = 0;
     private int timeElapsed = 0;
     private Timer gameTimer;
     private boolean showSolution = false;
-    private List<Point> solutionPath;
+    private long[] solutionTiles; // 解答路径经过的格子位图
+    private boolean busy = false; // 正在后台生成或寻路
+    private int generation = 0;
 
     public MazeGame() {
         initializeGUI();
@@ -119,12 +143,31 @@ static class MazeGame extends JFrame implements KeyListener {
         generateButton = createButton(Texts.GENERATE_BUTTON, new Color(39, 174, 96), e -> generateMaze());
         solveButton = createButton(Texts.SOLVE_BUTTON, new Color(52, 152, 219), e -> toggleSolution());
 
-        String[] difficulties = {Texts.DIFFICULTY_EASY, Texts.DIFFICULTY_MEDIUM, Texts.DIFFICULTY_HARD};
+        String[] difficulties = {Texts.DIFFICULTY_EASY, Texts.DIFFICULTY_MEDIUM, Texts.DIFFICULTY_HARD,
+            Texts.DIFFICULTY_HUGE, Texts.DIFFICULTY_GIANT};
         difficultyCombo = new JComboBox<>(difficulties);
         difficultyCombo.addActionListener(e -> generateMaze());
 
+        String[] algorithms = {Texts.ALGORITHM_BACKTRACKER, Texts.ALGORITHM_KRUSKAL, Texts.ALGORITHM_WILSON};
+        algorithmCombo = new JComboBox<>(algorithms);
+        algorithmCombo.addActionListener(e -> generateMaze());
+
+        String[] solvers = {Texts.SOLVER_ASTAR, Texts.SOLVER_BFS};
+        solverCombo = new JComboBox<>(solvers);
+        solverCombo.addActionListener(e -> {
+            // 换了寻路算法，下次显示解答时重新计算
+            solutionTiles = null;
+            showSolution = false;
+            solveButton.setText(Texts.SOLVE_BUTTON);
+            mazePanel.repaint();
+        });
+
         controlPanel.add(new JLabel(Texts.DIFFICULTY_LABEL));
         controlPanel.add(difficultyCombo);
+        controlPanel.add(new JLabel(Texts.ALGORITHM_LABEL));
+        controlPanel.add(algorithmCombo);
+        controlPanel.add(new JLabel(Texts.SOLVER_LABEL));
+        controlPanel.add(solverCombo);
         controlPanel.add(generateButton);
         controlPanel.add(solveButton);
 
@@ -149,7 +192,7 @@ static class MazeGame extends JFrame implements KeyListener {
         statusPanel.add(timeLabel);
         statusPanel.add(movesLabel);
 
-        // 迷宫面板
+        // 迷宫面板，放在滚动面板中，只绘制可见区域
         mazePanel = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
@@ -157,11 +200,14 @@ static class MazeGame extends JFrame implements KeyListener {
                 drawMaze(g);
             }
         };
-        mazePanel.setPreferredSize(new Dimension(MAZE_WIDTH * CELL_SIZE, MAZE_HEIGHT * CELL_SIZE));
+        mazePanel.setPreferredSize(new Dimension(MAZE_SIZES[0][0] * cellSize, MAZE_SIZES[0][1] * cellSize));
         mazePanel.setBackground(Color.WHITE);
         mazePanel.setFocusable(true);
         mazePanel.addKeyListener(this);
 
+        mazeScrollPane = new JScrollPane(mazePanel);
+        mazeScrollPane.setBorder(BorderFactory.createEmptyBorder());
+
         // 说明面板
         JPanel infoPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         infoPanel.setBackground(new Color(245, 247, 250));
@@ -178,10 +224,10 @@ static class MazeGame extends JFrame implements KeyListener {
         topContainer.add(statusPanel, BorderLayout.CENTER);
 
         add(topContainer, BorderLayout.NORTH);
-        add(mazePanel, BorderLayout.CENTER);
+        add(mazeScrollPane, BorderLayout.CENTER);
         add(infoPanel, BorderLayout.SOUTH);
 
-        setSize(800, 600);
+        setSize(900, 650);
 
         // 设置计时器
         gameTimer = new Timer(1000, e -> updateTimer());
@@ -205,177 +251,200 @@ static class MazeGame extends JFrame implements KeyListener {
         moves = 0;
         gameWon = false;
         showSolution = false;
-        solutionPath = null;
-
-        // 初始化迷宫 - 全部为墙
-        maze = new int[MAZE_HEIGHT][MAZE_WIDTH];
-        for (int i = 0; i < MAZE_HEIGHT; i++) {
-            for (int j = 0; j < MAZE_WIDTH; j++) {
-                maze[i][j] = 1; // 1表示墙
-            }
-        }
-
-        // 使用递归回溯算法生成迷宫
-        generateMazeWithRecursiveBacktracking();
-
-        // 设置起点和终点
-        playerX = 1;
-        playerY = 1;
-        maze[playerY][playerX] = 0; // 确保起点是通路
-        maze[endY][endX] = 0; // 确保终点是通路
-
+        solutionTiles = null;
+        solveButton.setText(Texts.SOLVE_BUTTON);
         updateDisplay();
-        mazePanel.repaint();
 
-        statusLabel.setText(Texts.STATUS_MAZE_GENERATED);
+        int level = difficultyCombo.getSelectedIndex();
+        int algorithm = algorithmCombo.getSelectedIndex();
+        String algorithmName = (String) algorithmCombo.getSelectedItem();
+        int width = MAZE_SIZES[level][0];
+        int height = MAZE_SIZES[level][1];
+        int currentGeneration = ++generation;
+
+        setBusy(true);
+        statusLabel.setText(Texts.STATUS_GENERATING);
         statusLabel.setForeground(new Color(52, 73, 94));
 
-        // 开始计时
-        gameTimer.start();
+        // 大迷宫生成需要数百毫秒，放到后台线程
+        new SwingWorker<MazeGrid, Void>() {
+            private long millis;
 
-        // 请求焦点以便接收键盘输入
-        mazePanel.requestFocusInWindow();
-    }
+            @Override
+            protected MazeGrid doInBackground() {
+                long start = System.nanoTime();
+                MazeGrid grid = MazeGenerator.generate(width, height, algorithm, new Random());
+                millis = (System.nanoTime() - start) / 1_000_000;
+                return grid;
+            }
 
-    private void generateMazeWithRecursiveBacktracking() {
-        Stack<Point> stack = new Stack<>();
-        Random random = new Random();
+            @Override
+            protected void done() {
+                // 生成期间又点了生成，丢弃旧结果
+                if (currentGeneration != generation) return;
+                try {
+                    maze = get();
+                } catch (Exception ex) {
+                    setBusy(false);
+                    statusLabel.setText(ex.getMessage());
+                    return;
+                }
 
-        // 从起点开始
-        Point current = new Point(1, 1);
-        maze[1][1] = 0; // 0表示通路
-        stack.push(current);
+                cellSize = CELL_SIZES[level];
+                playerX = 1;
+                playerY = 1;
+                endX = maze.width - 2;
+                endY = maze.height - 2;
 
-        while (!stack.isEmpty()) {
-            List<Point> neighbors = getUnvisitedNeighbors(current);
+                mazePanel.setPreferredSize(new Dimension(maze.width * cellSize, maze.height * cellSize));
+                mazePanel.revalidate();
+                mazeScrollPane.getVerticalScrollBar().setUnitIncrement(cellSize * 4);
+                mazeScrollPane.getHorizontalScrollBar().setUnitIncrement(cellSize * 4);
+                mazeScrollPane.getViewport().setViewPosition(new java.awt.Point(0, 0));
+                mazePanel.repaint();
 
-            if (!neighbors.isEmpty()) {
-                // 随机选择一个未访问的邻居
-                Point next = neighbors.get(random.nextInt(neighbors.size()));
+                setBusy(false);
+                statusLabel.setText(Texts.STATUS_MAZE_GENERATED + " "
+                    + String.format(Texts.MAZE_STATS, maze.width, maze.height, algorithmName, millis));
 
-                // 打通当前位置和邻居之间的墙
-                int wallX = (current.x + next.x) / 2;
-                int wallY = (current.y + next.y) / 2;
-                maze[wallY][wallX] = 0;
-                maze[next.y][next.x] = 0;
+                // 开始计时
+                gameTimer.start();
 
-                stack.push(next);
-                current = next;
-            } else {
-                current = stack.pop();
+                // 请求焦点以便接收键盘输入
+                mazePanel.requestFocusInWindow();
             }
-        }
+        }.execute();
     }
 
-    private List<Point> getUnvisitedNeighbors(Point p) {
-        List<Point> neighbors = new ArrayList<>();
-        int[][] directions = {{0, 2}, {2, 0}, {0, -2}, {-2, 0}};
+    private void setBusy(boolean busy) {
+        this.busy = busy;
+        solveButton.setEnabled(!busy);
+    }
 
-        for (int[] dir : directions) {
-            int newX = p.x + dir[0];
-            int newY = p.y + dir[1];
+    private void drawMaze(Graphics g) {
+        if (maze == null) return;
 
-            if (newX > 0 && newX < MAZE_WIDTH - 1 && newY > 0 && newY < MAZE_HEIGHT - 1) {
-                if (maze[newY][newX] == 1) { // 如果是墙（未访问）
-                    neighbors.add(new Point(newX, newY));
+        // 只绘制裁剪区域内的格子
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, maze.width * cellSize, maze.height * cellSize);
+        int firstX = Math.max(0, clip.x / cellSize);
+        int lastX = Math.min(maze.width - 1, (clip.x + clip.width - 1) / cellSize);
+        int firstY = Math.max(0, clip.y / cellSize);
+        int lastY = Math.min(maze.height - 1, (clip.y + clip.height - 1) / cellSize);
+        if (firstX > lastX || firstY > lastY) return;
+
+        // 通路
+        g.setColor(Color.WHITE);
+        g.fillRect(firstX * cellSize, firstY * cellSize, (lastX - firstX + 1) * cellSize, (lastY - firstY + 1) * cellSize);
+
+        // 墙：同一行相邻的墙合并成一个矩形
+        g.setColor(new Color(52, 73, 94));
+        for (int y = firstY; y <= lastY; y++) {
+            int runStart = -1;
+            for (int x = firstX; x <= lastX + 1; x++) {
+                boolean wall = x <= lastX && maze.isWall(x, y);
+                if (wall && runStart < 0) {
+                    runStart = x;
+                } else if (!wall && runStart >= 0) {
+                    g.fillRect(runStart * cellSize, y * cellSize, (x - runStart) * cellSize, cellSize);
+                    runStart = -1;
                 }
             }
         }
 
-        return neighbors;
-    }
-
-    private void drawMaze(Graphics g) {
-        if (maze == null) return;
+        // 绘制网格线（格子太小时省略）
+        if (cellSize >= 10) {
+            g.setColor(new Color(200, 200, 200));
+            for (int y = firstY; y <= lastY + 1; y++) {
+                g.drawLine(firstX * cellSize, y * cellSize, (lastX + 1) * cellSize, y * cellSize);
+            }
+            for (int x = firstX; x <= lastX + 1; x++) {
+                g.drawLine(x * cellSize, firstY * cellSize, x * cellSize, (lastY + 1) * cellSize);
+            }
+        }
 
-        // 绘制迷宫
-        for (int i = 0; i < MAZE_HEIGHT; i++) {
-            for (int j = 0; j < MAZE_WIDTH; j++) {
-                int x = j * CELL_SIZE;
-                int y = i * CELL_SIZE;
-
-                if (maze[i][j] == 1) {
-                    // 墙
-                    g.setColor(new Color(52, 73, 94));
-                    g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-                } else {
-                    // 通路
-                    g.setColor(Color.WHITE);
-                    g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+        // 如果显示解答，绘制解答路径
+        if (showSolution && solutionTiles != null) {
+            g.setColor(new Color(155, 89, 182));
+            int inset = Math.max(1, cellSize * 3 / 10);
+            for (int y = firstY; y <= lastY; y++) {
+                for (int x = firstX; x <= lastX; x++) {
+                    int index = maze.index(x, y);
+                    if ((solutionTiles[index >>> 6] & (1L << index)) != 0) {
+                        g.fillRect(x * cellSize + inset, y * cellSize + inset, cellSize - inset * 2, cellSize - inset * 2);
+                    }
                 }
-
-                // 绘制网格线
-                g.setColor(new Color(200, 200, 200));
-                g.drawRect(x, y, CELL_SIZE, CELL_SIZE);
             }
         }
 
+        int margin = Math.max(1, cellSize / 10);
+
         // 绘制起点
         g.setColor(new Color(46, 204, 113));
-        g.fillRect(playerX * CELL_SIZE + 2, playerY * CELL_SIZE + 2, CELL_SIZE - 4, CELL_SIZE - 4);
+        g.fillRect(cellSize + margin, cellSize + margin, cellSize - margin * 2, cellSize - margin * 2);
 
         // 绘制终点
         g.setColor(new Color(241, 196, 15));
-        g.fillRect(endX * CELL_SIZE + 2, endY * CELL_SIZE + 2, CELL_SIZE - 4, CELL_SIZE - 4);
+        g.fillRect(endX * cellSize + margin, endY * cellSize + margin, cellSize - margin * 2, cellSize - margin * 2);
 
         // 绘制玩家
         g.setColor(new Color(231, 76, 60));
-        g.fillOval(playerX * CELL_SIZE + 3, playerY * CELL_SIZE + 3, CELL_SIZE - 6, CELL_SIZE - 6);
-
-        // 如果显示解答，绘制解答路径
-        if (showSolution && solutionPath != null) {
-            g.setColor(new Color(155, 89, 182));
-            for (Point p : solutionPath) {
-                if (p.x != playerX || p.y != playerY) {
-                    g.fillRect(p.x * CELL_SIZE + 6, p.y * CELL_SIZE + 6, CELL_SIZE - 12, CELL_SIZE - 12);
-                }
-            }
-        }
+        g.fillOval(playerX * cellSize + margin, playerY * cellSize + margin, cellSize - margin * 2, cellSize - margin * 2);
     }
 
     private void toggleSolution() {
-        if (solutionPath == null) {
-            solutionPath = solveMaze();
-        }
-        showSolution = !showSolution;
-        solveButton.setText(showSolution ? "隐藏解答" : "显示解答");
-        mazePanel.repaint();
-    }
-
-    private List<Point> solveMaze() {
-        // 使用深度优先搜索找到从玩家位置到终点的路径
-        boolean[][] visited = new boolean[MAZE_HEIGHT][MAZE_WIDTH];
-        List<Point> path = new ArrayList<>();
+        if (maze == null || busy) return;
 
-        if (dfs(playerX, playerY, visited, path)) {
-            return path;
-        }
-
-        return new ArrayList<>();
-    }
-
-    private boolean dfs(int x, int y, boolean[][] visited, List<Point> path) {
-        if (x == endX && y == endY) {
-            path.add(new Point(x, y));
-            return true;
+        if (solutionTiles != null) {
+            showSolution = !showSolution;
+            solveButton.setText(showSolution ? "隐藏解答" : "显示解答");
+            mazePanel.repaint();
+            mazePanel.requestFocusInWindow();
+            return;
         }
 
-        if (x < 0 || x >= MAZE_WIDTH || y < 0 || y >= MAZE_HEIGHT || visited[y][x] || maze[y][x] == 1) {
-            return false;
-        }
+        MazeGrid grid = maze;
+        int start = grid.index(playerX, playerY);
+        int goal = grid.index(endX, endY);
+        boolean useAStar = solverCombo.getSelectedIndex() == 0;
+        String solverName = (String) solverCombo.getSelectedItem();
+        int currentGeneration = generation;
 
-        visited[y][x] = true;
-        path.add(new Point(x, y));
+        setBusy(true);
+        statusLabel.setText(Texts.STATUS_SOLVING);
 
-        int[][] directions = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
-        for (int[] dir : directions) {
-            if (dfs(x + dir[0], y + dir[1], visited, path)) {
-                return true;
+        new SwingWorker<SolveResult, Void>() {
+            @Override
+            protected SolveResult doInBackground() {
+                return MazeSolver.solve(grid, start, goal, useAStar);
             }
-        }
 
-        path.remove(path.size() - 1);
-        return false;
+            @Override
+            protected void done() {
+                if (currentGeneration != generation) return;
+                setBusy(false);
+                try {
+                    SolveResult result = get();
+                    if (result.path().length == 0) {
+                        statusLabel.setText(Texts.STATUS_NO_SOLUTION);
+                        return;
+                    }
+                    long[] tiles = new long[(int) (((long) grid.width * grid.height + 63) >>> 6)];
+                    for (int index : result.path()) {
+                        tiles[index >>> 6] |= 1L << index;
+                    }
+                    solutionTiles = tiles;
+                    showSolution = true;
+                    solveButton.setText("隐藏解答");
+                    statusLabel.setText(String.format(Texts.SOLVE_STATS, solverName,
+                        result.path().length - 1, result.explored(), result.millis()));
+                    mazePanel.repaint();
+                } catch (Exception ex) {
+                    statusLabel.setText(ex.getMessage());
+                }
+                mazePanel.requestFocusInWindow();
+            }
+        }.execute();
     }
 
     private void updateTimer() {
@@ -389,9 +458,14 @@ static class MazeGame extends JFrame implements KeyListener {
         movesLabel.setText(String.format("步数: %d", moves));
     }
 
+    // 重绘某一格
+    private void repaintCell(int x, int y) {
+        mazePanel.repaint(x * cellSize, y * cellSize, cellSize, cellSize);
+    }
+
     @Override
     public void keyPressed(KeyEvent e) {
-        if (gameWon) return;
+        if (gameWon || maze == null || busy) return;
 
         int keyCode = e.getKeyCode();
         int newX = playerX;
@@ -421,14 +495,25 @@ static class MazeGame extends JFrame implements KeyListener {
                 return;
         }
 
+        // 方向键不再交给滚动面板滚动
+        e.consume();
+
         // 检查是否可以移动
-        if (newX >= 0 && newX < MAZE_WIDTH && newY >= 0 && newY < MAZE_HEIGHT && maze[newY][newX] == 0) {
+        if (maze.isOpen(newX, newY)) {
+            int oldX = playerX;
+            int oldY = playerY;
             playerX = newX;
             playerY = newY;
             moves++;
 
             updateDisplay();
-            mazePanel.repaint();
+            repaintCell(oldX, oldY);
+            repaintCell(playerX, playerY);
+
+            // 玩家保持在视口内，周围留出几格
+            int visibleMargin = cellSize * 5;
+            mazePanel.scrollRectToVisible(new Rectangle(playerX * cellSize - visibleMargin, playerY * cellSize - visibleMargin,
+                cellSize + visibleMargin * 2, cellSize + visibleMargin * 2));
 
             // 检查是否到达终点
             if (playerX == endX && playerY == endY) {
@@ -452,12 +537,348 @@ static class MazeGame extends JFrame implements KeyListener {
     @Override
     public void keyTyped(KeyEvent e) {}
 
-    private static class Point {
-        int x, y;
+    /**
+     * 迷宫网格：每格一位的墙位图（1 为墙），4001×4001 只占 2MB。
+     * 奇数坐标 (2i+1, 2j+1) 是房间，房间之间的偶数坐标格子是墙或打通的通道
+     */
+    static final class MazeGrid {
+        final int width;
+        final int height;
+        private final long[] walls;
+
+        MazeGrid(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.walls = new long[(int) (((long) width * height + 63) >>> 6)];
+            Arrays.fill(walls, -1L);
+        }
+
+        int index(int x, int y) {
+            return y * width + x;
+        }
+
+        boolean isWall(int index) {
+            return (walls[index >>> 6] & (1L << index)) != 0;
+        }
+
+        boolean isWall(int x, int y) {
+            return isWall(index(x, y));
+        }
 
-        Point(int x, int y) {
-            this.x = x;
-            this.y = y;
+        boolean isOpen(int x, int y) {
+            return x >= 0 && x < width && y >= 0 && y < height && !isWall(index(x, y));
+        }
+
+        void open(int index) {
+            walls[index >>> 6] &= ~(1L << index);
+        }
+
+        int roomsX() {
+            return (width - 1) / 2;
+        }
+
+        int roomsY() {
+            return (height - 1) / 2;
+        }
+
+        // 房间编号对应的格子下标
+        int roomTile(int room) {
+            return index(2 * (room % roomsX()) + 1, 2 * (room / roomsX()) + 1);
+        }
+
+        // 打通两个相邻房间及其之间的墙
+        void connect(int room, int neighbor) {
+            int a = roomTile(room);
+            int b = roomTile(neighbor);
+            open(a);
+            open(b);
+            open((a + b) >>> 1);
+        }
+    }
+
+    /**
+     * 迷宫生成：三种算法都在房间图上生成生成树，全部迭代实现，不依赖调用栈深度
+     */
+    static final class MazeGenerator {
+        static final int BACKTRACKER = 0;
+        static final int KRUSKAL = 1;
+        static final int WILSON = 2;
+
+        static MazeGrid generate(int width, int height, int algorithm, Random random) {
+            MazeGrid grid = new MazeGrid(width, height);
+            grid.open(grid.roomTile(0));
+            switch (algorithm) {
+                case KRUSKAL -> kruskal(grid, random);
+                case WILSON -> wilson(grid, random);
+                default -> backtracker(grid, random);
+            }
+            return grid;
+        }
+
+        // 相邻房间，方向依次为右、下、左、上，越界返回 -1
+        private static int neighbor(int room, int direction, int roomsX, int roomsY) {
+            int x = room % roomsX;
+            int y = room / roomsX;
+            return switch (direction) {
+                case 0 -> x + 1 < roomsX ? room + 1 : -1;
+                case 1 -> y + 1 < roomsY ? room + roomsX : -1;
+                case 2 -> x > 0 ? room - 1 : -1;
+                default -> y > 0 ? room - roomsX : -1;
+            };
+        }
+
+        // 深度优先回溯，用显式 int 栈代替递归
+        private static void backtracker(MazeGrid grid, Random random) {
+            int roomsX = grid.roomsX();
+            int roomsY = grid.roomsY();
+            int rooms = roomsX * roomsY;
+            long[] visited = new long[(rooms + 63) >>> 6];
+            int[] stack = new int[rooms];
+            int[] candidates = new int[4];
+            int top = 0;
+
+            stack[top++] = 0;
+            visited[0] |= 1L;
+            while (top > 0) {
+                int room = stack[top - 1];
+                int count = 0;
+                for (int direction = 0; direction < 4; direction++) {
+                    int next = neighbor(room, direction, roomsX, roomsY);
+                    if (next >= 0 && (visited[next >>> 6] & (1L << next)) == 0) {
+                        candidates[count++] = next;
+                    }
+                }
+                if (count == 0) {
+                    top--;
+                    continue;
+                }
+                int next = candidates[random.nextInt(count)];
+                visited[next >>> 6] |= 1L << next;
+                grid.connect(room, next);
+                stack[top++] = next;
+            }
+        }
+
+        // 随机顺序遍历所有内墙，用并查集判断两侧是否已连通
+        private static void kruskal(MazeGrid grid, Random random) {
+            int roomsX = grid.roomsX();
+            int roomsY = grid.roomsY();
+            int rooms = roomsX * roomsY;
+
+            // 边编码为 room * 2 + (0 向右, 1 向下)
+            int[] edges = new int[rooms * 2];
+            int edgeCount = 0;
+            for (int room = 0; room < rooms; room++) {
+                if (room % roomsX + 1 < roomsX) edges[edgeCount++] = room * 2;
+                if (room / roomsX + 1 < roomsY) edges[edgeCount++] = room * 2 + 1;
+            }
+            for (int i = edgeCount - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = edges[i];
+                edges[i] = edges[j];
+                edges[j] = tmp;
+            }
+
+            int[] parent = new int[rooms];
+            for (int i = 0; i < rooms; i++) parent[i] = i;
+            for (int i = 0; i < edgeCount; i++) {
+                int a = edges[i] >>> 1;
+                int b = (edges[i] & 1) == 0 ? a + 1 : a + roomsX;
+                int rootA = find(parent, a);
+                int rootB = find(parent, b);
+                if (rootA != rootB) {
+                    parent[rootA] = rootB;
+                    grid.connect(a, b);
+                }
+            }
+        }
+
+        private static int find(int[] parent, int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]]; // 路径减半
+                x = parent[x];
+            }
+            return x;
+        }
+
+        // 环消除随机游走：每个房间记录最后一次离开的方向，回到树上后沿方向把路径并入树
+        private static void wilson(MazeGrid grid, Random random) {
+            int roomsX = grid.roomsX();
+            int roomsY = grid.roomsY();
+            int rooms = roomsX * roomsY;
+            long[] inTree = new long[(rooms + 63) >>> 6];
+            byte[] exit = new byte[rooms];
+
+            int root = random.nextInt(rooms);
+            inTree[root >>> 6] |= 1L << root;
+            grid.open(grid.roomTile(root));
+
+            for (int start = 0; start < rooms; start++) {
+                if ((inTree[start >>> 6] & (1L << start)) != 0) continue;
+
+                int room = start;
+                while ((inTree[room >>> 6] & (1L << room)) == 0) {
+                    int direction;
+                    int next;
+                    do {
+                        direction = random.nextInt(4);
+                        next = neighbor(room, direction, roomsX, roomsY);
+                    } while (next < 0);
+                    exit[room] = (byte) direction;
+                    room = next;
+                }
+
+                room = start;
+                while ((inTree[room >>> 6] & (1L << room)) == 0) {
+                    inTree[room >>> 6] |= 1L << room;
+                    int next = neighbor(room, exit[room], roomsX, roomsY);
+                    grid.connect(room, next);
+                    room = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * 寻路结果：path 为从起点到终点的格子下标
+     */
+    record SolveResult(int[] path, int explored, long millis) {}
+
+    /**
+     * 迷宫寻路：BFS 用 int 环形队列，A* 用 long 最小堆（高 32 位 f 值、低 32 位格子下标）。
+     * 来向记在 byte 数组里（0 未访问），g 值由 f 减去启发值还原，不需要额外的 int 数组。
+     * 生成的迷宫是完美迷宫，两格之间只有一条路径，格子第一次被发现时的来向即最短路径
+     */
+    static final class MazeSolver {
+        private static final int START = 5;
+
+        static SolveResult solve(MazeGrid grid, int start, int goal, boolean useAStar) {
+            long begin = System.nanoTime();
+            int width = grid.width;
+            // 右、下、左、上
+            int[] offsets = {1, width, -1, -width};
+            byte[] from = new byte[width * grid.height];
+            int goalX = goal % width;
+            int goalY = goal / width;
+            int explored = 0;
+
+            from[start] = START;
+            if (useAStar) {
+                LongHeap open = new LongHeap();
+                open.push((long) manhattan(start, width, goalX, goalY) << 32 | start);
+                while (!open.isEmpty()) {
+                    long entry = open.pop();
+                    int current = (int) entry;
+                    explored++;
+                    if (current == goal) break;
+                    int g = (int) (entry >>> 32) - manhattan(current, width, goalX, goalY);
+                    // 迷宫四周都是墙，通路格子的邻居不会越界
+                    for (int direction = 0; direction < 4; direction++) {
+                        int next = current + offsets[direction];
+                        if (from[next] != 0 || grid.isWall(next)) continue;
+                        from[next] = (byte) (direction + 1);
+                        open.push((long) (g + 1 + manhattan(next, width, goalX, goalY)) << 32 | next);
+                    }
+                }
+            } else {
+                IntQueue queue = new IntQueue();
+                queue.add(start);
+                while (!queue.isEmpty()) {
+                    int current = queue.poll();
+                    explored++;
+                    if (current == goal) break;
+                    for (int direction = 0; direction < 4; direction++) {
+                        int next = current + offsets[direction];
+                        if (from[next] != 0 || grid.isWall(next)) continue;
+                        from[next] = (byte) (direction + 1);
+                        queue.add(next);
+                    }
+                }
+            }
+
+            int[] path = new int[0];
+            if (from[goal] != 0) {
+                // 从终点沿来向回溯两遍：先数长度，再填数组
+                int length = 1;
+                for (int tile = goal; from[tile] != START; tile -= offsets[from[tile] - 1]) length++;
+                path = new int[length];
+                int tile = goal;
+                for (int i = length - 1; i >= 0; i--) {
+                    path[i] = tile;
+                    if (from[tile] != START) tile -= offsets[from[tile] - 1];
+                }
+            }
+            return new SolveResult(path, explored, (System.nanoTime() - begin) / 1_000_000);
+        }
+
+        private static int manhattan(int tile, int width, int goalX, int goalY) {
+            return Math.abs(tile % width - goalX) + Math.abs(tile / width - goalY);
+        }
+    }
+
+    // 可扩容的 int 环形队列
+    static final class IntQueue {
+        private int[] items = new int[1024];
+        private int head;
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(int value) {
+            if (size == items.length) {
+                int[] grown = new int[items.length * 2];
+                for (int i = 0; i < size; i++) grown[i] = items[(head + i) & (items.length - 1)];
+                items = grown;
+                head = 0;
+            }
+            items[(head + size++) & (items.length - 1)] = value;
+        }
+
+        int poll() {
+            int value = items[head];
+            head = (head + 1) & (items.length - 1);
+            size--;
+            return value;
+        }
+    }
+
+    // long 二叉最小堆
+    static final class LongHeap {
+        private long[] items = new long[1024];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (items[parent] <= value) break;
+                items[i] = items[parent];
+                i = parent;
+            }
+            items[i] = value;
+        }
+
+        long pop() {
+            long result = items[0];
+            long last = items[--size];
+            int i = 0;
+            while (true) {
+                int child = i * 2 + 1;
+                if (child >= size) break;
+                if (child + 1 < size && items[child + 1] < items[child]) child++;
+                if (items[child] >= last) break;
+                items[i] = items[child];
+                i = child;
+            }
+            items[i] = last;
+            return result;
         }
     }
 
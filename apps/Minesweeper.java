@@ -3,7 +3,16 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 // Apple 设计系统常量
 class AppleDesign {
@@ -105,6 +114,7 @@ static class Texts {
     static final String BEGINNER_LEVEL = "初级 (9x9, 10雷)";
     static final String INTERMEDIATE_LEVEL = "中级 (16x16, 40雷)";
     static final String EXPERT_LEVEL = "高级 (16x30, 99雷)";
+    static final String HUGE_LEVEL = "超大 (500x500, 50000雷)";
     static final String CUSTOM_LEVEL = "自定义...";
 
     // 状态消息
@@ -117,6 +127,26 @@ static class Texts {
     static final String CUSTOM_OK_BUTTON = "确定";
     static final String CUSTOM_CANCEL_BUTTON = "取消";
 
+    // 求解器
+    static final String SOLVER_MENU = "求解";
+    static final String HINT_ITEM = "💡 最安全的一步";
+    static final String NO_GUESS_ITEM = "无猜模式";
+    static final String BENCHMARK_ITEM = "🤖 自动对局测试...";
+    static final String HINT_FORMAT = "提示：第 %d 行第 %d 列，踩雷概率 %.1f%%%s";
+    static final String HINT_APPROXIMATE = "（近似）";
+    static final String HINT_FIRST_CLICK = "提示：第一步总是安全的，从中间开始";
+    static final String HINT_CALCULATING = "正在计算提示...";
+    static final String HINT_TIMEOUT = "局面太复杂，未能在限定时间内算出提示";
+    static final String NO_GUESS_GENERATING = "正在生成无猜棋盘...";
+    static final String NO_GUESS_FALLBACK = "未能在限定时间内生成无猜棋盘，已使用普通随机棋盘";
+    static final String BENCHMARK_PROMPT = "对局数（当前棋盘尺寸和雷数，自动从中心开局）：";
+    static final String BENCHMARK_RUNNING = "自动对局中... %d / %d";
+    static final String BENCHMARK_RESULT = """
+        对局数：%d（%d 线程）
+        胜局：%d，胜率 %.1f%%
+        平均每局猜测 %.2f 次
+        耗时 %.2f 秒，%.0f 局/秒""";
+
     // 帮助信息
     static final String HELP_MESSAGE = """
         扫雷游戏使用说明：
@@ -143,11 +173,14 @@ static class Texts {
         • 初级：9×9网格，10个地雷
         • 中级：16×16网格，40个地雷
         • 高级：16×30网格，99个地雷
+        • 超大：500×500网格，50000个地雷（可滚动）
+        • 自定义：最大500×500
 
         快捷键：
         左键 - 揭开方块
         右键 - 标记地雷
         Ctrl+N - 新游戏
+        Ctrl+T - 提示最安全的一步
         F1 - 显示帮助
         """;
 }
@@ -171,8 +204,24 @@ static class Minesweeper extends JFrame {
     private static final int EXPERT_COLS = 30;
     private static final int EXPERT_MINES = 99;
     
+    private static final int HUGE_ROWS = 500;
+    private static final int HUGE_COLS = 500;
+    private static final int HUGE_MINES = 50000;
+    
+    private static final int MAX_CUSTOM_SIZE = 500;
+    private static final int CELL_SIZE = 26;
+    private static final int SMALL_CELL_SIZE = 18; // 超过 40 行或列时使用
+    private static final long NO_GUESS_TIME_LIMIT = 2000; // 毫秒
+    private static final long HINT_TIME_LIMIT = 1000; // 毫秒
+    private static final int DEFAULT_BENCHMARK_GAMES = 2000;
+    
     private int rows, cols, totalMines;
-    private MineButton[][] buttons;
+    private BoardCanvas board;
+    private int cellSize = CELL_SIZE;
+    private int unrevealedSafeCells; // 尚未揭开的非雷格子数，为 0 即获胜
+    private int[] revealQueue;
+    private int explodedRow = -1;
+    private int explodedCol = -1;
     private boolean[][] mines;
     private boolean[][] revealed;
     private boolean[][] flagged;
@@ -185,42 +234,132 @@ static class Minesweeper extends JFrame {
     private Timer gameTimer;
     private int secondsElapsed = 0;
     private boolean firstClick = true;
+    private boolean noGuessMode = false;
+    private SwingWorker<MineBoard, Void> mineGenerator; // 无猜棋盘生成中，期间不响应点击
+    private SwingWorker<MineSolver.Analysis, Void> hintWorker; // 正在后台计算的提示
+    private int hintRow = -1;
+    private int hintCol = -1;
+    private JLabel statusLabel;
 
-    class MineButton extends JButton {
-        int row, col;
-
-        MineButton(int row, int col) {
-            this.row = row;
-            this.col = col;
-            setPreferredSize(new Dimension(25, 25));
-            setFont(AppleDesign.MONO_FONT);
-            setMargin(new Insets(0, 0, 0, 0));
-            setBackground(AppleDesign.TERTIARY_SYSTEM_BACKGROUND);
-            setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(AppleDesign.SYSTEM_GRAY4, 1),
-                BorderFactory.createEmptyBorder(2, 2, 2, 2)
-            ));
+    // 整个棋盘画在一个组件上，只重绘裁剪区域内的格子
+    class BoardCanvas extends JComponent {
+        BoardCanvas() {
+            setPreferredSize(new Dimension(cols * cellSize, rows * cellSize));
             setCursor(new Cursor(Cursor.HAND_CURSOR));
 
             addMouseListener(new MouseAdapter() {
                 @Override
                 public void mousePressed(MouseEvent e) {
-                    if (gameOver || gameWon) return;
+                    if (gameOver || gameWon || mineGenerator != null) return;
+
+                    int row = e.getY() / cellSize;
+                    int col = e.getX() / cellSize;
+                    if (row < 0 || row >= rows || col < 0 || col >= cols) return;
 
                     if (SwingUtilities.isRightMouseButton(e)) {
                         toggleFlag(row, col);
                     } else if (SwingUtilities.isLeftMouseButton(e)) {
                         if (firstClick) {
-                            firstClick = false;
                             placeMines(row, col);
-                            calculateNumbers();
-                            startTimer();
+                        } else {
+                            revealCell(row, col);
                         }
-                        revealCell(row, col);
                     }
                 }
             });
         }
+
+        void repaintCell(int row, int col) {
+            repaint(col * cellSize, row * cellSize, cellSize, cellSize);
+        }
+
+        void repaintCells(int minRow, int minCol, int maxRow, int maxCol) {
+            repaint(minCol * cellSize, minRow * cellSize, (maxCol - minCol + 1) * cellSize, (maxRow - minRow + 1) * cellSize);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            var g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            var clip = g.getClipBounds();
+            if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+            g2.setColor(AppleDesign.TERTIARY_SYSTEM_BACKGROUND);
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+            int firstRow = Math.max(0, clip.y / cellSize);
+            int lastRow = Math.min(rows - 1, (clip.y + clip.height - 1) / cellSize);
+            int firstCol = Math.max(0, clip.x / cellSize);
+            int lastCol = Math.min(cols - 1, (clip.x + clip.width - 1) / cellSize);
+
+            g2.setFont(AppleDesign.MONO_FONT.deriveFont(Font.BOLD, cellSize * 0.55f));
+            var metrics = g2.getFontMetrics();
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int col = firstCol; col <= lastCol; col++) {
+                    paintCell(g2, metrics, row, col);
+                }
+            }
+        }
+
+        private void paintCell(Graphics2D g2, FontMetrics metrics, int row, int col) {
+            int x = col * cellSize;
+            int y = row * cellSize;
+            int size = cellSize - 1; // 留出 1 像素间隙
+
+            boolean mine = mines[row][col];
+            boolean showMine = mine && (revealed[row][col] || (gameOver && !flagged[row][col]));
+            boolean wrongFlag = gameOver && flagged[row][col] && !mine;
+
+            Color background;
+            if (row == explodedRow && col == explodedCol) {
+                background = AppleDesign.SYSTEM_RED;
+            } else if (revealed[row][col]) {
+                background = AppleDesign.SYSTEM_GRAY5;
+            } else if (showMine) {
+                background = Color.PINK;
+            } else if (flagged[row][col]) {
+                background = wrongFlag ? Color.YELLOW : AppleDesign.SYSTEM_YELLOW;
+            } else {
+                background = AppleDesign.TERTIARY_SYSTEM_BACKGROUND;
+            }
+            g2.setColor(background);
+            g2.fillRect(x, y, size, size);
+
+            if (!revealed[row][col]) {
+                g2.setColor(AppleDesign.SYSTEM_GRAY4);
+                g2.drawRect(x, y, size - 1, size - 1);
+            }
+            if (row == hintRow && col == hintCol) {
+                g2.setColor(AppleDesign.SYSTEM_GREEN);
+                g2.setStroke(new BasicStroke(2));
+                g2.drawRect(x + 1, y + 1, size - 3, size - 3);
+                g2.setStroke(new BasicStroke(1));
+            }
+
+            if (showMine) {
+                int inset = cellSize / 4;
+                g2.setColor(Color.BLACK);
+                g2.fillOval(x + inset, y + inset, size - inset * 2, size - inset * 2);
+            } else if (flagged[row][col]) {
+                // 旗杆和三角旗
+                int left = x + cellSize / 3;
+                g2.setColor(Color.DARK_GRAY);
+                g2.drawLine(left, y + cellSize / 5, left, y + size - cellSize / 5);
+                g2.setColor(AppleDesign.SYSTEM_RED);
+                g2.fillPolygon(new int[] {left, left + cellSize / 2, left},
+                    new int[] {y + cellSize / 5, y + cellSize * 7 / 20, y + cellSize / 2}, 3);
+                if (wrongFlag) {
+                    g2.setColor(Color.BLACK);
+                    g2.drawLine(x + 3, y + 3, x + size - 4, y + size - 4);
+                    g2.drawLine(x + size - 4, y + 3, x + 3, y + size - 4);
+                }
+            } else if (revealed[row][col] && numbers[row][col] > 0) {
+                String text = String.valueOf(numbers[row][col]);
+                g2.setColor(getNumberColor(numbers[row][col]));
+                g2.drawString(text, x + (size - metrics.stringWidth(text)) / 2,
+                    y + (size - metrics.getHeight()) / 2 + metrics.getAscent());
+            }
+        }
     }
     
     public Minesweeper() {
@@ -237,10 +376,24 @@ static class Minesweeper extends JFrame {
         this.gameOver = false;
         this.gameWon = false;
         this.firstClick = true;
+        this.explodedRow = -1;
+        this.explodedCol = -1;
+        this.hintRow = -1;
+        this.hintCol = -1;
+        this.cellSize = rows > 40 || cols > 40 ? SMALL_CELL_SIZE : CELL_SIZE;
         
         if (gameTimer != null) {
             gameTimer.stop();
         }
+        if (mineGenerator != null) {
+            mineGenerator.cancel(true);
+            mineGenerator = null;
+            setCursor(Cursor.getDefaultCursor());
+        }
+        if (hintWorker != null) {
+            hintWorker.cancel(true);
+            hintWorker = null;
+        }
         
         initializeGUI();
         initializeArrays();
@@ -277,26 +430,40 @@ static class Minesweeper extends JFrame {
         
         // 游戏面板
         var gamePanel = AppleDesign.createRoundedPanel(AppleDesign.MEDIUM_RADIUS, AppleDesign.TERTIARY_SYSTEM_BACKGROUND);
-        gamePanel.setLayout(new GridLayout(rows, cols, 1, 1));
+        gamePanel.setLayout(new BorderLayout());
         gamePanel.setBorder(BorderFactory.createEmptyBorder(AppleDesign.MEDIUM_SPACING, AppleDesign.MEDIUM_SPACING, AppleDesign.MEDIUM_SPACING, AppleDesign.MEDIUM_SPACING));
         
-        buttons = new MineButton[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                buttons[i][j] = new MineButton(i, j);
-                gamePanel.add(buttons[i][j]);
-            }
-        }
+        board = new BoardCanvas();
+        var scrollPane = new JScrollPane(board);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        scrollPane.getVerticalScrollBar().setUnitIncrement(cellSize);
+        scrollPane.getHorizontalScrollBar().setUnitIncrement(cellSize);
+        gamePanel.add(scrollPane, BorderLayout.CENTER);
         
         // 菜单栏
         createMenuBar();
         
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(AppleDesign.CALLOUT_FONT);
+        statusLabel.setForeground(AppleDesign.SYSTEM_GRAY);
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(0, AppleDesign.LARGE_SPACING, AppleDesign.SMALL_SPACING, AppleDesign.LARGE_SPACING));
+
         add(topPanel, BorderLayout.NORTH);
         add(gamePanel, BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
         
         pack();
+        
+        // 大棋盘窗口不超过屏幕，其余部分滚动查看
+        var screen = Toolkit.getDefaultToolkit().getScreenSize();
+        int maxWidth = screen.width * 9 / 10;
+        int maxHeight = screen.height * 9 / 10;
+        boolean tooLarge = getWidth() > maxWidth || getHeight() > maxHeight;
+        if (tooLarge) {
+            setSize(Math.min(getWidth(), maxWidth), Math.min(getHeight(), maxHeight));
+        }
         setLocationRelativeTo(null);
-        setResizable(false);
+        setResizable(tooLarge);
     }
     
     private void createMenuBar() {
@@ -318,6 +485,10 @@ static class Minesweeper extends JFrame {
         expertItem.setFont(AppleDesign.CALLOUT_FONT);
         expertItem.addActionListener(e -> initializeGame(EXPERT_ROWS, EXPERT_COLS, EXPERT_MINES));
 
+        var hugeItem = new JMenuItem(Texts.HUGE_LEVEL);
+        hugeItem.setFont(AppleDesign.CALLOUT_FONT);
+        hugeItem.addActionListener(e -> initializeGame(HUGE_ROWS, HUGE_COLS, HUGE_MINES));
+
         var customItem = new JMenuItem(Texts.CUSTOM_LEVEL);
         customItem.setFont(AppleDesign.CALLOUT_FONT);
         customItem.addActionListener(this::showCustomDialog);
@@ -325,19 +496,44 @@ static class Minesweeper extends JFrame {
         gameMenu.add(beginnerItem);
         gameMenu.add(intermediateItem);
         gameMenu.add(expertItem);
+        gameMenu.add(hugeItem);
         gameMenu.addSeparator();
         gameMenu.add(customItem);
 
+        var solverMenu = new JMenu(Texts.SOLVER_MENU);
+        solverMenu.setFont(AppleDesign.BODY_FONT);
+
+        var hintItem = new JMenuItem(Texts.HINT_ITEM);
+        hintItem.setFont(AppleDesign.CALLOUT_FONT);
+        hintItem.addActionListener(e -> showHint());
+
+        var noGuessItem = new JCheckBoxMenuItem(Texts.NO_GUESS_ITEM, noGuessMode);
+        noGuessItem.setFont(AppleDesign.CALLOUT_FONT);
+        noGuessItem.addActionListener(e -> {
+            noGuessMode = noGuessItem.isSelected();
+            restartGame();
+        });
+
+        var benchmarkItem = new JMenuItem(Texts.BENCHMARK_ITEM);
+        benchmarkItem.setFont(AppleDesign.CALLOUT_FONT);
+        benchmarkItem.addActionListener(e -> runBenchmark());
+
+        solverMenu.add(hintItem);
+        solverMenu.add(noGuessItem);
+        solverMenu.addSeparator();
+        solverMenu.add(benchmarkItem);
+
         menuBar.add(gameMenu);
+        menuBar.add(solverMenu);
         setJMenuBar(menuBar);
     }
     
     private void showCustomDialog(java.awt.event.ActionEvent e) {
         JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
         
-        JSpinner rowSpinner = new JSpinner(new SpinnerNumberModel(9, 5, 30, 1));
-        JSpinner colSpinner = new JSpinner(new SpinnerNumberModel(9, 5, 30, 1));
-        JSpinner mineSpinner = new JSpinner(new SpinnerNumberModel(10, 1, 200, 1));
+        JSpinner rowSpinner = new JSpinner(new SpinnerNumberModel(9, 5, MAX_CUSTOM_SIZE, 1));
+        JSpinner colSpinner = new JSpinner(new SpinnerNumberModel(9, 5, MAX_CUSTOM_SIZE, 1));
+        JSpinner mineSpinner = new JSpinner(new SpinnerNumberModel(10, 1, MAX_CUSTOM_SIZE * MAX_CUSTOM_SIZE, 1));
         
         panel.add(new JLabel(Texts.CUSTOM_ROWS_LABEL));
         panel.add(rowSpinner);
@@ -352,8 +548,8 @@ static class Minesweeper extends JFrame {
             int customCols = (Integer) colSpinner.getValue();
             int customMines = (Integer) mineSpinner.getValue();
             
-            // 验证地雷数不能超过格子总数
-            if (customMines >= customRows * customCols) {
+            // 验证地雷数：第一次点击的 3x3 区域不放雷
+            if (customMines > customRows * customCols - 9) {
                 JOptionPane.showMessageDialog(this, "地雷数不能超过格子总数！");
                 return;
             }
@@ -367,92 +563,118 @@ static class Minesweeper extends JFrame {
         revealed = new boolean[rows][cols];
         flagged = new boolean[rows][cols];
         numbers = new int[rows][cols];
+        revealQueue = new int[rows * cols];
+        unrevealedSafeCells = rows * cols - totalMines;
         
-        // 重置按钮状态
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                buttons[i][j].setText("");
-                buttons[i][j].setBackground(null);
-                buttons[i][j].setEnabled(true);
-                buttons[i][j].setIcon(null);
-            }
-        }
-        
+        board.repaint();
         updateMineCount();
     }
     
+    // 第一次点击：普通模式直接布雷；无猜模式在后台生成，完成后再揭开第一格
     private void placeMines(int firstClickRow, int firstClickCol) {
-        Random random = new Random();
-        int minesPlaced = 0;
-        
-        while (minesPlaced < totalMines) {
-            int row = random.nextInt(rows);
-            int col = random.nextInt(cols);
-            
-            // 不在第一次点击的位置及其周围放置地雷
-            if (!mines[row][col] && !isAdjacent(row, col, firstClickRow, firstClickCol)) {
-                mines[row][col] = true;
-                minesPlaced++;
-            }
+        if (!noGuessMode) {
+            MineBoard.placeRandomMines(mines, totalMines, firstClickRow, firstClickCol, new Random());
+            startGame(firstClickRow, firstClickCol);
+            return;
         }
-    }
-    
-    private boolean isAdjacent(int row1, int col1, int row2, int col2) {
-        return Math.abs(row1 - row2) <= 1 && Math.abs(col1 - col2) <= 1;
-    }
-    
-    private void calculateNumbers() {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (!mines[i][j]) {
-                    numbers[i][j] = countAdjacentMines(i, j);
+
+        int generatorRows = rows;
+        int generatorCols = cols;
+        int generatorMines = totalMines;
+        var worker = new SwingWorker<MineBoard, Void>() {
+            @Override
+            protected MineBoard doInBackground() {
+                return MineBoard.generateNoGuess(generatorRows, generatorCols, generatorMines,
+                    firstClickRow, firstClickCol, new Random(), NO_GUESS_TIME_LIMIT);
+            }
+
+            @Override
+            protected void done() {
+                if (mineGenerator != this) return; // 已开始新的一局
+                mineGenerator = null;
+                setCursor(Cursor.getDefaultCursor());
+                MineBoard generated = null;
+                try {
+                    generated = get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    // 按生成失败处理，退回普通随机棋盘
                 }
+                if (generated != null) {
+                    for (int i = 0; i < rows; i++) {
+                        System.arraycopy(generated.mines[i], 0, mines[i], 0, cols);
+                    }
+                    statusLabel.setText(" ");
+                } else {
+                    MineBoard.placeRandomMines(mines, totalMines, firstClickRow, firstClickCol, new Random());
+                    statusLabel.setText(Texts.NO_GUESS_FALLBACK);
+                }
+                startGame(firstClickRow, firstClickCol);
             }
-        }
+        };
+        mineGenerator = worker;
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        statusLabel.setText(Texts.NO_GUESS_GENERATING);
+        worker.execute();
+    }
+
+    private void startGame(int firstClickRow, int firstClickCol) {
+        firstClick = false;
+        calculateNumbers();
+        startTimer();
+        revealCell(firstClickRow, firstClickCol);
     }
     
-    private int countAdjacentMines(int row, int col) {
-        int count = 0;
-        for (int i = row - 1; i <= row + 1; i++) {
-            for (int j = col - 1; j <= col + 1; j++) {
-                if (i >= 0 && i < rows && j >= 0 && j < cols && mines[i][j]) {
-                    count++;
-                }
-            }
-        }
-        return count;
+    private void calculateNumbers() {
+        MineBoard.computeNumbers(mines, numbers);
     }
     
     private void revealCell(int row, int col) {
         if (row < 0 || row >= rows || col < 0 || col >= cols) return;
         if (revealed[row][col] || flagged[row][col]) return;
-
-        revealed[row][col] = true;
-        MineButton button = buttons[row][col];
+        clearHint();
 
         if (mines[row][col]) {
             // 踩到地雷
-            button.setText("💣");
-            button.setBackground(AppleDesign.SYSTEM_RED);
+            revealed[row][col] = true;
+            explodedRow = row;
+            explodedCol = col;
             gameOver();
             return;
         }
 
-        button.setEnabled(false);
-        button.setBackground(AppleDesign.SYSTEM_GRAY5);
+        // 队列迭代展开空白区域：格子入队时即标记揭开，每格只处理一次
+        int head = 0;
+        int tail = 0;
+        int minRow = row, maxRow = row, minCol = col, maxCol = col;
+        revealed[row][col] = true;
+        unrevealedSafeCells--;
+        revealQueue[tail++] = row * cols + col;
 
-        if (numbers[row][col] > 0) {
-            button.setText(String.valueOf(numbers[row][col]));
-            button.setForeground(getNumberColor(numbers[row][col]));
-        } else {
-            // 空白格子，自动揭开周围格子
-            for (int i = row - 1; i <= row + 1; i++) {
-                for (int j = col - 1; j <= col + 1; j++) {
-                    revealCell(i, j);
+        while (head < tail) {
+            int cell = revealQueue[head++];
+            int r = cell / cols;
+            int c = cell % cols;
+            minRow = Math.min(minRow, r);
+            maxRow = Math.max(maxRow, r);
+            minCol = Math.min(minCol, c);
+            maxCol = Math.max(maxCol, c);
+            if (numbers[r][c] > 0) continue;
+
+            // 空白格子周围不会有雷
+            for (int i = Math.max(0, r - 1); i <= Math.min(rows - 1, r + 1); i++) {
+                for (int j = Math.max(0, c - 1); j <= Math.min(cols - 1, c + 1); j++) {
+                    if (!revealed[i][j] && !flagged[i][j]) {
+                        revealed[i][j] = true;
+                        unrevealedSafeCells--;
+                        revealQueue[tail++] = i * cols + j;
+                    }
                 }
             }
         }
 
+        board.repaintCells(minRow, minCol, maxRow, maxCol);
         checkWinCondition();
     }
     
@@ -472,22 +694,17 @@ static class Minesweeper extends JFrame {
     
     private void toggleFlag(int row, int col) {
         if (revealed[row][col]) return;
-
-        MineButton button = buttons[row][col];
+        clearHint();
 
         if (flagged[row][col]) {
             flagged[row][col] = false;
-            button.setText("");
-            button.setBackground(AppleDesign.TERTIARY_SYSTEM_BACKGROUND);
             flagCount--;
         } else {
             flagged[row][col] = true;
-            button.setText("🚩");
-            button.setForeground(AppleDesign.SYSTEM_RED);
-            button.setBackground(AppleDesign.SYSTEM_YELLOW);
             flagCount++;
         }
 
+        board.repaintCell(row, col);
         updateMineCount();
     }
     
@@ -510,33 +727,14 @@ static class Minesweeper extends JFrame {
             gameTimer.stop();
         }
         
-        // 显示所有地雷
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (mines[i][j] && !flagged[i][j]) {
-                    buttons[i][j].setText("💣");
-                    buttons[i][j].setBackground(Color.PINK);
-                } else if (!mines[i][j] && flagged[i][j]) {
-                    buttons[i][j].setText("❌");
-                    buttons[i][j].setBackground(Color.YELLOW);
-                }
-            }
-        }
+        // 显示所有地雷和标错的旗子
+        board.repaint();
         
         JOptionPane.showMessageDialog(this, Texts.GAME_LOST_MESSAGE, "游戏结束", JOptionPane.ERROR_MESSAGE);
     }
     
     private void checkWinCondition() {
-        int revealedCount = 0;
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (revealed[i][j]) {
-                    revealedCount++;
-                }
-            }
-        }
-        
-        if (revealedCount == rows * cols - totalMines) {
+        if (unrevealedSafeCells == 0) {
             gameWon = true;
             if (gameTimer != null) {
                 gameTimer.stop();
@@ -547,13 +745,12 @@ static class Minesweeper extends JFrame {
                 for (int j = 0; j < cols; j++) {
                     if (mines[i][j] && !flagged[i][j]) {
                         flagged[i][j] = true;
-                        buttons[i][j].setText("🚩");
-                        buttons[i][j].setForeground(Color.RED);
                         flagCount++;
                     }
                 }
             }
             
+            board.repaint();
             updateMineCount();
             
             String message = String.format(Texts.GAME_WON_MESSAGE + "\n用时: %d 秒", secondsElapsed);
@@ -579,6 +776,12 @@ static class Minesweeper extends JFrame {
                             restartGame();
                         }
                         break;
+                    case KeyEvent.VK_T:
+                        // Ctrl+T 提示
+                        if (ev.isControlDown()) {
+                            showHint();
+                        }
+                        break;
                     case KeyEvent.VK_H:
                         // Ctrl+H 显示帮助
                         if (ev.isControlDown()) {
@@ -603,4 +806,846 @@ static class Minesweeper extends JFrame {
     private void showHelp() {
         JOptionPane.showMessageDialog(this, Texts.HELP_MESSAGE, "帮助", JOptionPane.INFORMATION_MESSAGE);
     }
+
+    // 高亮最安全的未揭开格子；求解器不读取旗子，只依据已揭开的数字
+    private void showHint() {
+        if (gameOver || gameWon) return;
+        clearHint();
+        if (firstClick) {
+            hintRow = rows / 2;
+            hintCol = cols / 2;
+            statusLabel.setText(Texts.HINT_FIRST_CLICK);
+            revealHint();
+            return;
+        }
+        if (mineGenerator != null) return;
+
+        // 大棋盘上求解可能较慢：在后台按快照计算并限时，超时则不给提示
+        if (hintWorker != null) hintWorker.cancel(true);
+        var snapshot = new boolean[rows][];
+        for (int i = 0; i < rows; i++) {
+            snapshot[i] = revealed[i].clone();
+        }
+        int hintRows = rows;
+        int hintCols = cols;
+        int hintMines = totalMines;
+        var hintNumbers = numbers;
+        var worker = new SwingWorker<MineSolver.Analysis, Void>() {
+            @Override
+            protected MineSolver.Analysis doInBackground() {
+                long deadline = System.nanoTime() + HINT_TIME_LIMIT * 1_000_000;
+                return MineSolver.analyze(hintRows, hintCols, hintMines, snapshot, hintNumbers, deadline);
+            }
+
+            @Override
+            protected void done() {
+                if (hintWorker != this) return; // 已有更新的请求或开始了新的一局
+                hintWorker = null;
+                MineSolver.Analysis analysis;
+                try {
+                    analysis = get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException ex) {
+                    statusLabel.setText(Texts.HINT_TIMEOUT);
+                    return;
+                }
+                if (gameOver || gameWon) return;
+                int cell = MineSolver.safestCell(analysis, hintRows, hintCols);
+                if (cell < 0 || revealed[cell / hintCols][cell % hintCols]) return;
+                hintRow = cell / hintCols;
+                hintCol = cell % hintCols;
+                statusLabel.setText(String.format(Texts.HINT_FORMAT, hintRow + 1, hintCol + 1,
+                    analysis.probability()[cell] * 100, analysis.exact() ? "" : Texts.HINT_APPROXIMATE));
+                revealHint();
+            }
+        };
+        hintWorker = worker;
+        statusLabel.setText(Texts.HINT_CALCULATING);
+        worker.execute();
+    }
+
+    private void revealHint() {
+        board.repaintCell(hintRow, hintCol);
+        board.scrollRectToVisible(new Rectangle(hintCol * cellSize, hintRow * cellSize, cellSize, cellSize));
+    }
+
+    private void clearHint() {
+        if (hintRow < 0) return;
+        board.repaintCell(hintRow, hintCol);
+        hintRow = -1;
+        hintCol = -1;
+    }
+
+    // 用当前棋盘尺寸和雷数并行自动对局，统计胜率和速度
+    private void runBenchmark() {
+        String input = JOptionPane.showInputDialog(this, Texts.BENCHMARK_PROMPT, DEFAULT_BENCHMARK_GAMES);
+        if (input == null) return;
+        int games;
+        try {
+            games = Integer.parseInt(input.trim());
+        } catch (NumberFormatException ex) {
+            return;
+        }
+        if (games <= 0) return;
+
+        int benchmarkRows = rows;
+        int benchmarkCols = cols;
+        int benchmarkMines = totalMines;
+        boolean benchmarkNoGuess = noGuessMode;
+        var worker = new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                var finished = new AtomicInteger();
+                var wins = new AtomicInteger();
+                var guesses = new AtomicLong();
+                int firstRow = benchmarkRows / 2;
+                int firstCol = benchmarkCols / 2;
+                long start = System.nanoTime();
+                IntStream.range(0, games).parallel().forEach(game -> {
+                    var random = new Random();
+                    MineBoard gameBoard = null;
+                    if (benchmarkNoGuess) {
+                        gameBoard = MineBoard.generateNoGuess(benchmarkRows, benchmarkCols, benchmarkMines, firstRow, firstCol, random, NO_GUESS_TIME_LIMIT);
+                    }
+                    if (gameBoard == null) {
+                        gameBoard = new MineBoard(benchmarkRows, benchmarkCols, benchmarkMines, firstRow, firstCol, random);
+                    }
+                    if (gameBoard.play(firstRow, firstCol, true) == MineBoard.WIN) wins.incrementAndGet();
+                    guesses.addAndGet(gameBoard.guesses);
+                    setProgress(finished.incrementAndGet() * 100 / games);
+                });
+                double seconds = (System.nanoTime() - start) / 1e9;
+                return String.format(Texts.BENCHMARK_RESULT, games, java.util.concurrent.ForkJoinPool.getCommonPoolParallelism() + 1,
+                    wins.get(), wins.get() * 100.0 / games, guesses.get() / (double) games, seconds, games / seconds);
+            }
+
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                statusLabel.setText(" ");
+                try {
+                    JOptionPane.showMessageDialog(Minesweeper.this, get(), Texts.BENCHMARK_ITEM, JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(Minesweeper.this, ex.getMessage(), Texts.BENCHMARK_ITEM, JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                statusLabel.setText(String.format(Texts.BENCHMARK_RUNNING, (Integer) e.getNewValue() * games / 100, games));
+            }
+        });
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        worker.execute();
+    }
+
+    /**
+     * 概率求解器：只读取已揭开格子的数字，不看地雷位置。
+     * 先在边界格子上做约束传播（剩余雷数为 0 则全安全，等于未知格数则全是雷），
+     * 再把剩余边界格子按共享约束拆成独立分量，逐个精确枚举各分量的合法布局并按雷数统计；
+     * 最后结合总雷数（内部格子的组合数）算出每格的地雷概率。
+     * 分量太大或组合太多时退化为近似，结果的 exact 为 false
+     */
+    static final class MineSolver {
+        private static final long MAX_NODES = 200_000; // 单个分量的枚举节点上限
+        private static final int MAX_COMPONENT_CELLS = 400;
+        private static final double MAX_COMBINE_WORK = 2e7;
+
+        private static final byte UNKNOWN = 0;
+        private static final byte SAFE = 1;
+        private static final byte MINE = 2;
+        private static final byte REVEALED = 3;
+
+        private final int rows, cols, totalMines;
+        private final long deadline; // System.nanoTime() 截止时间，超过时抛出 TimeLimitExceeded
+        private final boolean[][] revealed;
+        private final int[][] numbers;
+        private final byte[] state;
+        private final double[] probability;
+        private boolean exact = true;
+
+        // 约束：若干格子中恰有 target 个雷
+        private final List<int[]> constraintCells = new ArrayList<>();
+        private final List<Integer> constraintTargets = new ArrayList<>();
+
+        private MineSolver(int rows, int cols, int totalMines, boolean[][] revealed, int[][] numbers, long deadline) {
+            this.rows = rows;
+            this.cols = cols;
+            this.totalMines = totalMines;
+            this.deadline = deadline;
+            this.revealed = revealed;
+            this.numbers = numbers;
+            this.state = new byte[rows * cols];
+            this.probability = new double[rows * cols];
+        }
+
+        record Analysis(double[] probability, boolean exact) {}
+
+        // 求解超过截止时间，不填充栈信息
+        static final class TimeLimitExceeded extends RuntimeException {
+            TimeLimitExceeded() {
+                super(null, null, false, false);
+            }
+        }
+
+        /**
+         * 计算每格的地雷概率：已揭开的格子为 -1，确定安全为 0，确定是雷为 1
+         */
+        static Analysis analyze(int rows, int cols, int totalMines, boolean[][] revealed, int[][] numbers) {
+            return analyze(rows, cols, totalMines, revealed, numbers, Long.MAX_VALUE);
+        }
+
+        static Analysis analyze(int rows, int cols, int totalMines, boolean[][] revealed, int[][] numbers, long deadline) {
+            var solver = new MineSolver(rows, cols, totalMines, revealed, numbers, deadline);
+            solver.solve();
+            return new Analysis(solver.probability, solver.exact);
+        }
+
+        static void checkDeadline(long deadline) {
+            if (System.nanoTime() > deadline) throw new TimeLimitExceeded();
+        }
+
+        /**
+         * 最安全的未揭开格子；概率相同时选未揭开邻居少的（更可能是空白，信息更多）
+         */
+        static int safestCell(Analysis analysis, int rows, int cols) {
+            double[] probability = analysis.probability();
+            int best = -1;
+            double bestProbability = 2;
+            int bestNeighbors = Integer.MAX_VALUE;
+            for (int cell = 0; cell < probability.length; cell++) {
+                double p = probability[cell];
+                if (p < 0) continue;
+                if (p < bestProbability - 1e-9) {
+                    best = cell;
+                    bestProbability = p;
+                    bestNeighbors = hiddenNeighbors(probability, rows, cols, cell);
+                } else if (p < bestProbability + 1e-9) {
+                    int neighbors = hiddenNeighbors(probability, rows, cols, cell);
+                    if (neighbors < bestNeighbors) {
+                        best = cell;
+                        bestNeighbors = neighbors;
+                    }
+                }
+            }
+            return best;
+        }
+
+        private static int hiddenNeighbors(double[] probability, int rows, int cols, int cell) {
+            int row = cell / cols;
+            int col = cell % cols;
+            int count = 0;
+            for (int i = Math.max(0, row - 1); i <= Math.min(rows - 1, row + 1); i++) {
+                for (int j = Math.max(0, col - 1); j <= Math.min(cols - 1, col + 1); j++) {
+                    if (probability[i * cols + j] >= 0) count++;
+                }
+            }
+            return count;
+        }
+
+        private void solve() {
+            buildConstraints();
+            checkDeadline(deadline);
+            int knownMines = propagate();
+
+            // 剩余未确定的边界格子和内部格子
+            int[] localIndex = new int[rows * cols];
+            Arrays.fill(localIndex, -1);
+            List<int[]> reduced = new ArrayList<>();
+            List<Integer> reducedTargets = new ArrayList<>();
+            int variableCount = 0;
+            for (int c = 0; c < constraintCells.size(); c++) {
+                int[] cells = constraintCells.get(c);
+                int target = constraintTargets.get(c);
+                int unknown = 0;
+                for (int cell : cells) {
+                    if (state[cell] == MINE) target--;
+                    else if (state[cell] == UNKNOWN) unknown++;
+                }
+                if (unknown == 0) continue;
+                int[] unknownCells = new int[unknown];
+                int k = 0;
+                for (int cell : cells) {
+                    if (state[cell] != UNKNOWN) continue;
+                    if (localIndex[cell] < 0) localIndex[cell] = variableCount++;
+                    unknownCells[k++] = cell;
+                }
+                reduced.add(unknownCells);
+                reducedTargets.add(target);
+            }
+
+            int[] variables = new int[variableCount];
+            for (int cell = 0; cell < localIndex.length; cell++) {
+                if (localIndex[cell] >= 0) variables[localIndex[cell]] = cell;
+            }
+            int interior = 0;
+            for (int cell = 0; cell < state.length; cell++) {
+                if (state[cell] == UNKNOWN && localIndex[cell] < 0) interior++;
+            }
+
+            // 并查集拆分独立分量
+            int[] parent = new int[variableCount];
+            for (int i = 0; i < variableCount; i++) parent[i] = i;
+            for (int[] cells : reduced) {
+                for (int i = 1; i < cells.length; i++) {
+                    union(parent, localIndex[cells[0]], localIndex[cells[i]]);
+                }
+            }
+            Map<Integer, Component> byRoot = new HashMap<>();
+            for (int v = 0; v < variableCount; v++) {
+                byRoot.computeIfAbsent(find(parent, v), root -> new Component()).cells.add(variables[v]);
+            }
+            for (int c = 0; c < reduced.size(); c++) {
+                int[] cells = reduced.get(c);
+                var component = byRoot.get(find(parent, localIndex[cells[0]]));
+                component.constraints.add(cells);
+                component.targets.add(reducedTargets.get(c));
+            }
+
+            List<Component> components = new ArrayList<>();
+            double approximateMines = 0;
+            for (var component : byRoot.values()) {
+                if (component.enumerate(deadline)) {
+                    components.add(component);
+                } else {
+                    exact = false;
+                    approximateMines += component.approximate(probability);
+                }
+            }
+
+            combine(components, totalMines - knownMines - (int) Math.round(approximateMines), interior);
+        }
+
+        // 每个有未揭开邻居的已揭开格子构成一条约束
+        private void buildConstraints() {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    int cell = row * cols + col;
+                    if (revealed[row][col]) {
+                        state[cell] = REVEALED;
+                        probability[cell] = -1;
+                    }
+                }
+            }
+            int[] buffer = new int[8];
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    if (!revealed[row][col]) continue;
+                    int count = 0;
+                    for (int i = Math.max(0, row - 1); i <= Math.min(rows - 1, row + 1); i++) {
+                        for (int j = Math.max(0, col - 1); j <= Math.min(cols - 1, col + 1); j++) {
+                            if (!revealed[i][j]) buffer[count++] = i * cols + j;
+                        }
+                    }
+                    if (count == 0) continue;
+                    constraintCells.add(Arrays.copyOf(buffer, count));
+                    constraintTargets.add(numbers[row][col]);
+                }
+            }
+        }
+
+        // 约束传播，返回确定的地雷数
+        private int propagate() {
+            int knownMines = 0;
+            boolean changed = true;
+            while (changed) {
+                checkDeadline(deadline);
+                changed = false;
+                for (int c = 0; c < constraintCells.size(); c++) {
+                    int[] cells = constraintCells.get(c);
+                    int remaining = constraintTargets.get(c);
+                    int unknown = 0;
+                    for (int cell : cells) {
+                        if (state[cell] == MINE) remaining--;
+                        else if (state[cell] == UNKNOWN) unknown++;
+                    }
+                    if (unknown == 0 || (remaining != 0 && remaining != unknown)) continue;
+                    byte value = remaining == 0 ? SAFE : MINE;
+                    for (int cell : cells) {
+                        if (state[cell] != UNKNOWN) continue;
+                        state[cell] = value;
+                        probability[cell] = value == MINE ? 1 : 0;
+                        if (value == MINE) knownMines++;
+                    }
+                    changed = true;
+                }
+            }
+            return knownMines;
+        }
+
+        /**
+         * 结合总雷数：内部 interior 格放 remaining - K 个雷有 C(interior, remaining - K) 种，
+         * 边界共 K 个雷的布局数是各分量分布的卷积。工作量太大时改用每颗雷固定权重 λ 的近似，
+         * 各分量独立计算
+         */
+        private void combine(List<Component> components, int remaining, int interior) {
+            int totalLength = 1;
+            for (var component : components) totalLength += component.counts.length - 1;
+            double[] logWeight = new double[totalLength];
+            double[] logFactorial = logFactorials(interior);
+            for (int k = 0; k < totalLength; k++) {
+                int rest = remaining - k;
+                logWeight[k] = rest < 0 || rest > interior ? Double.NEGATIVE_INFINITY
+                    : logFactorial[interior] - logFactorial[rest] - logFactorial[interior - rest];
+            }
+            double maxLog = Double.NEGATIVE_INFINITY;
+            for (double value : logWeight) maxLog = Math.max(maxLog, value);
+            if (maxLog == Double.NEGATIVE_INFINITY) {
+                // 数字与雷数矛盾（不应出现），按均匀分布处理
+                fillUniform(components, remaining, interior);
+                return;
+            }
+            double[] weight = new double[totalLength];
+            for (int k = 0; k < totalLength; k++) weight[k] = Math.exp(logWeight[k] - maxLog);
+
+            double work = (double) components.size() * totalLength * totalLength;
+            if (work > MAX_COMBINE_WORK) {
+                exact = false;
+                combineApproximately(components, remaining, interior);
+                return;
+            }
+
+            int n = components.size();
+            double[][] prefix = new double[n + 1][];
+            double[][] suffix = new double[n + 1][];
+            prefix[0] = new double[] {1};
+            for (int i = 0; i < n; i++) prefix[i + 1] = convolve(prefix[i], components.get(i).counts);
+            suffix[n] = new double[] {1};
+            for (int i = n - 1; i >= 0; i--) suffix[i] = convolve(suffix[i + 1], components.get(i).counts);
+
+            for (int i = 0; i < n; i++) {
+                var component = components.get(i);
+                double[] others = convolve(prefix[i], suffix[i + 1]);
+                // h(k)：该分量取 k 个雷时，其余分量与内部格子的加权布局数
+                double[] h = new double[component.counts.length];
+                for (int k = 0; k < h.length; k++) {
+                    double sum = 0;
+                    for (int j = 0; j < others.length && k + j < totalLength; j++) sum += others[j] * weight[k + j];
+                    h[k] = sum;
+                }
+                component.assign(probability, h);
+            }
+
+            if (interior > 0) {
+                double[] all = prefix[n];
+                double numerator = 0;
+                double denominator = 0;
+                for (int k = 0; k < all.length; k++) {
+                    double w = all[k] * weight[k];
+                    numerator += w * (remaining - k);
+                    denominator += w;
+                }
+                setInterior(denominator > 0 ? numerator / denominator / interior : 0);
+            }
+        }
+
+        private void combineApproximately(List<Component> components, int remaining, int interior) {
+            double expected = 0;
+            for (var component : components) expected += component.expectedMines(1);
+            double lambda = 1;
+            for (int iteration = 0; iteration < 5 && interior > 0; iteration++) {
+                double rest = Math.max(0, remaining - expected);
+                lambda = Math.max(1e-9, rest / Math.max(1, interior - rest + 1));
+                expected = 0;
+                for (var component : components) expected += component.expectedMines(lambda);
+            }
+            for (var component : components) component.assign(probability, component.lambdaWeights(lambda));
+            if (interior > 0) setInterior(Math.min(1, Math.max(0, (remaining - expected) / interior)));
+        }
+
+        private void fillUniform(List<Component> components, int remaining, int interior) {
+            exact = false;
+            double p = Math.min(1, Math.max(0, remaining / (double) Math.max(1, interior)));
+            for (var component : components) {
+                for (int cell : component.cells) probability[cell] = p;
+            }
+            setInterior(p);
+        }
+
+        private void setInterior(double p) {
+            for (int cell = 0; cell < state.length; cell++) {
+                if (state[cell] == UNKNOWN && isInterior(cell)) probability[cell] = p;
+            }
+        }
+
+        // 内部格子：未确定且不在任何约束里，solve 时尚未写入概率
+        private boolean isInterior(int cell) {
+            int row = cell / cols;
+            int col = cell % cols;
+            for (int i = Math.max(0, row - 1); i <= Math.min(rows - 1, row + 1); i++) {
+                for (int j = Math.max(0, col - 1); j <= Math.min(cols - 1, col + 1); j++) {
+                    if (revealed[i][j]) return false;
+                }
+            }
+            return true;
+        }
+
+        private static double[] logFactorials(int n) {
+            double[] result = new double[n + 1];
+            for (int i = 2; i <= n; i++) result[i] = result[i - 1] + Math.log(i);
+            return result;
+        }
+
+        // 卷积后按最大值归一化，避免大棋盘上溢；整体缩放不影响概率
+        private static double[] convolve(double[] a, double[] b) {
+            double[] result = new double[a.length + b.length - 1];
+            double max = 0;
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] == 0) continue;
+                for (int j = 0; j < b.length; j++) result[i + j] += a[i] * b[j];
+            }
+            for (double value : result) max = Math.max(max, value);
+            if (max > 0) {
+                for (int i = 0; i < result.length; i++) result[i] /= max;
+            }
+            return result;
+        }
+
+        private static int find(int[] parent, int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        private static void union(int[] parent, int a, int b) {
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            if (rootA != rootB) parent[rootA] = rootB;
+        }
+
+        /**
+         * 一个独立分量：枚举得到 counts[k]（共 k 个雷的布局数）和 cellCounts[v][k]（其中第 v 格是雷的布局数）
+         */
+        static final class Component {
+            final List<Integer> cells = new ArrayList<>();
+            final List<int[]> constraints = new ArrayList<>();
+            final List<Integer> targets = new ArrayList<>();
+            double[] counts;
+            double[][] cellCounts;
+
+            private int[] order;
+            private int[][] variableConstraints;
+            private int[] constraintTarget;
+            private int[] constraintMines;
+            private int[] constraintUnassigned;
+            private boolean[] assigned;
+            private long nodes;
+            private long deadline;
+
+            boolean enumerate(long deadline) {
+                this.deadline = deadline;
+                int n = cells.size();
+                if (n > MAX_COMPONENT_CELLS) return false;
+
+                Map<Integer, Integer> local = new HashMap<>();
+                for (int i = 0; i < n; i++) local.put(cells.get(i), i);
+                int m = constraints.size();
+                constraintTarget = new int[m];
+                constraintMines = new int[m];
+                constraintUnassigned = new int[m];
+                List<List<Integer>> byVariable = new ArrayList<>();
+                for (int i = 0; i < n; i++) byVariable.add(new ArrayList<>());
+                int[][] constraintVariables = new int[m][];
+                for (int c = 0; c < m; c++) {
+                    int[] members = constraints.get(c);
+                    constraintTarget[c] = targets.get(c);
+                    constraintUnassigned[c] = members.length;
+                    constraintVariables[c] = new int[members.length];
+                    for (int i = 0; i < members.length; i++) {
+                        int v = local.get(members[i]);
+                        constraintVariables[c][i] = v;
+                        byVariable.get(v).add(c);
+                    }
+                }
+                variableConstraints = new int[n][];
+                for (int v = 0; v < n; v++) {
+                    variableConstraints[v] = byVariable.get(v).stream().mapToInt(Integer::intValue).toArray();
+                }
+
+                // 按约束相邻关系的 BFS 顺序赋值，约束尽早被填满，剪枝更多
+                order = new int[n];
+                boolean[] queued = new boolean[n];
+                int head = 0;
+                int tail = 0;
+                for (int start = 0; start < n; start++) {
+                    if (queued[start]) continue;
+                    queued[start] = true;
+                    order[tail++] = start;
+                    while (head < tail) {
+                        int v = order[head++];
+                        for (int c : variableConstraints[v]) {
+                            for (int u : constraintVariables[c]) {
+                                if (!queued[u]) {
+                                    queued[u] = true;
+                                    order[tail++] = u;
+                                }
+                            }
+                        }
+                    }
+                }
+
+                counts = new double[n + 1];
+                cellCounts = new double[n][n + 1];
+                assigned = new boolean[n];
+                nodes = 0;
+                if (!search(0, 0)) return false;
+
+                // 按最大值归一化
+                double max = 0;
+                for (double value : counts) max = Math.max(max, value);
+                if (max == 0) return false;
+                for (int k = 0; k <= n; k++) counts[k] /= max;
+                for (double[] row : cellCounts) {
+                    for (int k = 0; k <= n; k++) row[k] /= max;
+                }
+                return true;
+            }
+
+            // 回溯枚举，超过节点上限返回 false
+            private boolean search(int position, int mines) {
+                if (++nodes > MAX_NODES) return false;
+                if ((nodes & 1023) == 0) checkDeadline(deadline);
+                if (position == order.length) {
+                    counts[mines]++;
+                    for (int v = 0; v < assigned.length; v++) {
+                        if (assigned[v]) cellCounts[v][mines]++;
+                    }
+                    return true;
+                }
+                int v = order[position];
+                for (int value = 0; value <= 1; value++) {
+                    if (!fits(v, value)) continue;
+                    apply(v, value, 1);
+                    boolean completed = search(position + 1, mines + value);
+                    apply(v, value, -1);
+                    if (!completed) return false;
+                }
+                return true;
+            }
+
+            private boolean fits(int v, int value) {
+                for (int c : variableConstraints[v]) {
+                    int mines = constraintMines[c] + value;
+                    if (mines > constraintTarget[c] || mines + constraintUnassigned[c] - 1 < constraintTarget[c]) return false;
+                }
+                return true;
+            }
+
+            private void apply(int v, int value, int direction) {
+                assigned[v] = direction > 0 && value == 1;
+                for (int c : variableConstraints[v]) {
+                    constraintMines[c] += value * direction;
+                    constraintUnassigned[c] -= direction;
+                }
+            }
+
+            // 按各约束的局部密度估算，返回估计雷数
+            double approximate(double[] probability) {
+                Map<Integer, double[]> sums = new HashMap<>();
+                for (int c = 0; c < constraints.size(); c++) {
+                    int[] members = constraints.get(c);
+                    double density = targets.get(c) / (double) members.length;
+                    for (int cell : members) {
+                        double[] sum = sums.computeIfAbsent(cell, key -> new double[2]);
+                        sum[0] += density;
+                        sum[1]++;
+                    }
+                }
+                double expected = 0;
+                for (int cell : cells) {
+                    double[] sum = sums.get(cell);
+                    double p = Math.min(1, Math.max(0, sum[0] / sum[1]));
+                    probability[cell] = p;
+                    expected += p;
+                }
+                return expected;
+            }
+
+            // 由每种雷数的权重 h(k) 得出各格概率
+            void assign(double[] probability, double[] h) {
+                double denominator = 0;
+                for (int k = 0; k < counts.length; k++) denominator += counts[k] * h[k];
+                for (int v = 0; v < cells.size(); v++) {
+                    double numerator = 0;
+                    for (int k = 0; k < counts.length; k++) numerator += cellCounts[v][k] * h[k];
+                    probability[cells.get(v)] = denominator > 0 ? numerator / denominator : 0.5;
+                }
+            }
+
+            double[] lambdaWeights(double lambda) {
+                double logLambda = Math.log(lambda);
+                double[] h = new double[counts.length];
+                double max = Double.NEGATIVE_INFINITY;
+                for (int k = 0; k < h.length; k++) {
+                    h[k] = counts[k] > 0 ? Math.log(counts[k]) + k * logLambda : Double.NEGATIVE_INFINITY;
+                    max = Math.max(max, h[k]);
+                }
+                for (int k = 0; k < h.length; k++) h[k] = Math.exp(h[k] - max) / Math.max(counts[k], Double.MIN_VALUE);
+                return h;
+            }
+
+            double expectedMines(double lambda) {
+                double[] h = lambdaWeights(lambda);
+                double numerator = 0;
+                double denominator = 0;
+                for (int k = 0; k < counts.length; k++) {
+                    numerator += counts[k] * h[k] * k;
+                    denominator += counts[k] * h[k];
+                }
+                return denominator > 0 ? numerator / denominator : 0;
+            }
+        }
+    }
+
+    /**
+     * 不依赖界面的对局模型，供无猜生成和自动对局测试使用
+     */
+    static final class MineBoard {
+        static final int WIN = 0;
+        static final int LOSS = 1;
+        static final int STUCK = 2; // 不猜就无法继续
+
+        final int rows, cols, totalMines;
+        final boolean[][] mines;
+        final boolean[][] revealed;
+        final int[][] numbers;
+        int unrevealedSafeCells;
+        int guesses;
+        private final int[] queue;
+
+        MineBoard(int rows, int cols, int totalMines, int firstRow, int firstCol, Random random) {
+            this.rows = rows;
+            this.cols = cols;
+            this.totalMines = totalMines;
+            this.mines = new boolean[rows][cols];
+            this.revealed = new boolean[rows][cols];
+            this.numbers = new int[rows][cols];
+            this.unrevealedSafeCells = rows * cols - totalMines;
+            this.queue = new int[rows * cols];
+            placeRandomMines(mines, totalMines, firstRow, firstCol, random);
+            computeNumbers(mines, numbers);
+        }
+
+        // 第一次点击的 3x3 区域不放雷
+        static void placeRandomMines(boolean[][] mines, int totalMines, int firstRow, int firstCol, Random random) {
+            int rows = mines.length;
+            int cols = mines[0].length;
+            int minesPlaced = 0;
+            while (minesPlaced < totalMines) {
+                int row = random.nextInt(rows);
+                int col = random.nextInt(cols);
+                if (!mines[row][col] && (Math.abs(row - firstRow) > 1 || Math.abs(col - firstCol) > 1)) {
+                    mines[row][col] = true;
+                    minesPlaced++;
+                }
+            }
+        }
+
+        static void computeNumbers(boolean[][] mines, int[][] numbers) {
+            int rows = mines.length;
+            int cols = mines[0].length;
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    int count = 0;
+                    for (int i = Math.max(0, row - 1); i <= Math.min(rows - 1, row + 1); i++) {
+                        for (int j = Math.max(0, col - 1); j <= Math.min(cols - 1, col + 1); j++) {
+                            if (mines[i][j]) count++;
+                        }
+                    }
+                    numbers[row][col] = mines[row][col] ? 0 : count;
+                }
+            }
+        }
+
+        /**
+         * 在限定时间内生成从 (firstRow, firstCol) 起不需要猜测就能解开的棋盘，失败返回 null
+         */
+        static MineBoard generateNoGuess(int rows, int cols, int totalMines, int firstRow, int firstCol, Random random, long timeLimitMillis) {
+            long deadline = System.nanoTime() + timeLimitMillis * 1_000_000;
+            try {
+                do {
+                    var candidate = new MineBoard(rows, cols, totalMines, firstRow, firstCol, random);
+                    var replay = new MineBoard(candidate);
+                    if (replay.play(firstRow, firstCol, false, deadline) == WIN) return candidate;
+                } while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted());
+            } catch (MineSolver.TimeLimitExceeded ex) {
+                // 截止时间在求解过程中到达
+            }
+            return null;
+        }
+
+        // 复制地雷布局，得到一个未开始的对局
+        MineBoard(MineBoard other) {
+            this.rows = other.rows;
+            this.cols = other.cols;
+            this.totalMines = other.totalMines;
+            this.mines = other.mines;
+            this.numbers = other.numbers;
+            this.revealed = new boolean[rows][cols];
+            this.unrevealedSafeCells = rows * cols - totalMines;
+            this.queue = new int[rows * cols];
+        }
+
+        // 揭开一格并展开空白区域，踩雷返回 false
+        boolean reveal(int row, int col) {
+            if (revealed[row][col]) return true;
+            if (mines[row][col]) return false;
+            int head = 0;
+            int tail = 0;
+            revealed[row][col] = true;
+            unrevealedSafeCells--;
+            queue[tail++] = row * cols + col;
+            while (head < tail) {
+                int cell = queue[head++];
+                int r = cell / cols;
+                int c = cell % cols;
+                if (numbers[r][c] > 0) continue;
+                for (int i = Math.max(0, r - 1); i <= Math.min(rows - 1, r + 1); i++) {
+                    for (int j = Math.max(0, c - 1); j <= Math.min(cols - 1, c + 1); j++) {
+                        if (!revealed[i][j]) {
+                            revealed[i][j] = true;
+                            unrevealedSafeCells--;
+                            queue[tail++] = i * cols + j;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 用求解器自动对局：揭开所有确定安全的格子，没有时猜最安全的一格（allowGuess 为 false 时返回 STUCK）
+         */
+        int play(int firstRow, int firstCol, boolean allowGuess) {
+            return play(firstRow, firstCol, allowGuess, Long.MAX_VALUE);
+        }
+
+        // 带截止时间的对局，超时抛出 MineSolver.TimeLimitExceeded
+        int play(int firstRow, int firstCol, boolean allowGuess, long deadline) {
+            if (!reveal(firstRow, firstCol)) return LOSS;
+            while (unrevealedSafeCells > 0) {
+                if (Thread.currentThread().isInterrupted()) throw new MineSolver.TimeLimitExceeded();
+                var analysis = MineSolver.analyze(rows, cols, totalMines, revealed, numbers, deadline);
+                double[] probability = analysis.probability();
+                boolean progressed = false;
+                for (int cell = 0; cell < probability.length; cell++) {
+                    if (probability[cell] == 0 && !revealed[cell / cols][cell % cols]) {
+                        if (!reveal(cell / cols, cell % cols)) return LOSS; // 近似结果可能出错
+                        progressed = true;
+                    }
+                }
+                if (progressed) continue;
+                if (!allowGuess) return STUCK;
+
+                guesses++;
+                int cell = MineSolver.safestCell(analysis, rows, cols);
+                if (cell < 0 || !reveal(cell / cols, cell % cols)) return LOSS;
+            }
+            return WIN;
+        }
+    }
 }
@@ -2,8 +2,24 @@ import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleFunction;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
 import javax.imageio.ImageIO;
 import java.awt.geom.AffineTransform;
 
@@ -14,15 +30,25 @@ void main(String[] args) {
 }
 
 static class SimpleImageEditor extends JFrame {
-    private BufferedImage originalImage;
-    private BufferedImage currentImage;
+    private BufferedImage originalImage; // 原图，编辑过程中不会被修改
+    private final EditStack editStack = new EditStack();
+    private StageCache previewCache;     // 预览代理图上各步骤的结果
+    private double previewScale = 1.0;   // 代理图相对原图的缩放比例
+    private FilterEngine.Job previewJob; // 正在渲染的预览，空闲时为 null
     private ImagePanel imagePanel;
     private JLabel statusLabel;
+    private JToolBar toolBar;
+    private JProgressBar progressBar;
+    private JPanel progressPanel;
+    private DefaultListModel<String> historyModel;
+    private JList<String> historyList;
+    private JMenuItem undoItem, redoItem;
+    private FilterEngine.Job filterJob; // 正在运行的全分辨率渲染，空闲时为 null
     
     public SimpleImageEditor() {
         setTitle("简易图片编辑器");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(800, 600);
+        setSize(960, 640);
         
         initializeUI();
         setLocationRelativeTo(null);
@@ -53,12 +79,21 @@ static class SimpleImageEditor extends JFrame {
         fileMenu.add(exitItem);
         
         var editMenu = new JMenu("编辑");
+        undoItem = new JMenuItem("撤销");
+        redoItem = new JMenuItem("重做");
         var resetItem = new JMenuItem("重置");
         var resizeItem = new JMenuItem("调整大小");
         
+        undoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK));
+        redoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK));
+        undoItem.addActionListener(e -> undo());
+        redoItem.addActionListener(e -> redo());
         resetItem.addActionListener(this::resetImage);
         resizeItem.addActionListener(this::resizeImage);
         
+        editMenu.add(undoItem);
+        editMenu.add(redoItem);
+        editMenu.addSeparator();
         editMenu.add(resetItem);
         editMenu.add(resizeItem);
         
@@ -66,21 +101,27 @@ static class SimpleImageEditor extends JFrame {
         var grayItem = new JMenuItem("灰度");
         var brightenItem = new JMenuItem("增亮");
         var darkenItem = new JMenuItem("变暗");
+        var brightnessItem = new JMenuItem("亮度...");
         var blurItem = new JMenuItem("模糊");
+        var gaussianItem = new JMenuItem("高斯模糊...");
         var sharpenItem = new JMenuItem("锐化");
         
         grayItem.addActionListener(e -> applyGrayscale());
         brightenItem.addActionListener(e -> adjustBrightness(30));
         darkenItem.addActionListener(e -> adjustBrightness(-30));
+        brightnessItem.addActionListener(e -> showSliderDialog("亮度", -100, 100, 0, this::brightnessOperation));
         blurItem.addActionListener(e -> applyBlur());
+        gaussianItem.addActionListener(e -> showSliderDialog("高斯模糊半径", 1, 50, 5, this::gaussianOperation));
         sharpenItem.addActionListener(e -> applySharpen());
         
         filterMenu.add(grayItem);
         filterMenu.addSeparator();
         filterMenu.add(brightenItem);
         filterMenu.add(darkenItem);
+        filterMenu.add(brightnessItem);
         filterMenu.addSeparator();
         filterMenu.add(blurItem);
+        filterMenu.add(gaussianItem);
         filterMenu.add(sharpenItem);
         
         var transformMenu = new JMenu("变换");
@@ -108,11 +149,13 @@ static class SimpleImageEditor extends JFrame {
         setJMenuBar(menuBar);
         
         // 工具栏
-        var toolBar = new JToolBar();
+        toolBar = new JToolBar();
         toolBar.setFloatable(false);
         
         var openBtn = new JButton("打开");
         var saveBtn = new JButton("保存");
+        var undoBtn = new JButton("撤销");
+        var redoBtn = new JButton("重做");
         var resetBtn = new JButton("重置");
         var grayBtn = new JButton("灰度");
         var brightenBtn = new JButton("增亮");
@@ -120,6 +163,8 @@ static class SimpleImageEditor extends JFrame {
         
         openBtn.addActionListener(this::openImage);
         saveBtn.addActionListener(this::saveImage);
+        undoBtn.addActionListener(e -> undo());
+        redoBtn.addActionListener(e -> redo());
         resetBtn.addActionListener(this::resetImage);
         grayBtn.addActionListener(e -> applyGrayscale());
         brightenBtn.addActionListener(e -> adjustBrightness(30));
@@ -128,24 +173,69 @@ static class SimpleImageEditor extends JFrame {
         toolBar.add(openBtn);
         toolBar.add(saveBtn);
         toolBar.addSeparator();
+        toolBar.add(undoBtn);
+        toolBar.add(redoBtn);
         toolBar.add(resetBtn);
         toolBar.addSeparator();
         toolBar.add(grayBtn);
         toolBar.add(brightenBtn);
         toolBar.add(rotateBtn);
         
-        // 图片显示面板
+        // 图片显示面板：显示按视口大小缩小的代理图
         imagePanel = new ImagePanel();
-        var scrollPane = new JScrollPane(imagePanel);
-        scrollPane.setPreferredSize(new Dimension(600, 400));
+        imagePanel.setPreferredSize(new Dimension(700, 480));
+        
+        // 视口大小变化停下来后再按新尺寸重建代理图
+        var resizeTimer = new javax.swing.Timer(250, e -> rebuildPreview(false));
+        resizeTimer.setRepeats(false);
+        imagePanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                resizeTimer.restart();
+            }
+        });
+        
+        // 操作历史，点击某一步可以回到那一步
+        historyModel = new DefaultListModel<>();
+        historyList = new JList<>(historyModel);
+        historyList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        historyList.addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting() && historyList.getSelectedIndex() >= 0
+                    && historyList.getSelectedIndex() != editStack.activeCount()) {
+                editStack.moveTo(historyList.getSelectedIndex());
+                stackChanged();
+            }
+        });
+        var historyPane = new JScrollPane(historyList);
+        historyPane.setBorder(BorderFactory.createTitledBorder("操作历史"));
+        historyPane.setPreferredSize(new Dimension(180, 0));
         
         // 状态栏
         statusLabel = new JLabel("请打开一张图片");
-        statusLabel.setBorder(BorderFactory.createLoweredBevelBorder());
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        var cancelBtn = new JButton("取消");
+        cancelBtn.addActionListener(e -> cancelFilter());
+        progressPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        progressPanel.add(progressBar);
+        progressPanel.add(cancelBtn);
+        progressPanel.setVisible(false);
+        
+        var statusBar = new JPanel(new BorderLayout());
+        statusBar.setBorder(BorderFactory.createLoweredBevelBorder());
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+        statusBar.add(progressPanel, BorderLayout.EAST);
+        
+        // Esc 取消正在运行的渲染
+        getRootPane().registerKeyboardAction(e -> cancelFilter(),
+            KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), JComponent.WHEN_IN_FOCUSED_WINDOW);
         
         add(toolBar, BorderLayout.NORTH);
-        add(scrollPane, BorderLayout.CENTER);
-        add(statusLabel, BorderLayout.SOUTH);
+        add(imagePanel, BorderLayout.CENTER);
+        add(historyPane, BorderLayout.EAST);
+        add(statusBar, BorderLayout.SOUTH);
+        
+        stackChanged();
         
         // 初始提示
         showWelcomeMessage();
@@ -155,16 +245,17 @@ static class SimpleImageEditor extends JFrame {
         SwingUtilities.invokeLater(() -> {
             String welcomeMessage = """
                 欢迎使用简易图片编辑器！
-
+                
                 功能包括：
                 • 基本的图片打开和保存
-                • 灰度、亮度调整等滤镜
+                • 灰度、亮度调整等滤镜（多线程处理，按 Esc 可取消）
                 • 旋转、翻转等变换
                 • 图片大小调整
-
+                • 非破坏性编辑：随时撤销/重做，保存时才处理原图
+                
                 点击"打开"按钮开始编辑图片。
                 """;
-
+            
             JOptionPane.showMessageDialog(this, welcomeMessage, "欢迎",
                 JOptionPane.INFORMATION_MESSAGE);
         });
@@ -177,9 +268,12 @@ static class SimpleImageEditor extends JFrame {
         
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             try {
-                originalImage = ImageIO.read(fileChooser.getSelectedFile());
-                currentImage = copyImage(originalImage);
-                imagePanel.setImage(currentImage);
+                var loaded = ImageIO.read(fileChooser.getSelectedFile());
+                if (loaded == null) throw new IllegalArgumentException("不支持的图片格式");
+                originalImage = copyImage(loaded);
+                editStack.clear();
+                rebuildPreview(true);
+                stackChanged();
                 updateStatus("已打开: " + fileChooser.getSelectedFile().getName());
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "打开图片失败: " + ex.getMessage());
@@ -188,25 +282,20 @@ static class SimpleImageEditor extends JFrame {
     }
     
     private void saveImage(ActionEvent e) {
-        if (currentImage == null) {
+        if (originalImage == null) {
             JOptionPane.showMessageDialog(this, "没有图片可保存！");
             return;
         }
+        if (filterJob != null) return;
         
         var fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new FileNameExtensionFilter("PNG图片", "png"));
         
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try {
-                var file = fileChooser.getSelectedFile();
-                if (!file.getName().toLowerCase().endsWith(".png")) {
-                    file = new File(file.getAbsolutePath() + ".png");
-                }
-                ImageIO.write(currentImage, "png", file);
-                updateStatus("已保存: " + file.getName());
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "保存图片失败: " + ex.getMessage());
-            }
+            var selected = fileChooser.getSelectedFile();
+            var file = selected.getName().toLowerCase().endsWith(".png")
+                ? selected : new File(selected.getAbsolutePath() + ".png");
+            renderAndSave(file);
         }
     }
     
@@ -214,178 +303,303 @@ static class SimpleImageEditor extends JFrame {
         saveImage(e);
     }
     
+    // 保存时才在原图上跑一遍完整的操作栈，在后台线程进行
+    private void renderAndSave(File file) {
+        var source = originalImage;
+        var operations = editStack.activeOperations();
+        var job = new FilterEngine.Job(percent -> SwingUtilities.invokeLater(() -> progressBar.setValue(percent)));
+        filterJob = job;
+        setBusy(true);
+        long start = System.nanoTime();
+        
+        new SwingWorker<Void, String>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                var image = source;
+                for (int i = 0; i < operations.size(); i++) {
+                    if (job.isCancelled()) throw new CancellationException();
+                    publish("正在渲染原图: 第 " + (i + 1) + "/" + operations.size() + " 步 " + operations.get(i).name());
+                    image = operations.get(i).apply(image, 1.0, job);
+                }
+                if (job.isCancelled()) throw new CancellationException();
+                publish("正在写入文件...");
+                ImageIO.write(image, "png", file);
+                return null;
+            }
+            
+            @Override
+            protected void process(List<String> messages) {
+                if (filterJob == job) {
+                    updateStatus(messages.get(messages.size() - 1));
+                }
+            }
+            
+            @Override
+            protected void done() {
+                filterJob = null;
+                setBusy(false);
+                try {
+                    get();
+                    updateStatus("已保存: " + file.getName() + "，耗时 " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof CancellationException) {
+                        updateStatus("已取消保存");
+                    } else {
+                        updateStatus("保存失败");
+                        JOptionPane.showMessageDialog(SimpleImageEditor.this, "保存图片失败: " + ex.getCause().getMessage());
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+    
     private void resetImage(ActionEvent e) {
         if (originalImage != null) {
-            currentImage = copyImage(originalImage);
-            imagePanel.setImage(currentImage);
+            editStack.clear();
+            stackChanged();
             updateStatus("图片已重置");
         }
     }
     
     private void resizeImage(ActionEvent e) {
-        if (currentImage == null) return;
-
-        var dialog = new ResizeDialog(this, currentImage.getWidth(), currentImage.getHeight());
+        if (originalImage == null) return;
+        
+        var size = resultSize();
+        var dialog = new ResizeDialog(this, size.width, size.height);
         dialog.setVisible(true);
-
+        
         if (dialog.isConfirmed()) {
-            var newWidth = dialog.getNewWidth();
-            var newHeight = dialog.getNewHeight();
-
-            var resized = new BufferedImage(newWidth, newHeight, currentImage.getType());
-            var g2d = resized.createGraphics();
-            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-            g2d.drawImage(currentImage, 0, 0, newWidth, newHeight, null);
-            g2d.dispose();
-
-            currentImage = resized;
-            imagePanel.setImage(currentImage);
-            updateStatus("图片大小已调整为: " + newWidth + "x" + newHeight);
+            pushOperation(new ResizeOperation(dialog.getNewWidth(), dialog.getNewHeight()));
         }
     }
     
     private void applyGrayscale() {
-        if (currentImage == null) return;
-
-        var gray = new BufferedImage(currentImage.getWidth(), currentImage.getHeight(), currentImage.getType());
-
-        for (int y = 0; y < currentImage.getHeight(); y++) {
-            for (int x = 0; x < currentImage.getWidth(); x++) {
-                var rgb = currentImage.getRGB(x, y);
-                var r = (rgb >> 16) & 0xFF;
-                var g = (rgb >> 8) & 0xFF;
-                var b = rgb & 0xFF;
-
-                var grayValue = (int) (0.299 * r + 0.587 * g + 0.114 * b);
-                var grayRGB = (grayValue << 16) | (grayValue << 8) | grayValue;
-
-                gray.setRGB(x, y, grayRGB);
-            }
-        }
-
-        currentImage = gray;
-        imagePanel.setImage(currentImage);
-        updateStatus("已应用灰度滤镜");
+        pushOperation(new FilterOperation("灰度", scale -> List.of(FilterEngine.grayscale())));
     }
     
     private void adjustBrightness(int adjustment) {
-        if (currentImage == null) return;
-
-        var bright = new BufferedImage(currentImage.getWidth(), currentImage.getHeight(), currentImage.getType());
-
-        for (int y = 0; y < currentImage.getHeight(); y++) {
-            for (int x = 0; x < currentImage.getWidth(); x++) {
-                var rgb = currentImage.getRGB(x, y);
-                var r = Math.max(0, Math.min(255, ((rgb >> 16) & 0xFF) + adjustment));
-                var g = Math.max(0, Math.min(255, ((rgb >> 8) & 0xFF) + adjustment));
-                var b = Math.max(0, Math.min(255, (rgb & 0xFF) + adjustment));
-
-                var newRGB = (r << 16) | (g << 8) | b;
-                bright.setRGB(x, y, newRGB);
-            }
-        }
-
-        currentImage = bright;
-        imagePanel.setImage(currentImage);
-        updateStatus("亮度已调整: " + (adjustment > 0 ? "+" : "") + adjustment);
+        pushOperation(brightnessOperation(adjustment));
+    }
+    
+    private Operation brightnessOperation(int adjustment) {
+        return new FilterOperation("亮度" + (adjustment > 0 ? "+" : "") + adjustment,
+            scale -> List.of(FilterEngine.brightness(adjustment)));
     }
     
     private void applyBlur() {
-        if (currentImage == null) return;
-
-        var blurred = new BufferedImage(currentImage.getWidth(), currentImage.getHeight(), currentImage.getType());
-
-        for (int y = 0; y < currentImage.getHeight(); y++) {
-            for (int x = 0; x < currentImage.getWidth(); x++) {
-                int totalR = 0, totalG = 0, totalB = 0, count = 0;
-
-                for (int dy = -1; dy <= 1; dy++) {
-                    for (int dx = -1; dx <= 1; dx++) {
-                        int newX = x + dx;
-                        int newY = y + dy;
-
-                        if (newX >= 0 && newX < currentImage.getWidth() && newY >= 0 && newY < currentImage.getHeight()) {
-                            var rgb = currentImage.getRGB(newX, newY);
-                            totalR += (rgb >> 16) & 0xFF;
-                            totalG += (rgb >> 8) & 0xFF;
-                            totalB += rgb & 0xFF;
-                            count++;
-                        }
-                    }
-                }
-
-                if (count > 0) {
-                    var avgR = totalR / count;
-                    var avgG = totalG / count;
-                    var avgB = totalB / count;
-                    var newRGB = (avgR << 16) | (avgG << 8) | avgB;
-                    blurred.setRGB(x, y, newRGB);
-                }
-            }
-        }
-
-        currentImage = blurred;
-        imagePanel.setImage(currentImage);
-        updateStatus("已应用模糊滤镜");
+        pushOperation(new FilterOperation("模糊", scale -> FilterEngine.boxBlur(1)));
+    }
+    
+    // 半径按代理图比例缩小，预览和原图上的效果看起来一致
+    private Operation gaussianOperation(int radius) {
+        return new FilterOperation("高斯模糊(半径" + radius + ")",
+            scale -> FilterEngine.gaussianBlur(Math.max(1, (int) Math.round(radius * scale))));
     }
     
     private void applySharpen() {
-        if (currentImage == null) return;
-
-        var sharpened = new BufferedImage(currentImage.getWidth(), currentImage.getHeight(), currentImage.getType());
-
-        // 简单的锐化核
-        int[][] kernel = {
-            {0, -1, 0},
-            {-1, 5, -1},
-            {0, -1, 0}
-        };
-
-        for (int y = 0; y < currentImage.getHeight(); y++) {
-            for (int x = 0; x < currentImage.getWidth(); x++) {
-                int totalR = 0, totalG = 0, totalB = 0;
-
-                for (int dy = -1; dy <= 1; dy++) {
-                    for (int dx = -1; dx <= 1; dx++) {
-                        int newX = x + dx;
-                        int newY = y + dy;
-
-                        if (newX >= 0 && newX < currentImage.getWidth() && newY >= 0 && newY < currentImage.getHeight()) {
-                            var rgb = currentImage.getRGB(newX, newY);
-                            var weight = kernel[dy + 1][dx + 1];
-
-                            totalR += ((rgb >> 16) & 0xFF) * weight;
-                            totalG += ((rgb >> 8) & 0xFF) * weight;
-                            totalB += (rgb & 0xFF) * weight;
-                        }
+        pushOperation(new FilterOperation("锐化", scale -> List.of(FilterEngine.sharpen())));
+    }
+    
+    private void rotateImage(int degrees) {
+        pushOperation(new RotateOperation(degrees));
+    }
+    
+    private void flipImage(boolean horizontal) {
+        pushOperation(new FlipOperation(horizontal));
+    }
+    
+    private void pushOperation(Operation operation) {
+        if (originalImage == null || filterJob != null) return;
+        editStack.push(operation);
+        stackChanged();
+    }
+    
+    private void undo() {
+        if (filterJob == null && editStack.undo()) stackChanged();
+    }
+    
+    private void redo() {
+        if (filterJob == null && editStack.redo()) stackChanged();
+    }
+    
+    /**
+     * 带滑块的参数对话框：拖动滑块时替换栈顶操作，预览随之刷新；
+     * 因为前面的步骤都有缓存，每次只需要重算这一步
+     */
+    private void showSliderDialog(String title, int min, int max, int initial, IntFunction<Operation> factory) {
+        if (originalImage == null || filterJob != null) return;
+        
+        editStack.push(factory.apply(initial));
+        stackChanged();
+        
+        var slider = new JSlider(min, max, initial);
+        slider.setMajorTickSpacing(Math.max(1, (max - min) / 4));
+        slider.setPaintTicks(true);
+        slider.setPaintLabels(true);
+        var valueLabel = new JLabel(String.valueOf(initial));
+        slider.addChangeListener(e -> {
+            valueLabel.setText(String.valueOf(slider.getValue()));
+            editStack.replaceLast(factory.apply(slider.getValue()));
+            stackChanged();
+        });
+        
+        var panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(slider, BorderLayout.CENTER);
+        panel.add(valueLabel, BorderLayout.EAST);
+        
+        int result = JOptionPane.showConfirmDialog(this, panel, title, JOptionPane.OK_CANCEL_OPTION,
+            JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            editStack.removeLast();
+            stackChanged();
+        }
+    }
+    
+    // 操作栈变化后刷新历史列表、菜单状态和预览
+    private void stackChanged() {
+        historyModel.clear();
+        historyModel.addElement("原图");
+        var operations = editStack.allOperations();
+        for (int i = 0; i < operations.size(); i++) {
+            historyModel.addElement((i < editStack.activeCount() ? "" : "（已撤销）") + operations.get(i).name());
+        }
+        historyList.setSelectedIndex(editStack.activeCount());
+        undoItem.setEnabled(editStack.canUndo());
+        redoItem.setEnabled(editStack.canRedo());
+        refreshPreview();
+    }
+    
+    private Dimension resultSize() {
+        var size = new Dimension(originalImage.getWidth(), originalImage.getHeight());
+        for (var operation : editStack.activeOperations()) {
+            size = operation.resultSize(size);
+        }
+        return size;
+    }
+    
+    // 按视口重新计算代理图比例，比例变了（或 force）就丢掉旧缓存
+    private void rebuildPreview(boolean force) {
+        if (originalImage == null) return;
+        
+        int viewWidth = Math.max(1, imagePanel.getWidth() > 0 ? imagePanel.getWidth() : 700);
+        int viewHeight = Math.max(1, imagePanel.getHeight() > 0 ? imagePanel.getHeight() : 480);
+        double scale = Math.min(1.0, Math.min((double) viewWidth / originalImage.getWidth(),
+            (double) viewHeight / originalImage.getHeight()));
+        if (!force && previewCache != null && Math.abs(scale - previewScale) < 0.01) return;
+        
+        previewScale = scale;
+        previewCache = new StageCache(originalImage, scale);
+        if (previewJob != null) {
+            previewJob.cancel();
+        }
+        refreshPreview();
+    }
+    
+    /**
+     * 在代理图上渲染当前操作栈：从缓存里最长的相同前缀开始，只重算后面的步骤。
+     * 同一时间只有一个预览任务，正在渲染时的新请求会取消旧任务，结束后再按最新的栈渲染
+     */
+    private void refreshPreview() {
+        if (originalImage == null || previewCache == null) {
+            imagePanel.setImage(null);
+            return;
+        }
+        
+        var cache = previewCache;
+        var operations = editStack.activeOperations();
+        int prefix = cache.validPrefix(operations);
+        if (prefix == operations.size()) {
+            showPreview(cache.image(prefix));
+            return;
+        }
+        if (previewJob != null) {
+            previewJob.cancel();
+            return;
+        }
+        
+        var job = new FilterEngine.Job(percent -> {});
+        previewJob = job;
+        double scale = previewScale;
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                var image = prefix < 0 ? cache.storeBase() : cache.image(prefix);
+                for (int i = Math.max(0, prefix); i < operations.size(); i++) {
+                    if (job.isCancelled()) throw new CancellationException();
+                    image = operations.get(i).apply(image, scale, job);
+                    cache.store(i, operations.get(i), image);
+                }
+                return null;
+            }
+            
+            @Override
+            protected void done() {
+                previewJob = null;
+                try {
+                    get();
+                } catch (ExecutionException ex) {
+                    if (!(ex.getCause() instanceof CancellationException)) {
+                        updateStatus("预览失败: " + ex.getCause().getMessage());
+                        return;
                     }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
                 }
-
-                var newR = Math.max(0, Math.min(255, totalR));
-                var newG = Math.max(0, Math.min(255, totalG));
-                var newB = Math.max(0, Math.min(255, totalB));
-
-                var newRGB = (newR << 16) | (newG << 8) | newB;
-                sharpened.setRGB(x, y, newRGB);
+                // 栈没变时直接显示刚缓存的结果，变了（或任务被取消）则从缓存前缀继续渲染
+                refreshPreview();
             }
+        }.execute();
+    }
+    
+    private void showPreview(BufferedImage image) {
+        imagePanel.setImage(image);
+        if (filterJob == null) {
+            var size = resultSize();
+            updateStatus(String.format("%d x %d，%d 步操作，预览 %.0f%%",
+                size.width, size.height, editStack.activeCount(), previewScale * 100));
         }
-
-        currentImage = sharpened;
-        imagePanel.setImage(currentImage);
-        updateStatus("已应用锐化滤镜");
     }
     
-    private void rotateImage(int degrees) {
-        if (currentImage == null) return;
-        
+    private void cancelFilter() {
+        if (filterJob != null) {
+            filterJob.cancel();
+        }
+    }
+    
+    private void setBusy(boolean busy) {
+        var menuBar = getJMenuBar();
+        for (int i = 0; i < menuBar.getMenuCount(); i++) {
+            menuBar.getMenu(i).setEnabled(!busy);
+        }
+        for (var component : toolBar.getComponents()) {
+            component.setEnabled(!busy);
+        }
+        historyList.setEnabled(!busy);
+        progressBar.setValue(0);
+        progressPanel.setVisible(busy);
+    }
+    
+    // 统一转成 TYPE_INT_ARGB，滤镜引擎可以直接访问像素数组
+    private static BufferedImage copyImage(BufferedImage original) {
+        var copy = new BufferedImage(original.getWidth(), original.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        var g2d = copy.createGraphics();
+        g2d.drawImage(original, 0, 0, null);
+        g2d.dispose();
+        return copy;
+    }
+    
+    private static BufferedImage rotate(BufferedImage image, int degrees) {
         double radians = Math.toRadians(degrees);
         double sin = Math.abs(Math.sin(radians));
         double cos = Math.abs(Math.cos(radians));
         
-        int newWidth = (int) (currentImage.getWidth() * cos + currentImage.getHeight() * sin);
-        int newHeight = (int) (currentImage.getWidth() * sin + currentImage.getHeight() * cos);
+        int newWidth = (int) Math.round(image.getWidth() * cos + image.getHeight() * sin);
+        int newHeight = (int) Math.round(image.getWidth() * sin + image.getHeight() * cos);
         
-        var rotated = new BufferedImage(newWidth, newHeight, currentImage.getType());
+        var rotated = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
         var g2d = rotated.createGraphics();
         
         g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
@@ -395,57 +609,616 @@ static class SimpleImageEditor extends JFrame {
         var transform = new AffineTransform();
         transform.translate(newWidth / 2.0, newHeight / 2.0);
         transform.rotate(radians);
-        transform.translate(-currentImage.getWidth() / 2.0, -currentImage.getHeight() / 2.0);
+        transform.translate(-image.getWidth() / 2.0, -image.getHeight() / 2.0);
         
         g2d.setTransform(transform);
-        g2d.drawImage(currentImage, 0, 0, null);
+        g2d.drawImage(image, 0, 0, null);
         g2d.dispose();
-        
-        currentImage = rotated;
-        imagePanel.setImage(currentImage);
-        updateStatus("图片已旋转 " + degrees + "°");
+        return rotated;
     }
     
-    private void flipImage(boolean horizontal) {
-        if (currentImage == null) return;
-        
-        var flipped = new BufferedImage(currentImage.getWidth(), currentImage.getHeight(), currentImage.getType());
+    private static BufferedImage flip(BufferedImage image, boolean horizontal) {
+        var flipped = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
         var g2d = flipped.createGraphics();
         
         if (horizontal) {
-            g2d.drawImage(currentImage, currentImage.getWidth(), 0, -currentImage.getWidth(), currentImage.getHeight(), null);
+            g2d.drawImage(image, image.getWidth(), 0, -image.getWidth(), image.getHeight(), null);
         } else {
-            g2d.drawImage(currentImage, 0, currentImage.getHeight(), currentImage.getWidth(), -currentImage.getHeight(), null);
+            g2d.drawImage(image, 0, image.getHeight(), image.getWidth(), -image.getHeight(), null);
         }
         
         g2d.dispose();
-        
-        currentImage = flipped;
-        imagePanel.setImage(currentImage);
-        updateStatus("图片已" + (horizontal ? "水平" : "垂直") + "翻转");
+        return flipped;
     }
     
-    private BufferedImage copyImage(BufferedImage original) {
-        var copy = new BufferedImage(original.getWidth(), original.getHeight(), original.getType());
-        var g2d = copy.createGraphics();
-        g2d.drawImage(original, 0, 0, null);
+    // 大幅缩小时每次最多缩一半，避免双线性插值直接跳过大量像素产生锯齿
+    private static BufferedImage resize(BufferedImage image, int newWidth, int newHeight) {
+        var current = image;
+        while (current.getWidth() / 2 >= newWidth && current.getHeight() / 2 >= newHeight) {
+            current = drawScaled(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return current.getWidth() == newWidth && current.getHeight() == newHeight
+            ? current : drawScaled(current, newWidth, newHeight);
+    }
+    
+    private static BufferedImage drawScaled(BufferedImage image, int width, int height) {
+        var scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        var g2d = scaled.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.drawImage(image, 0, 0, width, height, null);
         g2d.dispose();
-        return copy;
+        return scaled;
     }
     
     private void updateStatus(String message) {
         statusLabel.setText(message);
     }
     
+    /**
+     * 编辑操作。不修改输入图像；scale 是当前图像相对原图的比例，
+     * 在代理图上预览时小于 1，与像素尺寸有关的参数要按它换算
+     */
+    interface Operation {
+        String name();
+        
+        BufferedImage apply(BufferedImage input, double scale, FilterEngine.Job job);
+        
+        default Dimension resultSize(Dimension size) {
+            return size;
+        }
+    }
+    
+    private record FilterOperation(String name, DoubleFunction<List<? extends FilterEngine.Pass>> passes)
+            implements Operation {
+        @Override
+        public BufferedImage apply(BufferedImage input, double scale, FilterEngine.Job job) {
+            return FilterEngine.apply(input, passes.apply(scale), job);
+        }
+    }
+    
+    private record RotateOperation(int degrees) implements Operation {
+        @Override
+        public String name() {
+            return (degrees < 0 ? "左转" : "右转") + Math.abs(degrees) + "°";
+        }
+        
+        @Override
+        public BufferedImage apply(BufferedImage input, double scale, FilterEngine.Job job) {
+            return rotate(input, degrees);
+        }
+        
+        @Override
+        public Dimension resultSize(Dimension size) {
+            return Math.abs(degrees) % 180 == 90 ? new Dimension(size.height, size.width) : size;
+        }
+    }
+    
+    private record FlipOperation(boolean horizontal) implements Operation {
+        @Override
+        public String name() {
+            return horizontal ? "水平翻转" : "垂直翻转";
+        }
+        
+        @Override
+        public BufferedImage apply(BufferedImage input, double scale, FilterEngine.Job job) {
+            return flip(input, horizontal);
+        }
+    }
+    
+    private record ResizeOperation(int width, int height) implements Operation {
+        @Override
+        public String name() {
+            return "调整大小 " + width + "x" + height;
+        }
+        
+        @Override
+        public BufferedImage apply(BufferedImage input, double scale, FilterEngine.Job job) {
+            return resize(input, Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale)));
+        }
+        
+        @Override
+        public Dimension resultSize(Dimension size) {
+            return new Dimension(width, height);
+        }
+    }
+    
+    /**
+     * 操作栈：[0, activeCount) 是生效的操作，后面是撤销掉、还可以重做的操作
+     */
+    static final class EditStack {
+        private final List<Operation> operations = new ArrayList<>();
+        private int activeCount;
+        
+        List<Operation> activeOperations() {
+            return List.copyOf(operations.subList(0, activeCount));
+        }
+        
+        List<Operation> allOperations() {
+            return List.copyOf(operations);
+        }
+        
+        int activeCount() {
+            return activeCount;
+        }
+        
+        // 新操作会丢掉可重做的部分
+        void push(Operation operation) {
+            operations.subList(activeCount, operations.size()).clear();
+            operations.add(operation);
+            activeCount++;
+        }
+        
+        void replaceLast(Operation operation) {
+            if (activeCount > 0) {
+                operations.subList(activeCount, operations.size()).clear();
+                operations.set(activeCount - 1, operation);
+            }
+        }
+        
+        void removeLast() {
+            if (activeCount > 0) {
+                operations.subList(activeCount - 1, operations.size()).clear();
+                activeCount--;
+            }
+        }
+        
+        boolean canUndo() {
+            return activeCount > 0;
+        }
+        
+        boolean canRedo() {
+            return activeCount < operations.size();
+        }
+        
+        boolean undo() {
+            if (!canUndo()) return false;
+            activeCount--;
+            return true;
+        }
+        
+        boolean redo() {
+            if (!canRedo()) return false;
+            activeCount++;
+            return true;
+        }
+        
+        void moveTo(int count) {
+            activeCount = Math.max(0, Math.min(operations.size(), count));
+        }
+        
+        void clear() {
+            operations.clear();
+            activeCount = 0;
+        }
+    }
+    
+    /**
+     * 代理图上各步骤的结果缓存。images[0] 是缩小后的原图，images[i + 1] 是执行完
+     * operations[i] 的结果；操作按引用比较，所以撤销、重做、只改最后一步时前面的结果都能直接复用。
+     * 预览线程写入，事件线程读取，方法都加锁
+     */
+    static final class StageCache {
+        private final BufferedImage source;
+        private final double scale;
+        private final List<Operation> operations = new ArrayList<>();
+        private final List<BufferedImage> images = new ArrayList<>();
+        
+        StageCache(BufferedImage source, double scale) {
+            this.source = source;
+            this.scale = scale;
+        }
+        
+        // 可以直接复用的步骤数；-1 表示代理图还没生成
+        synchronized int validPrefix(List<Operation> target) {
+            if (images.isEmpty()) return -1;
+            int count = 0;
+            while (count < target.size() && count < operations.size() && operations.get(count) == target.get(count)) {
+                count++;
+            }
+            return count;
+        }
+        
+        synchronized BufferedImage image(int stage) {
+            return images.get(stage);
+        }
+        
+        // 在调用线程上生成代理图
+        BufferedImage storeBase() {
+            var base = scale >= 1.0 ? source : resize(source,
+                Math.max(1, (int) Math.round(source.getWidth() * scale)),
+                Math.max(1, (int) Math.round(source.getHeight() * scale)));
+            synchronized (this) {
+                operations.clear();
+                images.clear();
+                images.add(base);
+            }
+            return base;
+        }
+        
+        // 记录第 index 步的结果，丢掉它之后的旧结果
+        synchronized void store(int index, Operation operation, BufferedImage image) {
+            operations.subList(index, operations.size()).clear();
+            images.subList(index + 1, images.size()).clear();
+            operations.add(operation);
+            images.add(image);
+        }
+    }
+
+    /**
+     * 滤镜引擎：直接读写 TYPE_INT_ARGB 图像背后的 DataBufferInt 数组，
+     * 把图像按行切成条带交给 fork-join 线程池并行处理。
+     * 一个滤镜由若干趟（Pass）组成：逐像素的点运算、3x3 卷积、可分离卷积的水平/垂直两趟；
+     * 相邻的点运算合并成一趟，多趟之间在两块缓冲区之间来回交换
+     */
+    static final class FilterEngine {
+        private static final int STRIP_ROWS = 32; // 每个任务处理的行数
+
+        /**
+         * 一趟处理：从 src 读取，把 [rowStart, rowEnd) 行的结果写入 dst
+         */
+        interface Pass {
+            void process(int[] src, int[] dst, int width, int height, int rowStart, int rowEnd);
+        }
+
+        /**
+         * 逐像素运算，相邻的点运算在执行前合并
+         */
+        @FunctionalInterface
+        interface PointOp extends Pass {
+            int apply(int argb);
+
+            @Override
+            default void process(int[] src, int[] dst, int width, int height, int rowStart, int rowEnd) {
+                for (int i = rowStart * width, end = rowEnd * width; i < end; i++) {
+                    dst[i] = apply(src[i]);
+                }
+            }
+
+            default PointOp andThen(PointOp next) {
+                return argb -> next.apply(apply(argb));
+            }
+        }
+
+        /**
+         * 进度和取消，多个线程共享
+         */
+        static final class Job {
+            private final AtomicLong rowsDone = new AtomicLong();
+            private final IntConsumer progressListener;
+            private volatile boolean cancelled;
+            private long totalRows = 1;
+            private volatile int lastPercent = -1;
+
+            Job(IntConsumer progressListener) {
+                this.progressListener = progressListener;
+            }
+
+            void cancel() {
+                cancelled = true;
+            }
+
+            boolean isCancelled() {
+                return cancelled;
+            }
+
+            private void start(long totalRows) {
+                this.totalRows = Math.max(1, totalRows);
+                rowsDone.set(0);
+            }
+
+            private void advance(int rows) {
+                int percent = (int) (rowsDone.addAndGet(rows) * 100 / totalRows);
+                if (percent != lastPercent) {
+                    lastPercent = percent;
+                    progressListener.accept(Math.min(100, percent));
+                }
+            }
+        }
+
+        // ---- 常用滤镜 ----
+
+        static PointOp grayscale() {
+            return argb -> {
+                int r = (argb >> 16) & 0xFF;
+                int g = (argb >> 8) & 0xFF;
+                int b = argb & 0xFF;
+                int gray = (r * 77 + g * 150 + b * 29) >> 8; // 0.299/0.587/0.114 的定点近似
+                return (argb & 0xFF000000) | (gray << 16) | (gray << 8) | gray;
+            };
+        }
+
+        static PointOp brightness(int adjustment) {
+            int[] table = new int[256];
+            for (int i = 0; i < 256; i++) {
+                table[i] = Math.max(0, Math.min(255, i + adjustment));
+            }
+            return argb -> (argb & 0xFF000000)
+                | (table[(argb >> 16) & 0xFF] << 16)
+                | (table[(argb >> 8) & 0xFF] << 8)
+                | table[argb & 0xFF];
+        }
+
+        static List<Pass> boxBlur(int radius) {
+            int[] weights = new int[radius * 2 + 1];
+            Arrays.fill(weights, 1);
+            return separable(weights);
+        }
+
+        static List<Pass> gaussianBlur(int radius) {
+            double sigma = Math.max(0.5, radius / 2.0);
+            int[] weights = new int[radius * 2 + 1];
+            for (int i = -radius; i <= radius; i++) {
+                weights[i + radius] = (int) Math.round(Math.exp(-(i * i) / (2 * sigma * sigma)) * 1000);
+            }
+            return separable(weights);
+        }
+
+        static Pass sharpen() {
+            return new Convolution3x3(new int[] {0, -1, 0, -1, 5, -1, 0, -1, 0}, 1);
+        }
+
+        // 可分离卷积：先水平后垂直，每像素 2(2r+1) 次乘加，而不是 (2r+1)^2 次
+        static List<Pass> separable(int[] weights) {
+            int[] normalized = normalize(weights);
+            return List.of(new HorizontalPass(normalized), new VerticalPass(normalized));
+        }
+
+        // 权重换算成和为 1<<16 的定点数，误差补到中心
+        private static int[] normalize(int[] weights) {
+            long sum = 0;
+            for (int weight : weights) sum += weight;
+            int[] result = new int[weights.length];
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                result[i] = (int) (weights[i] * 65536L / sum);
+                total += result[i];
+            }
+            result[weights.length / 2] += 65536 - total;
+            return result;
+        }
+
+        // ---- 执行 ----
+
+        /**
+         * 把所有趟依次作用在 source 上，返回新的 TYPE_INT_ARGB 图像，source 不变。
+         * 取消时抛出 CancellationException
+         */
+        static BufferedImage apply(BufferedImage source, List<? extends Pass> passes, Job job) {
+            BufferedImage input = toArgb(source);
+            int width = input.getWidth();
+            int height = input.getHeight();
+            List<Pass> fused = fuse(passes);
+
+            var output = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            int[] outputPixels = pixels(output);
+            if (fused.isEmpty()) {
+                System.arraycopy(pixels(input), 0, outputPixels, 0, outputPixels.length);
+                return output;
+            }
+
+            // 安排交换顺序，让最后一趟正好写进输出图像
+            int[] scratch = fused.size() > 1 ? new int[width * height] : null;
+            int[] src = pixels(input);
+            int[] dst = fused.size() % 2 == 1 ? outputPixels : scratch;
+            job.start((long) height * fused.size());
+            for (Pass pass : fused) {
+                ForkJoinPool.commonPool().invoke(new StripTask(pass, src, dst, width, height, 0, height, job));
+                if (job.isCancelled()) throw new CancellationException();
+                src = dst;
+                dst = dst == outputPixels ? scratch : outputPixels;
+            }
+            return output;
+        }
+
+        // 合并相邻的点运算
+        private static List<Pass> fuse(List<? extends Pass> passes) {
+            List<Pass> fused = new ArrayList<>();
+            for (Pass pass : passes) {
+                int last = fused.size() - 1;
+                if (pass instanceof PointOp op && last >= 0 && fused.get(last) instanceof PointOp previous) {
+                    fused.set(last, previous.andThen(op));
+                } else {
+                    fused.add(pass);
+                }
+            }
+            return fused;
+        }
+
+        /**
+         * 转成 TYPE_INT_ARGB，已经是的直接返回
+         */
+        static BufferedImage toArgb(BufferedImage image) {
+            if (image.getType() == BufferedImage.TYPE_INT_ARGB) return image;
+            var converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            var g2d = converted.createGraphics();
+            g2d.drawImage(image, 0, 0, null);
+            g2d.dispose();
+            return converted;
+        }
+
+        static int[] pixels(BufferedImage image) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+
+        // 按行二分直到不超过 STRIP_ROWS 行
+        private static final class StripTask extends RecursiveAction {
+            private final Pass pass;
+            private final int[] src, dst;
+            private final int width, height, rowStart, rowEnd;
+            private final Job job;
+
+            StripTask(Pass pass, int[] src, int[] dst, int width, int height, int rowStart, int rowEnd, Job job) {
+                this.pass = pass;
+                this.src = src;
+                this.dst = dst;
+                this.width = width;
+                this.height = height;
+                this.rowStart = rowStart;
+                this.rowEnd = rowEnd;
+                this.job = job;
+            }
+
+            @Override
+            protected void compute() {
+                if (job.isCancelled()) return;
+                if (rowEnd - rowStart <= STRIP_ROWS) {
+                    pass.process(src, dst, width, height, rowStart, rowEnd);
+                    job.advance(rowEnd - rowStart);
+                    return;
+                }
+                int middle = (rowStart + rowEnd) >>> 1;
+                invokeAll(new StripTask(pass, src, dst, width, height, rowStart, middle, job),
+                    new StripTask(pass, src, dst, width, height, middle, rowEnd, job));
+            }
+        }
+
+        // 水平一维卷积，边缘像素取最近的有效像素；中间部分单独循环，不做边界判断
+        private static final class HorizontalPass implements Pass {
+            private final int[] weights;
+
+            HorizontalPass(int[] weights) {
+                this.weights = weights;
+            }
+
+            @Override
+            public void process(int[] src, int[] dst, int width, int height, int rowStart, int rowEnd) {
+                int radius = weights.length / 2;
+                int interiorEnd = Math.max(radius, width - radius);
+                for (int y = rowStart; y < rowEnd; y++) {
+                    int row = y * width;
+                    for (int x = 0; x < Math.min(radius, width); x++) {
+                        dst[row + x] = clampedSample(src, row, width, x);
+                    }
+                    for (int x = radius; x < interiorEnd; x++) {
+                        int a = 0, r = 0, g = 0, b = 0;
+                        int i = row + x - radius;
+                        for (int w : weights) {
+                            int p = src[i++];
+                            a += (p >>> 24) * w;
+                            r += ((p >> 16) & 0xFF) * w;
+                            g += ((p >> 8) & 0xFF) * w;
+                            b += (p & 0xFF) * w;
+                        }
+                        dst[row + x] = pack(a, r, g, b);
+                    }
+                    for (int x = Math.max(radius, interiorEnd); x < width; x++) {
+                        dst[row + x] = clampedSample(src, row, width, x);
+                    }
+                }
+            }
+
+            private int clampedSample(int[] src, int row, int width, int x) {
+                int radius = weights.length / 2;
+                int a = 0, r = 0, g = 0, b = 0;
+                for (int k = 0; k < weights.length; k++) {
+                    int w = weights[k];
+                    int p = src[row + Math.min(width - 1, Math.max(0, x + k - radius))];
+                    a += (p >>> 24) * w;
+                    r += ((p >> 16) & 0xFF) * w;
+                    g += ((p >> 8) & 0xFF) * w;
+                    b += (p & 0xFF) * w;
+                }
+                return pack(a, r, g, b);
+            }
+        }
+
+        // 垂直一维卷积，按行累加到交错的累加数组里，内层循环连续访问内存
+        private static final class VerticalPass implements Pass {
+            private final int[] weights;
+
+            VerticalPass(int[] weights) {
+                this.weights = weights;
+            }
+
+            @Override
+            public void process(int[] src, int[] dst, int width, int height, int rowStart, int rowEnd) {
+                int radius = weights.length / 2;
+                int[] sums = new int[width * 4];
+                for (int y = rowStart; y < rowEnd; y++) {
+                    Arrays.fill(sums, 0);
+                    for (int k = 0; k < weights.length; k++) {
+                        int w = weights[k];
+                        int row = Math.min(height - 1, Math.max(0, y + k - radius)) * width;
+                        for (int x = 0, s = 0; x < width; x++, s += 4) {
+                            int p = src[row + x];
+                            sums[s] += (p >>> 24) * w;
+                            sums[s + 1] += ((p >> 16) & 0xFF) * w;
+                            sums[s + 2] += ((p >> 8) & 0xFF) * w;
+                            sums[s + 3] += (p & 0xFF) * w;
+                        }
+                    }
+                    int row = y * width;
+                    for (int x = 0, s = 0; x < width; x++, s += 4) {
+                        dst[row + x] = pack(sums[s], sums[s + 1], sums[s + 2], sums[s + 3]);
+                    }
+                }
+            }
+        }
+
+        // 定点累加结果（权重和为 1<<16）取整并打包
+        private static int pack(int a, int r, int g, int b) {
+            return (clamp((a + 32768) >> 16) << 24) | (clamp((r + 32768) >> 16) << 16)
+                | (clamp((g + 32768) >> 16) << 8) | clamp((b + 32768) >> 16);
+        }
+
+        private static int clamp(int value) {
+            return value < 0 ? 0 : Math.min(255, value);
+        }
+
+        // 通用 3x3 卷积，alpha 不变；边框一圈单独按夹取处理
+        private static final class Convolution3x3 implements Pass {
+            private final int[] kernel;
+            private final int divisor;
+
+            Convolution3x3(int[] kernel, int divisor) {
+                this.kernel = kernel;
+                this.divisor = divisor;
+            }
+
+            @Override
+            public void process(int[] src, int[] dst, int width, int height, int rowStart, int rowEnd) {
+                for (int y = rowStart; y < rowEnd; y++) {
+                    boolean borderRow = y == 0 || y == height - 1;
+                    for (int x = 0; x < width; x++) {
+                        int r = 0, g = 0, b = 0;
+                        if (!borderRow && x > 0 && x < width - 1) {
+                            int k = 0;
+                            for (int i = (y - 1) * width + x - 1; k < 9; i += width - 3) {
+                                for (int dx = 0; dx < 3; dx++, k++, i++) {
+                                    int p = src[i];
+                                    int w = kernel[k];
+                                    r += ((p >> 16) & 0xFF) * w;
+                                    g += ((p >> 8) & 0xFF) * w;
+                                    b += (p & 0xFF) * w;
+                                }
+                            }
+                        } else {
+                            for (int k = 0; k < 9; k++) {
+                                int sy = Math.min(height - 1, Math.max(0, y + k / 3 - 1));
+                                int sx = Math.min(width - 1, Math.max(0, x + k % 3 - 1));
+                                int p = src[sy * width + sx];
+                                int w = kernel[k];
+                                r += ((p >> 16) & 0xFF) * w;
+                                g += ((p >> 8) & 0xFF) * w;
+                                b += (p & 0xFF) * w;
+                            }
+                        }
+                        int index = y * width + x;
+                        dst[index] = (src[index] & 0xFF000000)
+                            | (clamp(r / divisor) << 16) | (clamp(g / divisor) << 8) | clamp(b / divisor);
+                    }
+                }
+            }
+        }
+    }
+    
+    // 按比例缩放到面板内居中显示，不放大小图
     private static class ImagePanel extends JPanel {
         private BufferedImage image;
         
         public void setImage(BufferedImage image) {
             this.image = image;
-            if (image != null) {
-                setPreferredSize(new Dimension(image.getWidth(), image.getHeight()));
-            }
-            revalidate();
             repaint();
         }
         
@@ -453,7 +1226,13 @@ static class SimpleImageEditor extends JFrame {
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
             if (image != null) {
-                g.drawImage(image, 0, 0, null);
+                double fit = Math.min(1.0, Math.min((double) getWidth() / image.getWidth(),
+                    (double) getHeight() / image.getHeight()));
+                int width = (int) Math.round(image.getWidth() * fit);
+                int height = (int) Math.round(image.getHeight() * fit);
+                var g2d = (Graphics2D) g;
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2d.drawImage(image, (getWidth() - width) / 2, (getHeight() - height) / 2, width, height, null);
             } else {
                 g.setColor(Color.LIGHT_GRAY);
                 g.fillRect(0, 0, getWidth(), getHeight());
@@ -1,9 +1,15 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 void main(String[] args) {
     SwingUtilities.invokeLater(() -> {
@@ -12,15 +18,43 @@ void main(String[] args) {
 }
 
 static class SpaceShooter extends JFrame {
-    private static final int WIDTH = 800;
-    private static final int HEIGHT = 600;
+    private static final int GAME_WIDTH = 800;
+    private static final int GAME_HEIGHT = 600;
     private static final int PLAYER_SIZE = 40;
     private static final int BULLET_SIZE = 5;
     private static final int ENEMY_SIZE = 30;
+    private static final int GRID_CELL_SIZE = 64; // 空间哈希格子边长，大于所有实体
+    private static final int STRESS_ENEMIES = 2000;
+    private static final int STRESS_BULLETS_PER_TICK = 40;
+    private static final int UPDATES_PER_SECOND = 60; // 固定更新步长，原先的 16ms 计时器约合 60 次/秒
+    private static final Font UI_FONT = new Font("Microsoft YaHei", Font.BOLD, 16);
+    private static final Font MESSAGE_FONT = new Font("Microsoft YaHei", Font.BOLD, 24);
+    private static final Font STATS_FONT = new Font("Monospaced", Font.PLAIN, 13);
+
+    // 子弹和敌机预先画成小图，每帧只做 drawImage
+    private static final BufferedImage BULLET_SPRITE = createSprite(BULLET_SIZE, BULLET_SIZE + 2, g2d -> Bullet.paint(g2d, 0, 0));
+    private static final BufferedImage[] ENEMY_SPRITES = {
+        createSprite(ENEMY_SIZE, ENEMY_SIZE, g2d -> Enemy.paint(g2d, 0, 0, 0)),
+        createSprite(ENEMY_SIZE, ENEMY_SIZE, g2d -> Enemy.paint(g2d, 1, 0, 0)),
+        createSprite(ENEMY_SIZE, ENEMY_SIZE, g2d -> Enemy.paint(g2d, 2, 0, 0))
+    };
+
+    private static int interpolate(int previous, int current, double alpha) {
+        return (int) Math.round(previous + (current - previous) * alpha);
+    }
+
+    private static BufferedImage createSprite(int width, int height, Consumer<Graphics2D> painter) {
+        var sprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = sprite.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        painter.accept(g2d);
+        g2d.dispose();
+        return sprite;
+    }
 
     private GamePanel gamePanel;
-    private Timer gameTimer;
-    private boolean gameRunning;
+    private GameLoop gameLoop;
+    private volatile boolean gameRunning;
     private int score;
     private int lives;
     private int level;
@@ -31,8 +65,21 @@ static class SpaceShooter extends JFrame {
         setResizable(false);
 
         initializeGame();
-        setSize(WIDTH, HEIGHT);
+        setSize(GAME_WIDTH, GAME_HEIGHT);
         setLocationRelativeTo(null);
+
+        // 窗口显示后画布才能创建 BufferStrategy
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                gameLoop.start();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                gameLoop.stop();
+            }
+        });
     }
 
     private void initializeGame() {
@@ -44,8 +91,8 @@ static class SpaceShooter extends JFrame {
         level = 1;
         gameRunning = false;
 
-        // 创建游戏计时器
-        gameTimer = new Timer(16, e -> gameUpdate()); // ~60 FPS
+        // 游戏循环在独立线程上运行，更新和渲染都不占用 EDT
+        gameLoop = new GameLoop(gamePanel, UPDATES_PER_SECOND, gamePanel);
 
         // 添加键盘监听器
         addKeyListener(new GameKeyListener());
@@ -65,6 +112,8 @@ static class SpaceShooter extends JFrame {
             • 消灭敌机获得分数
             • 避免与敌机碰撞
             • 你有 3 条生命
+            • 按 T 键切换压力测试（大量敌机和子弹）
+            • 按 F3 键显示/隐藏帧率
 
             按空格键开始游戏！
             """;
@@ -73,66 +122,69 @@ static class SpaceShooter extends JFrame {
             JOptionPane.INFORMATION_MESSAGE);
     }
 
-    private void gameUpdate() {
-        if (gameRunning) {
-            gamePanel.updateGame();
-        }
-    }
-
+    // 以下方法都在游戏循环线程上执行，界面线程通过 gameLoop.post 调用
     private void startGame() {
         if (!gameRunning) {
             gameRunning = true;
-            gameTimer.start();
+            gameLoop.setUpdating(true);
             gamePanel.resetGame();
         }
     }
 
+    // 暂停只停止更新，画面继续渲染
     private void pauseGame() {
-        gameRunning = !gameRunning;
-        if (gameRunning) {
-            gameTimer.start();
-        } else {
-            gameTimer.stop();
-        }
+        gameLoop.setUpdating(!gameLoop.isUpdating());
+    }
+
+    private void restartGame() {
+        score = 0;
+        lives = 3;
+        level = 1;
+        gamePanel.resetGame();
     }
 
     private void gameOver(boolean win) {
+        if (!gameRunning) return;
         gameRunning = false;
-        gameTimer.stop();
 
         String message = win ?
             "恭喜通关！\n最终得分: " + score + "\n当前关卡: " + level :
             "游戏结束！\n最终得分: " + score;
 
-        int option = JOptionPane.showConfirmDialog(this, message + "\n\n是否重新开始？",
-            win ? "胜利！" : "游戏结束", JOptionPane.YES_NO_OPTION);
+        // 对话框必须在 EDT 上显示，游戏循环继续渲染
+        SwingUtilities.invokeLater(() -> {
+            int option = JOptionPane.showConfirmDialog(this, message + "\n\n是否重新开始？",
+                win ? "胜利！" : "游戏结束", JOptionPane.YES_NO_OPTION);
 
-        if (option == JOptionPane.YES_OPTION) {
-            score = 0;
-            lives = 3;
-            level = 1;
-            gamePanel.resetGame();
-            startGame();
-        }
+            if (option == JOptionPane.YES_OPTION) {
+                gameLoop.post(() -> {
+                    restartGame();
+                    startGame();
+                });
+            }
+        });
     }
 
-    class GamePanel extends JPanel {
+    class GamePanel extends Canvas implements GameLoop.Game {
         public Player player;
-        private List<Bullet> bullets;
-        private List<Enemy> enemies;
-        private List<Explosion> explosions;
+        private final Pool<Bullet> bullets = new Pool<>(Bullet::new);
+        private final Pool<Enemy> enemies = new Pool<>(Enemy::new);
+        private final Pool<Explosion> explosions = new Pool<>(Explosion::new);
+        private final SpatialHash grid = new SpatialHash(-ENEMY_SIZE, -GAME_HEIGHT - ENEMY_SIZE,
+            GAME_WIDTH + ENEMY_SIZE * 2, GAME_HEIGHT * 2 + ENEMY_SIZE * 2, GRID_CELL_SIZE); // 压力测试的敌机在屏幕上方生成
         private Random random;
         private int enemySpawnTimer;
         private int enemySpawnDelay;
 
+        private boolean stressMode;
+
         public GamePanel() {
             setBackground(Color.BLACK);
-            setPreferredSize(new Dimension(WIDTH, HEIGHT));
+            setPreferredSize(new Dimension(GAME_WIDTH, GAME_HEIGHT));
+            setIgnoreRepaint(true); // 由游戏循环主动绘制
+            setFocusable(false); // 键盘事件留给窗口
 
             player = new Player();
-            bullets = new ArrayList<>();
-            enemies = new ArrayList<>();
-            explosions = new ArrayList<>();
             random = new Random();
 
             enemySpawnTimer = 0;
@@ -149,15 +201,32 @@ static class SpaceShooter extends JFrame {
         }
 
         private void spawnEnemy() {
+            spawnEnemy(-ENEMY_SIZE);
+        }
+
+        private void spawnEnemy(int y) {
             // 添加边界检查，确保参数为正数
-            int availableWidth = WIDTH - ENEMY_SIZE;
+            int availableWidth = GAME_WIDTH - ENEMY_SIZE;
             if (availableWidth <= 0) {
                 availableWidth = 1; // 最小值为1
             }
             int x = random.nextInt(availableWidth);
-            int y = -ENEMY_SIZE;
             int type = random.nextInt(3); // 3种不同类型的敌机
-            enemies.add(new Enemy(x, y, type));
+            enemies.obtain().init(x, y, type);
+        }
+
+        public void fireBullet(int x, int y) {
+            bullets.obtain().init(x, y);
+        }
+
+        public void toggleStressMode() {
+            stressMode = !stressMode;
+            if (!stressMode) {
+                // 退出时清掉多余的实体
+                bullets.clear();
+                enemies.clear();
+                spawnInitialEnemies();
+            }
         }
 
         public void resetGame() {
@@ -167,7 +236,13 @@ static class SpaceShooter extends JFrame {
             explosions.clear();
             spawnInitialEnemies();
             enemySpawnTimer = 0;
-            repaint();
+        }
+
+        @Override
+        public void update() {
+            if (gameRunning) {
+                updateGame();
+            }
         }
 
         public void updateGame() {
@@ -191,16 +266,15 @@ static class SpaceShooter extends JFrame {
 
             // 检查游戏状态
             checkGameStatus();
-
-            repaint();
         }
 
+        // 倒序遍历，free 把末尾的对象换到当前位置，末尾的对象已经更新过
         private void updateBullets() {
             for (int i = bullets.size() - 1; i >= 0; i--) {
                 Bullet bullet = bullets.get(i);
                 bullet.move();
-                if (bullet.y < 0) {
-                    bullets.remove(i);
+                if (bullet.y < -BULLET_SIZE) {
+                    bullets.free(i);
                 }
             }
         }
@@ -209,8 +283,8 @@ static class SpaceShooter extends JFrame {
             for (int i = enemies.size() - 1; i >= 0; i--) {
                 Enemy enemy = enemies.get(i);
                 enemy.move();
-                if (enemy.y > HEIGHT) {
-                    enemies.remove(i);
+                if (enemy.y > GAME_HEIGHT) {
+                    enemies.free(i);
                 }
             }
         }
@@ -220,12 +294,23 @@ static class SpaceShooter extends JFrame {
                 Explosion explosion = explosions.get(i);
                 explosion.update();
                 if (explosion.isFinished()) {
-                    explosions.remove(i);
+                    explosions.free(i);
                 }
             }
         }
 
         private void spawnNewEnemies() {
+            if (stressMode) {
+                // 敌机补足到固定数量，子弹从底部随机位置持续发射
+                while (enemies.size() < STRESS_ENEMIES) {
+                    spawnEnemy(-random.nextInt(GAME_HEIGHT) - ENEMY_SIZE);
+                }
+                for (int i = 0; i < STRESS_BULLETS_PER_TICK; i++) {
+                    fireBullet(random.nextInt(GAME_WIDTH - BULLET_SIZE), GAME_HEIGHT);
+                }
+                return;
+            }
+
             enemySpawnTimer++;
             if (enemySpawnTimer >= enemySpawnDelay) {
                 spawnEnemy();
@@ -238,43 +323,65 @@ static class SpaceShooter extends JFrame {
         }
 
         private void checkCollisions() {
-            Rectangle playerBounds = player.getBounds();
+            // 宽相：敌机按位置放进网格，子弹和玩家只检查覆盖到的格子
+            grid.clear();
+            for (int i = 0; i < enemies.size(); i++) {
+                Enemy enemy = enemies.get(i);
+                enemy.hit = false;
+                grid.insert(i, enemy.x, enemy.y, ENEMY_SIZE, ENEMY_SIZE);
+            }
+            grid.build();
 
             // 检查子弹与敌机的碰撞
             for (int i = bullets.size() - 1; i >= 0; i--) {
                 Bullet bullet = bullets.get(i);
-                Rectangle bulletBounds = bullet.getBounds();
-
-                for (int j = enemies.size() - 1; j >= 0; j--) {
-                    Enemy enemy = enemies.get(j);
-                    if (bulletBounds.intersects(enemy.getBounds())) {
+                int count = grid.query(bullet.x, bullet.y, BULLET_SIZE, BULLET_SIZE);
+                for (int k = 0; k < count; k++) {
+                    Enemy enemy = enemies.get(grid.result(k));
+                    if (!enemy.hit && overlaps(bullet.x, bullet.y, BULLET_SIZE, enemy.x, enemy.y, ENEMY_SIZE)) {
                         // 击中敌机
-                        bullets.remove(i);
-                        enemies.remove(j);
-                        score += enemy.getPoints();
+                        enemy.hit = true;
+                        bullets.free(i);
+                        if (!stressMode) {
+                            score += enemy.getPoints();
+                        }
 
                         // 创建爆炸效果
-                        explosions.add(new Explosion(enemy.x + ENEMY_SIZE / 2, enemy.y + ENEMY_SIZE / 2));
+                        explosions.obtain().init(enemy.x + ENEMY_SIZE / 2, enemy.y + ENEMY_SIZE / 2);
                         break;
                     }
                 }
             }
 
-            // 检查玩家与敌机的碰撞
+            // 检查玩家与敌机的碰撞，压力测试时玩家不受伤
+            if (!stressMode) {
+                int count = grid.query(player.x, player.y, PLAYER_SIZE, PLAYER_SIZE);
+                for (int k = 0; k < count; k++) {
+                    Enemy enemy = enemies.get(grid.result(k));
+                    if (!enemy.hit && overlaps(player.x, player.y, PLAYER_SIZE, enemy.x, enemy.y, ENEMY_SIZE)) {
+                        // 玩家被击中
+                        enemy.hit = true;
+                        lives--;
+                        explosions.obtain().init(player.x + PLAYER_SIZE / 2, player.y + PLAYER_SIZE / 2);
+
+                        // 玩家短暂无敌
+                        player.setInvulnerable(60); // 1秒无敌时间
+                    }
+                }
+            }
+
+            // 最后统一回收被击中的敌机，网格里的下标在此之前保持有效
             for (int i = enemies.size() - 1; i >= 0; i--) {
-                Enemy enemy = enemies.get(i);
-                if (playerBounds.intersects(enemy.getBounds())) {
-                    // 玩家被击中
-                    enemies.remove(i);
-                    lives--;
-                    explosions.add(new Explosion(player.x + PLAYER_SIZE / 2, player.y + PLAYER_SIZE / 2));
-
-                    // 玩家短暂无敌
-                    player.setInvulnerable(60); // 1秒无敌时间
+                if (enemies.get(i).hit) {
+                    enemies.free(i);
                 }
             }
         }
 
+        private boolean overlaps(int x1, int y1, int size1, int x2, int y2, int size2) {
+            return x1 < x2 + size2 && x2 < x1 + size1 && y1 < y2 + size2 && y2 < y1 + size1;
+        }
+
         private void checkGameStatus() {
             if (lives <= 0) {
                 gameOver(false);
@@ -286,18 +393,21 @@ static class SpaceShooter extends JFrame {
             }
         }
 
+        // alpha 为上一次更新之后经过的时间占一个步长的比例，用来在两次更新的位置之间插值
         @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
+        public void render(Graphics2D g2d, double alpha) {
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, getWidth(), getHeight());
 
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            // 压力测试时关闭抗锯齿，几千个多边形的填充开销差别很大
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                stressMode ? RenderingHints.VALUE_ANTIALIAS_OFF : RenderingHints.VALUE_ANTIALIAS_ON);
 
             // 绘制星空背景
             drawStarfield(g2d);
 
             // 绘制游戏元素
-            drawGame(g2d);
+            drawGame(g2d, alpha);
 
             // 绘制UI
             drawUI(g2d);
@@ -307,58 +417,72 @@ static class SpaceShooter extends JFrame {
             // 简单的星空效果
             g2d.setColor(Color.WHITE);
             for (int i = 0; i < 50; i++) {
-                int x = (i * 37) % WIDTH;
-                int y = (i * 23 + (int) (System.currentTimeMillis() / 100) % HEIGHT) % HEIGHT;
+                int x = (i * 37) % GAME_WIDTH;
+                int y = (i * 23 + (int) (System.currentTimeMillis() / 100) % GAME_HEIGHT) % GAME_HEIGHT;
                 g2d.fillOval(x, y, 2, 2);
             }
         }
 
-        private void drawGame(Graphics2D g2d) {
+        private void drawGame(Graphics2D g2d, double alpha) {
             // 绘制玩家
-            player.draw(g2d);
+            player.draw(g2d, alpha);
 
-            // 绘制子弹
-            for (Bullet bullet : bullets) {
-                bullet.draw(g2d);
+            // 绘制子弹，屏幕外的跳过
+            for (int i = 0; i < bullets.size(); i++) {
+                Bullet bullet = bullets.get(i);
+                if (bullet.y < GAME_HEIGHT) {
+                    bullet.draw(g2d, alpha);
+                }
             }
 
             // 绘制敌机
-            for (Enemy enemy : enemies) {
-                enemy.draw(g2d);
+            for (int i = 0; i < enemies.size(); i++) {
+                Enemy enemy = enemies.get(i);
+                if (enemy.y > -ENEMY_SIZE) {
+                    enemy.draw(g2d, alpha);
+                }
             }
 
             // 绘制爆炸效果
-            for (Explosion explosion : explosions) {
-                explosion.draw(g2d);
+            for (int i = 0; i < explosions.size(); i++) {
+                explosions.get(i).draw(g2d);
             }
         }
 
         private void drawUI(Graphics2D g2d) {
             g2d.setColor(Color.GREEN);
-            g2d.setFont(new Font("Microsoft YaHei", Font.BOLD, 16));
+            g2d.setFont(UI_FONT);
 
             // 绘制分数
             g2d.drawString("得分: " + score, 20, 30);
 
             // 绘制生命
-            g2d.drawString("生命: " + lives, WIDTH - 100, 30);
+            g2d.drawString("生命: " + lives, GAME_WIDTH - 100, 30);
 
             // 绘制关卡
-            g2d.drawString("关卡: " + level, WIDTH / 2 - 30, 30);
+            g2d.drawString("关卡: " + level, GAME_WIDTH / 2 - 30, 30);
+
+            // 压力测试时显示实体数，帧率由游戏循环的叠加层显示
+            if (stressMode) {
+                int entities = bullets.size() + enemies.size() + explosions.size();
+                g2d.setFont(STATS_FONT);
+                g2d.drawString(String.format("压力测试  实体 %d", entities), 20, 55);
+            }
 
             // 绘制游戏状态
             if (!gameRunning && lives > 0) {
-                g2d.setFont(new Font("Microsoft YaHei", Font.BOLD, 24));
+                g2d.setFont(MESSAGE_FONT);
                 String message = "按空格键开始游戏";
                 FontMetrics fm = g2d.getFontMetrics();
                 int messageWidth = fm.stringWidth(message);
-                g2d.drawString(message, (WIDTH - messageWidth) / 2, HEIGHT / 2);
+                g2d.drawString(message, (GAME_WIDTH - messageWidth) / 2, GAME_HEIGHT / 2);
             }
         }
     }
 
     class Player {
         int x, y;
+        private int previousX; // 上一次更新前的位置，渲染时插值
         private int dx;
         private int invulnerableTimer;
 
@@ -367,18 +491,20 @@ static class SpaceShooter extends JFrame {
         }
 
         public void reset() {
-            x = WIDTH / 2 - PLAYER_SIZE / 2;
-            y = HEIGHT - 80;
+            x = GAME_WIDTH / 2 - PLAYER_SIZE / 2;
+            y = GAME_HEIGHT - 80;
+            previousX = x;
             dx = 0;
             invulnerableTimer = 0;
         }
 
         public void move() {
+            previousX = x;
             x += dx;
 
             // 限制玩家在边界内
             if (x < 0) x = 0;
-            if (x > WIDTH - PLAYER_SIZE) x = WIDTH - PLAYER_SIZE;
+            if (x > GAME_WIDTH - PLAYER_SIZE) x = GAME_WIDTH - PLAYER_SIZE;
 
             // 更新无敌时间
             if (invulnerableTimer > 0) {
@@ -402,10 +528,11 @@ static class SpaceShooter extends JFrame {
             return new Rectangle(x, y, PLAYER_SIZE, PLAYER_SIZE);
         }
 
-        public void draw(Graphics2D g2d) {
+        public void draw(Graphics2D g2d, double alpha) {
             if (isInvulnerable() && (invulnerableTimer / 10) % 2 == 0) {
                 return; // 无敌时闪烁效果
             }
+            int x = interpolate(previousX, this.x, alpha);
 
             // 绘制玩家飞机
             g2d.setColor(Color.CYAN);
@@ -428,23 +555,26 @@ static class SpaceShooter extends JFrame {
 
     class Bullet {
         int x, y;
+        private int previousY;
         private int dy;
 
-        public Bullet(int x, int y) {
+        public void init(int x, int y) {
             this.x = x;
             this.y = y;
+            this.previousY = y;
             this.dy = -10;
         }
 
         public void move() {
+            previousY = y;
             y += dy;
         }
 
-        public Rectangle getBounds() {
-            return new Rectangle(x, y, BULLET_SIZE, BULLET_SIZE);
+        public void draw(Graphics2D g2d, double alpha) {
+            g2d.drawImage(BULLET_SPRITE, x, interpolate(previousY, y, alpha), null);
         }
 
-        public void draw(Graphics2D g2d) {
+        static void paint(Graphics2D g2d, int x, int y) {
             g2d.setColor(Color.YELLOW);
             g2d.fillOval(x, y, BULLET_SIZE, BULLET_SIZE);
 
@@ -456,15 +586,20 @@ static class SpaceShooter extends JFrame {
 
     class Enemy {
         int x, y;
+        boolean hit; // 本帧已被击中，碰撞检测结束后回收
+        private int previousX, previousY;
         private int type;
         private int dy;
         private int dx;
         private int points;
 
-        public Enemy(int x, int y, int type) {
+        public void init(int x, int y, int type) {
             this.x = x;
             this.y = y;
             this.type = type;
+            this.hit = false;
+            this.previousX = x;
+            this.previousY = y;
 
             switch (type) {
                 case 0: // 普通敌机
@@ -486,11 +621,13 @@ static class SpaceShooter extends JFrame {
         }
 
         public void move() {
+            previousX = x;
+            previousY = y;
             y += dy;
             x += dx;
 
             // 左右移动边界检查
-            if (x < 0 || x > WIDTH - ENEMY_SIZE) {
+            if (x < 0 || x > GAME_WIDTH - ENEMY_SIZE) {
                 dx = -dx;
             }
         }
@@ -499,11 +636,11 @@ static class SpaceShooter extends JFrame {
             return points;
         }
 
-        public Rectangle getBounds() {
-            return new Rectangle(x, y, ENEMY_SIZE, ENEMY_SIZE);
+        public void draw(Graphics2D g2d, double alpha) {
+            g2d.drawImage(ENEMY_SPRITES[type], interpolate(previousX, x, alpha), interpolate(previousY, y, alpha), null);
         }
 
-        public void draw(Graphics2D g2d) {
+        static void paint(Graphics2D g2d, int type, int x, int y) {
             switch (type) {
                 case 0: // 普通敌机
                     g2d.setColor(Color.RED);
@@ -528,15 +665,26 @@ static class SpaceShooter extends JFrame {
     }
 
     class Explosion {
+        private static final int MAX_TIMER = 20;
+        // 每一帧的透明色预先算好，绘制时不再创建 Color
+        private static final Color[] OUTER_COLORS = new Color[MAX_TIMER];
+        private static final Color[] INNER_COLORS = new Color[MAX_TIMER];
+
+        static {
+            for (int t = 0; t < MAX_TIMER; t++) {
+                float alpha = 1.0f - (float) t / MAX_TIMER;
+                OUTER_COLORS[t] = new Color(1.0f, 0.5f, 0.0f, alpha);
+                INNER_COLORS[t] = new Color(1.0f, 1.0f, 0.0f, alpha);
+            }
+        }
+
         int x, y;
         private int timer;
-        private int maxTimer;
 
-        public Explosion(int x, int y) {
+        public void init(int x, int y) {
             this.x = x;
             this.y = y;
             this.timer = 0;
-            this.maxTimer = 20;
         }
 
         public void update() {
@@ -544,56 +692,401 @@ static class SpaceShooter extends JFrame {
         }
 
         public boolean isFinished() {
-            return timer >= maxTimer;
+            return timer >= MAX_TIMER;
         }
 
         public void draw(Graphics2D g2d) {
-            float alpha = 1.0f - (float) timer / maxTimer;
-            Color explosionColor = new Color(1.0f, 0.5f, 0.0f, alpha);
-
-            g2d.setColor(explosionColor);
-            int size = (int) (timer * 2);
+            int frame = Math.min(timer, MAX_TIMER - 1);
+            g2d.setColor(OUTER_COLORS[frame]);
+            int size = timer * 2;
             g2d.fillOval(x - size / 2, y - size / 2, size, size);
 
             // 内圈
-            g2d.setColor(new Color(1.0f, 1.0f, 0.0f, alpha));
+            g2d.setColor(INNER_COLORS[frame]);
             g2d.fillOval(x - size / 4, y - size / 4, size / 2, size / 2);
         }
     }
 
+    /**
+     * 固定步长游戏循环：在独立线程上按固定步长推进模拟，与渲染帧率解耦。
+     * 渲染时把不足一步的剩余时间作为插值系数 alpha 交给 render，
+     * 画面通过 Canvas 的 BufferStrategy（VolatileImage 翻页）主动绘制，不经过 EDT 的 repaint。
+     * 界面线程要修改游戏状态时用 post 提交，在循环线程上、下一次更新之前执行
+     */
+    static final class GameLoop implements Runnable {
+        interface Game {
+            void update();
+
+            void render(Graphics2D g2d, double alpha);
+        }
+
+        private static final long MAX_FRAME_NANOS = 250_000_000L; // 卡顿后最多追赶的时间，避免越追越慢
+        private static final long MIN_FRAME_NANOS = 1_000_000_000L / 240; // 渲染帧率上限
+        private static final Font OVERLAY_FONT = new Font("Monospaced", Font.BOLD, 12);
+        private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 160);
+
+        private final Canvas canvas;
+        private final Game game;
+        private final long stepNanos;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private volatile boolean running;
+        private volatile boolean updating = true; // 暂停时只渲染不更新
+        private volatile boolean overlayVisible = true;
+        private BufferStrategy strategy;
+
+        // 每秒刷新一次的统计，只在循环线程上读写
+        private int framesPerSecond;
+        private int updatesPerSecond;
+        private double updateMillis;
+        private double renderMillis;
+
+        GameLoop(Canvas canvas, int updatesPerSecond, Game game) {
+            this.canvas = canvas;
+            this.game = game;
+            this.stepNanos = 1_000_000_000L / updatesPerSecond;
+        }
+
+        /**
+         * 画布显示后在 EDT 上调用
+         */
+        void start() {
+            if (running) return;
+            canvas.createBufferStrategy(2);
+            strategy = canvas.getBufferStrategy();
+            running = true;
+            Thread thread = new Thread(this, "game-loop");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        void post(Runnable task) {
+            tasks.add(task);
+        }
+
+        void setUpdating(boolean updating) {
+            this.updating = updating;
+        }
+
+        boolean isUpdating() {
+            return updating;
+        }
+
+        void toggleOverlay() {
+            overlayVisible = !overlayVisible;
+        }
+
+        @Override
+        public void run() {
+            long previous = System.nanoTime();
+            long accumulator = 0;
+            long statsStart = previous;
+            int frames = 0;
+            int updates = 0;
+            long updateNanos = 0;
+            long renderNanos = 0;
+
+            while (running) {
+                long frameStart = System.nanoTime();
+                accumulator += Math.min(frameStart - previous, MAX_FRAME_NANOS);
+                previous = frameStart;
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException ex) {
+                        report(ex);
+                    }
+                }
+
+                while (updating && accumulator >= stepNanos) {
+                    long start = System.nanoTime();
+                    try {
+                        game.update();
+                    } catch (RuntimeException ex) {
+                        report(ex);
+                    }
+                    updateNanos += System.nanoTime() - start;
+                    updates++;
+                    accumulator -= stepNanos;
+                }
+                if (!updating) {
+                    accumulator = 0;
+                }
+
+                long renderStart = System.nanoTime();
+                try {
+                    render(accumulator / (double) stepNanos);
+                } catch (RuntimeException ex) {
+                    report(ex);
+                }
+                renderNanos += System.nanoTime() - renderStart;
+                frames++;
+
+                if (renderStart - statsStart >= 1_000_000_000L) {
+                    double seconds = (renderStart - statsStart) / 1e9;
+                    framesPerSecond = (int) Math.round(frames / seconds);
+                    updatesPerSecond = (int) Math.round(updates / seconds);
+                    updateMillis = updates == 0 ? 0 : updateNanos / 1e6 / updates;
+                    renderMillis = renderNanos / 1e6 / frames;
+                    statsStart = renderStart;
+                    frames = 0;
+                    updates = 0;
+                    updateNanos = 0;
+                    renderNanos = 0;
+                }
+
+                long remaining = MIN_FRAME_NANOS - (System.nanoTime() - frameStart);
+                if (remaining > 0) {
+                    LockSupport.parkNanos(remaining);
+                }
+            }
+        }
+
+        // 和原来 Swing Timer 在 EDT 上一样：异常交给线程的处理器记录，循环继续下一帧
+        private static void report(RuntimeException ex) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+        }
+
+        private void render(double alpha) {
+            do {
+                do {
+                    Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        game.render(g2d, alpha);
+                        if (overlayVisible) {
+                            drawOverlay(g2d);
+                        }
+                    } finally {
+                        g2d.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+        }
+
+        private void drawOverlay(Graphics2D g2d) {
+            String text = String.format("FPS %d  UPS %d  更新 %.2f ms  渲染 %.2f ms",
+                framesPerSecond, updatesPerSecond, updateMillis, renderMillis);
+            g2d.setFont(OVERLAY_FONT);
+            FontMetrics metrics = g2d.getFontMetrics();
+            int width = metrics.stringWidth(text) + 12;
+            int x = canvas.getWidth() - width - 6;
+            int y = canvas.getHeight() - metrics.getHeight() - 10;
+            g2d.setColor(OVERLAY_BACKGROUND);
+            g2d.fillRect(x, y, width, metrics.getHeight() + 4);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(text, x + 6, y + metrics.getAscent() + 2);
+        }
+    }
+
+    /**
+     * 对象池：活动对象连续存放在数组前部，回收时与最后一个活动对象交换，
+     * 被回收的对象留在数组后部，下次 obtain 直接复用，游戏过程中不再分配
+     */
+    static final class Pool<T> {
+        private final Supplier<T> factory;
+        private Object[] items = new Object[64];
+        private int size;
+
+        Pool(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        T obtain() {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            if (items[size] == null) {
+                items[size] = factory.get();
+            }
+            return get(size++);
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(int index) {
+            return (T) items[index];
+        }
+
+        void free(int index) {
+            Object freed = items[index];
+            items[index] = items[--size];
+            items[size] = freed;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * 均匀网格的空间哈希：每帧插入后按格子做一次计数排序，
+     * 查询只遍历矩形覆盖到的格子，用时间戳去掉跨格子的重复结果。
+     * 超出范围的坐标归到边缘格子，不影响正确性
+     */
+    static final class SpatialHash {
+        private final int originX;
+        private final int originY;
+        private final int cellSize;
+        private final int columns;
+        private final int rows;
+        private final int[] cellStart;
+        private final int[] cellCursor;
+        private int[] pairCells = new int[256];
+        private int[] pairItems = new int[256];
+        private int pairCount;
+        private int[] sortedItems = new int[256];
+        private int[] stamps = new int[256];
+        private int stamp;
+        private int[] results = new int[64];
+
+        SpatialHash(int originX, int originY, int width, int height, int cellSize) {
+            this.originX = originX;
+            this.originY = originY;
+            this.cellSize = cellSize;
+            this.columns = (width + cellSize - 1) / cellSize;
+            this.rows = (height + cellSize - 1) / cellSize;
+            this.cellStart = new int[columns * rows + 1];
+            this.cellCursor = new int[columns * rows];
+        }
+
+        void clear() {
+            pairCount = 0;
+        }
+
+        void insert(int item, int x, int y, int width, int height) {
+            if (item >= stamps.length) {
+                stamps = Arrays.copyOf(stamps, Math.max(item + 1, stamps.length * 2));
+            }
+            int minColumn = column(x);
+            int maxColumn = column(x + width - 1);
+            int minRow = row(y);
+            int maxRow = row(y + height - 1);
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    if (pairCount == pairCells.length) {
+                        pairCells = Arrays.copyOf(pairCells, pairCount * 2);
+                        pairItems = Arrays.copyOf(pairItems, pairCount * 2);
+                    }
+                    pairCells[pairCount] = r * columns + c;
+                    pairItems[pairCount] = item;
+                    pairCount++;
+                }
+            }
+        }
+
+        void build() {
+            Arrays.fill(cellStart, 0);
+            for (int i = 0; i < pairCount; i++) {
+                cellStart[pairCells[i] + 1]++;
+            }
+            for (int cell = 0; cell < columns * rows; cell++) {
+                cellStart[cell + 1] += cellStart[cell];
+            }
+            System.arraycopy(cellStart, 0, cellCursor, 0, cellCursor.length);
+            if (sortedItems.length < pairCount) {
+                sortedItems = new int[pairCells.length];
+            }
+            for (int i = 0; i < pairCount; i++) {
+                sortedItems[cellCursor[pairCells[i]]++] = pairItems[i];
+            }
+        }
+
+        /**
+         * 查询与矩形所在格子重叠的对象，返回个数，结果用 result(i) 读取
+         */
+        int query(int x, int y, int width, int height) {
+            stamp++;
+            int count = 0;
+            int minColumn = column(x);
+            int maxColumn = column(x + width - 1);
+            int minRow = row(y);
+            int maxRow = row(y + height - 1);
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    int cell = r * columns + c;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        int item = sortedItems[i];
+                        if (stamps[item] == stamp) continue;
+                        stamps[item] = stamp;
+                        if (count == results.length) {
+                            results = Arrays.copyOf(results, count * 2);
+                        }
+                        results[count++] = item;
+                    }
+                }
+            }
+            return count;
+        }
+
+        int result(int index) {
+            return results[index];
+        }
+
+        private int column(int x) {
+            return Math.min(columns - 1, Math.max(0, Math.floorDiv(x - originX, cellSize)));
+        }
+
+        private int row(int y) {
+            return Math.min(rows - 1, Math.max(0, Math.floorDiv(y - originY, cellSize)));
+        }
+    }
+
     class GameKeyListener extends KeyAdapter {
         @Override
         public void keyPressed(KeyEvent e) {
             int keyCode = e.getKeyCode();
 
+            // 游戏状态只在循环线程上修改，这里提交任务
             switch (keyCode) {
                 case KeyEvent.VK_LEFT:
                 case KeyEvent.VK_A:
-                    gamePanel.player.setDX(-6);
+                    gameLoop.post(() -> gamePanel.player.setDX(-6));
                     break;
                 case KeyEvent.VK_RIGHT:
                 case KeyEvent.VK_D:
-                    gamePanel.player.setDX(6);
+                    gameLoop.post(() -> gamePanel.player.setDX(6));
                     break;
                 case KeyEvent.VK_SPACE:
-                    if (gameRunning) {
-                        // 发射子弹
-                        gamePanel.bullets.add(new Bullet(gamePanel.player.x + PLAYER_SIZE / 2 - BULLET_SIZE / 2,
-                            gamePanel.player.y));
-                    } else {
-                        startGame();
-                    }
+                    gameLoop.post(() -> {
+                        if (gameRunning) {
+                            // 发射子弹
+                            gamePanel.fireBullet(gamePanel.player.x + PLAYER_SIZE / 2 - BULLET_SIZE / 2,
+                                gamePanel.player.y);
+                        } else {
+                            startGame();
+                        }
+                    });
                     break;
                 case KeyEvent.VK_P:
                     pauseGame();
                     break;
+                case KeyEvent.VK_T:
+                    gameLoop.post(() -> {
+                        if (gameRunning) {
+                            gamePanel.toggleStressMode();
+                        }
+                    });
+                    break;
                 case KeyEvent.VK_R:
-                    if (!gameRunning) {
-                        score = 0;
-                        lives = 3;
-                        level = 1;
-                        gamePanel.resetGame();
-                    }
+                    gameLoop.post(() -> {
+                        if (!gameRunning) {
+                            restartGame();
+                        }
+                    });
+                    break;
+                case KeyEvent.VK_F3:
+                    gameLoop.toggleOverlay();
                     break;
             }
         }
@@ -607,7 +1100,7 @@ static class SpaceShooter extends JFrame {
                 case KeyEvent.VK_RIGHT:
                 case KeyEvent.VK_A:
                 case KeyEvent.VK_D:
-                    gamePanel.player.setDX(0);
+                    gameLoop.post(() -> gamePanel.player.setDX(0));
                     break;
             }
         }
@@ -2,7 +2,11 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 void main(String[] args) {
     SwingUtilities.invokeLater(() -> {
@@ -20,6 +24,13 @@ static class Sudoku extends JFrame {
     private Timer gameTimer;
     private int seconds = 0;
     private JLabel timerLabel;
+    private JComboBox<String> difficultyCombo;
+    private JButton batchButton;
+    private final SudokuGenerator generator = new SudokuGenerator();
+    
+    // 批量模式下每个线程各自的生成器和求解器
+    private static final ThreadLocal<SudokuGenerator> GENERATORS = ThreadLocal.withInitial(SudokuGenerator::new);
+    private static final ThreadLocal<SudokuSolver> SOLVERS = ThreadLocal.withInitial(SudokuSolver::new);
     
     public Sudoku() {
         initializeGUI();
@@ -46,9 +57,12 @@ static class Sudoku extends JFrame {
         JButton hintButton = new JButton("💭 提示");
         hintButton.addActionListener(e -> giveHint());
         
-        JComboBox<String> difficultyCombo = new JComboBox<>(new String[]{"简单", "中等", "困难"});
+        difficultyCombo = new JComboBox<>(SudokuGenerator.DIFFICULTY_NAMES);
         difficultyCombo.addActionListener(e -> generateNewPuzzle());
         
+        batchButton = new JButton("📦 批量测试");
+        batchButton.addActionListener(e -> runBatch());
+        
         timerLabel = new JLabel("时间: 00:00");
         timerLabel.setFont(new Font("Arial", Font.BOLD, 14));
         
@@ -58,6 +72,7 @@ static class Sudoku extends JFrame {
         topPanel.add(hintButton);
         topPanel.add(new JLabel("难度:"));
         topPanel.add(difficultyCombo);
+        topPanel.add(batchButton);
         topPanel.add(timerLabel);
         
         // 游戏面板
@@ -116,11 +131,13 @@ static class Sudoku extends JFrame {
         puzzle = new int[SIZE][SIZE];
         isFixed = new boolean[SIZE][SIZE];
         
-        // 生成完整的数独解答
-        generateSolution();
-        
-        // 从解答中移除一些数字创建谜题
-        createPuzzle();
+        // 生成唯一解且符合难度的题目
+        Puzzle generated = generator.generate(difficultyCombo.getSelectedIndex(), new Random());
+        for (int i = 0; i < SudokuSolver.CELLS; i++) {
+            solution[i / SIZE][i % SIZE] = generated.solution()[i];
+            puzzle[i / SIZE][i % SIZE] = generated.givens()[i];
+            isFixed[i / SIZE][i % SIZE] = generated.givens()[i] != 0;
+        }
         
         // 显示谜题
         displayPuzzle();
@@ -129,64 +146,8 @@ static class Sudoku extends JFrame {
         seconds = 0;
         gameTimer.restart();
         
-        statusLabel.setText("游戏开始！填入1-9的数字");
-    }
-    
-    private void generateSolution() {
-        // 简单的数独生成算法
-        fillDiagonal();
-        solveSudoku(solution);
-    }
-    
-    private void fillDiagonal() {
-        // 填充对角线上的3x3方格
-        for (int i = 0; i < SIZE; i += 3) {
-            fillBox(i, i);
-        }
-    }
-    
-    private void fillBox(int row, int col) {
-        Random random = new Random();
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                int num;
-                do {
-                    num = random.nextInt(9) + 1;
-                } while (!isValidInBox(row, col, num));
-                solution[row + i][col + j] = num;
-            }
-        }
-    }
-    
-    private boolean isValidInBox(int boxRow, int boxCol, int num) {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (solution[boxRow + i][boxCol + j] == num) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-    
-    private boolean solveSudoku(int[][] board) {
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (board[row][col] == 0) {
-                    for (int num = 1; num <= 9; num++) {
-                        if (isValid(board, row, col, num)) {
-                            board[row][col] = num;
-                            if (solveSudoku(board)) {
-                                return true;
-                            }
-                            board[row][col] = 0;
-                        }
-                    }
-                    return false;
-                }
-            }
-        }
-        return true;
+        statusLabel.setText(String.format("游戏开始！难度: %s，提示数: %d，填入1-9的数字",
+            SudokuGenerator.DIFFICULTY_NAMES[generated.difficulty()], generated.clues()));
     }
     
     private boolean isValid(int[][] board, int row, int col, int num) {
@@ -218,34 +179,6 @@ static class Sudoku extends JFrame {
         return true;
     }
     
-    private void createPuzzle() {
-        // 复制解答到谜题
-        for (int i = 0; i < SIZE; i++) {
-            System.arraycopy(solution[i], 0, puzzle[i], 0, SIZE);
-        }
-        
-        // 随机移除一些数字
-        Random random = new Random();
-        int cellsToRemove = 40; // 可以根据难度调整
-        
-        while (cellsToRemove > 0) {
-            int row = random.nextInt(SIZE);
-            int col = random.nextInt(SIZE);
-            
-            if (puzzle[row][col] != 0) {
-                puzzle[row][col] = 0;
-                cellsToRemove--;
-            }
-        }
-        
-        // 标记固定的数字
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                isFixed[i][j] = puzzle[i][j] != 0;
-            }
-        }
-    }
-    
     private void displayPuzzle() {
         for (int row = 0; row < SIZE; row++) {
             for (int col = 0; col < SIZE; col++) {
@@ -418,4 +351,379 @@ static class Sudoku extends JFrame {
         }
         statusLabel.setText("没有可以提示的位置");
     }
+    
+    /**
+     * 批量模式：并行生成指定数量的题目，再并行求解并核对答案，报告各阶段吞吐量
+     */
+    private void runBatch() {
+        String input = JOptionPane.showInputDialog(this, "批量生成并求解的题目数量：", "10000");
+        if (input == null) {
+            return;
+        }
+        
+        int count;
+        try {
+            count = Integer.parseInt(input.trim());
+        } catch (NumberFormatException e) {
+            count = 0;
+        }
+        if (count <= 0) {
+            statusLabel.setText("请输入有效的题目数量");
+            return;
+        }
+        
+        final int total = count;
+        final int difficulty = difficultyCombo.getSelectedIndex();
+        batchButton.setEnabled(false);
+        
+        SwingWorker<String, Void> worker = new SwingWorker<>() {
+            @Override
+            protected String doInBackground() {
+                AtomicInteger finished = new AtomicInteger();
+                
+                long start = System.nanoTime();
+                Puzzle[] puzzles = IntStream.range(0, total).parallel()
+                    .mapToObj(i -> {
+                        Puzzle generated = GENERATORS.get().generate(difficulty, ThreadLocalRandom.current());
+                        setProgress(finished.incrementAndGet() * 50 / total);
+                        return generated;
+                    })
+                    .toArray(Puzzle[]::new);
+                long generateNanos = System.nanoTime() - start;
+                
+                start = System.nanoTime();
+                long correct = IntStream.range(0, total).parallel()
+                    .filter(i -> {
+                        int[] answer = new int[SudokuSolver.CELLS];
+                        boolean unique = SOLVERS.get().countSolutions(puzzles[i].givens(), 2, answer) == 1;
+                        setProgress(finished.incrementAndGet() * 50 / total);
+                        return unique && Arrays.equals(answer, puzzles[i].solution());
+                    })
+                    .count();
+                long solveNanos = System.nanoTime() - start;
+                
+                int[] ratings = new int[SudokuGenerator.DIFFICULTY_NAMES.length];
+                long clues = 0;
+                for (Puzzle generated : puzzles) {
+                    ratings[generated.difficulty()]++;
+                    clues += generated.clues();
+                }
+                
+                StringBuilder report = new StringBuilder();
+                report.append(String.format("题目数量: %d（%d 线程）%n", total, Runtime.getRuntime().availableProcessors()));
+                report.append(String.format("生成: %.2f 秒，%.0f 题/秒%n", generateNanos / 1e9, total / (generateNanos / 1e9)));
+                report.append(String.format("求解: %.2f 秒，%.0f 题/秒%n", solveNanos / 1e9, total / (solveNanos / 1e9)));
+                report.append(String.format("唯一解且与答案一致: %d / %d%n", correct, total));
+                report.append(String.format("平均提示数: %.1f%n", clues / (double) total));
+                for (int i = 0; i < ratings.length; i++) {
+                    report.append(String.format("%s: %d%n", SudokuGenerator.DIFFICULTY_NAMES[i], ratings[i]));
+                }
+                return report.toString();
+            }
+            
+            @Override
+            protected void done() {
+                batchButton.setEnabled(true);
+                try {
+                    String report = get();
+                    statusLabel.setText("批量测试完成");
+                    JOptionPane.showMessageDialog(Sudoku.this, report, "批量测试", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    statusLabel.setText("批量测试失败: " + e.getMessage());
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                statusLabel.setText("批量处理中... " + e.getNewValue() + "%");
+            }
+        });
+        worker.execute();
+    }
+
+    /**
+     * 位掩码数独求解器
+     * 每行、列、宫各用一个 9 位掩码记录已用数字，候选数为三者并集取反；
+     * 每个节点先做约束传播（唯一候选数 naked single、隐性唯一 hidden single），
+     * 再选候选数最少的格子（MRV）分支，回溯时按落子轨迹撤销
+     */
+    static final class SudokuSolver {
+        static final int CELLS = SIZE * SIZE;
+        private static final int ALL = 0x1FF;
+        private static final int[] ROW_OF = new int[CELLS];
+        private static final int[] COL_OF = new int[CELLS];
+        private static final int[] BOX_OF = new int[CELLS];
+        private static final int[][] UNITS = new int[SIZE * 3][SIZE];
+        
+        static {
+            for (int cell = 0; cell < CELLS; cell++) {
+                int row = cell / SIZE;
+                int col = cell % SIZE;
+                int box = (row / 3) * 3 + col / 3;
+                ROW_OF[cell] = row;
+                COL_OF[cell] = col;
+                BOX_OF[cell] = box;
+                UNITS[row][col] = cell;
+                UNITS[SIZE + col][row] = cell;
+                UNITS[SIZE * 2 + box][(row % 3) * 3 + col % 3] = cell;
+            }
+        }
+        
+        private final int[] grid = new int[CELLS];
+        private final int[] rowUsed = new int[SIZE];
+        private final int[] colUsed = new int[SIZE];
+        private final int[] boxUsed = new int[SIZE];
+        private final int[] trail = new int[CELLS];
+        private int trailSize;
+        
+        private Random random; // 非空时随机顺序尝试候选数，用于生成终盘
+        private int limit;
+        private int solutionCount;
+        private int[] solution;
+        private int guesses;
+        
+        /**
+         * 统计解的个数，最多数到 limit 个；solutionOut 非空时写入第一个解
+         */
+        int countSolutions(int[] puzzle, int limit, int[] solutionOut) {
+            if (!load(puzzle)) return 0;
+            this.limit = limit;
+            this.solution = solutionOut;
+            solutionCount = 0;
+            guesses = 0;
+            search();
+            return solutionCount;
+        }
+        
+        // 上一次 countSolutions 的分支次数
+        int guesses() {
+            return guesses;
+        }
+        
+        /**
+         * 从空盘随机填出一个完整终盘
+         */
+        void fillRandom(int[] out, Random random) {
+            this.random = random;
+            try {
+                countSolutions(new int[CELLS], 1, out);
+            } finally {
+                this.random = null;
+            }
+        }
+        
+        /**
+         * 评定难度：只靠唯一候选数能解为简单，再加隐性唯一能解为中等，需要试探为困难。
+         * 只靠这两种推理就能解开的题必然唯一解
+         */
+        int rate(int[] puzzle) {
+            if (!load(puzzle)) return SudokuGenerator.HARD;
+            if (propagate(false) && isSolved()) return SudokuGenerator.EASY;
+            load(puzzle);
+            if (propagate(true) && isSolved()) return SudokuGenerator.MEDIUM;
+            return SudokuGenerator.HARD;
+        }
+        
+        private boolean load(int[] puzzle) {
+            Arrays.fill(grid, 0);
+            Arrays.fill(rowUsed, 0);
+            Arrays.fill(colUsed, 0);
+            Arrays.fill(boxUsed, 0);
+            trailSize = 0;
+            for (int cell = 0; cell < CELLS; cell++) {
+                int digit = puzzle[cell];
+                if (digit == 0) continue;
+                if ((candidates(cell) & (1 << (digit - 1))) == 0) return false; // 已知数互相冲突
+                place(cell, digit);
+            }
+            return true;
+        }
+        
+        private boolean isSolved() {
+            return trailSize == CELLS;
+        }
+        
+        private int candidates(int cell) {
+            return ~(rowUsed[ROW_OF[cell]] | colUsed[COL_OF[cell]] | boxUsed[BOX_OF[cell]]) & ALL;
+        }
+        
+        private void place(int cell, int digit) {
+            int bit = 1 << (digit - 1);
+            grid[cell] = digit;
+            rowUsed[ROW_OF[cell]] |= bit;
+            colUsed[COL_OF[cell]] |= bit;
+            boxUsed[BOX_OF[cell]] |= bit;
+            trail[trailSize++] = cell;
+        }
+        
+        private void undoTo(int mark) {
+            while (trailSize > mark) {
+                int cell = trail[--trailSize];
+                int mask = ~(1 << (grid[cell] - 1));
+                rowUsed[ROW_OF[cell]] &= mask;
+                colUsed[COL_OF[cell]] &= mask;
+                boxUsed[BOX_OF[cell]] &= mask;
+                grid[cell] = 0;
+            }
+        }
+        
+        // 约束传播，返回 false 表示出现矛盾
+        private boolean propagate(boolean hiddenSingles) {
+            boolean progress = true;
+            while (progress) {
+                progress = false;
+                for (int cell = 0; cell < CELLS; cell++) {
+                    if (grid[cell] != 0) continue;
+                    int candidates = candidates(cell);
+                    if (candidates == 0) return false;
+                    if ((candidates & (candidates - 1)) == 0) {
+                        place(cell, Integer.numberOfTrailingZeros(candidates) + 1);
+                        progress = true;
+                    }
+                }
+                if (progress || !hiddenSingles) continue;
+                
+                for (int[] unit : UNITS) {
+                    int once = 0;
+                    int twice = 0;
+                    int placed = 0;
+                    for (int cell : unit) {
+                        if (grid[cell] != 0) {
+                            placed |= 1 << (grid[cell] - 1);
+                        } else {
+                            int candidates = candidates(cell);
+                            twice |= once & candidates;
+                            once |= candidates;
+                        }
+                    }
+                    if ((once | placed) != ALL) return false; // 某个数字在该单元无处可放
+                    int singles = once & ~twice & ~placed;
+                    while (singles != 0) {
+                        int bit = singles & -singles;
+                        singles &= singles - 1;
+                        boolean found = false;
+                        for (int cell : unit) {
+                            if (grid[cell] == 0 && (candidates(cell) & bit) != 0) {
+                                place(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                                found = true;
+                                break;
+                            }
+                        }
+                        if (!found) return false; // 同一格被两个隐性唯一数字争用
+                        progress = true;
+                    }
+                }
+            }
+            return true;
+        }
+        
+        private void search() {
+            int mark = trailSize;
+            if (!propagate(true)) {
+                undoTo(mark);
+                return;
+            }
+            
+            // MRV：选候选数最少的空格
+            int best = -1;
+            int bestCount = SIZE + 1;
+            for (int cell = 0; cell < CELLS && bestCount > 2; cell++) {
+                if (grid[cell] != 0) continue;
+                int count = Integer.bitCount(candidates(cell));
+                if (count < bestCount) {
+                    best = cell;
+                    bestCount = count;
+                }
+            }
+            
+            if (best < 0) {
+                if (solutionCount++ == 0 && solution != null) System.arraycopy(grid, 0, solution, 0, CELLS);
+                undoTo(mark);
+                return;
+            }
+            
+            guesses++;
+            int candidates = candidates(best);
+            while (candidates != 0 && solutionCount < limit) {
+                int bit = random == null ? candidates & -candidates : randomBit(candidates);
+                candidates &= ~bit;
+                int branchMark = trailSize;
+                place(best, Integer.numberOfTrailingZeros(bit) + 1);
+                search();
+                undoTo(branchMark);
+            }
+            undoTo(mark);
+        }
+        
+        private int randomBit(int candidates) {
+            int index = random.nextInt(Integer.bitCount(candidates));
+            for (int i = 0; i < index; i++) candidates &= candidates - 1;
+            return candidates & -candidates;
+        }
+    }
+    
+    /**
+     * 生成的题目（一维 81 格，0 为空格）
+     */
+    record Puzzle(int[] givens, int[] solution, int difficulty, int clues) {}
+    
+    /**
+     * 唯一解题目生成器
+     * 随机终盘按随机顺序挖空，每挖一格都确认题目仍唯一且难度不超过目标；
+     * 挖完后难度达不到目标则换一个终盘重试，多次不成功时返回最接近的一题
+     */
+    static final class SudokuGenerator {
+        static final int EASY = 0;
+        static final int MEDIUM = 1;
+        static final int HARD = 2;
+        static final String[] DIFFICULTY_NAMES = {"简单", "中等", "困难"};
+        
+        // 各难度最少保留的提示数
+        private static final int[] MIN_CLUES = {36, 28, 17};
+        private static final int MAX_ATTEMPTS = 20;
+        
+        private final SudokuSolver solver = new SudokuSolver();
+        
+        Puzzle generate(int difficulty, Random random) {
+            Puzzle best = null;
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                int[] solution = new int[SudokuSolver.CELLS];
+                solver.fillRandom(solution, random);
+                int[] givens = solution.clone();
+                int clues = SudokuSolver.CELLS;
+                
+                for (int cell : shuffledCells(random)) {
+                    if (clues <= MIN_CLUES[difficulty]) break;
+                    int value = givens[cell];
+                    givens[cell] = 0;
+                    // 简单、中等题能靠推理解开即保证唯一，困难题需要数解的个数
+                    boolean keep = difficulty == HARD
+                        ? solver.countSolutions(givens, 2, null) == 1
+                        : solver.rate(givens) <= difficulty;
+                    if (keep) {
+                        clues--;
+                    } else {
+                        givens[cell] = value;
+                    }
+                }
+                
+                Puzzle puzzle = new Puzzle(givens, solution, solver.rate(givens), clues);
+                if (puzzle.difficulty() == difficulty) return puzzle;
+                if (best == null || puzzle.difficulty() > best.difficulty()) best = puzzle;
+            }
+            return best;
+        }
+        
+        private static int[] shuffledCells(Random random) {
+            int[] cells = new int[SudokuSolver.CELLS];
+            for (int i = 0; i < cells.length; i++) cells[i] = i;
+            for (int i = cells.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = cells[i];
+                cells[i] = cells[j];
+                cells[j] = tmp;
+            }
+            return cells;
+        }
+    }
 }
@@ -1,8 +1,11 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferStrategy;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
 
 // 文本管理静态内部类
 static class Texts {
@@ -67,6 +70,7 @@ static class Texts {
         R - 重新开始
         Ctrl+H - 显示帮助
         F1 - 显示帮助
+        F3 - 显示/隐藏帧率
         """;
 }
 
@@ -85,21 +89,25 @@ class TankBattle extends JFrame {
     private static final int BOARD_HEIGHT = 600;
     private static final int TANK_SIZE = 25;
     private static final int BULLET_SIZE = 5;
+    private static final int UPDATES_PER_SECOND = 50; // 固定更新步长，与原先 20ms 的计时器一致
     
     private GameBoard gameBoard;
+    private GameLoop gameLoop;
     private PlayerTank player;
     private List<EnemyTank> enemies;
     private List<Projectile> projectiles;
     private List<Obstacle> obstacles;
-    private javax.swing.Timer gameTimer;
     
     private boolean[] pressedKeys = new boolean[256];
     private int playerScore = 0;
     private int playerLives = 3;
     private int currentLevel = 1;
-    private boolean gameActive = false;
+    private volatile boolean gameActive = false;
+    private volatile boolean paused = false; // 玩家手动暂停
+    private volatile boolean levelDialogShowing = false; // 关卡提示期间暂停
     
     private JLabel infoLabel;
+    private String infoText = "";
     
     public TankBattle() {
         setupUI();
@@ -116,6 +124,20 @@ class TankBattle extends JFrame {
         
         gameBoard = new GameBoard();
         add(gameBoard, BorderLayout.CENTER);
+        gameLoop = new GameLoop(gameBoard, UPDATES_PER_SECOND, gameBoard);
+        
+        // 窗口显示后画布才能创建 BufferStrategy
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                gameLoop.start();
+            }
+            
+            @Override
+            public void windowClosed(WindowEvent e) {
+                gameLoop.stop();
+            }
+        });
         
         // 信息面板
         JPanel infoPanel = new JPanel(new FlowLayout());
@@ -137,18 +159,24 @@ class TankBattle extends JFrame {
         addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                pressedKeys[e.getKeyCode()] = true;
+                setKey(e.getKeyCode(), true);
             }
             
             @Override
             public void keyReleased(KeyEvent e) {
-                pressedKeys[e.getKeyCode()] = false;
+                setKey(e.getKeyCode(), false);
             }
         });
         
         setFocusable(true);
     }
     
+    // 按键状态只在循环线程上读写，EDT 通过 gameLoop.post 提交
+    private void setKey(int keyCode, boolean pressed) {
+        if (keyCode < 0 || keyCode >= pressedKeys.length) return;
+        gameLoop.post(() -> pressedKeys[keyCode] = pressed);
+    }
+    
     private void initializeGame() {
         player = new PlayerTank(BOARD_WIDTH / 2, BOARD_HEIGHT - 50);
         enemies = new ArrayList<>();
@@ -157,8 +185,6 @@ class TankBattle extends JFrame {
         
         createObstacles();
         createEnemies();
-        
-        gameTimer = new javax.swing.Timer(20, e -> gameLoop());
     }
     
     private void createObstacles() {
@@ -179,38 +205,52 @@ class TankBattle extends JFrame {
         }
     }
     
+    // 游戏状态只在循环线程上修改，按钮通过 gameLoop.post 提交
     private void startNewGame() {
-        playerScore = 0;
-        playerLives = 3;
-        currentLevel = 1;
-        gameActive = true;
-        
-        initializeGame();
-        gameTimer.start();
+        gameLoop.post(() -> {
+            playerScore = 0;
+            playerLives = 3;
+            currentLevel = 1;
+            gameActive = true;
+            
+            initializeGame();
+        });
+        paused = false;
+        gameLoop.setUpdating(!levelDialogShowing);
         requestFocus();
     }
     
+    // 暂停只停止更新，画面继续渲染
     private void togglePause() {
-        if (gameTimer.isRunning()) {
-            gameTimer.stop();
-        } else {
-            gameTimer.start();
-            requestFocus();
-        }
+        paused = !paused;
+        gameLoop.setUpdating(!paused && !levelDialogShowing);
+        requestFocus();
     }
     
-    private void gameLoop() {
+    // 每个固定步长执行一次，在游戏循环线程上
+    private void tick() {
         if (!gameActive) return;
         
+        savePositions();
         handleInput();
         updateGame();
         checkCollisions();
         checkGameState();
         
-        gameBoard.repaint();
         updateInfoDisplay();
     }
     
+    // 记录更新前的位置，渲染时在两次更新之间插值
+    private void savePositions() {
+        player.savePosition();
+        for (EnemyTank enemy : enemies) {
+            enemy.savePosition();
+        }
+        for (Projectile bullet : projectiles) {
+            bullet.savePosition();
+        }
+    }
+    
     private void handleInput() {
         if (pressedKeys[KeyEvent.VK_LEFT] || pressedKeys[KeyEvent.VK_A]) {
             player.rotateLeft();
@@ -275,6 +315,7 @@ class TankBattle extends JFrame {
             
             // 子弹与敌人碰撞
             if (!bullet.isEnemyBullet) {
+                boolean hit = false;
                 for (EnemyTank enemy : enemies) {
                     if (enemy.isAlive() && bullet.getBounds().intersects(enemy.getBounds())) {
                         enemy.takeDamage();
@@ -282,9 +323,13 @@ class TankBattle extends JFrame {
                         if (!enemy.isAlive()) {
                             playerScore += 100;
                         }
+                        hit = true;
                         break;
                     }
                 }
+                if (hit) {
+                    continue;
+                }
             }
             
             // 子弹与障碍物碰撞
@@ -315,8 +360,8 @@ class TankBattle extends JFrame {
         // 检查玩家是否死亡
         if (playerLives <= 0) {
             gameActive = false;
-            gameTimer.stop();
-            JOptionPane.showMessageDialog(this, "游戏结束！最终得分: " + playerScore);
+            int finalScore = playerScore;
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, "游戏结束！最终得分: " + finalScore));
             return;
         }
         
@@ -326,7 +371,15 @@ class TankBattle extends JFrame {
             currentLevel++;
             playerScore += currentLevel * 500;
             createEnemies();
-            JOptionPane.showMessageDialog(this, "第 " + currentLevel + " 关开始！");
+            // 对话框在 EDT 上显示，关闭前暂停更新；关闭后恢复玩家原来的暂停状态
+            int level = currentLevel;
+            levelDialogShowing = true;
+            gameLoop.setUpdating(false);
+            SwingUtilities.invokeLater(() -> {
+                JOptionPane.showMessageDialog(this, "第 " + level + " 关开始！");
+                levelDialogShowing = false;
+                gameLoop.setUpdating(!paused);
+            });
         }
         
         // 重生玩家
@@ -337,21 +390,37 @@ class TankBattle extends JFrame {
     
     private void updateInfoDisplay() {
         int aliveEnemies = (enemies != null) ? (int)enemies.stream().filter(EnemyTank::isAlive).count() : 0;
-        infoLabel.setText(String.format("%s%d | %s%d | %s%d | 敌人: %d",
+        String text = String.format("%s%d | %s%d | %s%d | 敌人: %d",
             Texts.SCORE_LABEL, playerScore,
             Texts.LIVES_LABEL, playerLives,
             Texts.LEVEL_LABEL, currentLevel,
-            aliveEnemies));
+            aliveEnemies);
+        // 只在文字变化时交给 EDT 更新标签
+        if (!text.equals(infoText)) {
+            infoText = text;
+            SwingUtilities.invokeLater(() -> infoLabel.setText(text));
+        }
     }
     
-    // 游戏面板
-    class GameBoard extends JPanel {
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
+    // 游戏面板：由游戏循环驱动更新和主动渲染
+    class GameBoard extends Canvas implements GameLoop.Game {
+        GameBoard() {
             setBackground(Color.BLACK);
-            
-            Graphics2D g2d = (Graphics2D) g;
+            setPreferredSize(new Dimension(BOARD_WIDTH, BOARD_HEIGHT));
+            setIgnoreRepaint(true);
+            setFocusable(false); // 键盘事件留给窗口
+        }
+        
+        @Override
+        public void update() {
+            tick();
+        }
+        
+        // alpha 为上一次更新之后经过的时间占一个步长的比例
+        @Override
+        public void render(Graphics2D g2d, double alpha) {
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, getWidth(), getHeight());
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
             // 绘制障碍物
@@ -362,20 +431,20 @@ class TankBattle extends JFrame {
             
             // 绘制玩家坦克
             if (player.isAlive()) {
-                player.draw(g2d);
+                player.draw(g2d, alpha);
             }
             
             // 绘制敌方坦克
             for (EnemyTank enemy : enemies) {
                 if (enemy.isAlive()) {
-                    enemy.draw(g2d);
+                    enemy.draw(g2d, alpha);
                 }
             }
             
             // 绘制子弹
             g2d.setColor(Color.YELLOW);
             for (Projectile bullet : projectiles) {
-                bullet.draw(g2d);
+                bullet.draw(g2d, alpha);
             }
         }
     }
@@ -384,6 +453,8 @@ class TankBattle extends JFrame {
     abstract class Tank {
         protected int x, y, prevX, prevY;
         protected double angle = 0;
+        protected int renderX, renderY; // 上一次更新前的位置和角度，用于插值渲染
+        protected double renderAngle;
         protected boolean alive = true;
         protected long lastShotTime = 0;
         protected int shotCooldown = 300;
@@ -393,6 +464,14 @@ class TankBattle extends JFrame {
             this.y = y;
             this.prevX = x;
             this.prevY = y;
+            this.renderX = x;
+            this.renderY = y;
+        }
+        
+        public void savePosition() {
+            renderX = x;
+            renderY = y;
+            renderAngle = angle;
         }
         
         public void moveForward() {
@@ -443,7 +522,7 @@ class TankBattle extends JFrame {
         
         public void update() {}
         
-        public abstract void draw(Graphics2D g2d);
+        public abstract void draw(Graphics2D g2d, double alpha);
         
         public boolean isAlive() { return alive; }
     }
@@ -453,6 +532,7 @@ class TankBattle extends JFrame {
         public PlayerTank(int x, int y) {
             super(x, y);
             angle = -90; // 向上
+            renderAngle = angle;
         }
         
         public void rotateLeft() {
@@ -464,7 +544,10 @@ class TankBattle extends JFrame {
         }
         
         @Override
-        public void draw(Graphics2D g2d) {
+        public void draw(Graphics2D g2d, double alpha) {
+            int x = interpolate(renderX, this.x, alpha);
+            int y = interpolate(renderY, this.y, alpha);
+            double angle = interpolateAngle(renderAngle, this.angle, alpha);
             g2d.setColor(Color.GREEN);
             g2d.fillRect(x, y, TANK_SIZE, TANK_SIZE);
             
@@ -487,6 +570,7 @@ class TankBattle extends JFrame {
         public EnemyTank(int x, int y) {
             super(x, y);
             angle = Math.random() * 360;
+            renderAngle = angle;
             shotCooldown = 800;
         }
         
@@ -507,7 +591,10 @@ class TankBattle extends JFrame {
         }
         
         @Override
-        public void draw(Graphics2D g2d) {
+        public void draw(Graphics2D g2d, double alpha) {
+            int x = interpolate(renderX, this.x, alpha);
+            int y = interpolate(renderY, this.y, alpha);
+            double angle = interpolateAngle(renderAngle, this.angle, alpha);
             g2d.setColor(Color.RED);
             g2d.fillRect(x, y, TANK_SIZE, TANK_SIZE);
             
@@ -529,10 +616,13 @@ class TankBattle extends JFrame {
         double angle;
         boolean isEnemyBullet;
         int speed = 4;
+        int renderX, renderY;
         
         public Projectile(int x, int y, double angle, boolean isEnemyBullet) {
             this.x = x;
             this.y = y;
+            this.renderX = x;
+            this.renderY = y;
             this.angle = angle;
             this.isEnemyBullet = isEnemyBullet;
         }
@@ -542,7 +632,14 @@ class TankBattle extends JFrame {
             y += Math.sin(Math.toRadians(angle)) * speed;
         }
         
-        public void draw(Graphics2D g2d) {
+        public void savePosition() {
+            renderX = x;
+            renderY = y;
+        }
+        
+        public void draw(Graphics2D g2d, double alpha) {
+            int x = interpolate(renderX, this.x, alpha);
+            int y = interpolate(renderY, this.y, alpha);
             g2d.setColor(isEnemyBullet ? Color.ORANGE : Color.YELLOW);
             g2d.fillOval(x - BULLET_SIZE/2, y - BULLET_SIZE/2, BULLET_SIZE, BULLET_SIZE);
         }
@@ -574,6 +671,195 @@ class TankBattle extends JFrame {
         }
     }
 
+    private static int interpolate(int previous, int current, double alpha) {
+        return (int) Math.round(previous + (current - previous) * alpha);
+    }
+    
+    // 敌方坦克随机转向时角度会突变，差值较大时直接用当前角度
+    private static double interpolateAngle(double previous, double current, double alpha) {
+        double delta = current - previous;
+        return Math.abs(delta) > 10 ? current : previous + delta * alpha;
+    }
+
+    /**
+     * 固定步长游戏循环：在独立线程上按固定步长推进模拟，与渲染帧率解耦。
+     * 渲染时把不足一步的剩余时间作为插值系数 alpha 交给 render，
+     * 画面通过 Canvas 的 BufferStrategy（VolatileImage 翻页）主动绘制，不经过 EDT 的 repaint。
+     * 界面线程要修改游戏状态时用 post 提交，在循环线程上、下一次更新之前执行
+     */
+    static final class GameLoop implements Runnable {
+        interface Game {
+            void update();
+
+            void render(Graphics2D g2d, double alpha);
+        }
+
+        private static final long MAX_FRAME_NANOS = 250_000_000L; // 卡顿后最多追赶的时间，避免越追越慢
+        private static final long MIN_FRAME_NANOS = 1_000_000_000L / 240; // 渲染帧率上限
+        private static final Font OVERLAY_FONT = new Font("Monospaced", Font.BOLD, 12);
+        private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 160);
+
+        private final Canvas canvas;
+        private final Game game;
+        private final long stepNanos;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private volatile boolean running;
+        private volatile boolean updating = true; // 暂停时只渲染不更新
+        private volatile boolean overlayVisible = true;
+        private BufferStrategy strategy;
+
+        // 每秒刷新一次的统计，只在循环线程上读写
+        private int framesPerSecond;
+        private int updatesPerSecond;
+        private double updateMillis;
+        private double renderMillis;
+
+        GameLoop(Canvas canvas, int updatesPerSecond, Game game) {
+            this.canvas = canvas;
+            this.game = game;
+            this.stepNanos = 1_000_000_000L / updatesPerSecond;
+        }
+
+        /**
+         * 画布显示后在 EDT 上调用
+         */
+        void start() {
+            if (running) return;
+            canvas.createBufferStrategy(2);
+            strategy = canvas.getBufferStrategy();
+            running = true;
+            Thread thread = new Thread(this, "game-loop");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        void post(Runnable task) {
+            tasks.add(task);
+        }
+
+        void setUpdating(boolean updating) {
+            this.updating = updating;
+        }
+
+        boolean isUpdating() {
+            return updating;
+        }
+
+        void toggleOverlay() {
+            overlayVisible = !overlayVisible;
+        }
+
+        @Override
+        public void run() {
+            long previous = System.nanoTime();
+            long accumulator = 0;
+            long statsStart = previous;
+            int frames = 0;
+            int updates = 0;
+            long updateNanos = 0;
+            long renderNanos = 0;
+
+            while (running) {
+                long frameStart = System.nanoTime();
+                accumulator += Math.min(frameStart - previous, MAX_FRAME_NANOS);
+                previous = frameStart;
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException ex) {
+                        report(ex);
+                    }
+                }
+
+                while (updating && accumulator >= stepNanos) {
+                    long start = System.nanoTime();
+                    try {
+                        game.update();
+                    } catch (RuntimeException ex) {
+                        report(ex);
+                    }
+                    updateNanos += System.nanoTime() - start;
+                    updates++;
+                    accumulator -= stepNanos;
+                }
+                if (!updating) {
+                    accumulator = 0;
+                }
+
+                long renderStart = System.nanoTime();
+                try {
+                    render(accumulator / (double) stepNanos);
+                } catch (RuntimeException ex) {
+                    report(ex);
+                }
+                renderNanos += System.nanoTime() - renderStart;
+                frames++;
+
+                if (renderStart - statsStart >= 1_000_000_000L) {
+                    double seconds = (renderStart - statsStart) / 1e9;
+                    framesPerSecond = (int) Math.round(frames / seconds);
+                    updatesPerSecond = (int) Math.round(updates / seconds);
+                    updateMillis = updates == 0 ? 0 : updateNanos / 1e6 / updates;
+                    renderMillis = renderNanos / 1e6 / frames;
+                    statsStart = renderStart;
+                    frames = 0;
+                    updates = 0;
+                    updateNanos = 0;
+                    renderNanos = 0;
+                }
+
+                long remaining = MIN_FRAME_NANOS - (System.nanoTime() - frameStart);
+                if (remaining > 0) {
+                    LockSupport.parkNanos(remaining);
+                }
+            }
+        }
+
+        // 和原来 Swing Timer 在 EDT 上一样：异常交给线程的处理器记录，循环继续下一帧
+        private static void report(RuntimeException ex) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+        }
+
+        private void render(double alpha) {
+            do {
+                do {
+                    Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        game.render(g2d, alpha);
+                        if (overlayVisible) {
+                            drawOverlay(g2d);
+                        }
+                    } finally {
+                        g2d.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+        }
+
+        private void drawOverlay(Graphics2D g2d) {
+            String text = String.format("FPS %d  UPS %d  更新 %.2f ms  渲染 %.2f ms",
+                framesPerSecond, updatesPerSecond, updateMillis, renderMillis);
+            g2d.setFont(OVERLAY_FONT);
+            FontMetrics metrics = g2d.getFontMetrics();
+            int width = metrics.stringWidth(text) + 12;
+            int x = canvas.getWidth() - width - 6;
+            int y = canvas.getHeight() - metrics.getHeight() - 10;
+            g2d.setColor(OVERLAY_BACKGROUND);
+            g2d.fillRect(x, y, width, metrics.getHeight() + 4);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(text, x + 6, y + metrics.getAscent() + 2);
+        }
+    }
+
     private void setupKeyboardShortcuts() {
         // 添加键盘快捷键支持（除了游戏控制外的功能键）
         this.addKeyListener(new KeyAdapter() {
@@ -592,6 +878,10 @@ class TankBattle extends JFrame {
                         // F1键显示帮助
                         showHelp();
                         break;
+                    case KeyEvent.VK_F3:
+                        // F3键显示/隐藏帧率
+                        gameLoop.toggleOverlay();
+                        break;
                     default:
                         return;
                 }
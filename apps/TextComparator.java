@@ -4,8 +4,34 @@ import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.awt.datatransfer.StringSelection;
 import java.awt.datatransfer.Clipboard;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Highlighter;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.LayeredHighlighter;
+import javax.swing.text.View;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
 
 // 文本管理静态内部类
 static class Texts {
@@ -16,6 +42,8 @@ static class Texts {
     static final String COMPARE_BUTTON = "比较";
     static final String CLEAR_BUTTON = "清空";
     static final String SWAP_BUTTON = "交换";
+    static final String DISK_BUTTON = "文件/目录";
+    static final String CANCEL_BUTTON = "取消比较";
 
     // 面板标题
     static final String TEXT_A_PANEL_TITLE = "文本A";
@@ -26,12 +54,39 @@ static class Texts {
     static final String IGNORE_CASE_CHECKBOX = "忽略大小写";
     static final String IGNORE_WHITESPACE_CHECKBOX = "忽略空白字符";
 
+    // 行内细化
+    static final String REFINE_LABEL = "行内细化:";
+    static final String REFINE_NONE = "无";
+    static final String REFINE_WORD = "单词";
+    static final String REFINE_CHAR = "字符";
+
+    // 结果标签页
+    static final String TAB_UNIFIED = "统一格式";
+    static final String TAB_SIDE_BY_SIDE = "并排对比";
+    static final String TAB_FILES = "文件汇总";
+
+    // 文件与目录比较
+    static final String CHOOSE_PATH_A = "选择文件或目录 A";
+    static final String CHOOSE_PATH_B = "选择文件或目录 B";
+    static final String COLUMN_PATH = "路径";
+    static final String COLUMN_STATUS = "状态";
+    static final String COLUMN_ADDED = "新增";
+    static final String COLUMN_DELETED = "删除";
+    static final String COLUMN_MODIFIED = "修改";
+    static final String STATUS_SCANNING = "正在扫描...";
+    static final String STATUS_DIRECTORY_SUMMARY = "相同 %d，不同 %d，仅在A %d，仅在B %d，用时 %d ms";
+    static final String STATUS_DIRECTORY_CANCELLED = "目录比较已取消";
+    static final String ERROR_PATH_KIND_MISMATCH = "请选择两个文件或两个目录";
+    static final String ERROR_READ_FAILED = "读取失败: %s";
+
     // 状态消息
     static final String STATUS_READY = "就绪";
     static final String STATUS_BOTH_EMPTY = "两个文本都为空";
     static final String STATUS_COMPARISON_COMPLETE = "比较完成";
     static final String STATUS_CLEARED = "已清空";
     static final String STATUS_SWAPPED = "文本已交换";
+    static final String STATUS_COMPARING = "正在比较...";
+    static final String STATUS_DIFF_SUMMARY = "%d 处差异，用时 %d ms";
 
     // 比较结果
     static final String RESULT_HEADER = "=== 文本比较结果 ===";
@@ -246,6 +301,26 @@ class TextComparator extends JFrame {
     private static final Dimension BUTTON_REGULAR = new Dimension(120, 44);
     private static final Dimension BUTTON_LARGE = new Dimension(160, 50);
 
+    // 差异显示
+    private static final int UNIFIED_CONTEXT = 3;
+    private static final String GUTTER = " │ ";
+    private static final int REFINE_NONE = 0;
+    private static final int REFINE_WORD = 1;
+    private static final int TAB_INDEX_UNIFIED = 0;
+    private static final int TAB_INDEX_FILES = 2;
+
+    // 磁盘比较
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final int BINARY_PROBE_BYTES = 8000;
+    private static final long SIDE_BY_SIDE_MAX_BYTES = 4L * 1024 * 1024;
+    private static final Map<EditType, Highlighter.HighlightPainter> LINE_PAINTERS = new EnumMap<>(Map.of(
+        EditType.DELETE, new LinePainter(new Color(255, 59, 48, 40)),
+        EditType.INSERT, new LinePainter(new Color(52, 199, 89, 40)),
+        EditType.CHANGE, new LinePainter(new Color(255, 204, 0, 50))
+    ));
+    private static final Highlighter.HighlightPainter INLINE_DELETE_PAINTER = new DefaultHighlighter.DefaultHighlightPainter(new Color(255, 59, 48, 90));
+    private static final Highlighter.HighlightPainter INLINE_INSERT_PAINTER = new DefaultHighlighter.DefaultHighlightPainter(new Color(52, 199, 89, 110));
+
     // ===== 应用组件 =====
     private final JTextArea leftArea;
     private final JTextArea rightArea;
@@ -253,9 +328,19 @@ class TextComparator extends JFrame {
     private final JButton compareButton;
     private final JButton clearButton;
     private final JButton swapButton;
+    private final JButton diskButton;
     private final JLabel statusLabel;
     private final JCheckBox ignoreCaseBox;
     private final JCheckBox ignoreWhitespaceBox;
+    private final JComboBox<String> refineBox;
+    private final JTextArea sideLeftArea;
+    private final JTextArea sideRightArea;
+    private final JTabbedPane resultTabs;
+    private final DefaultTableModel fileSummaryModel;
+    private final JTable fileSummaryTable;
+    private Path diskRootA;
+    private Path diskRootB;
+    private DirectoryCompareWorker directoryWorker;
     
     public TextComparator() {
         setTitle(Texts.WINDOW_TITLE);
@@ -268,9 +353,27 @@ class TextComparator extends JFrame {
         compareButton = this.createPrimaryButton(Texts.COMPARE_BUTTON, this::compareTexts);
         clearButton = this.createSecondaryButton(Texts.CLEAR_BUTTON, this::clearAll);
         swapButton = this.createSecondaryButton(Texts.SWAP_BUTTON, this::swapTexts);
+        diskButton = this.createSecondaryButton(Texts.DISK_BUTTON, this::compareFromDisk);
         statusLabel = new JLabel(Texts.STATUS_READY);
         ignoreCaseBox = new JCheckBox(Texts.IGNORE_CASE_CHECKBOX);
         ignoreWhitespaceBox = new JCheckBox(Texts.IGNORE_WHITESPACE_CHECKBOX);
+        refineBox = new JComboBox<>(new String[] {Texts.REFINE_NONE, Texts.REFINE_WORD, Texts.REFINE_CHAR});
+        sideLeftArea = new JTextArea();
+        sideRightArea = new JTextArea();
+        resultTabs = new JTabbedPane();
+        fileSummaryModel = new DefaultTableModel(new Object[] {Texts.COLUMN_PATH, Texts.COLUMN_STATUS,
+                Texts.COLUMN_ADDED, Texts.COLUMN_DELETED, Texts.COLUMN_MODIFIED}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column >= 2 ? Integer.class : Object.class;
+            }
+        };
+        fileSummaryTable = new JTable(fileSummaryModel);
 
         initializeGUI();
         setupEventHandlers();
@@ -300,14 +403,24 @@ class TextComparator extends JFrame {
         ignoreWhitespaceBox.setBackground(SYSTEM_BACKGROUND);
         ignoreWhitespaceBox.setForeground(LABEL);
 
+        var refineLabel = new JLabel(Texts.REFINE_LABEL);
+        refineLabel.setFont(BODY);
+        refineLabel.setForeground(LABEL);
+        refineBox.setFont(BODY);
+        refineBox.setSelectedIndex(REFINE_WORD);
+
         controlPanel.add(ignoreCaseBox);
         controlPanel.add(ignoreWhitespaceBox);
+        controlPanel.add(refineLabel);
+        controlPanel.add(refineBox);
         controlPanel.add(new JSeparator(SwingConstants.VERTICAL));
         controlPanel.add(compareButton);
         controlPanel.add(Box.createHorizontalStrut(SPACING_12));
         controlPanel.add(swapButton);
         controlPanel.add(Box.createHorizontalStrut(SPACING_8));
         controlPanel.add(clearButton);
+        controlPanel.add(Box.createHorizontalStrut(SPACING_8));
+        controlPanel.add(diskButton);
 
         add(controlPanel, BorderLayout.NORTH);
 
@@ -373,7 +486,38 @@ class TextComparator extends JFrame {
         var resultScrollPane = new JScrollPane(resultArea);
         resultScrollPane.setBorder(BorderFactory.createEmptyBorder());
         resultScrollPane.getViewport().setBackground(GRAY6);
-        resultPanel.add(resultScrollPane, BorderLayout.CENTER);
+
+        // 并排视图：两侧共享垂直滚动条
+        var sideLeftScroll = this.createSideScrollPane(sideLeftArea);
+        var sideRightScroll = this.createSideScrollPane(sideRightArea);
+        sideRightScroll.getVerticalScrollBar().setModel(sideLeftScroll.getVerticalScrollBar().getModel());
+        var sidePanel = new JPanel(new GridLayout(1, 2, SPACING_8, 0));
+        sidePanel.setBackground(SECONDARY_SYSTEM_BACKGROUND);
+        sidePanel.add(sideLeftScroll);
+        sidePanel.add(sideRightScroll);
+
+        // 文件汇总：双击一行查看该文件的差异
+        fileSummaryTable.setFont(MONO);
+        fileSummaryTable.setRowHeight(22);
+        fileSummaryTable.setAutoCreateRowSorter(true);
+        fileSummaryTable.getColumnModel().getColumn(0).setPreferredWidth(420);
+        fileSummaryTable.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent ev) {
+                if (ev.getClickCount() == 2) {
+                    openSelectedFileDiff();
+                }
+            }
+        });
+        var fileSummaryScroll = new JScrollPane(fileSummaryTable);
+        fileSummaryScroll.setBorder(new RoundedBorder(RADIUS_8));
+        fileSummaryScroll.getViewport().setBackground(WHITE);
+
+        resultTabs.setFont(FOOTNOTE);
+        resultTabs.addTab(Texts.TAB_UNIFIED, resultScrollPane);
+        resultTabs.addTab(Texts.TAB_SIDE_BY_SIDE, sidePanel);
+        resultTabs.addTab(Texts.TAB_FILES, fileSummaryScroll);
+        resultPanel.add(resultTabs, BorderLayout.CENTER);
 
         mainPanel.add(inputPanel, BorderLayout.NORTH);
         mainPanel.add(resultPanel, BorderLayout.CENTER);
@@ -395,6 +539,18 @@ class TextComparator extends JFrame {
         add(statusPanel, BorderLayout.SOUTH);
     }
     
+    private JScrollPane createSideScrollPane(JTextArea area) {
+        area.setFont(MONO);
+        area.setEditable(false);
+        area.setLineWrap(false);
+        area.setBackground(WHITE);
+        area.setForeground(LABEL);
+        var scrollPane = new JScrollPane(area);
+        scrollPane.setBorder(new RoundedBorder(RADIUS_8));
+        scrollPane.getViewport().setBackground(WHITE);
+        return scrollPane;
+    }
+
     private void setupEventHandlers() {
         compareButton.addActionListener(this::compareTexts);
         clearButton.addActionListener(this::clearAll);
@@ -548,6 +704,10 @@ class TextComparator extends JFrame {
                         // F5键重新比较
                         compareTexts(new ActionEvent(TextComparator.this, ActionEvent.ACTION_PERFORMED, "compare"));
                         break;
+                    case KeyEvent.VK_ESCAPE:
+                        // Esc键取消目录比较
+                        cancelDirectoryCompare();
+                        break;
                     default:
                         return;
                 }
@@ -573,111 +733,870 @@ class TextComparator extends JFrame {
             resultArea.setText(Texts.STATUS_BOTH_EMPTY + "，无需比较。");
             return;
         }
-        
-        // 预处理文本
-        var processedA = preprocessText(textA);
-        var processedB = preprocessText(textB);
-        
-        // 按行分割
-        var linesA = processedA.split("\n");
-        var linesB = processedB.split("\n");
-        
+
+        var options = this.currentOptions();
+
+        compareButton.setEnabled(false);
+        statusLabel.setText(Texts.STATUS_COMPARING);
+
+        // 比较在后台线程进行，大文本不会阻塞界面
+        new SwingWorker<DiffResult, Void>() {
+            private final long startNanos = System.nanoTime();
+
+            @Override
+            protected DiffResult doInBackground() {
+                var linesA = textA.lines().toList();
+                var linesB = textB.lines().toList();
+                return buildDiffResult(linesA, linesB, Texts.TEXT_A_PANEL_TITLE, Texts.TEXT_B_PANEL_TITLE, options, true);
+            }
+
+            @Override
+            protected void done() {
+                compareButton.setEnabled(true);
+                try {
+                    var result = get();
+                    showDiffResult(result, textA.length(), textB.length());
+                    var millis = (System.nanoTime() - startNanos) / 1_000_000;
+                    statusLabel.setText(String.format(Texts.STATUS_DIFF_SUMMARY, result.changedLines(), millis));
+                } catch (Exception ex) {
+                    statusLabel.setText(ex.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void showDiffResult(DiffResult diff, int charsA, int charsB) {
         var result = new StringBuilder();
         result.append(Texts.RESULT_HEADER).append("\n\n");
 
         // 基本统计
-        result.append(String.format(Texts.STATUS_LINES_CHARS, "文本A", linesA.length, textA.length())).append("\n");
-        result.append(String.format(Texts.STATUS_LINES_CHARS, "文本B", linesB.length, textB.length())).append("\n\n");
+        result.append(String.format(Texts.STATUS_LINES_CHARS, Texts.TEXT_A_PANEL_TITLE, diff.linesA(), charsA)).append("\n");
+        result.append(String.format(Texts.STATUS_LINES_CHARS, Texts.TEXT_B_PANEL_TITLE, diff.linesB(), charsB)).append("\n\n");
 
-        // 简单的行比较
-        var maxLines = Math.max(linesA.length, linesB.length);
-        var differences = 0;
-        var additions = 0;
-        var deletions = 0;
+        if (diff.changedLines() == 0) {
+            result.append(Texts.RESULT_IDENTICAL).append("\n");
+        } else {
+            result.append(diff.unified()).append("\n");
+            result.append("=== ").append(Texts.RESULT_STATISTICS).append(" ===\n");
+            result.append(String.format(Texts.STATS_MODIFIED_LINES, diff.modified())).append("\n");
+            result.append(String.format(Texts.STATS_ADDED_LINES, diff.added())).append("\n");
+            result.append(String.format(Texts.STATS_DELETED_LINES, diff.deleted())).append("\n");
+            result.append(String.format(Texts.STATS_TOTAL_CHANGES, diff.changedLines())).append("\n");
+        }
+        result.append(String.format(Texts.STATS_SIMILARITY_PERCENTAGE, diff.similarity() * 100)).append("\n");
 
-        result.append("=== ").append(Texts.RESULT_LINE_BY_LINE_COMPARISON).append(" ===\n");
-        
-        for (int i = 0; i < maxLines; i++) {
-            var lineA = i < linesA.length ? linesA[i] : null;
-            var lineB = i < linesB.length ? linesB[i] : null;
-            
-            if (lineA == null) {
-                // B中有新增行
-                result.append(String.format(Texts.STATUS_ADDED_LINE,
-                    String.format(Texts.STATUS_LINE_NUMBER, i + 1), lineB)).append("\n");
-                additions++;
-            } else if (lineB == null) {
-                // A中有删除行
-                result.append(String.format(Texts.STATUS_DELETED_LINE,
-                    String.format(Texts.STATUS_LINE_NUMBER, i + 1), lineA)).append("\n");
-                deletions++;
-            } else if (!lineA.equals(lineB)) {
-                // 行内容不同
-                result.append(String.format(Texts.STATUS_MODIFIED_LINE,
-                    String.format(Texts.STATUS_LINE_NUMBER, i + 1), lineA, lineB)).append("\n");
-                differences++;
+        resultArea.setText(result.toString());
+        resultArea.setCaretPosition(0);
+
+        // 并排视图
+        sideLeftArea.setText(diff.leftText());
+        sideRightArea.setText(diff.rightText());
+        this.applyHighlights(sideLeftArea, diff.leftSpans());
+        this.applyHighlights(sideRightArea, diff.rightSpans());
+        sideLeftArea.setCaretPosition(0);
+        sideRightArea.setCaretPosition(0);
+    }
+
+    private void applyHighlights(JTextArea area, List<Span> spans) {
+        var highlighter = area.getHighlighter();
+        highlighter.removeAllHighlights();
+        try {
+            for (var span : spans) {
+                var painter = span.inline()
+                    ? (span.type() == EditType.INSERT ? INLINE_INSERT_PAINTER : INLINE_DELETE_PAINTER)
+                    : LINE_PAINTERS.get(span.type());
+                highlighter.addHighlight(span.start(), span.end(), painter);
             }
+        } catch (BadLocationException ex) {
+            statusLabel.setText(ex.getMessage());
         }
-        
-        if (differences == 0 && additions == 0 && deletions == 0) {
-            result.append(Texts.RESULT_IDENTICAL).append("\n");
+    }
+
+    /**
+     * 计算完整的比较结果：行级 Myers 差异、统一格式文本、并排视图及其高亮区间
+     */
+    static DiffResult buildDiffResult(List<String> linesA, List<String> linesB, String labelA, String labelB,
+            DiffOptions options, boolean sideBySide) {
+        var ignoreCase = options.ignoreCase();
+        var refinement = options.refinement();
+        var edits = diffLines(linesA, linesB, options);
+        var counts = countChanges(edits);
+        var total = linesA.size() + linesB.size();
+        var similarity = total == 0 ? 1.0 : 2.0 * counts.equal() / total;
+
+        var unified = unifiedDiff(edits, linesA, linesB, labelA, labelB, UNIFIED_CONTEXT);
+        if (!sideBySide) {
+            return new DiffResult(unified, "", "", List.of(), List.of(), linesA.size(), linesB.size(),
+                counts.modified(), counts.added(), counts.deleted(), similarity);
+        }
+
+        // 并排视图：变更块两侧按行对齐，较短一侧补空行
+        var width = Math.max(3, String.valueOf(Math.max(linesA.size(), linesB.size())).length());
+        var left = new StringBuilder();
+        var right = new StringBuilder();
+        var leftSpans = new ArrayList<Span>();
+        var rightSpans = new ArrayList<Span>();
+        for (var edit : edits) {
+            var lenA = edit.aEnd() - edit.aStart();
+            var lenB = edit.bEnd() - edit.bStart();
+            var rows = Math.max(lenA, lenB);
+            for (int r = 0; r < rows; r++) {
+                var hasA = r < lenA;
+                var hasB = r < lenB;
+                var lineA = hasA ? linesA.get(edit.aStart() + r) : "";
+                var lineB = hasB ? linesB.get(edit.bStart() + r) : "";
+                var leftStart = left.length();
+                var rightStart = right.length();
+                appendRow(left, hasA ? edit.aStart() + r + 1 : 0, width, lineA);
+                appendRow(right, hasB ? edit.bStart() + r + 1 : 0, width, lineB);
+                if (edit.type() == EditType.EQUAL) continue;
+
+                var rowType = hasA && hasB ? EditType.CHANGE : hasA ? EditType.DELETE : EditType.INSERT;
+                leftSpans.add(new Span(leftStart, leftStart + 1, rowType, false));
+                rightSpans.add(new Span(rightStart, rightStart + 1, rowType, false));
+
+                if (rowType == EditType.CHANGE && refinement != REFINE_NONE) {
+                    var textOffsetA = leftStart + width + GUTTER.length();
+                    var textOffsetB = rightStart + width + GUTTER.length();
+                    refineLine(lineA, lineB, refinement == REFINE_WORD, ignoreCase, (inA, start, end) -> {
+                        if (inA) {
+                            leftSpans.add(new Span(textOffsetA + start, textOffsetA + end, EditType.DELETE, true));
+                        } else {
+                            rightSpans.add(new Span(textOffsetB + start, textOffsetB + end, EditType.INSERT, true));
+                        }
+                    });
+                }
+            }
+        }
+
+        return new DiffResult(unified, left.toString(), right.toString(), leftSpans, rightSpans,
+            linesA.size(), linesB.size(), counts.modified(), counts.added(), counts.deleted(), similarity);
+    }
+
+    // 行内容按比较选项归一化后映射为整数编号，再做行级差异
+    static List<Edit> diffLines(List<String> linesA, List<String> linesB, DiffOptions options) {
+        var keysA = new int[linesA.size()];
+        var keysB = new int[linesB.size()];
+        var ids = new HashMap<String, Integer>();
+        for (int i = 0; i < keysA.length; i++) {
+            keysA[i] = ids.computeIfAbsent(lineKey(linesA.get(i), options), (key) -> ids.size());
+        }
+        for (int i = 0; i < keysB.length; i++) {
+            keysB[i] = ids.computeIfAbsent(lineKey(linesB.get(i), options), (key) -> ids.size());
+        }
+        return MyersDiff.diff(keysA, keysB);
+    }
+
+    // 修改行按变更块内两侧配对的行数计，多出的部分计为新增或删除
+    static ChangeCounts countChanges(List<Edit> edits) {
+        var modified = 0;
+        var added = 0;
+        var deleted = 0;
+        var equal = 0;
+        for (var edit : edits) {
+            var lenA = edit.aEnd() - edit.aStart();
+            var lenB = edit.bEnd() - edit.bStart();
+            switch (edit.type()) {
+                case EQUAL -> equal += lenA;
+                case DELETE -> deleted += lenA;
+                case INSERT -> added += lenB;
+                case CHANGE -> {
+                    var paired = Math.min(lenA, lenB);
+                    modified += paired;
+                    deleted += lenA - paired;
+                    added += lenB - paired;
+                }
+            }
+        }
+        return new ChangeCounts(modified, added, deleted, equal);
+    }
+
+    private static String lineKey(String line, DiffOptions options) {
+        var key = line;
+        if (options.ignoreWhitespace()) {
+            key = key.strip().replaceAll("\\s+", " ");
+        }
+        if (options.ignoreCase()) {
+            key = key.toLowerCase();
+        }
+        return key;
+    }
+
+    private static void appendRow(StringBuilder sb, int lineNumber, int width, String text) {
+        var number = lineNumber > 0 ? String.valueOf(lineNumber) : "";
+        for (int i = number.length(); i < width; i++) {
+            sb.append(' ');
+        }
+        sb.append(number).append(GUTTER).append(text).append('\n');
+    }
+
+    // 统一格式：每个变更块保留前后 context 行上下文，相邻块合并为一个 hunk
+    static String unifiedDiff(List<Edit> edits, List<String> linesA, List<String> linesB,
+            String labelA, String labelB, int context) {
+        var out = new StringBuilder();
+        out.append("--- ").append(labelA).append('\n');
+        out.append("+++ ").append(labelB).append('\n');
+
+        var i = 0;
+        while (i < edits.size()) {
+            if (edits.get(i).type() == EditType.EQUAL) {
+                i++;
+                continue;
+            }
+
+            // 找到本 hunk 的最后一个变更块
+            var last = i;
+            while (last + 2 < edits.size()) {
+                var gap = edits.get(last + 1);
+                if (gap.aEnd() - gap.aStart() > 2 * context) break;
+                last += 2;
+            }
+
+            var first = edits.get(i);
+            var end = edits.get(last);
+            var aStart = Math.max(0, first.aStart() - context);
+            var bStart = Math.max(0, first.bStart() - context);
+            var aEnd = Math.min(linesA.size(), end.aEnd() + context);
+            var bEnd = Math.min(linesB.size(), end.bEnd() + context);
+
+            out.append("@@ -").append(aStart + 1).append(',').append(aEnd - aStart)
+                .append(" +").append(bStart + 1).append(',').append(bEnd - bStart).append(" @@\n");
+
+            for (int k = aStart; k < first.aStart(); k++) {
+                out.append(' ').append(linesA.get(k)).append('\n');
+            }
+            for (int e = i; e <= last; e++) {
+                var edit = edits.get(e);
+                if (edit.type() == EditType.EQUAL) {
+                    for (int k = edit.aStart(); k < edit.aEnd(); k++) {
+                        out.append(' ').append(linesA.get(k)).append('\n');
+                    }
+                    continue;
+                }
+                for (int k = edit.aStart(); k < edit.aEnd(); k++) {
+                    out.append('-').append(linesA.get(k)).append('\n');
+                }
+                for (int k = edit.bStart(); k < edit.bEnd(); k++) {
+                    out.append('+').append(linesB.get(k)).append('\n');
+                }
+            }
+            for (int k = end.aEnd(); k < aEnd; k++) {
+                out.append(' ').append(linesA.get(k)).append('\n');
+            }
+
+            i = last + 1;
+        }
+        return out.toString();
+    }
+
+    interface RangeConsumer {
+        void accept(boolean inA, int start, int end);
+    }
+
+    /**
+     * 对一对修改行做单词级或字符级的二次比较，输出两侧变化的字符区间
+     */
+    static void refineLine(String lineA, String lineB, boolean byWord, boolean ignoreCase, RangeConsumer consumer) {
+        var boundsA = byWord ? wordBounds(lineA) : charBounds(lineA);
+        var boundsB = byWord ? wordBounds(lineB) : charBounds(lineB);
+        var ids = new HashMap<String, Integer>();
+        var tokensA = tokenIds(lineA, boundsA, ignoreCase, ids);
+        var tokensB = tokenIds(lineB, boundsB, ignoreCase, ids);
+
+        for (var edit : MyersDiff.diff(tokensA, tokensB)) {
+            if (edit.type() == EditType.EQUAL) continue;
+            if (edit.aEnd() > edit.aStart()) {
+                consumer.accept(true, boundsA[edit.aStart()], boundsA[edit.aEnd()]);
+            }
+            if (edit.bEnd() > edit.bStart()) {
+                consumer.accept(false, boundsB[edit.bStart()], boundsB[edit.bEnd()]);
+            }
+        }
+    }
+
+    // 词元边界：连续字母数字、连续空白或单个符号各为一个词元
+    private static int[] wordBounds(String line) {
+        var bounds = new ArrayList<Integer>();
+        bounds.add(0);
+        var i = 0;
+        while (i < line.length()) {
+            var c = line.charAt(i);
+            var j = i + 1;
+            if (Character.isLetterOrDigit(c)) {
+                while (j < line.length() && Character.isLetterOrDigit(line.charAt(j))) j++;
+            } else if (Character.isWhitespace(c)) {
+                while (j < line.length() && Character.isWhitespace(line.charAt(j))) j++;
+            }
+            bounds.add(j);
+            i = j;
+        }
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] charBounds(String line) {
+        var bounds = new int[line.length() + 1];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = i;
+        }
+        return bounds;
+    }
+
+    private static int[] tokenIds(String line, int[] bounds, boolean ignoreCase, Map<String, Integer> ids) {
+        var tokens = new int[bounds.length - 1];
+        for (int i = 0; i < tokens.length; i++) {
+            var token = line.substring(bounds[i], bounds[i + 1]);
+            if (ignoreCase) {
+                token = token.toLowerCase();
+            }
+            tokens[i] = ids.computeIfAbsent(token, (key) -> ids.size());
+        }
+        return tokens;
+    }
+
+    enum EditType { EQUAL, DELETE, INSERT, CHANGE }
+
+    // 编辑块：A 的 [aStart, aEnd) 对应 B 的 [bStart, bEnd)
+    record Edit(EditType type, int aStart, int aEnd, int bStart, int bEnd) {}
+
+    // 高亮区间：inline 为行内细化区间，否则为整行背景
+    record Span(int start, int end, EditType type, boolean inline) {}
+
+    record DiffOptions(boolean ignoreCase, boolean ignoreWhitespace, int refinement) {}
+
+    record ChangeCounts(int modified, int added, int deleted, int equal) {}
+
+    record DiffResult(String unified, String leftText, String rightText, List<Span> leftSpans, List<Span> rightSpans,
+            int linesA, int linesB, int modified, int added, int deleted, double similarity) {
+        int changedLines() {
+            return modified + added + deleted;
+        }
+    }
+
+    /**
+     * Myers O(ND) 差异算法（线性空间的中间蛇分治版本）
+     * 输入为行或词元的整数编号。只在一侧出现的元素必然是删除或插入，先剔除；
+     * 再去掉公共前后缀，递归寻找中间蛇。编辑距离超过代价上限时取最远点作为分割点，
+     * 保证大文件比较时间有界
+     */
+    static final class MyersDiff {
+        private static final int COST_LIMIT = 4096;
+
+        private final int[] a;
+        private final int[] b;
+        private final boolean[] deleted;
+        private final boolean[] inserted;
+
+        private MyersDiff(int[] a, int[] b) {
+            this.a = a;
+            this.b = b;
+            this.deleted = new boolean[a.length];
+            this.inserted = new boolean[b.length];
+        }
+
+        static List<Edit> diff(int[] a, int[] b) {
+            var maxId = 0;
+            for (var id : a) maxId = Math.max(maxId, id);
+            for (var id : b) maxId = Math.max(maxId, id);
+            var inA = new boolean[maxId + 1];
+            var inB = new boolean[maxId + 1];
+            for (var id : a) inA[id] = true;
+            for (var id : b) inB[id] = true;
+
+            var keptA = keptIndexes(a, inB);
+            var keptB = keptIndexes(b, inA);
+            var engine = new MyersDiff(select(a, keptA), select(b, keptB));
+            engine.compare(0, keptA.length, 0, keptB.length);
+
+            // 映射回原始下标，被剔除的元素一律标记为变化
+            var deleted = new boolean[a.length];
+            var inserted = new boolean[b.length];
+            Arrays.fill(deleted, true);
+            Arrays.fill(inserted, true);
+            for (int i = 0; i < keptA.length; i++) {
+                deleted[keptA[i]] = engine.deleted[i];
+            }
+            for (int i = 0; i < keptB.length; i++) {
+                inserted[keptB[i]] = engine.inserted[i];
+            }
+            return edits(deleted, inserted);
+        }
+
+        private static int[] keptIndexes(int[] values, boolean[] present) {
+            var count = 0;
+            for (var value : values) {
+                if (present[value]) count++;
+            }
+            var kept = new int[count];
+            var k = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (present[values[i]]) kept[k++] = i;
+            }
+            return kept;
+        }
+
+        private static int[] select(int[] values, int[] indexes) {
+            var result = new int[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                result[i] = values[indexes[i]];
+            }
+            return result;
+        }
+
+        private void compare(int aStart, int aEnd, int bStart, int bEnd) {
+            while (aStart < aEnd && bStart < bEnd && a[aStart] == b[bStart]) {
+                aStart++;
+                bStart++;
+            }
+            while (aEnd > aStart && bEnd > bStart && a[aEnd - 1] == b[bEnd - 1]) {
+                aEnd--;
+                bEnd--;
+            }
+
+            if (aStart == aEnd) {
+                Arrays.fill(inserted, bStart, bEnd, true);
+                return;
+            }
+            if (bStart == bEnd) {
+                Arrays.fill(deleted, aStart, aEnd, true);
+                return;
+            }
+
+            var split = this.middleSnake(aStart, aEnd, bStart, bEnd);
+            if (split == null) {
+                Arrays.fill(deleted, aStart, aEnd, true);
+                Arrays.fill(inserted, bStart, bEnd, true);
+                return;
+            }
+            this.compare(aStart, split[0], bStart, split[1]);
+            this.compare(split[0], aEnd, split[1], bEnd);
+        }
+
+        // 同时从两端搜索 D-path，返回两者重叠处的分割点
+        private int[] middleSnake(int aStart, int aEnd, int bStart, int bEnd) {
+            var n = aEnd - aStart;
+            var m = bEnd - bStart;
+            var maxD = (n + m + 1) / 2;
+            var vOffset = maxD;
+            var vLength = 2 * maxD + 2;
+            var v1 = new int[vLength];
+            var v2 = new int[vLength];
+            Arrays.fill(v1, -1);
+            Arrays.fill(v2, -1);
+            v1[vOffset + 1] = 0;
+            v2[vOffset + 1] = 0;
+
+            var delta = n - m;
+            var front = delta % 2 != 0;
+            int k1Start = 0, k1End = 0, k2Start = 0, k2End = 0;
+            int bestX = 0, bestY = 0;
+
+            var limit = Math.min(maxD, COST_LIMIT);
+            for (int d = 0; d < limit; d++) {
+                for (int k1 = -d + k1Start; k1 <= d - k1End; k1 += 2) {
+                    var k1Offset = vOffset + k1;
+                    var x1 = (k1 == -d || (k1 != d && v1[k1Offset - 1] < v1[k1Offset + 1]))
+                        ? v1[k1Offset + 1] : v1[k1Offset - 1] + 1;
+                    var y1 = x1 - k1;
+                    while (x1 < n && y1 < m && a[aStart + x1] == b[bStart + y1]) {
+                        x1++;
+                        y1++;
+                    }
+                    v1[k1Offset] = x1;
+                    if (x1 > n) {
+                        k1End += 2;
+                    } else if (y1 > m) {
+                        k1Start += 2;
+                    } else {
+                        if (x1 + y1 > bestX + bestY) {
+                            bestX = x1;
+                            bestY = y1;
+                        }
+                        if (front) {
+                            var k2Offset = vOffset + delta - k1;
+                            if (k2Offset >= 0 && k2Offset < vLength && v2[k2Offset] != -1 && x1 >= n - v2[k2Offset]) {
+                                return this.validSplit(aStart, aEnd, bStart, bEnd, x1, y1);
+                            }
+                        }
+                    }
+                }
+
+                for (int k2 = -d + k2Start; k2 <= d - k2End; k2 += 2) {
+                    var k2Offset = vOffset + k2;
+                    var x2 = (k2 == -d || (k2 != d && v2[k2Offset - 1] < v2[k2Offset + 1]))
+                        ? v2[k2Offset + 1] : v2[k2Offset - 1] + 1;
+                    var y2 = x2 - k2;
+                    while (x2 < n && y2 < m && a[aEnd - x2 - 1] == b[bEnd - y2 - 1]) {
+                        x2++;
+                        y2++;
+                    }
+                    v2[k2Offset] = x2;
+                    if (x2 > n) {
+                        k2End += 2;
+                    } else if (y2 > m) {
+                        k2Start += 2;
+                    } else if (!front) {
+                        var k1Offset = vOffset + delta - k2;
+                        if (k1Offset >= 0 && k1Offset < vLength && v1[k1Offset] != -1) {
+                            var x1 = v1[k1Offset];
+                            var y1 = vOffset + x1 - k1Offset;
+                            if (x1 >= n - x2) {
+                                return this.validSplit(aStart, aEnd, bStart, bEnd, x1, y1);
+                            }
+                        }
+                    }
+                }
+            }
+
+            // 超出代价上限：取前向走得最远的点分割，结果仍是合法差异，只是不保证最短
+            return this.validSplit(aStart, aEnd, bStart, bEnd, bestX, bestY);
+        }
+
+        private int[] validSplit(int aStart, int aEnd, int bStart, int bEnd, int x, int y) {
+            var splitA = aStart + x;
+            var splitB = bStart + y;
+            if ((splitA == aStart && splitB == bStart) || (splitA == aEnd && splitB == bEnd)) {
+                return null;
+            }
+            return new int[] {splitA, splitB};
+        }
+
+        // 把逐行的删除/插入标记合并为连续的编辑块
+        private static List<Edit> edits(boolean[] deleted, boolean[] inserted) {
+            var edits = new ArrayList<Edit>();
+            int i = 0, j = 0;
+            var n = deleted.length;
+            var m = inserted.length;
+            while (i < n || j < m) {
+                var i0 = i;
+                var j0 = j;
+                if ((i < n && deleted[i]) || (j < m && inserted[j])) {
+                    while (i < n && deleted[i]) i++;
+                    while (j < m && inserted[j]) j++;
+                    var type = i > i0 && j > j0 ? EditType.CHANGE : i > i0 ? EditType.DELETE : EditType.INSERT;
+                    edits.add(new Edit(type, i0, i, j0, j));
+                } else {
+                    while (i < n && j < m && !deleted[i] && !inserted[j]) {
+                        i++;
+                        j++;
+                    }
+                    if (i == i0) break;
+                    edits.add(new Edit(EditType.EQUAL, i0, i, j0, j));
+                }
+            }
+            return edits;
+        }
+    }
+
+    /**
+     * 整行背景高亮，铺满文本区宽度
+     */
+    static final class LinePainter extends LayeredHighlighter.LayerPainter {
+        private final Color color;
+
+        LinePainter(Color color) {
+            this.color = color;
+        }
+
+        // 分层绘制只在可见行上调用，高亮数量很多时也不会拖慢重绘
+        @Override
+        public Shape paintLayer(Graphics g, int offs0, int offs1, Shape bounds, JTextComponent c, View view) {
+            try {
+                var rect = c.modelToView2D(offs0).getBounds();
+                g.setColor(color);
+                g.fillRect(0, rect.y, c.getWidth(), rect.height);
+                return rect;
+            } catch (BadLocationException ex) {
+                return null;
+            }
+        }
+
+        @Override
+        public void paint(Graphics g, int p0, int p1, Shape bounds, JTextComponent c) {
+            this.paintLayer(g, p0, p1, bounds, c, null);
+        }
+    }
+
+    private DiffOptions currentOptions() {
+        return new DiffOptions(ignoreCaseBox.isSelected(), ignoreWhitespaceBox.isSelected(), refineBox.getSelectedIndex());
+    }
+
+    // ===== 文件与目录比较 =====
+    private void compareFromDisk(ActionEvent e) {
+        // 目录比较进行中时按钮用作取消
+        if (directoryWorker != null) {
+            this.cancelDirectoryCompare();
+            return;
+        }
+        var pathA = this.choosePath(Texts.CHOOSE_PATH_A);
+        if (pathA == null) return;
+        var pathB = this.choosePath(Texts.CHOOSE_PATH_B);
+        if (pathB == null) return;
+
+        var bothFiles = Files.isRegularFile(pathA) && Files.isRegularFile(pathB);
+        var bothDirectories = Files.isDirectory(pathA) && Files.isDirectory(pathB);
+        if (!bothFiles && !bothDirectories) {
+            JOptionPane.showMessageDialog(this, Texts.ERROR_PATH_KIND_MISMATCH);
+            return;
+        }
+
+        diskRootA = pathA;
+        diskRootB = pathB;
+        fileSummaryModel.setRowCount(0);
+        compareButton.setEnabled(false);
+        diskButton.setEnabled(false);
+        statusLabel.setText(Texts.STATUS_SCANNING);
+
+        if (bothFiles) {
+            this.showFileDiff(pathA, pathB, pathA.getFileName().toString());
+            compareButton.setEnabled(true);
+            diskButton.setEnabled(true);
         } else {
-            result.append("\n=== ").append(Texts.RESULT_STATISTICS).append(" ===\n");
-            result.append(String.format(Texts.STATS_MODIFIED_LINES, differences)).append("\n");
-            result.append(String.format(Texts.STATS_ADDED_LINES, additions)).append("\n");
-            result.append(String.format(Texts.STATS_DELETED_LINES, deletions)).append("\n");
-            result.append(String.format(Texts.STATS_TOTAL_CHANGES, differences + additions + deletions)).append("\n");
+            resultTabs.setSelectedIndex(TAB_INDEX_FILES);
+            directoryWorker = new DirectoryCompareWorker(pathA, pathB, this.currentOptions());
+            diskButton.setText(Texts.CANCEL_BUTTON);
+            diskButton.setEnabled(true);
+            directoryWorker.execute();
         }
+    }
 
-        // 相似度计算
-        var similarity = calculateSimilarity(processedA, processedB);
-        result.append(String.format(Texts.STATS_SIMILARITY_PERCENTAGE, similarity * 100)).append("\n");
+    private void cancelDirectoryCompare() {
+        if (directoryWorker != null) {
+            directoryWorker.cancel(true);
+        }
+    }
 
-        resultArea.setText(result.toString());
-        statusLabel.setText(String.format(Texts.STATUS_DIFFERENCES_COUNT, differences + additions + deletions));
+    private Path choosePath(String title) {
+        var chooser = new JFileChooser();
+        chooser.setDialogTitle(title);
+        chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return null;
+        return chooser.getSelectedFile().toPath();
     }
-    
-    private String preprocessText(String text) {
-        var processed = text;
-        
-        if (ignoreWhitespaceBox.isSelected()) {
-            processed = processed.replaceAll("\\s+", " ").trim();
+
+    // 直接从磁盘读取并比较两个文件，不经过输入文本框；大文件只生成统一格式结果
+    private void showFileDiff(Path fileA, Path fileB, String relativePath) {
+        var options = this.currentOptions();
+        statusLabel.setText(Texts.STATUS_COMPARING);
+
+        new SwingWorker<DiffResult, Void>() {
+            private final long startNanos = System.nanoTime();
+            private long sizeA;
+            private long sizeB;
+
+            @Override
+            protected DiffResult doInBackground() throws IOException {
+                sizeA = Files.size(fileA);
+                sizeB = Files.size(fileB);
+                var pool = new HashMap<String, String>();
+                var linesA = readLines(fileA, pool);
+                var linesB = readLines(fileB, pool);
+                var sideBySide = sizeA + sizeB <= SIDE_BY_SIDE_MAX_BYTES;
+                return buildDiffResult(linesA, linesB, "A/" + relativePath, "B/" + relativePath, options, sideBySide);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    var result = get();
+                    showDiffResult(result, (int) Math.min(Integer.MAX_VALUE, sizeA), (int) Math.min(Integer.MAX_VALUE, sizeB));
+                    resultTabs.setSelectedIndex(TAB_INDEX_UNIFIED);
+                    var millis = (System.nanoTime() - startNanos) / 1_000_000;
+                    statusLabel.setText(String.format(Texts.STATUS_DIFF_SUMMARY, result.changedLines(), millis));
+                } catch (Exception ex) {
+                    statusLabel.setText(String.format(Texts.ERROR_READ_FAILED, ex.getMessage()));
+                }
+            }
+        }.execute();
+    }
+
+    private void openSelectedFileDiff() {
+        var row = fileSummaryTable.getSelectedRow();
+        if (row < 0 || diskRootA == null) return;
+
+        var modelRow = fileSummaryTable.convertRowIndexToModel(row);
+        var relative = (String) fileSummaryModel.getValueAt(modelRow, 0);
+        var status = (FileStatus) fileSummaryModel.getValueAt(modelRow, 1);
+        if (status == FileStatus.MODIFIED || status == FileStatus.SAME) {
+            this.showFileDiff(diskRootA.resolve(relative), diskRootB.resolve(relative), relative);
         }
-        
-        if (ignoreCaseBox.isSelected()) {
-            processed = processed.toLowerCase();
+    }
+
+    /**
+     * 目录比较
+     * 在线程池上并行处理每个文件：大小不同直接进入行比较，大小相同先流式计算哈希跳过相同文件；
+     * 结果随完成顺序逐条发布到汇总表
+     */
+    class DirectoryCompareWorker extends SwingWorker<int[], FileDiff> {
+        private final Path rootA;
+        private final Path rootB;
+        private final DiffOptions options;
+        private final long startNanos = System.nanoTime();
+
+        DirectoryCompareWorker(Path rootA, Path rootB, DiffOptions options) {
+            this.rootA = rootA;
+            this.rootB = rootB;
+            this.options = options;
+        }
+
+        @Override
+        protected int[] doInBackground() throws Exception {
+            var filesA = listFiles(rootA, this::isCancelled);
+            var filesB = listFiles(rootB, this::isCancelled);
+            var all = new TreeSet<String>(filesA);
+            all.addAll(filesB);
+
+            var counts = new int[FileStatus.values().length];
+            var pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            try {
+                var completion = new ExecutorCompletionService<FileDiff>(pool);
+                for (var relative : all) {
+                    if (isCancelled()) break;
+                    var inA = filesA.contains(relative);
+                    var inB = filesB.contains(relative);
+                    completion.submit(() -> {
+                        if (!inB) return new FileDiff(relative, FileStatus.ONLY_A, 0, 0, 0);
+                        if (!inA) return new FileDiff(relative, FileStatus.ONLY_B, 0, 0, 0);
+                        return compareFiles(relative, rootA.resolve(relative), rootB.resolve(relative), options);
+                    });
+                }
+                for (int i = 0; i < all.size() && !isCancelled(); i++) {
+                    var diff = completion.take().get();
+                    counts[diff.status().ordinal()]++;
+                    publish(diff);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            return counts;
+        }
+
+        @Override
+        protected void process(List<FileDiff> diffs) {
+            for (var diff : diffs) {
+                fileSummaryModel.addRow(new Object[] {diff.path(), diff.status(), diff.added(), diff.deleted(), diff.modified()});
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (directoryWorker == this) directoryWorker = null;
+            compareButton.setEnabled(true);
+            diskButton.setText(Texts.DISK_BUTTON);
+            diskButton.setEnabled(true);
+            if (isCancelled()) {
+                statusLabel.setText(Texts.STATUS_DIRECTORY_CANCELLED);
+                return;
+            }
+            try {
+                var counts = get();
+                var millis = (System.nanoTime() - startNanos) / 1_000_000;
+                statusLabel.setText(String.format(Texts.STATUS_DIRECTORY_SUMMARY,
+                    counts[FileStatus.SAME.ordinal()], counts[FileStatus.MODIFIED.ordinal()] + counts[FileStatus.BINARY.ordinal()],
+                    counts[FileStatus.ONLY_A.ordinal()], counts[FileStatus.ONLY_B.ordinal()], millis));
+            } catch (Exception ex) {
+                statusLabel.setText(String.format(Texts.ERROR_READ_FAILED, ex.getMessage()));
+            }
         }
-        
-        return processed;
     }
-    
-    private double calculateSimilarity(String textA, String textB) {
-        if (textA.isEmpty() && textB.isEmpty()) {
-            return 1.0;
+
+    // 目录下所有普通文件的相对路径（统一使用 / 分隔），取消后停止遍历
+    static Set<String> listFiles(Path root, BooleanSupplier cancelled) throws IOException {
+        try (var stream = Files.walk(root)) {
+            var result = new HashSet<String>();
+            for (var it = stream.iterator(); it.hasNext() && !cancelled.getAsBoolean(); ) {
+                var path = it.next();
+                if (Files.isRegularFile(path)) {
+                    result.add(root.relativize(path).toString().replace('\\', '/'));
+                }
+            }
+            return result;
         }
-        
-        if (textA.isEmpty() || textB.isEmpty()) {
-            return 0.0;
+    }
+
+    static FileDiff compareFiles(String relative, Path fileA, Path fileB, DiffOptions options) {
+        try {
+            if (Files.size(fileA) == Files.size(fileB) && Arrays.equals(hashFile(fileA), hashFile(fileB))) {
+                return new FileDiff(relative, FileStatus.SAME, 0, 0, 0);
+            }
+            if (isBinary(fileA) || isBinary(fileB)) {
+                return new FileDiff(relative, FileStatus.BINARY, 0, 0, 0);
+            }
+
+            var pool = new HashMap<String, String>();
+            var counts = countChanges(diffLines(readLines(fileA, pool), readLines(fileB, pool), options));
+            var status = counts.modified() + counts.added() + counts.deleted() == 0 ? FileStatus.SAME : FileStatus.MODIFIED;
+            return new FileDiff(relative, status, counts.added(), counts.deleted(), counts.modified());
+        } catch (IOException ex) {
+            return new FileDiff(relative, FileStatus.ERROR, 0, 0, 0);
         }
-        
-        // 简单的字符级相似度计算
-        var maxLength = Math.max(textA.length(), textB.length());
-        var minLength = Math.min(textA.length(), textB.length());
-        
-        var matches = 0;
-        for (int i = 0; i < minLength; i++) {
-            if (textA.charAt(i) == textB.charAt(i)) {
-                matches++;
+    }
+
+    static byte[] hashFile(Path file) throws IOException {
+        try (var in = Files.newInputStream(file)) {
+            var digest = MessageDigest.getInstance("SHA-256");
+            var buffer = new byte[IO_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
             }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
         }
-        
-        return (double) matches / maxLength;
     }
-    
+
+    // 文件开头出现 NUL 字节视为二进制文件
+    static boolean isBinary(Path file) throws IOException {
+        try (var in = Files.newInputStream(file)) {
+            var head = in.readNBytes(BINARY_PROBE_BYTES);
+            for (var b : head) {
+                if (b == 0) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 逐行流式读取文件，重复的行共享同一个字符串实例（两侧文件共用 pool），
+     * 配置类文件中大量重复行只占用一份内存
+     */
+    static List<String> readLines(Path file, Map<String, String> pool) throws IOException {
+        var decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        try (var reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), decoder), IO_BUFFER_SIZE)) {
+            var lines = new ArrayList<String>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(pool.computeIfAbsent(line, (key) -> key));
+            }
+            return lines;
+        }
+    }
+
+    enum FileStatus {
+        SAME("相同"), MODIFIED("修改"), ONLY_A("仅在A"), ONLY_B("仅在B"), BINARY("二进制不同"), ERROR("读取失败");
+
+        private final String label;
+
+        FileStatus(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    record FileDiff(String path, FileStatus status, int added, int deleted, int modified) {}
+
     private void clearAll(ActionEvent e) {
         leftArea.setText("");
         rightArea.setText("");
         resultArea.setText("");
+        sideLeftArea.setText("");
+        sideRightArea.setText("");
         statusLabel.setText(Texts.STATUS_CLEARED);
     }
 